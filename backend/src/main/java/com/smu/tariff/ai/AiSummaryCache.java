@@ -0,0 +1,178 @@
+package com.smu.tariff.ai;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.smu.tariff.util.LruMap;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Content-addressed cache of generated AI summaries.
+ * Keys are hashes of the normalized prompt inputs (see {@link #keyOf}); entries live in a size-bounded LRU map
+ * with a TTL, optionally backed by the {@code ai_summary_cache} table so they survive restarts. Expired rows are
+ * deleted from that table on a fixed delay by {@link #purgeExpired()}.
+ * Hits and misses are published as {@code ai.summary.cache} counters.
+ */
+@Component
+public class AiSummaryCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(AiSummaryCache.class);
+
+    private final int maxEntries;
+    private final Duration ttl;
+    private final AiSummaryCacheRepository repository; // null when the persistent tier is disabled
+    private final Map<String, CachedSummary> entries;
+
+    private final Counter memoryHits;
+    private final Counter persistentHits;
+    private final Counter misses;
+
+    @Autowired
+    public AiSummaryCache(@Value("${app.ai.summary.cache.max-entries:5000}") int maxEntries,
+                          @Value("${app.ai.summary.cache.ttl-minutes:1440}") long ttlMinutes,
+                          @Value("${app.ai.summary.cache.persistent:false}") boolean persistent,
+                          AiSummaryCacheRepository repository,
+                          MeterRegistry meterRegistry) {
+        this(maxEntries, Duration.ofMinutes(ttlMinutes), persistent ? repository : null, meterRegistry);
+    }
+
+    public AiSummaryCache(int maxEntries, Duration ttl, AiSummaryCacheRepository repository, MeterRegistry meterRegistry) {
+        this.maxEntries = maxEntries;
+        this.ttl = ttl;
+        this.repository = repository;
+        this.entries = new LruMap<>(maxEntries);
+        this.memoryHits = Counter.builder("ai.summary.cache").tag("result", "hit").tag("tier", "memory").register(meterRegistry);
+        this.persistentHits = Counter.builder("ai.summary.cache").tag("result", "hit").tag("tier", "persistent").register(meterRegistry);
+        this.misses = Counter.builder("ai.summary.cache").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("ai.summary.cache.size", this, AiSummaryCache::size).register(meterRegistry);
+    }
+
+    /**
+     * A cache that never stores anything, for callers constructed without Spring.
+     */
+    public static AiSummaryCache disabled() {
+        return new AiSummaryCache(0, Duration.ZERO, null, new SimpleMeterRegistry());
+    }
+
+    /**
+     * Hash a canonical description of the prompt inputs into a fixed-length cache key.
+     */
+    public static String keyOf(String canonicalInputs) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonicalInputs.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    public Optional<String> get(String key) {
+        if (key == null || maxEntries <= 0) {
+            return Optional.empty();
+        }
+        Instant now = Instant.now();
+        synchronized (entries) {
+            CachedSummary cached = entries.get(key);
+            if (cached != null) {
+                if (cached.expiresAt().isAfter(now)) {
+                    memoryHits.increment();
+                    return Optional.of(cached.summary());
+                }
+                entries.remove(key);
+            }
+        }
+
+        Optional<String> stored = loadPersistent(key, now);
+        if (stored.isPresent()) {
+            persistentHits.increment();
+            return stored;
+        }
+        misses.increment();
+        return Optional.empty();
+    }
+
+    public void put(String key, String summary) {
+        if (key == null || summary == null || maxEntries <= 0) {
+            return;
+        }
+        Instant now = Instant.now();
+        remember(key, summary, now);
+        if (repository != null) {
+            try {
+                repository.save(new AiSummaryCacheEntry(key, summary, now));
+            } catch (Exception ex) {
+                logger.warn("Failed to persist AI summary cache entry {}", key, ex);
+            }
+        }
+    }
+
+    /**
+     * Delete persistent entries older than the TTL. Reads already skip them; this keeps the table from growing.
+     *
+     * @return how many rows were deleted
+     */
+    @Scheduled(fixedDelayString = "${app.ai.summary.cache.purge-interval-ms:3600000}",
+               initialDelayString = "${app.ai.summary.cache.purge-initial-delay-ms:300000}")
+    public int purgeExpired() {
+        if (repository == null) {
+            return 0;
+        }
+        try {
+            int purged = repository.deleteCreatedBefore(Instant.now().minus(ttl));
+            if (purged > 0) {
+                logger.info("Purged {} expired AI summary cache entries", purged);
+            }
+            return purged;
+        } catch (Exception ex) {
+            logger.warn("Failed to purge expired AI summary cache entries: {}", ex.getMessage());
+            return 0;
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private Optional<String> loadPersistent(String key, Instant now) {
+        if (repository == null) {
+            return Optional.empty();
+        }
+        try {
+            Optional<AiSummaryCacheEntry> stored = repository.findById(key)
+                    .filter(entry -> entry.getCreatedAt().plus(ttl).isAfter(now));
+            // Promote to memory with the remaining lifetime of the stored row
+            stored.ifPresent(entry -> remember(key, entry.getSummary(), entry.getCreatedAt()));
+            return stored.map(AiSummaryCacheEntry::getSummary);
+        } catch (Exception ex) {
+            logger.warn("Failed to read AI summary cache entry {}", key, ex);
+            return Optional.empty();
+        }
+    }
+
+    private void remember(String key, String summary, Instant createdAt) {
+        synchronized (entries) {
+            entries.put(key, new CachedSummary(summary, createdAt.plus(ttl)));
+        }
+    }
+
+    private record CachedSummary(String summary, Instant expiresAt) { }
+}
@@ -0,0 +1,37 @@
+package com.smu.tariff.ai;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Persistent tier of {@link AiSummaryCache}, so popular summaries survive restarts.
+ */
+@Entity
+@Table(name = "ai_summary_cache")
+public class AiSummaryCacheEntry {
+    @Id
+    @Column(name = "cache_key", length = 64)
+    private String cacheKey;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String summary;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    public AiSummaryCacheEntry() { }
+
+    public AiSummaryCacheEntry(String cacheKey, String summary, Instant createdAt) {
+        this.cacheKey = cacheKey;
+        this.summary = summary;
+        this.createdAt = createdAt;
+    }
+
+    public String getCacheKey() { return cacheKey; }
+    public String getSummary() { return summary; }
+    public Instant getCreatedAt() { return createdAt; }
+}
@@ -0,0 +1,18 @@
+package com.smu.tariff.ai;
+
+import java.time.Instant;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface AiSummaryCacheRepository extends JpaRepository<AiSummaryCacheEntry, String> {
+
+    // One bulk statement; the derived deleteBy would load every expired row first
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM AiSummaryCacheEntry e WHERE e.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") Instant cutoff);
+}
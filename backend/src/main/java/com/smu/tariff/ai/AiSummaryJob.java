@@ -0,0 +1,76 @@
+package com.smu.tariff.ai;
+
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * One AI summary request tracked by {@link AiSummaryService}. Callers hold the id and poll or subscribe for the result.
+ */
+public class AiSummaryJob {
+
+    public static final String UNAVAILABLE = "AI summary unavailable.";
+
+    public enum Status { PENDING, READY, FAILED }
+
+    private final String id;
+    private final Instant createdAt = Instant.now();
+    private final CompletableFuture<String> result = new CompletableFuture<>();
+    private volatile Instant completedAt;
+
+    public AiSummaryJob(String id) {
+        this.id = id;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getCompletedAt() {
+        return completedAt;
+    }
+
+    public Status getStatus() {
+        if (!result.isDone()) {
+            return Status.PENDING;
+        }
+        return result.isCompletedExceptionally() ? Status.FAILED : Status.READY;
+    }
+
+    /**
+     * The summary text, the fallback message if generation failed, or null while still pending.
+     */
+    public String getSummary() {
+        return switch (getStatus()) {
+            case READY -> result.getNow(null);
+            case FAILED -> UNAVAILABLE;
+            case PENDING -> null;
+        };
+    }
+
+    /**
+     * Run {@code callback} once the job finishes; runs immediately if it already has.
+     */
+    public void whenDone(Consumer<AiSummaryJob> callback) {
+        result.whenComplete((summary, ex) -> callback.accept(this));
+    }
+
+    // First outcome wins: a job failed for running past its deadline stays failed if the task finishes later
+    synchronized void complete(String summary) {
+        if (!result.isDone()) {
+            completedAt = Instant.now();
+            result.complete(summary);
+        }
+    }
+
+    synchronized void fail(Throwable cause) {
+        if (!result.isDone()) {
+            completedAt = Instant.now();
+            result.completeExceptionally(cause);
+        }
+    }
+}
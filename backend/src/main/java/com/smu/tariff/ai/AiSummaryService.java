@@ -0,0 +1,216 @@
+package com.smu.tariff.ai;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.smu.tariff.util.BoundedExecutors;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs AI summary generation off the request thread so calculations never wait on the LLM.
+ * Work goes to a bounded pool with a bounded queue; when both are full the job fails fast instead of piling up.
+ * Finished jobs are kept for a retention window so clients can poll or subscribe by id.
+ * Keyed submissions are answered from {@link AiSummaryCache} when possible and populate it on success.
+ *
+ * <p>At most {@code max-tracked-jobs} jobs are held at once; past that, new submissions fail immediately. Jobs
+ * still pending after {@code pending-timeout-seconds} are failed, and {@link #purgeExpired()} sweeps both on a
+ * fixed delay rather than on the submit path.</p>
+ */
+@Service
+public class AiSummaryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AiSummaryService.class);
+
+    static final int DEFAULT_MAX_TRACKED_JOBS = 10_000;
+    static final Duration DEFAULT_PENDING_TIMEOUT = Duration.ofMinutes(2);
+
+    private final Executor executor;
+    private final Duration retention;
+    private final Duration pendingTimeout;
+    private final int maxTrackedJobs;
+    private final AiSummaryCache cache;
+    private final Map<String, AiSummaryJob> jobs = new ConcurrentHashMap<>();
+    // Concurrent misses for one cache key share a single generation, whichever entry point they come through
+    private final SingleFlight<String, String> inFlight = new SingleFlight<>();
+    // Keyed jobs still pending, so a repeat submit follows the first instead of taking a worker just to wait on it
+    private final Map<String, AiSummaryJob> pendingByKey = new ConcurrentHashMap<>();
+
+    // One worker per gemini bulkhead slot: a larger pool would only park threads waiting for a slot and then fail
+    // jobs that the queue could have held
+    @Autowired
+    public AiSummaryService(@Value("${app.http.upstreams.gemini.max-concurrent:4}") int threads,
+                            @Value("${app.ai.summary.queue-capacity:500}") int queueCapacity,
+                            @Value("${app.ai.summary.retention-minutes:15}") long retentionMinutes,
+                            @Value("${app.ai.summary.pending-timeout-seconds:120}") long pendingTimeoutSeconds,
+                            @Value("${app.ai.summary.max-tracked-jobs:" + DEFAULT_MAX_TRACKED_JOBS + "}") int maxTrackedJobs,
+                            AiSummaryCache cache) {
+        this(BoundedExecutors.newBoundedExecutor("ai-summary", threads, queueCapacity), Duration.ofMinutes(retentionMinutes),
+                Duration.ofSeconds(pendingTimeoutSeconds), maxTrackedJobs, cache);
+    }
+
+    public AiSummaryService(Executor executor, Duration retention) {
+        this(executor, retention, AiSummaryCache.disabled());
+    }
+
+    public AiSummaryService(Executor executor, Duration retention, AiSummaryCache cache) {
+        this(executor, retention, DEFAULT_PENDING_TIMEOUT, DEFAULT_MAX_TRACKED_JOBS, cache);
+    }
+
+    public AiSummaryService(Executor executor, Duration retention, Duration pendingTimeout, int maxTrackedJobs,
+                            AiSummaryCache cache) {
+        this.executor = executor;
+        this.retention = retention;
+        this.pendingTimeout = pendingTimeout;
+        this.maxTrackedJobs = maxTrackedJobs;
+        this.cache = cache;
+    }
+
+    /**
+     * Start a summary for {@code cacheKey}. A cached summary yields an already completed job without touching the
+     * executor; it is not tracked, since the caller already holds the summary and has nothing to poll for. While a
+     * job for the same key is pending, the new job follows it rather than generating again.
+     */
+    public AiSummaryJob submit(String cacheKey, Supplier<String> task) {
+        Optional<String> cached = cache.get(cacheKey);
+        if (cached.isPresent()) {
+            AiSummaryJob job = new AiSummaryJob(UUID.randomUUID().toString());
+            job.complete(cached.get());
+            return job;
+        }
+        AiSummaryJob leader = pendingByKey.get(cacheKey);
+        if (leader != null) {
+            return follow(leader);
+        }
+        AiSummaryJob job = submit(() -> load(cacheKey, task));
+        if (job.getStatus() == AiSummaryJob.Status.PENDING && pendingByKey.putIfAbsent(cacheKey, job) == null) {
+            job.whenDone(done -> pendingByKey.remove(cacheKey, done));
+        }
+        return job;
+    }
+
+    /**
+     * Generate a summary on the calling thread, going through the cache. Failures propagate and are not cached.
+     */
+    public String generate(String cacheKey, Supplier<String> task) {
+        Optional<String> cached = cache.get(cacheKey);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        return load(cacheKey, task);
+    }
+
+    public AiSummaryJob submit(Supplier<String> task) {
+        AiSummaryJob job = new AiSummaryJob(UUID.randomUUID().toString());
+        if (!track(job)) {
+            return job;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    job.complete(task.get());
+                } catch (Exception ex) {
+                    logger.warn("Failed to generate AI summary {}", job.getId(), ex);
+                    job.fail(ex);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            logger.warn("AI summary queue is full, rejecting summary {}", job.getId());
+            job.fail(ex);
+        }
+        return job;
+    }
+
+    private String load(String cacheKey, Supplier<String> task) {
+        return inFlight.execute(cacheKey, () -> {
+            String summary = task.get();
+            cache.put(cacheKey, summary);
+            return summary;
+        });
+    }
+
+    private AiSummaryJob follow(AiSummaryJob leader) {
+        AiSummaryJob job = new AiSummaryJob(UUID.randomUUID().toString());
+        if (!track(job)) {
+            return job;
+        }
+        leader.whenDone(done -> {
+            if (done.getStatus() == AiSummaryJob.Status.READY) {
+                job.complete(done.getSummary());
+            } else {
+                job.fail(new IllegalStateException("AI summary " + done.getId() + " failed"));
+            }
+        });
+        return job;
+    }
+
+    private boolean track(AiSummaryJob job) {
+        if (jobs.size() >= maxTrackedJobs) {
+            logger.warn("Tracking {} AI summaries already, rejecting summary {}", maxTrackedJobs, job.getId());
+            job.fail(new RejectedExecutionException("Too many AI summaries in flight"));
+            return false;
+        }
+        jobs.put(job.getId(), job);
+        return true;
+    }
+
+    public Optional<AiSummaryJob> find(String id) {
+        AiSummaryJob job = jobs.get(id);
+        if (job != null && isExpired(job, Instant.now())) {
+            jobs.remove(id);
+            return Optional.empty();
+        }
+        return Optional.ofNullable(job);
+    }
+
+    public int trackedJobs() {
+        return jobs.size();
+    }
+
+    /**
+     * Fail jobs that have been pending past their deadline and forget jobs whose retention has passed.
+     */
+    @Scheduled(fixedDelayString = "${app.ai.summary.purge-interval-ms:30000}",
+               initialDelayString = "${app.ai.summary.purge-interval-ms:30000}")
+    public void purgeExpired() {
+        Instant now = Instant.now();
+        int timedOut = 0;
+        for (AiSummaryJob job : jobs.values()) {
+            if (job.getCompletedAt() == null && job.getCreatedAt().plus(pendingTimeout).isBefore(now)) {
+                job.fail(new TimeoutException("AI summary still pending after " + pendingTimeout));
+                timedOut++;
+            }
+        }
+        if (timedOut > 0) {
+            logger.warn("Failed {} AI summaries pending longer than {}", timedOut, pendingTimeout);
+        }
+        jobs.values().removeIf(job -> isExpired(job, now));
+    }
+
+    private boolean isExpired(AiSummaryJob job, Instant now) {
+        Instant completedAt = job.getCompletedAt();
+        return completedAt != null && completedAt.plus(retention).isBefore(now);
+    }
+    @PreDestroy
+    void shutdown() {
+        if (executor instanceof ExecutorService service) {
+            service.shutdownNow();
+        }
+    }
+}
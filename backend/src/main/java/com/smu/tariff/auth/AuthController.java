@@ -1,10 +1,7 @@
 package com.smu.tariff.auth;
 
-import com.smu.tariff.security.JwtService;
-import com.smu.tariff.user.Role;
-import com.smu.tariff.user.User;
-import com.smu.tariff.user.UserRepository;
-import jakarta.validation.Valid;
+import java.util.concurrent.CompletableFuture;
+
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -24,6 +21,11 @@ import com.smu.tariff.user.UserRepository;
 
 import jakarta.validation.Valid;
 
+/**
+ * Login and registration. Both spend most of their time in BCrypt, so that part runs on
+ * {@link PasswordHashingService} and the request thread is released until the hash is done; a saturated hashing
+ * pool answers 429 straight away.
+ */
 @RestController
 @RequestMapping("/api/auth")
 public class AuthController {
@@ -32,50 +34,61 @@ public class AuthController {
     private final JwtService jwtService;
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashing;
 
     public AuthController(AuthenticationManager authenticationManager,
                           JwtService jwtService,
                           UserRepository userRepository,
-                          PasswordEncoder passwordEncoder) {
+                          PasswordEncoder passwordEncoder,
+                          PasswordHashingService passwordHashing) {
         this.authenticationManager = authenticationManager;
         this.jwtService = jwtService;
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.passwordHashing = passwordHashing;
     }
 
+    /**
+     * Verifies the password on the hashing pool. A hash made with a lower cost factor than configured is
+     * upgraded there as well, see {@code SecurityConfig#authenticationProvider}.
+     */
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@Valid @RequestBody AuthRequest request) {
-        Authentication auth = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(request.username, request.password));
-        User user = (User) auth.getPrincipal();
-        String token = jwtService.generateToken(user);
-        return ResponseEntity.ok(new AuthResponse(token, user.getUsername(), user.getRole().name()));
+    public CompletableFuture<ResponseEntity<AuthResponse>> login(@Valid @RequestBody AuthRequest request) {
+        return passwordHashing.submit("login", () -> {
+            Authentication auth = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(request.username, request.password));
+            User user = (User) auth.getPrincipal();
+            String token = jwtService.generateToken(user);
+            return ResponseEntity.ok(new AuthResponse(token, user.getUsername(), user.getRole().name()));
+        });
     }
 
     @PostMapping("/register")
-    public ResponseEntity<?> register(@Valid @RequestBody RegisterRequest request) {
+    public CompletableFuture<ResponseEntity<?>> register(@Valid @RequestBody RegisterRequest request) {
         // Bean Validation already checked blank or invalid fields
         String normalizedUsername = request.getUsername().trim();
         String normalizedEmail = request.getEmail().trim().toLowerCase();
 
         if (userRepository.existsByUsername(normalizedUsername)) {
-            return ResponseEntity.status(HttpStatus.CONFLICT).body("Username is taken");
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.CONFLICT).body("Username is taken"));
         }
         if (userRepository.existsByEmail(normalizedEmail)) {
-            return ResponseEntity.status(HttpStatus.CONFLICT).body("Email is taken");
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.CONFLICT).body("Email is taken"));
         }
 
         if (!PasswordValidator.isValid(request.getPassword())) {
-            return ResponseEntity.badRequest().body(
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(
                 "Password must be at least 8 characters long (max 100), include uppercase, lowercase, a digit, and a special character."
-            );
+            ));
         }
         Role role = request.getRole() == null ? Role.USER : request.getRole();
-        User user = new User(normalizedUsername, normalizedEmail,
-                passwordEncoder.encode(request.getPassword()), role);
-        userRepository.save(user);
-        String token = jwtService.generateToken(user);
-        return ResponseEntity.ok(new AuthResponse(token, user.getUsername(), user.getRole().name()));
+        return passwordHashing.submit("register", () -> {
+            User user = new User(normalizedUsername, normalizedEmail,
+                    passwordEncoder.encode(request.getPassword()), role);
+            userRepository.save(user);
+            String token = jwtService.generateToken(user);
+            return ResponseEntity.ok(new AuthResponse(token, user.getUsername(), user.getRole().name()));
+        });
     }
 }
 
@@ -0,0 +1,96 @@
+package com.smu.tariff.auth;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.smu.tariff.exception.ServiceBusyException;
+import com.smu.tariff.util.BoundedExecutors;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs password hashing and verification off the request threads. BCrypt costs tens of milliseconds of CPU per
+ * call, so a burst of logins on Tomcat's pool would starve every other endpoint; here it is capped at one thread
+ * per core with a bounded queue, and a full queue fails fast with {@link ServiceBusyException} instead of waiting.
+ *
+ * <p>Publishes {@code auth.hashing} (time on the pool, by operation), {@code auth.hashing.wait} (time queued),
+ * {@code auth.hashing.rejected} and the {@code auth.hashing.queue} and {@code auth.hashing.active} gauges.</p>
+ */
+@Service
+public class PasswordHashingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHashingService.class);
+
+    static final long RETRY_AFTER_SECONDS = 1;
+
+    private final ThreadPoolExecutor executor;
+    private final MeterRegistry meterRegistry;
+    private final Timer queueWait;
+    private final Counter rejected;
+
+    @Autowired
+    public PasswordHashingService(@Value("${app.auth.password-hashing.threads:0}") int threads,
+                                  @Value("${app.auth.password-hashing.queue-capacity:64}") int queueCapacity,
+                                  MeterRegistry meterRegistry) {
+        this(BoundedExecutors.newBoundedExecutor("password-hashing", threads > 0 ? threads : Runtime.getRuntime().availableProcessors(), queueCapacity),
+                meterRegistry);
+    }
+
+    PasswordHashingService(ThreadPoolExecutor executor, MeterRegistry meterRegistry) {
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
+        this.queueWait = Timer.builder("auth.hashing.wait").register(meterRegistry);
+        this.rejected = Counter.builder("auth.hashing.rejected").register(meterRegistry);
+        BlockingQueue<Runnable> queue = executor.getQueue();
+        Gauge.builder("auth.hashing.queue", queue, BlockingQueue::size).register(meterRegistry);
+        Gauge.builder("auth.hashing.active", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+    }
+
+    /**
+     * Run {@code task}, which hashes or verifies a password, on the hashing pool.
+     *
+     * @param operation metric tag naming the work, e.g. {@code login} or {@code register}
+     * @throws ServiceBusyException if the pool and its queue are full
+     */
+    public <T> CompletableFuture<T> submit(String operation, Supplier<T> task) {
+        Timer timer = Timer.builder("auth.hashing")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        long queuedAt = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                long startedAt = System.nanoTime();
+                queueWait.record(startedAt - queuedAt, TimeUnit.NANOSECONDS);
+                try {
+                    return task.get();
+                } finally {
+                    timer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                }
+            }, executor);
+        } catch (RejectedExecutionException ex) {
+            rejected.increment();
+            logger.warn("Password hashing queue is full, rejecting {}", operation);
+            throw new ServiceBusyException("Too many sign-in attempts, try again shortly", RETRY_AFTER_SECONDS);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
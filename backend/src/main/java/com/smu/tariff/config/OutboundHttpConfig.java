@@ -0,0 +1,24 @@
+package com.smu.tariff.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+@Configuration
+public class OutboundHttpConfig {
+
+    /**
+     * Shared by every outbound call through {@link com.smu.tariff.http.OutboundHttp}; holds the connection pool.
+     */
+    @Bean
+    public HttpClient outboundHttpClient(@Value("${app.http.connect-timeout-ms:5000}") long connectTimeoutMs) {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+}
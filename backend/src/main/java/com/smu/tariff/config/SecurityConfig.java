@@ -1,5 +1,8 @@
 package com.smu.tariff.config;
 
+import jakarta.servlet.DispatcherType;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -12,6 +15,7 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity; 
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -20,6 +24,7 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 
 import com.smu.tariff.security.JwtAuthFilter;
 import com.smu.tariff.security.JwtService;
+import com.smu.tariff.user.User;
 import com.smu.tariff.user.UserRepository;
 
 @EnableWebSecurity   // enables Spring Security filters
@@ -30,6 +35,10 @@ public class SecurityConfig {
     private final UserRepository userRepository;
     private final JwtService jwtService;
 
+    // BCrypt cost factor for new hashes; existing hashes below it are upgraded on the user's next login
+    @Value("${app.auth.password-hashing.bcrypt-strength:10}")
+    private int bcryptStrength = 10;
+
     public SecurityConfig(UserRepository userRepository, JwtService jwtService) {
         this.userRepository = userRepository;
         this.jwtService = jwtService;
@@ -46,7 +55,17 @@ public class SecurityConfig {
     // defines the password encoder (BCrypt)
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BCryptPasswordEncoder(bcryptStrength);
+    }
+
+    // stores the re-encoded password when a login finds a hash weaker than bcryptStrength
+    @Bean
+    public UserDetailsPasswordService userDetailsPasswordService() {
+        return (userDetails, newPassword) -> {
+            User user = (User) userDetails;
+            user.setPassword(newPassword);
+            return userRepository.save(user);
+        };
     }
 
     // connects UserDetailsService + PasswordEncoder
@@ -56,6 +75,7 @@ public class SecurityConfig {
         DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
         provider.setUserDetailsService(userDetailsService());
         provider.setPasswordEncoder(passwordEncoder());
+        provider.setUserDetailsPasswordService(userDetailsPasswordService());
         return provider;
     }
 
@@ -80,6 +100,8 @@ public class SecurityConfig {
             // equivalent to slide’s authorizeHttpRequests()
             .authorizeHttpRequests(auth -> auth
                     .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
+                    // async dispatches (SSE completion) were already authorized on the original request
+                    .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                     .requestMatchers(
                             "/",
                             "/api/auth/**",
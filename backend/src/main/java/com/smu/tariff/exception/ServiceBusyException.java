@@ -0,0 +1,19 @@
+package com.smu.tariff.exception;
+
+/**
+ * Thrown when a bounded worker pool is saturated and the request should be retried later. Answered with
+ * 429 and a {@code Retry-After} header.
+ */
+public class ServiceBusyException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ServiceBusyException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
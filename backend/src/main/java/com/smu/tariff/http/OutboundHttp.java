@@ -0,0 +1,73 @@
+package com.smu.tariff.http;
+
+import java.net.http.HttpClient;
+import java.time.Clock;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.env.Environment;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * The single way out of the application for HTTP calls to third parties (NewsData.io, Gemini, SimplyDuty).
+ *
+ * <p>Every {@link RestTemplate} handed out shares one JDK {@link HttpClient}, so keep-alive connections and TLS
+ * sessions are reused across calls and HTTP/2 is negotiated where the upstream offers it. Each named upstream gets
+ * its own read timeout, connection-slot limit, circuit breaker and latency histogram; see
+ * {@code app.http} in application.yml.</p>
+ */
+@Component
+public class OutboundHttp {
+
+    private final HttpClient httpClient;
+    private final RestTemplateBuilder restTemplateBuilder;
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+    private final Map<String, UpstreamInterceptor> interceptors = new ConcurrentHashMap<>();
+
+    @Autowired
+    public OutboundHttp(HttpClient outboundHttpClient,
+                        RestTemplateBuilder restTemplateBuilder,
+                        Environment environment,
+                        MeterRegistry meterRegistry) {
+        this(outboundHttpClient, restTemplateBuilder, environment, meterRegistry, Clock.systemUTC());
+    }
+
+    OutboundHttp(HttpClient httpClient,
+                 RestTemplateBuilder restTemplateBuilder,
+                 Environment environment,
+                 MeterRegistry meterRegistry,
+                 Clock clock) {
+        this.httpClient = httpClient;
+        this.restTemplateBuilder = restTemplateBuilder;
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+    }
+
+    /**
+     * A {@link RestTemplate} for {@code upstream}. Templates for the same upstream share its limits and breaker.
+     * Calls refused by either fail with a {@code ResourceAccessException} caused by {@link UpstreamUnavailableException}.
+     */
+    public RestTemplate restTemplate(String upstream) {
+        UpstreamInterceptor interceptor = interceptor(upstream);
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(interceptor.settings().readTimeout());
+        return restTemplateBuilder
+                .requestFactory(() -> requestFactory)
+                .additionalInterceptors(interceptor)
+                .build();
+    }
+
+    UpstreamInterceptor interceptor(String upstream) {
+        return interceptors.computeIfAbsent(upstream,
+                name -> new UpstreamInterceptor(name, UpstreamSettings.from(environment, name), meterRegistry, clock));
+    }
+}
@@ -0,0 +1,179 @@
+package com.smu.tariff.http;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.time.Clock;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Guards every call to one upstream: a bulkhead of {@code maxConcurrent} slots, then the circuit breaker.
+ *
+ * <p>A slot is held until the response is closed, so it also bounds the upstream's open connections. Latency is
+ * measured up to the same point, body included, and published as the {@code http.client.upstream} histogram
+ * tagged by upstream and outcome. Connection errors, 5xx and 429 count as failures for the breaker; other 4xx
+ * responses are the caller's problem and do not.</p>
+ */
+class UpstreamInterceptor implements ClientHttpRequestInterceptor {
+
+    static final String TIMER = "http.client.upstream";
+
+    private final String upstream;
+    private final UpstreamSettings settings;
+    private final Semaphore permits;
+    private final CircuitBreaker circuitBreaker;
+    private final MeterRegistry meterRegistry;
+
+    UpstreamInterceptor(String upstream, UpstreamSettings settings, MeterRegistry meterRegistry, Clock clock) {
+        this.upstream = upstream;
+        this.settings = settings;
+        this.permits = new Semaphore(settings.maxConcurrent(), true);
+        this.circuitBreaker = new CircuitBreaker(settings.failureThreshold(), settings.openDuration(), clock);
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("http.client.upstream.in-flight", permits, p -> settings.maxConcurrent() - p.availablePermits())
+                .tag("upstream", upstream)
+                .register(meterRegistry);
+        Gauge.builder("http.client.upstream.circuit", circuitBreaker, b -> b.state().ordinal())
+                .description("0 closed, 1 half-open, 2 open")
+                .tag("upstream", upstream)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        long started = System.nanoTime();
+        acquirePermit(started);
+        if (!circuitBreaker.tryAcquire()) {
+            permits.release();
+            record(started, "CIRCUIT_OPEN");
+            throw new UpstreamUnavailableException("Circuit for " + upstream + " is open");
+        }
+
+        ClientHttpResponse response;
+        HttpStatusCode status;
+        try {
+            response = execution.execute(request, body);
+            status = response.getStatusCode();
+        } catch (IOException | RuntimeException ex) {
+            circuitBreaker.onFailure();
+            permits.release();
+            record(started, "IO_ERROR");
+            throw ex;
+        }
+
+        if (status.is5xxServerError() || status.value() == 429) {
+            circuitBreaker.onFailure();
+        } else {
+            circuitBreaker.onSuccess();
+        }
+        return new GuardedResponse(response, started, outcome(status));
+    }
+
+    UpstreamSettings settings() {
+        return settings;
+    }
+
+    CircuitBreaker.State circuitState() {
+        return circuitBreaker.state();
+    }
+
+    private void acquirePermit(long started) throws IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(settings.acquireTimeout().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a " + upstream + " connection slot");
+        }
+        if (!acquired) {
+            record(started, "REJECTED");
+            throw new UpstreamUnavailableException("No " + upstream + " connection slot free after "
+                    + settings.acquireTimeout().toMillis() + " ms");
+        }
+    }
+
+    private void record(long started, String outcome) {
+        Timer.builder(TIMER)
+                .tag("upstream", upstream)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+    }
+
+    private static String outcome(HttpStatusCode status) {
+        if (status.is2xxSuccessful()) {
+            return "SUCCESS";
+        }
+        if (status.is4xxClientError()) {
+            return "CLIENT_ERROR";
+        }
+        if (status.is5xxServerError()) {
+            return "SERVER_ERROR";
+        }
+        return "UNKNOWN";
+    }
+
+    /**
+     * Releases the slot and records the call when the caller is done with the body.
+     */
+    private final class GuardedResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse delegate;
+        private final long started;
+        private final String outcome;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        GuardedResponse(ClientHttpResponse delegate, long started, String outcome) {
+            this.delegate = delegate;
+            this.started = started;
+            this.outcome = outcome;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return delegate.getBody();
+        }
+
+        @Override
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                try {
+                    delegate.close();
+                } finally {
+                    permits.release();
+                    record(started, outcome);
+                }
+            }
+        }
+    }
+}
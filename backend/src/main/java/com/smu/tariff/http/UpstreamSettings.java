@@ -0,0 +1,30 @@
+package com.smu.tariff.http;
+
+import java.time.Duration;
+
+import org.springframework.core.env.Environment;
+
+/**
+ * Limits for one upstream, read from {@code app.http.upstreams.<name>.*} with {@code app.http.defaults.*} as the
+ * fallback for anything not set.
+ */
+record UpstreamSettings(Duration readTimeout,
+                        int maxConcurrent,
+                        Duration acquireTimeout,
+                        int failureThreshold,
+                        Duration openDuration) {
+
+    static UpstreamSettings from(Environment environment, String upstream) {
+        return new UpstreamSettings(
+                Duration.ofMillis(property(environment, upstream, "read-timeout-ms", 30_000L)),
+                (int) property(environment, upstream, "max-concurrent", 16L),
+                Duration.ofMillis(property(environment, upstream, "acquire-timeout-ms", 1_000L)),
+                (int) property(environment, upstream, "failure-threshold", 5L),
+                Duration.ofSeconds(property(environment, upstream, "open-seconds", 30L)));
+    }
+
+    private static long property(Environment environment, String upstream, String key, long fallback) {
+        Long defaultValue = environment.getProperty("app.http.defaults." + key, Long.class, fallback);
+        return environment.getProperty("app.http.upstreams." + upstream + "." + key, Long.class, defaultValue);
+    }
+}
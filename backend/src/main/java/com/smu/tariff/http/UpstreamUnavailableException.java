@@ -0,0 +1,15 @@
+package com.smu.tariff.http;
+
+import java.io.IOException;
+
+/**
+ * An outbound call was refused locally: the upstream's circuit is open or all of its connection slots are busy.
+ * It is an {@link IOException} so {@code RestTemplate} reports it as a {@code ResourceAccessException}, like any
+ * other failure to reach the upstream.
+ */
+public class UpstreamUnavailableException extends IOException {
+
+    public UpstreamUnavailableException(String message) {
+        super(message);
+    }
+}
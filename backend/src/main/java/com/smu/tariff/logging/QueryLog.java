@@ -1,6 +1,8 @@
 package com.smu.tariff.logging;
 
+import java.math.BigDecimal;
 import java.time.Instant;
+import java.time.LocalDate;
 
 import com.smu.tariff.user.User;
 
@@ -10,13 +12,20 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
 
 @Entity
-@Table(name = "query_log")
+@Table(name = "query_log",
+       indexes = {
+           // Keyset index for the paged history: one user's rows in creation order, ties broken by id
+           @Index(name = "idx_query_log_user_created", columnList = "user_id,created_at,id")
+       })
 public class QueryLog {
+    static final int CODE_LENGTH = 64;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -40,9 +49,32 @@ public class QueryLog {
     @Column(name = "destination_country", length = 16)
     private String destinationCountry;
 
-    @Column(nullable = false)
+    @Column(name = "created_at", nullable = false)
     private Instant createdAt = Instant.now();
 
+    // Structured inputs captured at write time (see QueryLogDetails); null when the query had none
+    @Column(name = "hs_code", length = CODE_LENGTH)
+    private String hsCode;
+
+    @Column(name = "category_code", length = CODE_LENGTH)
+    private String categoryCode;
+
+    @Column(name = "declared_value", precision = 19, scale = 4)
+    private BigDecimal declaredValue;
+
+    @Column(name = "weight", precision = 19, scale = 4)
+    private BigDecimal weight;
+
+    @Column(name = "requested_from")
+    private LocalDate requestedFrom;
+
+    @Column(name = "requested_to")
+    private LocalDate requestedTo;
+
+    // False/null only on rows written before the structured columns existed; QueryLogBackfill fills those in
+    @Column(name = "structured")
+    private Boolean structured = Boolean.TRUE;
+
     public QueryLog() { }
 
     public QueryLog(User user, String type, String params) {
@@ -54,12 +86,42 @@ public class QueryLog {
     }
 
     public QueryLog(User user, String type, String params, String result, String originCountry, String destinationCountry) {
+        this(user, type, params, result, originCountry, destinationCountry, null);
+    }
+
+    public QueryLog(User user, String type, String params, String result, String originCountry, String destinationCountry,
+                    QueryLogDetails details) {
+        this(user, type, params, result, originCountry, destinationCountry, details, null);
+    }
+
+    /**
+     * @param createdAt when the request was made; rows built later on the write-behind thread must pass it, since
+     *                  the default is the time of construction
+     */
+    public QueryLog(User user, String type, String params, String result, String originCountry, String destinationCountry,
+                    QueryLogDetails details, Instant createdAt) {
+        if (createdAt != null) {
+            this.createdAt = createdAt;
+        }
         this.user = user;
         this.type = type;
         this.params = params;
         this.result = result;
         this.originCountry = originCountry;
         this.destinationCountry = destinationCountry;
+        if (details != null) {
+            // Codes can come straight from request parameters; clip rather than fail the whole insert batch
+            this.hsCode = clip(details.hsCode());
+            this.categoryCode = clip(details.categoryCode());
+            this.declaredValue = details.declaredValue();
+            this.weight = details.weight();
+            this.requestedFrom = details.requestedFrom();
+            this.requestedTo = details.requestedTo();
+        }
+    }
+
+    static String clip(String code) {
+        return code == null || code.length() <= CODE_LENGTH ? code : code.substring(0, CODE_LENGTH);
     }
 
     // Getters used by controllers and serializers
@@ -94,4 +156,32 @@ public class QueryLog {
     public Instant getCreatedAt() {
         return createdAt;
     }
+
+    public String getHsCode() {
+        return hsCode;
+    }
+
+    public String getCategoryCode() {
+        return categoryCode;
+    }
+
+    public BigDecimal getDeclaredValue() {
+        return declaredValue;
+    }
+
+    public BigDecimal getWeight() {
+        return weight;
+    }
+
+    public LocalDate getRequestedFrom() {
+        return requestedFrom;
+    }
+
+    public LocalDate getRequestedTo() {
+        return requestedTo;
+    }
+
+    public Boolean getStructured() {
+        return structured;
+    }
 }
@@ -0,0 +1,164 @@
+package com.smu.tariff.logging;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * One-off migration for query_log rows written before the structured columns existed. Parses their
+ * {@code params} once, stores the result in the typed columns and marks the row structured, so the read
+ * path never has to.
+ *
+ * <p>Runs in the background after startup, one batch per scheduler tick, each batch in its own transaction, so
+ * startup never waits on it and a restart resumes with the rows not yet marked. Batches walk the primary key
+ * from the last id seen, so a batch never rescans rows an earlier one already migrated. It stops after the first
+ * short batch; once every row is marked, a startup costs a single empty select.</p>
+ */
+@Component
+public class QueryLogBackfill {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryLogBackfill.class);
+
+    private static final String SELECT_SQL =
+            "SELECT id, params FROM query_log WHERE id > ? AND (structured IS NULL OR structured = FALSE) "
+                    + "ORDER BY id LIMIT ?";
+
+    private static final String UPDATE_SQL =
+            "UPDATE query_log SET hs_code = ?, category_code = ?, declared_value = ?, weight = ?, "
+                    + "requested_from = ?, requested_to = ?, structured = TRUE WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private volatile boolean finished;
+    private long migrated;
+    private long lastId;
+
+    public QueryLogBackfill(JdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${app.query-log.backfill.enabled:true}") boolean enabled,
+                            @Value("${app.query-log.backfill.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Migrate the next batch. A database error stops the backfill until the next startup rather than retrying
+     * every tick.
+     */
+    @Scheduled(fixedDelayString = "${app.query-log.backfill.interval-ms:250}",
+               initialDelayString = "${app.query-log.backfill.initial-delay-ms:30000}")
+    public void migrateNextBatch() {
+        if (!enabled || finished) {
+            return;
+        }
+        try {
+            int updated = migrateBatch();
+            migrated += updated;
+            if (updated < batchSize) {
+                finished = true;
+                if (migrated > 0) {
+                    logger.info("Backfilled structured columns for {} query_log rows", migrated);
+                }
+            }
+        } catch (DataAccessException ex) {
+            finished = true;
+            logger.warn("Stopping query_log backfill after {} rows: {}", migrated, ex.getMessage());
+        }
+    }
+
+    boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * Migrate one batch of unstructured rows in its own transaction and return how many were updated.
+     * Every selected row is marked structured, even when its params carry nothing, so each batch makes progress.
+     * The next batch starts after the highest id selected here, once this one has committed.
+     */
+    int migrateBatch() {
+        List<Map<String, Object>> updated = transactionTemplate.execute(status -> {
+            List<Map<String, Object>> rows = jdbcTemplate.queryForList(SELECT_SQL, lastId, batchSize);
+            if (rows.isEmpty()) {
+                return rows;
+            }
+            jdbcTemplate.batchUpdate(UPDATE_SQL, rows, rows.size(), (ps, row) -> {
+                QueryLogDetails details = fromParams((String) row.get("params"));
+                ps.setString(1, QueryLog.clip(details.hsCode()));
+                ps.setString(2, QueryLog.clip(details.categoryCode()));
+                ps.setBigDecimal(3, details.declaredValue());
+                ps.setBigDecimal(4, details.weight());
+                if (details.requestedFrom() == null) ps.setNull(5, Types.DATE);
+                else ps.setDate(5, Date.valueOf(details.requestedFrom()));
+                if (details.requestedTo() == null) ps.setNull(6, Types.DATE);
+                else ps.setDate(6, Date.valueOf(details.requestedTo()));
+                ps.setLong(7, ((Number) row.get("id")).longValue());
+            });
+            return rows;
+        });
+        if (updated == null || updated.isEmpty()) {
+            return 0;
+        }
+        lastId = ((Number) updated.get(updated.size() - 1).get("id")).longValue();
+        return updated.size();
+    }
+
+    /**
+     * Recover structured inputs from a legacy params string. Covers the calculation format
+     * ({@code hs}, {@code category}, {@code declared}, {@code weight}, {@code requestedFrom/To}) and the
+     * search and admin formats ({@code cat}). Unparseable values become null rather than failing the row.
+     */
+    static QueryLogDetails fromParams(String params) {
+        Map<String, String> parsed = QueryLogParamParser.parse(params);
+        return new QueryLogDetails(
+                text(parsed.getOrDefault("hs", parsed.get("hscode"))),
+                text(parsed.getOrDefault("category", parsed.get("cat"))),
+                number(parsed.get("declared")),
+                number(parsed.get("weight")),
+                date(parsed.get("requestedfrom")),
+                date(parsed.get("requestedto")));
+    }
+
+    private static String text(String value) {
+        if (value == null) return null;
+        String trimmed = value.trim();
+        return trimmed.isEmpty() || "-".equals(trimmed) || "null".equals(trimmed) ? null : trimmed;
+    }
+
+    private static BigDecimal number(String value) {
+        String trimmed = text(value);
+        if (trimmed == null) return null;
+        try {
+            return new BigDecimal(trimmed);
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    private static LocalDate date(String value) {
+        String trimmed = text(value);
+        if (trimmed == null) return null;
+        try {
+            return LocalDate.parse(trimmed);
+        } catch (DateTimeParseException ex) {
+            return null;
+        }
+    }
+}
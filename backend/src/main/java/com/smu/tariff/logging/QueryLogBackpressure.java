@@ -0,0 +1,15 @@
+package com.smu.tariff.logging;
+
+/**
+ * What {@link QueryLogWriteBehind} does with a new entry when its queue is under pressure.
+ */
+public enum QueryLogBackpressure {
+    /** Discard the entry when the queue is full. */
+    DROP,
+    /** Wait up to the configured block timeout for space, then discard. */
+    BLOCK,
+    /** Wait for space however long the writer takes; the entry is never discarded. */
+    WAIT,
+    /** Above half capacity, keep only a configured fraction of entries; discard when full. */
+    SAMPLE
+}
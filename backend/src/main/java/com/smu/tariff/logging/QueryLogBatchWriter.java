@@ -0,0 +1,66 @@
+package com.smu.tariff.logging;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Inserts query-log rows through plain JDBC batches.
+ * Hibernate cannot batch inserts for IDENTITY ids, so bulk callers bypass the repository here.
+ */
+@Component
+public class QueryLogBatchWriter {
+
+    static final int BATCH_SIZE = 500;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO query_log (user_id, type, params, result, origin_country, destination_country, created_at, "
+                    + "hs_code, category_code, declared_value, weight, requested_from, requested_to, structured) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, TRUE)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public QueryLogBatchWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void insertAll(List<QueryLog> logs) {
+        if (logs == null || logs.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, logs, BATCH_SIZE, (ps, log) -> {
+            if (log.getUser() != null && log.getUser().getId() != null) {
+                ps.setLong(1, log.getUser().getId());
+            } else {
+                ps.setNull(1, Types.BIGINT);
+            }
+            ps.setString(2, log.getType());
+            ps.setString(3, log.getParams());
+            ps.setString(4, log.getResult());
+            ps.setString(5, log.getOriginCountry());
+            ps.setString(6, log.getDestinationCountry());
+            ps.setTimestamp(7, Timestamp.from(log.getCreatedAt()));
+            ps.setString(8, log.getHsCode());
+            ps.setString(9, log.getCategoryCode());
+            ps.setBigDecimal(10, log.getDeclaredValue());
+            ps.setBigDecimal(11, log.getWeight());
+            setDate(ps, 12, log.getRequestedFrom());
+            setDate(ps, 13, log.getRequestedTo());
+        });
+    }
+
+    private static void setDate(PreparedStatement ps, int index, LocalDate date) throws SQLException {
+        if (date == null) {
+            ps.setNull(index, Types.DATE);
+        } else {
+            ps.setDate(index, Date.valueOf(date));
+        }
+    }
+}
@@ -3,21 +3,23 @@ package com.smu.tariff.logging;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import com.smu.tariff.user.User;
+import com.smu.tariff.security.AuthenticatedUser;
 
+import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/query-logs")
@@ -25,6 +27,9 @@ public class QueryLogController {
 
     private static final Logger logger = LoggerFactory.getLogger(QueryLogController.class);
 
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 200;
+
     private final QueryLogRepository queryLogRepository;
     private final QueryLogService queryLogService;
 
@@ -34,58 +39,55 @@ public class QueryLogController {
         this.queryLogService = queryLogService;
     }
 
+    /**
+     * Page through the current user's history, newest first. Pass the returned {@code nextCursor} back as
+     * {@code cursor} for the next page; each page is one index range scan regardless of how much history exists.
+     * {@code type=ALL} lifts the default CALCULATE filter; {@code from}/{@code to} are inclusive UTC dates.
+     */
     @GetMapping
-    public ResponseEntity<List<Map<String, Object>>> getAllQueryLogs() {
-        List<Map<String, Object>> result = new ArrayList<>();
-        User currentUser = queryLogService.getCurrentUser();
+    public ResponseEntity<QueryLogPage> getAllQueryLogs(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(defaultValue = "CALCULATE") String type,
+            @RequestParam(required = false) String origin,
+            @RequestParam(required = false) String destination,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        AuthenticatedUser currentUser = queryLogService.getCurrentPrincipal();
         if (currentUser == null) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(result);
-        }
-
-        logger.info("getAllQueryLogs called for user={}", currentUser.getUsername());
-
-        List<QueryLog> logs = queryLogRepository.findByUserIdWithUser(currentUser.getId());
-        logger.info("Retrieved {} logs from database for user={}", logs.size(), currentUser.getUsername());
-
-        List<Map<String, Object>> dtoList = new ArrayList<>();
-        for (QueryLog log : logs) {
-            Map<String, Object> map = buildResponseMap(log);
-            dtoList.add(map);
-
-            if (dtoList.size() <= 3) {
-                logger.debug("Log DTO {}: {} - {}", map.get("id"), map.get("action"), log.getParams());
-            }
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(new QueryLogPage());
         }
-        result = dtoList;
-
-        logger.info("Returning {} logs to frontend for user={}", result.size(), currentUser.getUsername());
-        return ResponseEntity.ok(result);
+        return ResponseEntity.ok(historyPage(currentUser, cursor, limit, type, origin, destination, from, to));
     }
 
+    /**
+     * The same keyset pages as {@link #getAllQueryLogs}, addressed by user id; only the current user's own id is
+     * allowed.
+     */
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Map<String, Object>>> getQueryLogsByUser(@PathVariable Long userId) {
-        List<Map<String, Object>> result = new ArrayList<>();
-        User currentUser = queryLogService.getCurrentUser();
+    public ResponseEntity<QueryLogPage> getQueryLogsByUser(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(defaultValue = "CALCULATE") String type,
+            @RequestParam(required = false) String origin,
+            @RequestParam(required = false) String destination,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        AuthenticatedUser currentUser = queryLogService.getCurrentPrincipal();
         if (currentUser == null) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(result);
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(new QueryLogPage());
         }
         if (!currentUser.getId().equals(userId)) {
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(result);
-        }
-
-        logger.info("getQueryLogsByUser called for userId={}", userId);
-        List<QueryLog> logs = queryLogRepository.findByUserIdWithUser(userId);
-        for (QueryLog log : logs) {
-            result.add(buildResponseMap(log));
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(new QueryLogPage());
         }
-        logger.info("Returning {} logs for userId={}", result.size(), userId);
-        return ResponseEntity.ok(result);
+        return ResponseEntity.ok(historyPage(currentUser, cursor, limit, type, origin, destination, from, to));
     }
 
     @GetMapping("/test")
     public ResponseEntity<Map<String, Object>> testConnection() {
         Map<String, Object> response = new HashMap<>();
-        User currentUser = queryLogService.getCurrentUser();
+        AuthenticatedUser currentUser = queryLogService.getCurrentPrincipal();
         if (currentUser == null) {
             response.put("status", "Unauthorized");
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
@@ -110,53 +112,10 @@ public class QueryLogController {
         }
     }
 
-    @GetMapping("/debug")
-    public ResponseEntity<Map<String, Object>> debugDatabase() {
-        Map<String, Object> response = new HashMap<>();
-        User currentUser = queryLogService.getCurrentUser();
-        if (currentUser == null) {
-            response.put("status", "Unauthorized");
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
-        }
-
-        logger.info("debugDatabase invoked for user={}", currentUser.getUsername());
-        try {
-            List<QueryLog> logs = queryLogRepository.findByUserIdWithUser(currentUser.getId());
-            response.put("totalForUser", logs.size());
-            response.put("timestamp", System.currentTimeMillis());
-
-            List<Map<String, Object>> logDetails = logs.stream()
-                    .limit(5)
-                    .map(log -> {
-                        Map<String, Object> logInfo = new HashMap<>();
-                        logInfo.put("id", log.getId());
-                        logInfo.put("type", log.getType());
-                        logInfo.put("params", log.getParams());
-                        logInfo.put("createdAt", log.getCreatedAt() != null ? log.getCreatedAt().toString() : null);
-                        logInfo.put("hasUser", log.getUser() != null);
-                        if (log.getUser() != null) {
-                            logInfo.put("username", log.getUser().getUsername());
-                        }
-                        return logInfo;
-                    })
-                    .collect(Collectors.toList());
-            response.put("sampleLogs", logDetails);
-
-            logger.info("debugDatabase succeeded: {} logs for user={}", logs.size(), currentUser.getUsername());
-            return ResponseEntity.ok(response);
-
-        } catch (Exception e) {
-            response.put("error", e.getMessage());
-            response.put("errorType", e.getClass().getSimpleName());
-            logger.error("debugDatabase failed: {}", e.getMessage(), e);
-            return ResponseEntity.status(500).body(response);
-        }
-    }
-
     @GetMapping("/raw")
     public ResponseEntity<List<Map<String, Object>>> rawLatest() {
         List<Map<String, Object>> out = new ArrayList<>();
-        User currentUser = queryLogService.getCurrentUser();
+        AuthenticatedUser currentUser = queryLogService.getCurrentPrincipal();
         if (currentUser == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(out);
         }
@@ -177,89 +136,40 @@ public class QueryLogController {
         }
     }
 
-    private Map<String, Object> buildResponseMap(QueryLog log) {
-        QueryLogDto dto = new QueryLogDto();
-        dto.setId(log.getId());
-        dto.setTimestamp(log.getCreatedAt() == null ? null : log.getCreatedAt().toString());
-        dto.setType(log.getType());
-        dto.setRawParams(log.getParams());
-        dto.setRawResult(log.getResult());
-        try {
-            dto.setResultPreview(summarize(log.getResult()));
-        } catch (Exception ex) {
-            dto.setResultPreview("-");
-            logger.warn("summarize failed for log {}: {}", log.getId(), ex.getMessage(), ex);
+    private QueryLogPage historyPage(AuthenticatedUser currentUser, String cursor, int limit, String type,
+                                     String origin, String destination, LocalDate from, LocalDate to) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
         }
-
-        if (log.getUser() != null) {
-            dto.setUserId(log.getUser().getId());
-            dto.setUser(Optional.ofNullable(log.getUser().getUsername()).orElse(""));
-            dto.setUserEmail(Optional.ofNullable(log.getUser().getEmail()).orElse(""));
-            try {
-                dto.setUserRole(log.getUser().getRole() == null ? "" : log.getUser().getRole().name());
-            } catch (Exception ex) {
-                dto.setUserRole("");
-            }
-            dto.setUserCreatedAt(log.getUser().getCreatedAt() == null ? "" : log.getUser().getCreatedAt().toString());
-        } else {
-            dto.setUserId(null);
-            dto.setUser("Anonymous");
-            dto.setUserEmail("");
-            dto.setUserRole("");
-            dto.setUserCreatedAt("");
+        if (from != null && to != null && to.isBefore(from)) {
+            throw new IllegalArgumentException("to must not be before from");
         }
 
-        dto.setAction(log.getType());
-
-        Map<String, String> parsed = QueryLogParamParser.parse(log.getParams());
-        String origin = parsed.getOrDefault("origin", parsed.getOrDefault("from", log.getOriginCountry() != null ? log.getOriginCountry() : "-"));
-        String destination = parsed.getOrDefault("destination", parsed.getOrDefault("to", log.getDestinationCountry() != null ? log.getDestinationCountry() : "-"));
-        dto.setOrigin(origin);
-        dto.setDestination(destination);
-        dto.setCategory(parsed.getOrDefault("category", parsed.getOrDefault("cat", "-")));
-        dto.setValue(parsed.getOrDefault("value", parsed.getOrDefault("val", parsed.getOrDefault("declared", "-"))));
-        dto.setDate(parsed.getOrDefault("date", parsed.getOrDefault("effective", "-")));
-        dto.setHsCode(parsed.getOrDefault("hscode", parsed.getOrDefault("hs", "-")));
-        dto.setRequestedEffectiveFrom(parsed.getOrDefault("requestedfrom", "-"));
-        dto.setRequestedEffectiveTo(parsed.getOrDefault("requestedto", "-"));
-        dto.setWeight(parsed.getOrDefault("weight", "-"));
-
-        Map<String, Object> map = new HashMap<>();
-        map.put("id", dto.getId());
-        map.put("createdAt", dto.getTimestamp());
-        map.put("type", dto.getType());
-        map.put("params", log.getParams());
-        map.put("result", dto.getRawResult());
-        map.put("resultPreview", dto.getResultPreview());
-
-        map.put("userId", dto.getUserId());
-        map.put("username", dto.getUser());
-        map.put("userEmail", dto.getUserEmail());
-        map.put("userRole", dto.getUserRole());
-        map.put("userCreatedAt", dto.getUserCreatedAt());
-
-        map.put("action", dto.getAction());
-        map.put("origin", dto.getOrigin());
-        map.put("destination", dto.getDestination());
-        map.put("category", dto.getCategory());
-        map.put("value", dto.getValue());
-        map.put("date", dto.getDate());
-        map.put("hsCode", dto.getHsCode());
-        map.put("requestedEffectiveFrom", dto.getRequestedEffectiveFrom());
-        map.put("requestedEffectiveTo", dto.getRequestedEffectiveTo());
-        map.put("weight", dto.getWeight());
+        QueryLogFilter filter = new QueryLogFilter(
+                "ALL".equalsIgnoreCase(type) ? null : type.trim().toUpperCase(),
+                normalizeCode(origin),
+                normalizeCode(destination),
+                from == null ? null : from.atStartOfDay(ZoneOffset.UTC).toInstant(),
+                to == null ? null : to.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant());
+        QueryLogCursor after = cursor == null || cursor.isBlank() ? null : QueryLogCursor.decode(cursor.trim());
+        // One extra row tells us whether another page exists without a count query
+        List<QueryLogView> rows = queryLogRepository.findPage(currentUser.getId(), filter, after, limit + 1);
+
+        QueryLogPage page = new QueryLogPage();
+        boolean hasMore = rows.size() > limit;
+        page.items = hasMore ? new ArrayList<>(rows.subList(0, limit)) : rows;
+        for (QueryLogView row : page.items) {
+            row.username = currentUser.getUsername();
+        }
+        if (hasMore) {
+            page.nextCursor = QueryLogCursor.of(page.items.get(limit - 1)).encode();
+        }
 
-        return map;
+        logger.debug("Query log page returned {} logs for user={} (more={})", page.items.size(), currentUser.getUsername(), hasMore);
+        return page;
     }
 
-    private String summarize(String raw) {
-        if (raw == null || raw.isBlank()) {
-            return "-";
-        }
-        String trimmed = raw.trim();
-        if (trimmed.length() <= 120) {
-            return trimmed;
-        }
-        return trimmed.substring(0, 117) + "...";
+    private static String normalizeCode(String code) {
+        return code == null || code.isBlank() ? null : code.trim().toUpperCase();
     }
 }
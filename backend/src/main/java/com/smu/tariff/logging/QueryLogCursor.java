@@ -0,0 +1,40 @@
+package com.smu.tariff.logging;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position for the query-log history: the (createdAt, id) of the last row a client
+ * has seen. Encoded as URL-safe base64 so clients treat it as a token rather than building their own.
+ */
+public record QueryLogCursor(Instant createdAt, Long id) {
+
+    String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static QueryLogCursor of(QueryLogView row) {
+        return new QueryLogCursor(row.createdAtInstant, row.id);
+    }
+
+    static QueryLogCursor decode(String token) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid query log cursor", ex);
+        }
+        int sep = raw.indexOf('|');
+        if (sep < 0) {
+            throw new IllegalArgumentException("Invalid query log cursor");
+        }
+        try {
+            return new QueryLogCursor(Instant.parse(raw.substring(0, sep)), Long.valueOf(raw.substring(sep + 1)));
+        } catch (DateTimeParseException | NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid query log cursor", ex);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.smu.tariff.logging;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Structured inputs of a logged query, stored in typed query_log columns so reads never have to
+ * parse {@code params}. Any component may be null when the query did not carry it.
+ *
+ * @param declaredValue declared value per unit, as shown in the {@code declared:} part of the params
+ */
+public record QueryLogDetails(String hsCode,
+                              String categoryCode,
+                              BigDecimal declaredValue,
+                              BigDecimal weight,
+                              LocalDate requestedFrom,
+                              LocalDate requestedTo) {
+}
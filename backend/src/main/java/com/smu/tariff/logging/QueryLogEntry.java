@@ -0,0 +1,26 @@
+package com.smu.tariff.logging;
+
+import java.time.Instant;
+
+/**
+ * One query-log row as recorded by a caller, before the result is serialized.
+ * {@code details} is null for entries without structured inputs. {@code createdAt} is the time of the request;
+ * when null, {@link QueryLogService} stamps it on the calling thread, never on the write-behind thread.
+ */
+public record QueryLogEntry(String type, String params, Object result, String originCountry, String destinationCountry,
+                            QueryLogDetails details, Instant createdAt) {
+
+    public QueryLogEntry(String type, String params, Object result, String originCountry, String destinationCountry,
+                         QueryLogDetails details) {
+        this(type, params, result, originCountry, destinationCountry, details, null);
+    }
+
+    public QueryLogEntry(String type, String params, Object result, String originCountry, String destinationCountry) {
+        this(type, params, result, originCountry, destinationCountry, null, null);
+    }
+
+    QueryLogEntry stampedAt(Instant at) {
+        return createdAt != null ? this
+                : new QueryLogEntry(type, params, result, originCountry, destinationCountry, details, at);
+    }
+}
@@ -0,0 +1,15 @@
+package com.smu.tariff.logging;
+
+import java.time.Instant;
+
+/**
+ * Optional filters for the query-log history; a null field matches every row.
+ *
+ * @param type        query type such as {@code CALCULATE}
+ * @param origin      origin country code
+ * @param destination destination country code
+ * @param since       inclusive lower bound on {@code createdAt}
+ * @param until       exclusive upper bound on {@code createdAt}
+ */
+public record QueryLogFilter(String type, String origin, String destination, Instant since, Instant until) {
+}
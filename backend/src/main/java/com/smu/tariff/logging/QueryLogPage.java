@@ -0,0 +1,13 @@
+package com.smu.tariff.logging;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One page of query-log history. {@code nextCursor} is null on the last page; otherwise pass it
+ * back as {@code cursor} to continue after the last item.
+ */
+public class QueryLogPage {
+    public List<QueryLogView> items = new ArrayList<>();
+    public String nextCursor;
+}
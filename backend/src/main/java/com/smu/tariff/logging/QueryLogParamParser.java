@@ -20,16 +20,18 @@ public class QueryLogParamParser {
         String s = params.trim();
         if (s.isEmpty()) return out;
 
-        // First try JSON
-        try {
-            // permissive: if it's not strictly JSON this will throw
-            Map<String, Object> m = mapper.readValue(s, new TypeReference<Map<String, Object>>() {});
-            for (Map.Entry<String, Object> e : m.entrySet()) {
-                if (e.getValue() != null) out.put(e.getKey().toLowerCase(), e.getValue().toString());
+        // Only attempt JSON when the keys are quoted; the {key:value} strings written by
+        // the services never are, and failing a Jackson parse on each of them is expensive
+        if (looksLikeJson(s)) {
+            try {
+                Map<String, Object> m = mapper.readValue(s, new TypeReference<Map<String, Object>>() {});
+                for (Map.Entry<String, Object> e : m.entrySet()) {
+                    if (e.getValue() != null) out.put(e.getKey().toLowerCase(), e.getValue().toString());
+                }
+                return out;
+            } catch (JsonProcessingException e) {
+                // Not valid JSON - continue to simple parsing
             }
-            return out;
-        } catch (JsonProcessingException e) {
-            // Not valid JSON - continue to simple parsing
         }
 
         // strip braces if present
@@ -50,4 +52,13 @@ public class QueryLogParamParser {
         }
         return out;
     }
+
+    private static boolean looksLikeJson(String s) {
+        if (!s.startsWith("{")) return false;
+        for (int i = 1; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (!Character.isWhitespace(c)) return c == '"' || c == '}';
+        }
+        return false;
+    }
 }
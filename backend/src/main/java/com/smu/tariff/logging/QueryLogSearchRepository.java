@@ -0,0 +1,19 @@
+package com.smu.tariff.logging;
+
+import java.util.List;
+
+/**
+ * Keyset pages of one user's query-log history, mixed into {@link QueryLogRepository}. Only the filters that are
+ * set become predicates, so each combination gets a plan that can range-scan idx_query_log_user_created.
+ */
+public interface QueryLogSearchRepository {
+
+    /**
+     * One page of {@code userId}'s history, newest first, projected straight into {@link QueryLogView}s so
+     * neither the user nor the entity graph is loaded.
+     *
+     * @param after keyset position of the last row already returned, or {@code null} for the first page
+     * @param limit maximum rows to return
+     */
+    List<QueryLogView> findPage(Long userId, QueryLogFilter filter, QueryLogCursor after, int limit);
+}
@@ -0,0 +1,67 @@
+package com.smu.tariff.logging;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+/**
+ * Criteria implementation of {@link QueryLogSearchRepository}. Picked up by Spring Data by its {@code Impl}
+ * suffix.
+ */
+class QueryLogSearchRepositoryImpl implements QueryLogSearchRepository {
+
+    private final EntityManager entityManager;
+
+    QueryLogSearchRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<QueryLogView> findPage(Long userId, QueryLogFilter filter, QueryLogCursor after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<QueryLogView> query = cb.createQuery(QueryLogView.class);
+        Root<QueryLog> log = query.from(QueryLog.class);
+        Path<Instant> createdAt = log.get("createdAt");
+        Path<Long> id = log.get("id");
+
+        query.select(cb.construct(QueryLogView.class,
+                id, createdAt, log.get("type"), log.get("params"), log.get("result"),
+                log.get("originCountry"), log.get("destinationCountry"), log.get("hsCode"), log.get("categoryCode"),
+                log.get("declaredValue"), log.get("weight"), log.get("requestedFrom"), log.get("requestedTo")));
+
+        // user_id is the leading index column; the rest narrow the range scan only when they are set
+        List<Predicate> where = new ArrayList<>();
+        where.add(cb.equal(log.get("user").get("id"), userId));
+        if (filter.type() != null) {
+            where.add(cb.equal(log.get("type"), filter.type()));
+        }
+        if (filter.origin() != null) {
+            where.add(cb.equal(log.get("originCountry"), filter.origin()));
+        }
+        if (filter.destination() != null) {
+            where.add(cb.equal(log.get("destinationCountry"), filter.destination()));
+        }
+        if (filter.since() != null) {
+            where.add(cb.greaterThanOrEqualTo(createdAt, filter.since()));
+        }
+        if (filter.until() != null) {
+            where.add(cb.lessThan(createdAt, filter.until()));
+        }
+        if (after != null) {
+            // (createdAt, id) strictly before the cursor
+            where.add(cb.or(cb.lessThan(createdAt, after.createdAt()),
+                    cb.and(cb.equal(createdAt, after.createdAt()), cb.lessThan(id, after.id()))));
+        }
+        query.where(where.toArray(Predicate[]::new));
+        query.orderBy(cb.desc(createdAt), cb.desc(id));
+
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+}
@@ -1,5 +1,10 @@
 package com.smu.tariff.logging;
 
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.core.Authentication;
@@ -7,16 +12,13 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.context.request.RequestContextHolder;
-import org.springframework.web.context.request.ServletRequestAttributes;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.smu.tariff.security.JwtService;
+import com.smu.tariff.security.AuthenticatedUser;
+import com.smu.tariff.security.RequestPrincipal;
 import com.smu.tariff.user.User;
 import com.smu.tariff.user.UserRepository;
 
-import jakarta.servlet.http.HttpServletRequest;
-
 @Service
 @Transactional
 public class QueryLogService {
@@ -26,22 +28,24 @@ public class QueryLogService {
     private final ObjectMapper mapper;
     private static final Logger logger = LoggerFactory.getLogger(QueryLogService.class);
 
-    private final QueryLogRepository queryLogRepository;
     private final UserRepository userRepository;
-    private final JwtService jwtService;
+    private final RequestPrincipal requestPrincipal;
+    private final QueryLogWriteBehind writeBehind;
 
-    public QueryLogService(QueryLogRepository queryLogRepository,
-                           UserRepository userRepository,
-                           JwtService jwtService,
-                           ObjectMapper mapper) {
-        this.queryLogRepository = queryLogRepository;
+    public QueryLogService(UserRepository userRepository,
+                           RequestPrincipal requestPrincipal,
+                           ObjectMapper mapper,
+                           QueryLogWriteBehind writeBehind) {
         this.userRepository = userRepository;
-        this.jwtService = jwtService;
+        this.requestPrincipal = requestPrincipal;
         this.mapper = mapper;
+        this.writeBehind = writeBehind;
     }
 
     /**
-     * Save a query log and attach the currently authenticated user if available.
+     * Queue a query log and attach the currently authenticated user if available.
+     * Only the user reference is resolved on the calling thread; serialization and the insert happen in the write-behind
+     * pipeline, so {@code result} must not be modified after it is logged.
      */
     public void log(String type, String params) {
         log(type, params, null, null, null);
@@ -52,26 +56,106 @@ public class QueryLogService {
     }
 
     public void log(String type, String params, Object result, String originCountry, String destinationCountry) {
-        User user = getCurrentUser();
-        String serializedResult = serializeResult(result);
-        String resolvedUser = (user != null) ? user.getUsername() : "<anonymous>";
+        log(type, params, result, originCountry, destinationCountry, null);
+    }
 
-        String origin = originCountry != null ? originCountry : extractFromParams(params, "origin", "from");
-        String destination = destinationCountry != null ? destinationCountry : extractFromParams(params, "destination", "to");
+    public void log(String type, String params, Object result, String originCountry, String destinationCountry,
+                    QueryLogDetails details) {
+        User user = currentUserReference();
+        QueryLogEntry entry = new QueryLogEntry(type, params, result, originCountry, destinationCountry, details,
+                Instant.now());
+        if (!writeBehind.submit(() -> toQueryLog(user, entry))) {
+            logger.debug("Dropped {} log under backpressure", type);
+        }
+    }
 
-        logger.info("Saving log for user={}", resolvedUser);
-        queryLogRepository.save(new QueryLog(user, type, params, serializedResult, origin, destination));
+    /**
+     * Queue several query logs. The current user is resolved once for the whole batch.
+     */
+    public void logAll(List<QueryLogEntry> entries) {
+        int droppedCount = submitAll(entries, writeBehind::submit);
+        if (droppedCount > 0) {
+            logger.debug("Dropped {} of {} logs under backpressure", droppedCount, entries.size());
+        }
     }
 
-    public User getCurrentUser() {
-        User user = resolveUserFromSecurityContext();
+    /**
+     * Queue several query logs, handling a full queue with {@code backpressure} instead of the configured policy.
+     * Callers that must not lose audit rows, such as streamed manifests, pass {@link QueryLogBackpressure#WAIT}.
+     *
+     * @return the number of logs dropped anyway
+     */
+    public int logAll(List<QueryLogEntry> entries, QueryLogBackpressure backpressure) {
+        int droppedCount = submitAll(entries, row -> writeBehind.submit(row, backpressure));
+        if (droppedCount > 0) {
+            logger.warn("Dropped {} of {} logs despite {} backpressure", droppedCount, entries.size(), backpressure);
+        }
+        return droppedCount;
+    }
+
+    private int submitAll(List<QueryLogEntry> entries, Predicate<Supplier<QueryLog>> submit) {
+        if (entries == null || entries.isEmpty()) {
+            return 0;
+        }
+        User user = currentUserReference();
+        Instant loggedAt = Instant.now();
+        int droppedCount = 0;
+        for (QueryLogEntry entry : entries) {
+            QueryLogEntry stamped = entry.stampedAt(loggedAt);
+            if (!submit.test(() -> toQueryLog(user, stamped))) {
+                droppedCount++;
+            }
+        }
+        return droppedCount;
+    }
+
+    private QueryLog toQueryLog(User user, QueryLogEntry entry) {
+        String origin = entry.originCountry() != null
+                ? entry.originCountry()
+                : extractFromParams(entry.params(), "origin", "from");
+        String destination = entry.destinationCountry() != null
+                ? entry.destinationCountry()
+                : extractFromParams(entry.params(), "destination", "to");
+        return new QueryLog(user, entry.type(), entry.params(), serializeResult(entry.result()), origin, destination,
+                entry.details(), entry.createdAt());
+    }
+
+    /**
+     * The caller's id, username and roles, or {@code null} for anonymous requests. Bearer-token requests are
+     * answered from {@link RequestPrincipal} without touching the database; any other authentication is resolved
+     * once and bound to the request so later calls are free as well.
+     */
+    public AuthenticatedUser getCurrentPrincipal() {
+        AuthenticatedUser principal = requestPrincipal.current();
+        if (principal != null && principal.getId() != null) {
+            return principal;
+        }
+        User user = resolveUserFromSecurityContext(principal);
         if (user == null) {
-            user = resolveUserFromRequest();
+            return null;
+        }
+        AuthenticatedUser resolved = AuthenticatedUser.of(user);
+        requestPrincipal.bind(resolved);
+        return resolved;
+    }
+
+    /**
+     * An id-only reference to the current user for the log row. The writer only needs the id, so the user is
+     * never loaded.
+     */
+    private User currentUserReference() {
+        AuthenticatedUser principal = getCurrentPrincipal();
+        if (principal == null || principal.getId() == null) {
+            return null;
         }
-        return user;
+        return userRepository.getReferenceById(principal.getId());
     }
 
-    private User resolveUserFromSecurityContext() {
+    private User resolveUserFromSecurityContext(AuthenticatedUser bound) {
+        if (bound != null) {
+            // Token issued before the uid claim existed
+            return userRepository.findByUsername(bound.getUsername()).orElse(null);
+        }
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         if (auth == null || !auth.isAuthenticated()) {
             return null;
@@ -93,33 +177,6 @@ public class QueryLogService {
         return null;
     }
 
-    private User resolveUserFromRequest() {
-        ServletRequestAttributes attrs = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
-        if (attrs == null) {
-            return null;
-        }
-        HttpServletRequest request = attrs.getRequest();
-        if (request == null) {
-            return null;
-        }
-
-        String authHeader = request.getHeader("Authorization");
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            return null;
-        }
-
-        String token = authHeader.substring(7);
-        try {
-            String username = jwtService.extractUsername(token);
-            if (username != null && !username.isBlank()) {
-                return userRepository.findByUsername(username).orElse(null);
-            }
-        } catch (Exception ex) {
-            logger.warn("Failed to resolve user from token", ex);
-        }
-        return null;
-    }
-
     private String serializeResult(Object result) {
         if (result == null) {
             return null;
@@ -0,0 +1,79 @@
+package com.smu.tariff.logging;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Read model for one row of the query-log history. Built by a JPQL constructor expression,
+ * so the list endpoint never materialises {@link QueryLog} entities or their users.
+ */
+public class QueryLogView {
+
+    private static final int PREVIEW_LENGTH = 120;
+
+    public Long id;
+    public String createdAt;
+    public String type;
+    public String action;
+    public String params;
+    public String result;
+    public String resultPreview;
+
+    public String origin;
+    public String destination;
+    public String hsCode;
+    public String category;
+    public String value;
+    public String weight;
+    public String requestedEffectiveFrom;
+    public String requestedEffectiveTo;
+
+    public String username;
+
+    // Cursor key; not serialised on its own because createdAt already carries it as ISO text
+    final Instant createdAtInstant;
+
+    public QueryLogView(Long id, Instant createdAt, String type, String params, String result,
+                        String originCountry, String destinationCountry, String hsCode, String categoryCode,
+                        BigDecimal declaredValue, BigDecimal weight, LocalDate requestedFrom, LocalDate requestedTo) {
+        this.id = id;
+        this.createdAtInstant = createdAt;
+        this.createdAt = createdAt == null ? null : createdAt.toString();
+        this.type = type;
+        this.action = type;
+        this.params = params;
+        this.result = result;
+        this.resultPreview = preview(result);
+
+        this.origin = orDash(originCountry);
+        this.destination = orDash(destinationCountry);
+        this.hsCode = orDash(hsCode);
+        this.category = orDash(categoryCode);
+        this.value = declaredValue == null ? "-" : money(declaredValue);
+        this.weight = weight == null ? "-" : weight.stripTrailingZeros().toPlainString();
+        this.requestedEffectiveFrom = requestedFrom == null ? "-" : requestedFrom.toString();
+        this.requestedEffectiveTo = requestedTo == null ? "-" : requestedTo.toString();
+    }
+
+    static String orDash(String value) {
+        return value == null || value.isBlank() ? "-" : value;
+    }
+
+    // Columns are stored at scale 4; show at least cents but keep any finer precision the caller entered
+    static String money(BigDecimal amount) {
+        BigDecimal stripped = amount.stripTrailingZeros();
+        return (stripped.scale() < 2 ? stripped.setScale(2) : stripped).toPlainString();
+    }
+
+    static String preview(String raw) {
+        if (raw == null || raw.isBlank()) {
+            return "-";
+        }
+        String trimmed = raw.trim();
+        if (trimmed.length() <= PREVIEW_LENGTH) {
+            return trimmed;
+        }
+        return trimmed.substring(0, PREVIEW_LENGTH - 3) + "...";
+    }
+}
@@ -0,0 +1,256 @@
+package com.smu.tariff.logging;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Write-behind pipeline for query logs. Request threads enqueue a deferred row on a bounded lock-free queue;
+ * a single background writer builds the rows (result serialization happens there) and inserts them in JDBC
+ * batches, one transaction per batch. Anything still queued is flushed on shutdown.
+ * With {@code app.query-log.write-behind.enabled=false} rows are written synchronously on the caller's thread.
+ */
+@Component
+public class QueryLogWriteBehind {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryLogWriteBehind.class);
+
+    private final QueryLogBatchWriter batchWriter;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int capacity;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final QueryLogBackpressure backpressure;
+    private final long blockTimeoutMs;
+    private final double sampleRate;
+
+    private final Queue<Supplier<QueryLog>> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Counter written;
+    private final Counter dropped;
+    private final Counter failed;
+
+    private volatile boolean running;
+    private volatile Thread writerThread;
+
+    public QueryLogWriteBehind(QueryLogBatchWriter batchWriter,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.query-log.write-behind.enabled:true}") boolean enabled,
+                               @Value("${app.query-log.write-behind.capacity:10000}") int capacity,
+                               @Value("${app.query-log.write-behind.batch-size:500}") int batchSize,
+                               @Value("${app.query-log.write-behind.flush-interval-ms:200}") long flushIntervalMs,
+                               @Value("${app.query-log.write-behind.backpressure:DROP}") QueryLogBackpressure backpressure,
+                               @Value("${app.query-log.write-behind.block-timeout-ms:50}") long blockTimeoutMs,
+                               @Value("${app.query-log.write-behind.sample-rate:0.1}") double sampleRate) {
+        this.batchWriter = batchWriter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.backpressure = backpressure;
+        this.blockTimeoutMs = blockTimeoutMs;
+        this.sampleRate = sampleRate;
+        this.written = Counter.builder("query.log.write-behind").tag("outcome", "written").register(meterRegistry);
+        this.dropped = Counter.builder("query.log.write-behind").tag("outcome", "dropped").register(meterRegistry);
+        this.failed = Counter.builder("query.log.write-behind").tag("outcome", "failed").register(meterRegistry);
+        Gauge.builder("query.log.write-behind.queued", queued, AtomicInteger::get).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+        Thread thread = new Thread(this::runWriter, "query-log-writer");
+        thread.setDaemon(true);
+        writerThread = thread;
+        thread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        Thread thread = writerThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            writerThread = null;
+        }
+        // Whatever the writer did not get to is flushed on the caller's thread
+        while (drainOnce() > 0) {
+            // keep flushing
+        }
+    }
+
+    /**
+     * Queue a row for writing. The supplier runs on the writer thread, so anything it captures must not be
+     * mutated afterwards.
+     *
+     * @return false if the row was dropped because of backpressure
+     */
+    public boolean submit(Supplier<QueryLog> row) {
+        return submit(row, backpressure);
+    }
+
+    /**
+     * Queue a row, handling a full queue with {@code policy} instead of the configured backpressure.
+     *
+     * @return false if the row was dropped because of backpressure
+     */
+    public boolean submit(Supplier<QueryLog> row, QueryLogBackpressure policy) {
+        if (!enabled) {
+            writeNow(row);
+            return true;
+        }
+        if (!reserveSlot(policy)) {
+            dropped.increment();
+            return false;
+        }
+        queue.offer(row);
+        Thread thread = writerThread;
+        if (thread != null && queued.get() >= batchSize) {
+            LockSupport.unpark(thread);
+        }
+        return true;
+    }
+
+    public int queued() {
+        return queued.get();
+    }
+
+    /**
+     * Write everything queued so far on the caller's thread.
+     */
+    public void flush() {
+        while (drainOnce() > 0) {
+            // keep flushing
+        }
+    }
+
+    private boolean reserveSlot(QueryLogBackpressure policy) {
+        switch (policy) {
+            case BLOCK:
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(blockTimeoutMs);
+                while (!tryReserve(capacity)) {
+                    if (System.nanoTime() >= deadline) {
+                        return false;
+                    }
+                    LockSupport.unpark(writerThread);
+                    LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+                }
+                return true;
+            case WAIT:
+                while (!tryReserve(capacity)) {
+                    Thread thread = writerThread;
+                    if (thread == null) {
+                        // No background writer (not started or already stopped), so make room here
+                        drainOnce();
+                    } else {
+                        LockSupport.unpark(thread);
+                        LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+                    }
+                }
+                return true;
+            case SAMPLE:
+                if (queued.get() >= capacity / 2 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+                    return false;
+                }
+                return tryReserve(capacity);
+            case DROP:
+            default:
+                return tryReserve(capacity);
+        }
+    }
+
+    private boolean tryReserve(int limit) {
+        while (true) {
+            int current = queued.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (queued.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private void runWriter() {
+        while (running) {
+            try {
+                if (drainOnce() < batchSize) {
+                    LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(flushIntervalMs));
+                }
+            } catch (RuntimeException ex) {
+                logger.error("Query log writer failed", ex);
+            }
+        }
+    }
+
+    private int drainOnce() {
+        List<QueryLog> rows = new ArrayList<>(Math.min(batchSize, Math.max(queued.get(), 1)));
+        Supplier<QueryLog> next;
+        while (rows.size() < batchSize && (next = queue.poll()) != null) {
+            queued.decrementAndGet();
+            QueryLog row = build(next);
+            if (row != null) {
+                rows.add(row);
+            }
+        }
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> batchWriter.insertAll(rows));
+            written.increment(rows.size());
+        } catch (RuntimeException ex) {
+            failed.increment(rows.size());
+            logger.error("Failed to write {} query logs", rows.size(), ex);
+        }
+        return rows.size();
+    }
+
+    private void writeNow(Supplier<QueryLog> row) {
+        QueryLog built = build(row);
+        if (built != null) {
+            batchWriter.insertAll(List.of(built));
+            written.increment();
+        }
+    }
+
+    private QueryLog build(Supplier<QueryLog> row) {
+        try {
+            return row.get();
+        } catch (RuntimeException ex) {
+            failed.increment();
+            logger.warn("Failed to build query log row", ex);
+            return null;
+        }
+    }
+}
@@ -7,8 +7,14 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Entity
+// The unique constraint's index already serves origin-first lookups; the other two cover searches that filter by
+// destination or category without an origin
 @Table(name = "tariff_rate",
-       uniqueConstraints = @UniqueConstraint(columnNames = {"origin_id", "destination_id", "product_category_id", "effective_from"}))
+       uniqueConstraints = @UniqueConstraint(columnNames = {"origin_id", "destination_id", "product_category_id", "effective_from"}),
+       indexes = {
+           @Index(name = "idx_tariff_rate_destination_category", columnList = "destination_id,product_category_id,effective_from"),
+           @Index(name = "idx_tariff_rate_category_effective", columnList = "product_category_id,effective_from")
+       })
 public class TariffRate {
 
     @Id
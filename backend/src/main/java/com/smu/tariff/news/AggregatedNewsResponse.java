@@ -0,0 +1,32 @@
+package com.smu.tariff.news;
+
+import java.util.List;
+
+/**
+ * Merged news for several countries. {@code status} is {@code "partial"} when some countries timed out or failed;
+ * those are listed in {@code failedCountries} and the articles come from the rest.
+ */
+public class AggregatedNewsResponse extends NewsDataResponse {
+
+    private List<String> countries;
+    private List<String> failedCountries;
+
+    public AggregatedNewsResponse() {
+    }
+
+    public List<String> getCountries() {
+        return countries;
+    }
+
+    public void setCountries(List<String> countries) {
+        this.countries = countries;
+    }
+
+    public List<String> getFailedCountries() {
+        return failedCountries;
+    }
+
+    public void setFailedCountries(List<String> failedCountries) {
+        this.failedCountries = failedCountries;
+    }
+}
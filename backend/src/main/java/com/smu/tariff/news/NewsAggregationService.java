@@ -0,0 +1,207 @@
+package com.smu.tariff.news;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.smu.tariff.util.BoundedExecutors;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Trade news for several countries at once.
+ *
+ * <p>Each country is fetched through {@link NewsService#getCountryTradeNews} on a bounded pool, so the store and
+ * cache still apply per country and a page costs the slowest call rather than the sum of all calls. Every call
+ * shares one deadline of {@code timeout-ms}; countries that miss it, fail, or find the pool saturated are reported
+ * in {@link AggregatedNewsResponse#getFailedCountries()} and the rest are returned. A call that misses the deadline
+ * keeps running and still fills the cache for the next request. Articles are deduplicated by id and link and
+ * ranked newest first.</p>
+ */
+@Service
+public class NewsAggregationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NewsAggregationService.class);
+
+    private final NewsService newsService;
+    private final Executor executor;
+    private final Duration callTimeout;
+    private final int maxCountries;
+    private final MeterRegistry meterRegistry;
+    private final Timer fanOutTimer;
+
+    @Autowired
+    public NewsAggregationService(NewsService newsService,
+                                  @Value("${app.news.aggregate.threads:8}") int threads,
+                                  @Value("${app.news.aggregate.queue-capacity:64}") int queueCapacity,
+                                  @Value("${app.news.aggregate.timeout-ms:4000}") long timeoutMs,
+                                  @Value("${app.news.aggregate.max-countries:10}") int maxCountries,
+                                  MeterRegistry meterRegistry) {
+        this(newsService, BoundedExecutors.newBoundedExecutor("news-fanout", threads, queueCapacity), Duration.ofMillis(timeoutMs), maxCountries,
+                meterRegistry);
+    }
+
+    NewsAggregationService(NewsService newsService,
+                           Executor executor,
+                           Duration callTimeout,
+                           int maxCountries,
+                           MeterRegistry meterRegistry) {
+        this.newsService = newsService;
+        this.executor = executor;
+        this.callTimeout = callTimeout;
+        this.maxCountries = maxCountries;
+        this.meterRegistry = meterRegistry;
+        this.fanOutTimer = Timer.builder("news.aggregate").register(meterRegistry);
+    }
+
+    /**
+     * Merged trade news for {@code countryCodes} (alpha-2 or alpha-3), newest first.
+     *
+     * @param productCategory Optional product category filter, applied to every country
+     * @param limit Number of articles in the merged result (1-50, default: 10); each country is asked for as many
+     * @throws IllegalArgumentException when a code is not a known country or more than {@code max-countries} are given
+     */
+    public AggregatedNewsResponse getCountriesTradeNews(Collection<String> countryCodes, String productCategory, Integer limit) {
+        List<String> countries = normalize(countryCodes);
+        int size = NewsService.pageSize(limit);
+        long started = System.nanoTime();
+
+        Map<String, CompletableFuture<NewsDataResponse>> calls = new LinkedHashMap<>();
+        for (String country : countries) {
+            calls.put(country, submit(country, productCategory, size));
+        }
+
+        List<NewsDataResponse> responses = new ArrayList<>();
+        List<String> failed = new ArrayList<>();
+        long deadline = started + callTimeout.toNanos();
+        for (Map.Entry<String, CompletableFuture<NewsDataResponse>> call : calls.entrySet()) {
+            String country = call.getKey();
+            try {
+                responses.add(call.getValue().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+                count("success");
+            } catch (TimeoutException ex) {
+                logger.warn("News for {} did not arrive within {} ms", country, callTimeout.toMillis());
+                count("timeout");
+                failed.add(country);
+            } catch (ExecutionException ex) {
+                Throwable cause = ex.getCause();
+                if (cause instanceof RejectedExecutionException) {
+                    logger.warn("News aggregation pool is saturated, skipping {}", country);
+                    count("rejected");
+                } else {
+                    logger.warn("Failed to fetch news for {}: {}", country, cause.getMessage());
+                    count("error");
+                }
+                failed.add(country);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                count("timeout");
+                failed.add(country);
+            }
+        }
+        fanOutTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+
+        List<NewsArticle> merged = merge(responses);
+        AggregatedNewsResponse response = new AggregatedNewsResponse();
+        response.setStatus(failed.isEmpty() ? "success" : failed.size() < countries.size() ? "partial" : "error");
+        response.setTotalResults(merged.size());
+        response.setArticles(merged.size() > size ? new ArrayList<>(merged.subList(0, size)) : merged);
+        response.setCountries(countries);
+        response.setFailedCountries(failed);
+        return response;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (executor instanceof ExecutorService service) {
+            service.shutdownNow();
+        }
+    }
+
+    private CompletableFuture<NewsDataResponse> submit(String country, String productCategory, int size) {
+        try {
+            return CompletableFuture.supplyAsync(
+                    () -> newsService.getCountryTradeNews(country, productCategory, size), executor);
+        } catch (RejectedExecutionException ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+    }
+
+    private List<String> normalize(Collection<String> countryCodes) {
+        Set<String> countries = new LinkedHashSet<>();
+        if (countryCodes != null) {
+            for (String code : countryCodes) {
+                if (code == null || code.isBlank()) {
+                    continue;
+                }
+                String iso2 = NewsCountryCodes.toIso2(code);
+                if (iso2 == null) {
+                    throw new IllegalArgumentException("Unknown country code: " + code.trim());
+                }
+                countries.add(iso2);
+            }
+        }
+        if (countries.size() > maxCountries) {
+            throw new IllegalArgumentException("At most " + maxCountries + " countries can be requested at once");
+        }
+        return new ArrayList<>(countries);
+    }
+
+    /**
+     * Drop articles already seen under the same id or link, then sort newest first; undated articles go last.
+     */
+    static List<NewsArticle> merge(List<NewsDataResponse> responses) {
+        Set<String> ids = new HashSet<>();
+        Set<String> links = new HashSet<>();
+        List<Ranked> ranked = new ArrayList<>();
+        for (NewsDataResponse response : responses) {
+            if (response == null || response.getArticles() == null) {
+                continue;
+            }
+            for (NewsArticle article : response.getArticles()) {
+                boolean newId = article.getArticleId() == null || ids.add(article.getArticleId());
+                boolean newLink = article.getLink() == null || links.add(article.getLink());
+                if (newId && newLink) {
+                    ranked.add(new Ranked(article,
+                            NewsArticleStore.parsePubDate(article.getPubDate(), article.getPubDateTZ())));
+                }
+            }
+        }
+        ranked.sort(Comparator.comparing(Ranked::publishedAt, Comparator.nullsLast(Comparator.reverseOrder())));
+        List<NewsArticle> articles = new ArrayList<>(ranked.size());
+        for (Ranked entry : ranked) {
+            articles.add(entry.article());
+        }
+        return articles;
+    }
+
+    private void count(String result) {
+        meterRegistry.counter("news.aggregate.calls", "result", result).increment();
+    }
+
+    private record Ranked(NewsArticle article, Instant publishedAt) { }
+}
@@ -0,0 +1,330 @@
+package com.smu.tariff.news;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Local store of prefetched tariff news (see {@link NewsPrefetchService}).
+ *
+ * <p>Articles are deduplicated by NewsData.io {@code article_id}. Reads are paged by offset, newest first.
+ * Text matching uses the PostgreSQL {@code search_vector} full-text index with {@code websearch_to_tsquery},
+ * which understands quoted phrases, {@code OR} and {@code -term}; {@code AND} and {@code NOT} from the
+ * NewsData.io query syntax are translated. On other databases (tests, local H2) matching falls back to
+ * case-insensitive {@code LIKE} on the title and description.</p>
+ */
+@Component
+public class NewsArticleStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(NewsArticleStore.class);
+
+    static final DateTimeFormatter PUB_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final long COVERAGE_RECHECK_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private static final String COLUMNS = "a.article_id, a.title, a.link, a.description, a.published_at, a.image_url, "
+            + "a.source_id, a.source_url, a.source_icon, a.source_priority, a.language, a.sentiment";
+    private static final String SEARCHABLE_TEXT = "LOWER(CONCAT(a.title, ' ', COALESCE(a.description, '')))";
+
+    private final StoredNewsArticleRepository repository;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private volatile Boolean postgres;
+    private volatile Coverage coverage = new Coverage(false, ConcurrentHashMap.newKeySet());
+    private volatile boolean coverageStale = true;
+    private volatile long nextCoverageCheck;
+
+    public NewsArticleStore(StoredNewsArticleRepository repository,
+                            JdbcTemplate jdbcTemplate,
+                            @Value("${app.news.store.enabled:true}") boolean enabled) {
+        this.repository = repository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Whether reads for {@code countryCode} should be served from the store: it is enabled and prefetch has stored
+     * articles for that country (any article when no country is given). Which countries are covered is re-read
+     * from the database at most once a minute, and after every purge.
+     *
+     * @param countryCode optional alpha-2 or alpha-3 country code
+     */
+    public boolean isReady(String countryCode) {
+        if (!enabled) {
+            return false;
+        }
+        Coverage current = currentCoverage();
+        if (countryCode == null || countryCode.isBlank()) {
+            return current.any();
+        }
+        return current.countries().contains(countryKey(countryCode));
+    }
+
+    private Coverage currentCoverage() {
+        long now = System.nanoTime();
+        if (!coverageStale && now - nextCoverageCheck < 0) {
+            return coverage;
+        }
+        coverageStale = false;
+        nextCoverageCheck = now + COVERAGE_RECHECK_NANOS;
+        try {
+            Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM news_article", Long.class);
+            Set<String> countries = ConcurrentHashMap.newKeySet();
+            countries.addAll(jdbcTemplate.queryForList(
+                    "SELECT DISTINCT country_code FROM news_article_country", String.class));
+            coverage = new Coverage(count != null && count > 0, countries);
+        } catch (DataAccessException ex) {
+            logger.warn("Could not check the local news store: {}", ex.getMessage());
+        }
+        return coverage;
+    }
+
+    /**
+     * One page of stored articles, newest first.
+     *
+     * @param countryCode optional alpha-2 or alpha-3 country code
+     * @param text optional search text in NewsData.io query syntax
+     * @param page zero-based page number
+     * @param size page size
+     */
+    public NewsDataResponse find(String countryCode, String text, int page, int size) {
+        StringBuilder where = new StringBuilder(" WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+        if (countryCode != null && !countryCode.isBlank()) {
+            where.append(" AND EXISTS (SELECT 1 FROM news_article_country c "
+                    + "WHERE c.article_id = a.article_id AND c.country_code = ?)");
+            args.add(countryKey(countryCode));
+        }
+        if (text != null && !text.isBlank()) {
+            appendTextFilter(where, args, text);
+        }
+
+        Long total = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM news_article a" + where, Long.class, args.toArray());
+        List<Object> pageArgs = new ArrayList<>(args);
+        pageArgs.add(size);
+        pageArgs.add((long) page * size);
+        List<NewsArticle> articles = jdbcTemplate.query(
+                "SELECT " + COLUMNS + " FROM news_article a" + where
+                        + " ORDER BY a.published_at DESC NULLS LAST, a.article_id LIMIT ? OFFSET ?",
+                (rs, rowNum) -> toArticle(rs), pageArgs.toArray());
+
+        long count = total == null ? 0 : total;
+        NewsDataResponse response = new NewsDataResponse();
+        response.setStatus("success");
+        response.setTotalResults((int) Math.min(count, Integer.MAX_VALUE));
+        response.setArticles(articles);
+        response.setNextPage((long) (page + 1) * size < count ? String.valueOf(page + 1) : null);
+        return response;
+    }
+
+    /**
+     * Insert new articles and refresh known ones, tagging each with {@code countryCode} when given.
+     *
+     * @return how many articles were new
+     */
+    @Transactional
+    public int save(List<NewsArticle> articles, String countryCode, Instant fetchedAt) {
+        if (articles == null || articles.isEmpty()) {
+            return 0;
+        }
+        Map<String, NewsArticle> byId = new LinkedHashMap<>();
+        for (NewsArticle article : articles) {
+            if (article != null && notBlank(article.getArticleId()) && notBlank(article.getTitle())) {
+                byId.putIfAbsent(article.getArticleId(), article);
+            }
+        }
+        if (byId.isEmpty()) {
+            return 0;
+        }
+
+        Map<String, StoredNewsArticle> existing = new LinkedHashMap<>();
+        for (StoredNewsArticle stored : repository.findAllById(byId.keySet())) {
+            existing.put(stored.getArticleId(), stored);
+        }
+        String iso2 = NewsCountryCodes.toIso2(countryCode);
+        List<StoredNewsArticle> changed = new ArrayList<>(byId.size());
+        int added = 0;
+        for (NewsArticle article : byId.values()) {
+            StoredNewsArticle stored = existing.get(article.getArticleId());
+            if (stored == null) {
+                stored = new StoredNewsArticle(article.getArticleId(), null, fetchedAt);
+                added++;
+            }
+            copy(article, stored);
+            if (iso2 != null) {
+                stored.getCountryCodes().add(iso2);
+            }
+            changed.add(stored);
+        }
+        repository.saveAll(changed);
+        Coverage current = coverage;
+        if (iso2 != null) {
+            current.countries().add(iso2);
+        }
+        coverage = new Coverage(true, current.countries());
+        return added;
+    }
+
+    /** Drop articles published (or, without a publish date, fetched) before {@code cutoff}. */
+    @Transactional
+    public int purgeOlderThan(Instant cutoff) {
+        Timestamp before = Timestamp.from(cutoff);
+        jdbcTemplate.update("DELETE FROM news_article_country WHERE article_id IN "
+                + "(SELECT article_id FROM news_article WHERE COALESCE(published_at, fetched_at) < ?)", before);
+        int purged = jdbcTemplate.update("DELETE FROM news_article WHERE COALESCE(published_at, fetched_at) < ?", before);
+        if (purged > 0) {
+            // A purge can empty the store or drop a country's last article, so re-read coverage on the next read
+            coverageStale = true;
+        }
+        return purged;
+    }
+
+    private static String countryKey(String countryCode) {
+        String iso2 = NewsCountryCodes.toIso2(countryCode);
+        return iso2 != null ? iso2 : countryCode.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /** Whether the store holds any article, and the countries that at least one article is tagged with. */
+    private record Coverage(boolean any, Set<String> countries) { }
+
+    private void appendTextFilter(StringBuilder where, List<Object> args, String text) {
+        if (isPostgres()) {
+            where.append(" AND a.search_vector @@ websearch_to_tsquery('english', ?)");
+            args.add(toWebSearch(text));
+            return;
+        }
+        List<String> include = new ArrayList<>();
+        List<String> exclude = new ArrayList<>();
+        boolean any = false;
+        boolean negate = false;
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (token.isEmpty() || token.equals("and")) {
+                continue;
+            }
+            if (token.equals("or")) {
+                any = true;
+            } else if (token.equals("not")) {
+                negate = true;
+            } else {
+                (negate ? exclude : include).add("%" + token + "%");
+                negate = false;
+            }
+        }
+        if (!include.isEmpty()) {
+            where.append(" AND (");
+            for (int i = 0; i < include.size(); i++) {
+                where.append(i == 0 ? "" : any ? " OR " : " AND ").append(SEARCHABLE_TEXT).append(" LIKE ?");
+            }
+            where.append(")");
+            args.addAll(include);
+        }
+        for (String term : exclude) {
+            where.append(" AND ").append(SEARCHABLE_TEXT).append(" NOT LIKE ?");
+            args.add(term);
+        }
+    }
+
+    /** Translate NewsData.io query syntax (AND, OR, NOT, quotes, parentheses) into websearch_to_tsquery input. */
+    static String toWebSearch(String text) {
+        return text.replaceAll("(?i)\\bNOT\\s+", "-")
+                .replaceAll("(?i)\\bAND\\b", " ")
+                .replaceAll("(?i)\\bOR\\b", "or")
+                .replaceAll("[()]", " ")
+                .replaceAll("\\s+", " ")
+                .trim();
+    }
+
+    static Instant parsePubDate(String pubDate, String pubDateTz) {
+        if (pubDate == null || pubDate.isBlank()) {
+            return null;
+        }
+        try {
+            ZoneId zone = pubDateTz == null || pubDateTz.isBlank() ? ZoneOffset.UTC : ZoneId.of(pubDateTz);
+            return LocalDateTime.parse(pubDate.trim(), PUB_DATE_FORMAT).atZone(zone).toInstant();
+        } catch (DateTimeException ex) {
+            return null;
+        }
+    }
+
+    private boolean isPostgres() {
+        Boolean known = postgres;
+        if (known == null) {
+            try {
+                known = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                        "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName()));
+            } catch (DataAccessException ex) {
+                logger.warn("Could not detect the news store database: {}", ex.getMessage());
+            }
+            known = Boolean.TRUE.equals(known);
+            postgres = known;
+        }
+        return known;
+    }
+
+    private static void copy(NewsArticle article, StoredNewsArticle stored) {
+        stored.setTitle(truncate(article.getTitle(), StoredNewsArticle.TITLE_LENGTH));
+        stored.setLink(truncate(article.getLink(), StoredNewsArticle.URL_LENGTH));
+        stored.setDescription(article.getDescription());
+        stored.setPublishedAt(parsePubDate(article.getPubDate(), article.getPubDateTZ()));
+        stored.setImageUrl(truncate(article.getImageUrl(), StoredNewsArticle.URL_LENGTH));
+        stored.setSourceId(truncate(article.getSourceId(), 128));
+        stored.setSourceUrl(truncate(article.getSourceUrl(), StoredNewsArticle.URL_LENGTH));
+        stored.setSourceIcon(truncate(article.getSourceIcon(), StoredNewsArticle.URL_LENGTH));
+        stored.setSourcePriority(article.getSourcePriority());
+        stored.setLanguage(truncate(article.getLanguage(), 64));
+        stored.setSentiment(truncate(article.getSentiment(), 32));
+    }
+
+    private static NewsArticle toArticle(ResultSet rs) throws SQLException {
+        NewsArticle article = new NewsArticle();
+        article.setArticleId(rs.getString("article_id"));
+        article.setTitle(rs.getString("title"));
+        article.setLink(rs.getString("link"));
+        article.setDescription(rs.getString("description"));
+        Timestamp published = rs.getTimestamp("published_at");
+        if (published != null) {
+            article.setPubDate(PUB_DATE_FORMAT.format(published.toInstant().atZone(ZoneOffset.UTC)));
+            article.setPubDateTZ("UTC");
+        }
+        article.setImageUrl(rs.getString("image_url"));
+        article.setSourceId(rs.getString("source_id"));
+        article.setSourceUrl(rs.getString("source_url"));
+        article.setSourceIcon(rs.getString("source_icon"));
+        int priority = rs.getInt("source_priority");
+        article.setSourcePriority(rs.wasNull() ? null : priority);
+        article.setLanguage(rs.getString("language"));
+        article.setSentiment(rs.getString("sentiment"));
+        article.setDuplicate(false);
+        return article;
+    }
+
+    private static String truncate(String value, int max) {
+        return value == null || value.length() <= max ? value : value.substring(0, max);
+    }
+
+    private static boolean notBlank(String value) {
+        return value != null && !value.isBlank();
+    }
+}
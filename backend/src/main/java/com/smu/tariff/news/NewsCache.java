@@ -0,0 +1,246 @@
+package com.smu.tariff.news;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.smu.tariff.util.BoundedExecutors;
+import com.smu.tariff.util.LruMap;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Server-side cache of NewsData.io responses, keyed by endpoint plus the fully built {@link NewsDataRequest}.
+ *
+ * <p>Each entry is fresh for its endpoint's TTL. After that it is served stale for up to
+ * {@code stale-while-revalidate-seconds} while a single background refresh runs; past that window the caller
+ * waits for a new fetch. If a fetch fails, the last good result is returned for as long as it stays within
+ * {@code stale-if-error-minutes}. Entries live in a size-bounded LRU map. Lookups are published as
+ * {@code news.cache} counters tagged by endpoint and result.</p>
+ */
+@Component
+public class NewsCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(NewsCache.class);
+
+    /** The cached service operations; each has its own TTL. */
+    public enum Endpoint { TARIFF, SEARCH, COUNTRY, ARCHIVE, NEXT_PAGE, SOURCES }
+
+    private final int maxEntries;
+    private final Map<Endpoint, Duration> ttls;
+    private final Duration staleWhileRevalidate;
+    private final Duration staleIfError;
+    private final Executor refreshExecutor;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+    private final Map<String, Entry> entries;
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    @Autowired
+    public NewsCache(@Value("${app.news.cache.max-entries:500}") int maxEntries,
+                     @Value("${app.news.cache.ttl-seconds.tariff:300}") long tariffTtl,
+                     @Value("${app.news.cache.ttl-seconds.search:300}") long searchTtl,
+                     @Value("${app.news.cache.ttl-seconds.country:300}") long countryTtl,
+                     @Value("${app.news.cache.ttl-seconds.archive:86400}") long archiveTtl,
+                     @Value("${app.news.cache.ttl-seconds.next-page:300}") long nextPageTtl,
+                     @Value("${app.news.cache.ttl-seconds.sources:86400}") long sourcesTtl,
+                     @Value("${app.news.cache.stale-while-revalidate-seconds:3600}") long staleWhileRevalidateSeconds,
+                     @Value("${app.news.cache.stale-if-error-minutes:1440}") long staleIfErrorMinutes,
+                     @Value("${app.news.cache.refresh-threads:2}") int refreshThreads,
+                     MeterRegistry meterRegistry) {
+        this(maxEntries,
+                ttls(tariffTtl, searchTtl, countryTtl, archiveTtl, nextPageTtl, sourcesTtl),
+                Duration.ofSeconds(staleWhileRevalidateSeconds),
+                Duration.ofMinutes(staleIfErrorMinutes),
+                BoundedExecutors.newBoundedExecutor("news-refresh", refreshThreads, maxEntries),
+                meterRegistry,
+                Clock.systemUTC());
+    }
+
+    NewsCache(int maxEntries,
+              Map<Endpoint, Duration> ttls,
+              Duration staleWhileRevalidate,
+              Duration staleIfError,
+              Executor refreshExecutor,
+              MeterRegistry meterRegistry,
+              Clock clock) {
+        this.maxEntries = maxEntries;
+        this.ttls = new EnumMap<>(Endpoint.class);
+        this.ttls.putAll(ttls);
+        this.staleWhileRevalidate = staleWhileRevalidate;
+        // Stale-if-error never ends before the revalidation window does
+        this.staleIfError = staleIfError.compareTo(staleWhileRevalidate) < 0 ? staleWhileRevalidate : staleIfError;
+        this.refreshExecutor = refreshExecutor;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        this.entries = new LruMap<>(maxEntries);
+        Gauge.builder("news.cache.size", this, NewsCache::size).register(meterRegistry);
+    }
+
+    /**
+     * A cache that always calls through.
+     */
+    static NewsCache disabled() {
+        return new NewsCache(0, Map.of(), Duration.ZERO, Duration.ZERO, Runnable::run,
+                new SimpleMeterRegistry(), Clock.systemUTC());
+    }
+
+    /**
+     * Return the cached result for {@code request} on {@code endpoint}, loading it with {@code loader} when
+     * missing or too stale.
+     *
+     * @throws RuntimeException from {@code loader} when the fetch fails and there is no usable earlier result
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(Endpoint endpoint, NewsDataRequest request, Supplier<T> loader) {
+        if (maxEntries <= 0) {
+            return loader.get();
+        }
+        String key = endpoint.name() + '|' + request.cacheKey();
+        Instant now = clock.instant();
+        Entry cached;
+        synchronized (entries) {
+            cached = entries.get(key);
+        }
+
+        if (cached != null && now.isBefore(cached.freshUntil())) {
+            count(endpoint, "hit");
+            return (T) cached.value();
+        }
+        if (cached != null && now.isBefore(cached.fetchedAt().plus(ttl(endpoint)).plus(staleWhileRevalidate))) {
+            count(endpoint, "stale");
+            refreshInBackground(endpoint, key, loader);
+            return (T) cached.value();
+        }
+
+        count(endpoint, "miss");
+        try {
+            return (T) load(endpoint, key, loader);
+        } catch (RuntimeException ex) {
+            if (cached != null && now.isBefore(cached.fetchedAt().plus(ttl(endpoint)).plus(staleIfError))) {
+                count(endpoint, "error_fallback");
+                logger.warn("NewsData.io {} fetch failed, serving result from {}: {}",
+                        endpoint, cached.fetchedAt(), ex.getMessage());
+                return (T) cached.value();
+            }
+            throw ex;
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (refreshExecutor instanceof ExecutorService service) {
+            service.shutdownNow();
+        }
+    }
+
+    /**
+     * Fetch and store, sharing one upstream call between concurrent callers of the same key.
+     */
+    private Object load(Endpoint endpoint, String key, Supplier<?> loader) {
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            try {
+                return running.join();
+            } catch (CompletionException ex) {
+                if (ex.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw ex;
+            }
+        }
+        try {
+            Object value = loader.get();
+            store(endpoint, key, value);
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException ex) {
+            mine.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private void refreshInBackground(Endpoint endpoint, String key, Supplier<?> loader) {
+        if (inFlight.containsKey(key)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    load(endpoint, key, loader);
+                } catch (RuntimeException ex) {
+                    count(endpoint, "refresh_error");
+                    logger.warn("Background refresh of NewsData.io {} failed: {}", endpoint, ex.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            // Refresh queue is full; the next stale read will try again
+            logger.debug("Skipping NewsData.io {} refresh, executor saturated", endpoint);
+        }
+    }
+
+    private void store(Endpoint endpoint, String key, Object value) {
+        if (value == null) {
+            return;
+        }
+        Instant fetchedAt = clock.instant();
+        synchronized (entries) {
+            entries.put(key, new Entry(value, fetchedAt, fetchedAt.plus(ttl(endpoint))));
+        }
+    }
+
+    private Duration ttl(Endpoint endpoint) {
+        return ttls.getOrDefault(endpoint, Duration.ZERO);
+    }
+
+    private void count(Endpoint endpoint, String result) {
+        meterRegistry.counter("news.cache", "endpoint", endpoint.name().toLowerCase(), "result", result).increment();
+    }
+
+    private static Map<Endpoint, Duration> ttls(long tariff, long search, long country, long archive, long nextPage, long sources) {
+        Map<Endpoint, Duration> ttls = new EnumMap<>(Endpoint.class);
+        ttls.put(Endpoint.TARIFF, Duration.ofSeconds(tariff));
+        ttls.put(Endpoint.SEARCH, Duration.ofSeconds(search));
+        ttls.put(Endpoint.COUNTRY, Duration.ofSeconds(country));
+        ttls.put(Endpoint.ARCHIVE, Duration.ofSeconds(archive));
+        ttls.put(Endpoint.NEXT_PAGE, Duration.ofSeconds(nextPage));
+        ttls.put(Endpoint.SOURCES, Duration.ofSeconds(sources));
+        return ttls;
+    }
+
+    private record Entry(Object value, Instant fetchedAt, Instant freshUntil) { }
+}
@@ -23,9 +23,11 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 public class NewsController {
 
     private final NewsService newsService;
+    private final NewsAggregationService aggregationService;
 
-    public NewsController(NewsService newsService) {
+    public NewsController(NewsService newsService, NewsAggregationService aggregationService) {
         this.newsService = newsService;
+        this.aggregationService = aggregationService;
     }
 
     /**
@@ -34,6 +36,7 @@ public class NewsController {
      * @param country Optional ISO 2-letter country code filter (e.g., "us", "cn", "gb")
      * @param productCategory Optional product category filter (e.g., "steel", "electronics", "agriculture", "automotive")
      * @param limit Number of articles to return (default: 10, max: 50)
+     * @param page Zero-based page number; served from prefetched articles, so paging needs no upstream call
      * @return Response with news articles
      */
     @GetMapping("/tariff")
@@ -50,9 +53,11 @@ public class NewsController {
             @Parameter(description = "Product category (e.g., 'steel', 'electronics', 'agriculture', 'automotive', 'textiles')")
             @RequestParam(required = false) String productCategory,
             @Parameter(description = "Number of articles (1-50, default: 10)")
-            @RequestParam(required = false, defaultValue = "10") Integer limit) {
+            @RequestParam(required = false, defaultValue = "10") Integer limit,
+            @Parameter(description = "Zero-based page number (default: 0)")
+            @RequestParam(required = false, defaultValue = "0") Integer page) {
         
-        NewsDataResponse response = newsService.getLatestTariffNews(country, productCategory, limit);
+        NewsDataResponse response = newsService.getLatestTariffNews(country, productCategory, limit, page);
         return ResponseEntity.ok(response);
     }
 
@@ -62,6 +67,7 @@ public class NewsController {
      * @param query Search keywords (supports AND, OR, NOT operators)
      * @param country Optional country filter
      * @param limit Number of articles
+     * @param page Zero-based page number
      * @return Response with matching articles
      */
     @GetMapping("/search")
@@ -78,9 +84,11 @@ public class NewsController {
             @Parameter(description = "ISO 2-letter country code")
             @RequestParam(required = false) String country,
             @Parameter(description = "Number of articles (1-50, default: 10)")
-            @RequestParam(required = false, defaultValue = "10") Integer limit) {
+            @RequestParam(required = false, defaultValue = "10") Integer limit,
+            @Parameter(description = "Zero-based page number (default: 0)")
+            @RequestParam(required = false, defaultValue = "0") Integer page) {
         
-        NewsDataResponse response = newsService.searchNews(query, country, limit);
+        NewsDataResponse response = newsService.searchNews(query, country, limit, page);
         return ResponseEntity.ok(response);
     }
 
@@ -90,6 +98,7 @@ public class NewsController {
      * @param countryCode ISO 2-letter country code (required)
      * @param productCategory Optional product category filter
      * @param limit Number of articles
+     * @param page Zero-based page number
      * @return Response with country-specific trade news
      */
     @GetMapping("/country")
@@ -105,12 +114,41 @@ public class NewsController {
             @Parameter(description = "Product category (e.g., 'steel', 'electronics', 'agriculture')")
             @RequestParam(required = false) String productCategory,
             @Parameter(description = "Number of articles (1-50, default: 10)")
-            @RequestParam(required = false, defaultValue = "10") Integer limit) {
+            @RequestParam(required = false, defaultValue = "10") Integer limit,
+            @Parameter(description = "Zero-based page number (default: 0)")
+            @RequestParam(required = false, defaultValue = "0") Integer page) {
         
-        NewsDataResponse response = newsService.getCountryTradeNews(countryCode, productCategory, limit);
+        NewsDataResponse response = newsService.getCountryTradeNews(countryCode, productCategory, limit, page);
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Get merged trade news for several countries, e.g. every country on a user's trade lanes
+     * 
+     * @param countryCodes ISO 2- or 3-letter country codes, comma separated (required)
+     * @param productCategory Optional product category filter
+     * @param limit Number of articles in the merged result
+     * @return Response with articles from all countries, newest first; failedCountries lists countries left out
+     */
+    @GetMapping("/countries")
+    @PreAuthorize("isAuthenticated()")
+    @Operation(
+        summary = "Get trade news for several countries",
+        description = "Fetches trade news for each country in parallel and merges them, removing duplicate articles " +
+                      "and ordering by publication date. Countries that time out or fail are listed in failedCountries " +
+                      "and the response status is 'partial'."
+    )
+    public ResponseEntity<AggregatedNewsResponse> getCountriesTradeNews(
+            @Parameter(description = "Comma-separated ISO country codes (e.g., 'us,cn,sg')", required = true)
+            @RequestParam List<String> countryCodes,
+            @Parameter(description = "Product category (e.g., 'steel', 'electronics', 'agriculture')")
+            @RequestParam(required = false) String productCategory,
+            @Parameter(description = "Number of articles (1-50, default: 10)")
+            @RequestParam(required = false, defaultValue = "10") Integer limit) {
+
+        return ResponseEntity.ok(aggregationService.getCountriesTradeNews(countryCodes, productCategory, limit));
+    }
+
     /**
      * Get historical tariff news (requires NewsData.io paid plan with archive access)
      * 
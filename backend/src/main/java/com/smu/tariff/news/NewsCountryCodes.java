@@ -0,0 +1,33 @@
+package com.smu.tariff.news;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * NewsData.io filters by ISO 3166-1 alpha-2 codes, while our country table stores alpha-3 codes.
+ */
+final class NewsCountryCodes {
+
+    private static final Map<String, String> ISO3_TO_ISO2 = new HashMap<>();
+
+    static {
+        for (String iso2 : Locale.getISOCountries()) {
+            ISO3_TO_ISO2.put(new Locale("", iso2).getISO3Country(), iso2.toLowerCase(Locale.ROOT));
+        }
+    }
+
+    private NewsCountryCodes() { }
+
+    /** Lower-case alpha-2 code for an alpha-2 or alpha-3 code, or {@code null} when it is not a known country. */
+    static String toIso2(String code) {
+        if (code == null || code.isBlank()) {
+            return null;
+        }
+        String trimmed = code.trim().toUpperCase(Locale.ROOT);
+        if (trimmed.length() == 2) {
+            return trimmed.toLowerCase(Locale.ROOT);
+        }
+        return ISO3_TO_ISO2.get(trimmed);
+    }
+}
@@ -1,13 +1,12 @@
 package com.smu.tariff.news;
 
+import java.io.UncheckedIOException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
-import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
@@ -16,8 +15,11 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smu.tariff.http.OutboundHttp;
 
 /**
  * Client for NewsData.io API
@@ -40,13 +42,10 @@ public class NewsDataClient {
 
     public NewsDataClient(
             @Value("${newsdata.api.key:}") String apiKey,
-            RestTemplateBuilder restTemplateBuilder,
+            OutboundHttp outboundHttp,
             ObjectMapper objectMapper) {
         this.apiKey = apiKey;
-        this.restTemplate = restTemplateBuilder
-                .setConnectTimeout(Duration.ofSeconds(10))
-                .setReadTimeout(Duration.ofSeconds(30))
-                .build();
+        this.restTemplate = outboundHttp.restTemplate("newsdata");
         this.objectMapper = objectMapper;
     }
 
@@ -58,10 +57,17 @@ public class NewsDataClient {
      * @throws IllegalStateException if API key is not configured or request fails
      */
     public NewsDataResponse getLatestNews(NewsDataRequest request) {
+        return getLatestNews(request, NewsProjection.FULL);
+    }
+
+    /**
+     * Fetch latest news articles, decoding only the fields in {@code projection}
+     */
+    public NewsDataResponse getLatestNews(NewsDataRequest request, NewsProjection projection) {
         validateApiKey();
         
         String url = buildUrl(LATEST_ENDPOINT, request);
-        return executeRequest(url);
+        return executeRequest(url, projection);
     }
 
     /**
@@ -72,10 +78,17 @@ public class NewsDataClient {
      * @throws IllegalStateException if API key is not configured or request fails
      */
     public NewsDataResponse getArchiveNews(NewsDataRequest request) {
+        return getArchiveNews(request, NewsProjection.FULL);
+    }
+
+    /**
+     * Fetch historical news articles, decoding only the fields in {@code projection}
+     */
+    public NewsDataResponse getArchiveNews(NewsDataRequest request, NewsProjection projection) {
         validateApiKey();
         
         String url = buildUrl(ARCHIVE_ENDPOINT, request);
-        return executeRequest(url);
+        return executeRequest(url, projection);
     }
 
     /**
@@ -127,6 +140,13 @@ public class NewsDataClient {
         }
     }
 
+    /**
+     * Whether an API key is configured, so callers can skip optional work instead of failing.
+     */
+    public boolean isConfigured() {
+        return apiKey != null && !apiKey.isBlank();
+    }
+
     private void validateApiKey() {
         if (apiKey == null || apiKey.isBlank()) {
             throw new IllegalStateException("NewsData.io API key is not configured. Please add 'newsdata.api.key' to application.yml");
@@ -192,44 +212,20 @@ public class NewsDataClient {
         return url.toString();
     }
 
-    private NewsDataResponse executeRequest(String url) {
+    private NewsDataResponse executeRequest(String url, NewsProjection projection) {
         try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("User-Agent", "TariffSheriff/1.0");
-            
-            HttpEntity<String> entity = new HttpEntity<>(headers);
-            ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.GET, entity, String.class);
-
-            if (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
-                throw new IllegalStateException("NewsData.io API request failed with status " + response.getStatusCode());
-            }
-
-            JsonNode root = objectMapper.readTree(response.getBody());
-            
-            // Check for error response
-            if (root.has("status") && "error".equals(root.get("status").asText())) {
-                String errorMessage = root.has("message") ? root.get("message").asText() : "Unknown error";
-                String errorCode = root.has("code") ? root.get("code").asText() : "UNKNOWN";
-                throw new IllegalStateException("NewsData.io API error [" + errorCode + "]: " + errorMessage);
-            }
-
-            // Parse response
-            NewsDataResponse newsResponse = new NewsDataResponse();
-            newsResponse.setStatus(root.path("status").asText());
-            newsResponse.setTotalResults(root.path("totalResults").asInt(0));
-            newsResponse.setNextPage(root.path("nextPage").asText(null));
-
-            // Parse articles
-            List<NewsArticle> articles = new ArrayList<>();
-            JsonNode results = root.path("results");
-            if (results.isArray()) {
-                for (JsonNode articleNode : results) {
-                    articles.add(parseNewsArticle(articleNode));
-                }
-            }
-            newsResponse.setArticles(articles);
-
-            return newsResponse;
+            // Decode straight from the response stream, so the body is never held as a String;
+            // API errors surface as IllegalStateException from the decoder
+            return restTemplate.execute(url, HttpMethod.GET,
+                    request -> request.getHeaders().set("User-Agent", "TariffSheriff/1.0"),
+                    response -> {
+                        try (JsonParser parser = objectMapper.createParser(response.getBody())) {
+                            return NewsDataDecoder.decode(parser, projection);
+                        } catch (JsonProcessingException ex) {
+                            // RestTemplate would report an IOException here as an I/O failure, not a bad body
+                            throw new UncheckedIOException(ex);
+                        }
+                    });
 
         } catch (RestClientException ex) {
             throw new IllegalStateException("Failed to fetch news from NewsData.io", ex);
@@ -238,43 +234,6 @@ public class NewsDataClient {
         }
     }
 
-    private NewsArticle parseNewsArticle(JsonNode node) {
-        NewsArticle article = new NewsArticle();
-        article.setArticleId(node.path("article_id").asText(null));
-        article.setTitle(node.path("title").asText(null));
-        article.setLink(node.path("link").asText(null));
-        article.setDescription(node.path("description").asText(null));
-        article.setContent(node.path("content").asText(null));
-        article.setPubDate(node.path("pubDate").asText(null));
-        article.setPubDateTZ(node.path("pubDateTZ").asText(null));
-        article.setImageUrl(node.path("image_url").asText(null));
-        article.setVideoUrl(node.path("video_url").asText(null));
-        article.setSourceId(node.path("source_id").asText(null));
-        article.setSourceUrl(node.path("source_url").asText(null));
-        article.setSourceIcon(node.path("source_icon").asText(null));
-        article.setSourcePriority(node.path("source_priority").isNull() ? null : node.path("source_priority").asInt());
-        article.setLanguage(node.path("language").asText(null));
-        
-        // Parse array fields
-        article.setCountry(parseStringArray(node.path("country")));
-        article.setCategory(parseStringArray(node.path("category")));
-        article.setCreator(parseStringArray(node.path("creator")));
-        article.setKeywords(parseStringArray(node.path("keywords")));
-        
-        // Parse AI fields (paid plans only)
-        article.setAiTag(node.path("ai_tag").asText(null));
-        article.setSentiment(node.path("sentiment").asText(null));
-        article.setSentimentStats(node.path("sentiment_stats").asText(null));
-        article.setAiRegion(node.path("ai_region").asText(null));
-        article.setAiOrg(node.path("ai_org").asText(null));
-        article.setAiSummary(node.path("ai_summary").asText(null));
-        article.setAiContent(node.path("ai_content").asText(null));
-        
-        article.setDuplicate(node.path("duplicate").asBoolean(false));
-        
-        return article;
-    }
-
     private NewsSource parseNewsSource(JsonNode node) {
         NewsSource source = new NewsSource();
         source.setId(node.path("id").asText(null));
@@ -0,0 +1,197 @@
+package com.smu.tariff.news;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Streaming decoder for NewsData.io article responses.
+ *
+ * <p>Reads tokens straight into {@link NewsArticle}s without building a {@code JsonNode} tree. Fields outside
+ * the requested {@link NewsProjection} are skipped without materializing their text, so long values such as
+ * {@code content} and {@code ai_content} cost a scan but no allocation.</p>
+ */
+final class NewsDataDecoder {
+
+    @FunctionalInterface
+    private interface FieldReader {
+        void read(JsonParser parser, NewsArticle article) throws IOException;
+    }
+
+    private record Binding(NewsProjection level, FieldReader reader) { }
+
+    private static final Map<String, Binding> BINDINGS = new HashMap<>();
+
+    static {
+        bind("article_id", NewsProjection.CARD, (p, a) -> a.setArticleId(text(p)));
+        bind("title", NewsProjection.CARD, (p, a) -> a.setTitle(text(p)));
+        bind("link", NewsProjection.CARD, (p, a) -> a.setLink(text(p)));
+        bind("image_url", NewsProjection.CARD, (p, a) -> a.setImageUrl(text(p)));
+        bind("pubDate", NewsProjection.CARD, (p, a) -> a.setPubDate(text(p)));
+        bind("pubDateTZ", NewsProjection.CARD, (p, a) -> a.setPubDateTZ(text(p)));
+        bind("source_id", NewsProjection.CARD, (p, a) -> a.setSourceId(text(p)));
+        bind("source_url", NewsProjection.CARD, (p, a) -> a.setSourceUrl(text(p)));
+        bind("source_icon", NewsProjection.CARD, (p, a) -> a.setSourceIcon(text(p)));
+
+        bind("description", NewsProjection.STANDARD, (p, a) -> a.setDescription(text(p)));
+        bind("sentiment", NewsProjection.STANDARD, (p, a) -> a.setSentiment(text(p)));
+        bind("language", NewsProjection.STANDARD, (p, a) -> a.setLanguage(text(p)));
+        bind("source_priority", NewsProjection.STANDARD, (p, a) -> a.setSourcePriority(integer(p)));
+        bind("country", NewsProjection.STANDARD, (p, a) -> a.setCountry(strings(p)));
+        bind("category", NewsProjection.STANDARD, (p, a) -> a.setCategory(strings(p)));
+        bind("keywords", NewsProjection.STANDARD, (p, a) -> a.setKeywords(strings(p)));
+        bind("creator", NewsProjection.STANDARD, (p, a) -> a.setCreator(strings(p)));
+        bind("duplicate", NewsProjection.STANDARD, (p, a) -> a.setDuplicate(p.getValueAsBoolean(false)));
+
+        bind("content", NewsProjection.FULL, (p, a) -> a.setContent(text(p)));
+        bind("video_url", NewsProjection.FULL, (p, a) -> a.setVideoUrl(text(p)));
+        bind("ai_tag", NewsProjection.FULL, (p, a) -> a.setAiTag(text(p)));
+        bind("sentiment_stats", NewsProjection.FULL, (p, a) -> a.setSentimentStats(text(p)));
+        bind("ai_region", NewsProjection.FULL, (p, a) -> a.setAiRegion(text(p)));
+        bind("ai_org", NewsProjection.FULL, (p, a) -> a.setAiOrg(text(p)));
+        bind("ai_summary", NewsProjection.FULL, (p, a) -> a.setAiSummary(text(p)));
+        bind("ai_content", NewsProjection.FULL, (p, a) -> a.setAiContent(text(p)));
+    }
+
+    private NewsDataDecoder() { }
+
+    /**
+     * Decode one response body positioned before its root object.
+     *
+     * @throws IllegalStateException when the body reports {@code "status": "error"}
+     */
+    static NewsDataResponse decode(JsonParser parser, NewsProjection projection) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new JsonParseException(parser, "Expected a JSON object from NewsData.io");
+        }
+        NewsDataResponse response = new NewsDataResponse();
+        List<NewsArticle> articles = new ArrayList<>();
+        String message = null;
+        String code = null;
+        int totalResults = 0;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (name) {
+                case "status" -> response.setStatus(text(parser));
+                case "totalResults" -> totalResults = parser.getValueAsInt(0);
+                case "nextPage" -> response.setNextPage(text(parser));
+                case "message" -> message = text(parser);
+                case "code" -> code = text(parser);
+                case "results" -> {
+                    if (value == JsonToken.START_ARRAY) {
+                        while (parser.nextToken() == JsonToken.START_OBJECT) {
+                            articles.add(readArticle(parser, projection));
+                        }
+                    } else if (value == JsonToken.START_OBJECT) {
+                        // Error responses carry {"message", "code"} under results
+                        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                            String field = parser.currentName();
+                            parser.nextToken();
+                            if ("message".equals(field)) {
+                                message = text(parser);
+                            } else if ("code".equals(field)) {
+                                code = text(parser);
+                            } else {
+                                parser.skipChildren();
+                            }
+                        }
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                default -> parser.skipChildren();
+            }
+        }
+
+        if ("error".equals(response.getStatus())) {
+            throw new IllegalStateException("NewsData.io API error [" + (code != null ? code : "UNKNOWN") + "]: "
+                    + (message != null ? message : "Unknown error"));
+        }
+        response.setTotalResults(totalResults);
+        response.setArticles(articles);
+        return response;
+    }
+
+    private static NewsArticle readArticle(JsonParser parser, NewsProjection projection) throws IOException {
+        NewsArticle article = new NewsArticle();
+        if (projection.includes(NewsProjection.STANDARD)) {
+            article.setDuplicate(false);
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            Binding binding = BINDINGS.get(parser.currentName());
+            parser.nextToken();
+            if (binding != null && projection.includes(binding.level())) {
+                binding.reader().read(parser, article);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return article;
+    }
+
+    /** Scalar as text; arrays of scalars joined with ", "; objects as their JSON; null stays null. */
+    private static String text(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token == JsonToken.START_ARRAY) {
+            StringJoiner joined = new StringJoiner(", ");
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                if (parser.currentToken().isScalarValue()) {
+                    joined.add(parser.getValueAsString());
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return joined.length() == 0 ? null : joined.toString();
+        }
+        if (token == JsonToken.START_OBJECT) {
+            return parser.getCodec() != null ? parser.readValueAsTree().toString() : skip(parser);
+        }
+        return parser.getValueAsString();
+    }
+
+    private static Integer integer(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_STRING) {
+            return parser.getValueAsInt();
+        }
+        parser.skipChildren();
+        return null;
+    }
+
+    private static List<String> strings(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return null;
+        }
+        List<String> values = new ArrayList<>();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (parser.currentToken().isScalarValue()) {
+                values.add(parser.getValueAsString());
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return values.isEmpty() ? null : values;
+    }
+
+    private static String skip(JsonParser parser) throws IOException {
+        parser.skipChildren();
+        return null;
+    }
+
+    private static void bind(String field, NewsProjection level, FieldReader reader) {
+        BINDINGS.put(field, new Binding(level, reader));
+    }
+}
@@ -50,6 +50,22 @@ public class NewsDataRequest {
         return new Builder();
     }
 
+    /**
+     * Canonical form of every parameter, used as the cache key for the request.
+     * Two requests that would produce the same NewsData.io URL produce the same key.
+     */
+    String cacheKey() {
+        return String.join("|",
+                String.valueOf(query), String.valueOf(queryInTitle), String.valueOf(queryInMeta),
+                String.valueOf(country), String.valueOf(category), String.valueOf(language),
+                String.valueOf(domain), String.valueOf(domainUrl),
+                String.valueOf(fromDate), String.valueOf(toDate), String.valueOf(timeframe),
+                String.valueOf(sentiment), String.valueOf(aiTag),
+                String.valueOf(fullContent), String.valueOf(image), String.valueOf(video),
+                String.valueOf(removeDuplicate), String.valueOf(priorityDomain),
+                String.valueOf(size), String.valueOf(page));
+    }
+
     // Builder pattern for easy request construction
     public static class Builder {
         private final NewsDataRequest request = new NewsDataRequest();
@@ -0,0 +1,166 @@
+package com.smu.tariff.news;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.smu.tariff.country.Country;
+import com.smu.tariff.country.CountryRepository;
+import com.smu.tariff.model.ProductCategory;
+import com.smu.tariff.repository.ProductCategoryRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Periodically pulls tariff news from NewsData.io into the {@link NewsArticleStore}.
+ *
+ * <p>The plan is one tariff query per country and one per product category. NewsData.io credits are scarce,
+ * so each run spends at most {@code max-requests-per-run} requests and the next run resumes where this one
+ * stopped; a full pass over the plan takes {@code ceil(targets / max-requests-per-run)} runs. A run stops
+ * early after repeated upstream failures and leaves the stored articles untouched.</p>
+ */
+@Service
+public class NewsPrefetchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NewsPrefetchService.class);
+
+    private static final int MAX_FAILURES_PER_RUN = 3;
+
+    /** One prefetch query: an alpha-2 country code or a product category name. */
+    record Target(String countryCode, String categoryName) { }
+
+    private final NewsDataClient newsDataClient;
+    private final NewsArticleStore store;
+    private final CountryRepository countryRepository;
+    private final ProductCategoryRepository productCategoryRepository;
+    private final boolean enabled;
+    private final int maxRequestsPerRun;
+    private final int pageSize;
+    private final Duration retention;
+    private final Clock clock;
+    private final AtomicInteger cursor = new AtomicInteger();
+
+    private final Counter succeeded;
+    private final Counter failed;
+    private final Counter articlesAdded;
+
+    @Autowired
+    public NewsPrefetchService(NewsDataClient newsDataClient,
+                               NewsArticleStore store,
+                               CountryRepository countryRepository,
+                               ProductCategoryRepository productCategoryRepository,
+                               @Value("${app.news.prefetch.enabled:true}") boolean enabled,
+                               @Value("${app.news.prefetch.max-requests-per-run:8}") int maxRequestsPerRun,
+                               @Value("${app.news.prefetch.page-size:10}") int pageSize,
+                               @Value("${app.news.prefetch.retention-days:30}") int retentionDays,
+                               MeterRegistry meterRegistry) {
+        this(newsDataClient, store, countryRepository, productCategoryRepository, enabled, maxRequestsPerRun,
+                pageSize, Duration.ofDays(retentionDays), meterRegistry, Clock.systemUTC());
+    }
+
+    NewsPrefetchService(NewsDataClient newsDataClient,
+                        NewsArticleStore store,
+                        CountryRepository countryRepository,
+                        ProductCategoryRepository productCategoryRepository,
+                        boolean enabled,
+                        int maxRequestsPerRun,
+                        int pageSize,
+                        Duration retention,
+                        MeterRegistry meterRegistry,
+                        Clock clock) {
+        this.newsDataClient = newsDataClient;
+        this.store = store;
+        this.countryRepository = countryRepository;
+        this.productCategoryRepository = productCategoryRepository;
+        this.enabled = enabled;
+        this.maxRequestsPerRun = Math.max(1, maxRequestsPerRun);
+        this.pageSize = Math.max(1, Math.min(pageSize, 50));
+        this.retention = retention;
+        this.clock = clock;
+        this.succeeded = Counter.builder("news.prefetch.requests").tag("result", "success").register(meterRegistry);
+        this.failed = Counter.builder("news.prefetch.requests").tag("result", "failure").register(meterRegistry);
+        this.articlesAdded = Counter.builder("news.prefetch.articles").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.news.prefetch.interval-ms:3600000}",
+               initialDelayString = "${app.news.prefetch.initial-delay-ms:60000}")
+    public void prefetch() {
+        if (!enabled) {
+            return;
+        }
+        if (!newsDataClient.isConfigured()) {
+            logger.debug("Skipping news prefetch: no NewsData.io API key configured");
+            return;
+        }
+        try {
+            runOnce();
+        } catch (RuntimeException ex) {
+            logger.warn("News prefetch failed: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Fetch the next slice of the plan and store the results.
+     *
+     * @return how many new articles were stored
+     */
+    int runOnce() {
+        List<Target> plan = plan();
+        if (plan.isEmpty()) {
+            return 0;
+        }
+        int requests = Math.min(maxRequestsPerRun, plan.size());
+        int start = Math.floorMod(cursor.getAndAdd(requests), plan.size());
+        int added = 0;
+        int failures = 0;
+        for (int i = 0; i < requests; i++) {
+            Target target = plan.get((start + i) % plan.size());
+            NewsDataRequest request = NewsService.tariffNewsRequest(target.countryCode(), target.categoryName(), pageSize);
+            try {
+                NewsDataResponse response = newsDataClient.getLatestNews(request, NewsProjection.STANDARD);
+                added += store.save(response.getArticles(), target.countryCode(), clock.instant());
+                succeeded.increment();
+            } catch (RuntimeException ex) {
+                failed.increment();
+                logger.warn("News prefetch for {} failed: {}", target, ex.getMessage());
+                if (++failures >= MAX_FAILURES_PER_RUN) {
+                    logger.warn("Stopping news prefetch run after {} failures", failures);
+                    break;
+                }
+            }
+        }
+        articlesAdded.increment(added);
+
+        int purged = store.purgeOlderThan(clock.instant().minus(retention));
+        logger.info("News prefetch stored {} new articles from {} requests, purged {}", added, requests, purged);
+        return added;
+    }
+
+    List<Target> plan() {
+        List<Target> plan = new ArrayList<>();
+        for (Country country : countryRepository.findAll(Sort.by("id"))) {
+            String iso2 = NewsCountryCodes.toIso2(country.getCode());
+            if (iso2 != null) {
+                plan.add(new Target(iso2, null));
+            }
+        }
+        for (ProductCategory category : productCategoryRepository.findAll(Sort.by("id"))) {
+            if (category.getName() != null && !category.getName().isBlank()) {
+                plan.add(new Target(null, category.getName()));
+            }
+        }
+        return plan;
+    }
+}
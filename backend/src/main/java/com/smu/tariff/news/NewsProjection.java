@@ -0,0 +1,46 @@
+package com.smu.tariff.news;
+
+/**
+ * Which article fields are decoded from NewsData.io responses. Each level includes the one before it.
+ * <ul>
+ *   <li>{@link #CARD}: id, title, link, image, publish date and source, enough to render a headline card</li>
+ *   <li>{@link #STANDARD}: adds description, sentiment, language, source priority, country, category,
+ *       keywords, creator and the duplicate flag</li>
+ *   <li>{@link #FULL}: adds article content, video and the AI fields ({@code ai_*}, {@code sentiment_stats})</li>
+ * </ul>
+ */
+public enum NewsProjection {
+    CARD, STANDARD, FULL;
+
+    boolean includes(NewsProjection level) {
+        return compareTo(level) >= 0;
+    }
+
+    /**
+     * Clear the fields this projection leaves out, for articles that did not come through the decoder.
+     */
+    NewsArticle apply(NewsArticle article) {
+        if (!includes(FULL)) {
+            article.setContent(null);
+            article.setVideoUrl(null);
+            article.setAiTag(null);
+            article.setSentimentStats(null);
+            article.setAiRegion(null);
+            article.setAiOrg(null);
+            article.setAiSummary(null);
+            article.setAiContent(null);
+        }
+        if (!includes(STANDARD)) {
+            article.setDescription(null);
+            article.setSentiment(null);
+            article.setLanguage(null);
+            article.setSourcePriority(null);
+            article.setCountry(null);
+            article.setCategory(null);
+            article.setKeywords(null);
+            article.setCreator(null);
+            article.setDuplicate(null);
+        }
+        return article;
+    }
+}
@@ -1,21 +1,63 @@
 package com.smu.tariff.news;
 
 import java.util.Arrays;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.smu.tariff.model.ProductCategory;
+import com.smu.tariff.news.NewsCache.Endpoint;
+import com.smu.tariff.repository.ProductCategoryRepository;
+
 /**
  * Service layer for news operations
- * Provides business logic for fetching and processing tariff-related news
+ * Provides business logic for fetching and processing tariff-related news.
+ * Tariff, country and search reads are served from the prefetched {@link NewsArticleStore} once it holds
+ * articles; until then, and for archive, next-page and source lookups, upstream calls go through
+ * {@link NewsCache}, so repeated queries are answered without hitting NewsData.io.
+ * Each endpoint returns only the article fields of its configured {@link NewsProjection}.
  */
 @Service
 public class NewsService {
 
     private final NewsDataClient newsDataClient;
+    private final NewsCache newsCache;
+    private final NewsArticleStore articleStore; // null when constructed without Spring
+    private final ProductCategoryRepository productCategoryRepository;
+    private final Map<Endpoint, NewsProjection> projections = new EnumMap<>(Endpoint.class);
 
-    public NewsService(NewsDataClient newsDataClient) {
+    @Autowired
+    public NewsService(NewsDataClient newsDataClient,
+                       NewsCache newsCache,
+                       NewsArticleStore articleStore,
+                       ProductCategoryRepository productCategoryRepository,
+                       @Value("${app.news.projection.tariff:STANDARD}") NewsProjection tariffProjection,
+                       @Value("${app.news.projection.search:STANDARD}") NewsProjection searchProjection,
+                       @Value("${app.news.projection.country:STANDARD}") NewsProjection countryProjection,
+                       @Value("${app.news.projection.archive:STANDARD}") NewsProjection archiveProjection,
+                       @Value("${app.news.projection.next-page:STANDARD}") NewsProjection nextPageProjection) {
         this.newsDataClient = newsDataClient;
+        this.newsCache = newsCache;
+        this.articleStore = articleStore;
+        this.productCategoryRepository = productCategoryRepository;
+        projections.put(Endpoint.TARIFF, tariffProjection);
+        projections.put(Endpoint.SEARCH, searchProjection);
+        projections.put(Endpoint.COUNTRY, countryProjection);
+        projections.put(Endpoint.ARCHIVE, archiveProjection);
+        projections.put(Endpoint.NEXT_PAGE, nextPageProjection);
+    }
+
+    NewsService(NewsDataClient newsDataClient,
+                NewsCache newsCache,
+                NewsArticleStore articleStore,
+                ProductCategoryRepository productCategoryRepository) {
+        this(newsDataClient, newsCache, articleStore, productCategoryRepository, NewsProjection.STANDARD,
+                NewsProjection.STANDARD, NewsProjection.STANDARD, NewsProjection.STANDARD, NewsProjection.STANDARD);
     }
 
     /**
@@ -28,6 +70,29 @@ public class NewsService {
      * @return NewsDataResponse with articles
      */
     public NewsDataResponse getLatestTariffNews(String country, String productCategory, Integer limit) {
+        return getLatestTariffNews(country, productCategory, limit, 0);
+    }
+
+    /**
+     * Get a page of tariff-related news
+     *
+     * @param page Zero-based page number (honoured when served from the local store)
+     */
+    public NewsDataResponse getLatestTariffNews(String country, String productCategory, Integer limit, Integer page) {
+        String category = categoryTerm(productCategory);
+        NewsDataResponse stored = fromStore(Endpoint.TARIFF, country, category, page, limit);
+        if (stored != null) {
+            return stored;
+        }
+        NewsDataRequest request = tariffNewsRequest(country, category, limit);
+        return newsCache.get(Endpoint.TARIFF, request,
+                () -> newsDataClient.getLatestNews(request, projections.get(Endpoint.TARIFF)));
+    }
+
+    /**
+     * Upstream request for tariff news, shared with {@link NewsPrefetchService}.
+     */
+    static NewsDataRequest tariffNewsRequest(String country, String productCategory, Integer limit) {
         // Build strict tariff-focused query
         StringBuilder queryBuilder = new StringBuilder("(tariff OR \"import duty\" OR \"customs duty\")");
         queryBuilder.append(" AND trade");
@@ -55,7 +120,7 @@ public class NewsService {
             builder.country(Arrays.asList(country.toLowerCase()));
         }
 
-        return newsDataClient.getLatestNews(builder.build());
+        return builder.build();
     }
     
     /**
@@ -74,6 +139,19 @@ public class NewsService {
      * @return NewsDataResponse with articles
      */
     public NewsDataResponse searchNews(String query, String country, Integer limit) {
+        return searchNews(query, country, limit, 0);
+    }
+
+    /**
+     * Get a page of news for a search query
+     *
+     * @param page Zero-based page number (honoured when served from the local store)
+     */
+    public NewsDataResponse searchNews(String query, String country, Integer limit, Integer page) {
+        NewsDataResponse stored = fromStore(Endpoint.SEARCH, country, query, page, limit);
+        if (stored != null) {
+            return stored;
+        }
         NewsDataRequest.Builder builder = NewsDataRequest.builder()
                 .query(query)
                 .language(Arrays.asList("en"))
@@ -84,7 +162,9 @@ public class NewsService {
             builder.country(Arrays.asList(country));
         }
 
-        return newsDataClient.getLatestNews(builder.build());
+        NewsDataRequest request = builder.build();
+        return newsCache.get(Endpoint.SEARCH, request,
+                () -> newsDataClient.getLatestNews(request, projections.get(Endpoint.SEARCH)));
     }
 
     /**
@@ -96,6 +176,15 @@ public class NewsService {
      * @return NewsDataResponse with articles
      */
     public NewsDataResponse getCountryTradeNews(String countryCode, String productCategory, Integer limit) {
+        return getCountryTradeNews(countryCode, productCategory, limit, 0);
+    }
+
+    /**
+     * Get a page of news about a specific country's trade policies
+     *
+     * @param page Zero-based page number (honoured when served from the local store)
+     */
+    public NewsDataResponse getCountryTradeNews(String countryCode, String productCategory, Integer limit, Integer page) {
         if (countryCode == null || countryCode.isBlank()) {
             // Return an empty response or handle as appropriate (here: empty NewsDataResponse)
             NewsDataResponse emptyResponse = new NewsDataResponse();
@@ -104,11 +193,17 @@ public class NewsService {
             return emptyResponse;
         }
 
+    String productTerm = categoryTerm(productCategory);
+    NewsDataResponse stored = fromStore(Endpoint.COUNTRY, countryCode, productTerm, page, limit);
+    if (stored != null) {
+        return stored;
+    }
+
     StringBuilder queryBuilder = new StringBuilder();
     queryBuilder.append("(\"trade policy\" OR tariff OR \"customs duty\" OR \"import tax\" OR \"trade war\")");
 
-    if (productCategory != null && !productCategory.isBlank()) {
-        String category = productCategory.toLowerCase().trim();
+    if (productTerm != null) {
+        String category = productTerm.toLowerCase().trim();
         queryBuilder.append(" AND (")
                .append(category)
                .append(" OR \"").append(category).append(" sector\"")
@@ -127,7 +222,8 @@ public class NewsService {
         .size(limit != null ? Math.min(limit, 50) : 10)
         .build();
 
-    return newsDataClient.getLatestNews(request);
+    return newsCache.get(Endpoint.COUNTRY, request,
+            () -> newsDataClient.getLatestNews(request, projections.get(Endpoint.COUNTRY)));
     }
     
     /**
@@ -160,7 +256,9 @@ public class NewsService {
             builder.country(Arrays.asList(country));
         }
 
-        return newsDataClient.getArchiveNews(builder.build());
+        NewsDataRequest request = builder.build();
+        return newsCache.get(Endpoint.ARCHIVE, request,
+                () -> newsDataClient.getArchiveNews(request, projections.get(Endpoint.ARCHIVE)));
     }
 
     /**
@@ -178,7 +276,8 @@ public class NewsService {
                 .page(nextPageToken)
                 .build();
 
-        return newsDataClient.getLatestNews(request);
+        return newsCache.get(Endpoint.NEXT_PAGE, request,
+                () -> newsDataClient.getLatestNews(request, projections.get(Endpoint.NEXT_PAGE)));
     }
 
     /**
@@ -196,6 +295,50 @@ public class NewsService {
             builder.country(Arrays.asList(country));
         }
 
-        return newsDataClient.getSources(builder.build());
+        NewsDataRequest request = builder.build();
+        return newsCache.get(Endpoint.SOURCES, request, () -> newsDataClient.getSources(request));
+    }
+
+    /**
+     * A page from the local store, or null when the store has not covered this country yet or holds nothing
+     * matching the query, in which case the caller goes to NewsData.io through the cache.
+     */
+    private NewsDataResponse fromStore(Endpoint endpoint, String country, String text, Integer page, Integer limit) {
+        if (articleStore == null || !articleStore.isReady(country)) {
+            return null;
+        }
+        NewsDataResponse response = articleStore.find(country, text, pageNumber(page), pageSize(limit));
+        if (response.getTotalResults() == null || response.getTotalResults() == 0) {
+            return null;
+        }
+        NewsProjection projection = projections.get(endpoint);
+        if (response.getArticles() != null) {
+            response.getArticles().forEach(projection::apply);
+        }
+        return response;
+    }
+
+    /**
+     * The UI filters by product category code; search by the category's name when the code is known.
+     */
+    private String categoryTerm(String productCategory) {
+        if (productCategory == null || productCategory.isBlank()) {
+            return null;
+        }
+        String trimmed = productCategory.trim();
+        if (productCategoryRepository != null) {
+            return productCategoryRepository.findByCode(trimmed.toUpperCase(Locale.ROOT))
+                    .map(ProductCategory::getName)
+                    .orElse(trimmed);
+        }
+        return trimmed;
+    }
+
+    static int pageSize(Integer limit) {
+        return limit == null ? 10 : Math.max(1, Math.min(limit, 50));
+    }
+
+    private static int pageNumber(Integer page) {
+        return page == null || page < 0 ? 0 : page;
     }
 }
@@ -0,0 +1,110 @@
+package com.smu.tariff.news;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.Table;
+
+/**
+ * A prefetched NewsData.io article, kept locally so news reads never wait on the upstream API.
+ * {@code countryCodes} holds the ISO 3166-1 alpha-2 codes of the country queries that returned the article.
+ * On PostgreSQL, {@code schema.sql} adds a generated {@code search_vector} column with a GIN index for full-text search.
+ */
+@Entity
+@Table(name = "news_article",
+       indexes = @Index(name = "idx_news_article_published", columnList = "published_at"))
+public class StoredNewsArticle {
+
+    static final int TITLE_LENGTH = 1024;
+    static final int URL_LENGTH = 2048;
+
+    @Id
+    @Column(name = "article_id", length = 128)
+    private String articleId;
+
+    @Column(nullable = false, length = TITLE_LENGTH)
+    private String title;
+
+    @Column(length = URL_LENGTH)
+    private String link;
+
+    @Column(columnDefinition = "TEXT")
+    private String description;
+
+    @Column(name = "published_at")
+    private Instant publishedAt;
+
+    @Column(name = "image_url", length = URL_LENGTH)
+    private String imageUrl;
+
+    @Column(name = "source_id", length = 128)
+    private String sourceId;
+
+    @Column(name = "source_url", length = URL_LENGTH)
+    private String sourceUrl;
+
+    @Column(name = "source_icon", length = URL_LENGTH)
+    private String sourceIcon;
+
+    @Column(name = "source_priority")
+    private Integer sourcePriority;
+
+    @Column(length = 64)
+    private String language;
+
+    @Column(length = 32)
+    private String sentiment;
+
+    @Column(name = "fetched_at", nullable = false)
+    private Instant fetchedAt;
+
+    @ElementCollection
+    @CollectionTable(name = "news_article_country",
+                     joinColumns = @JoinColumn(name = "article_id"),
+                     indexes = @Index(name = "idx_news_article_country_code", columnList = "country_code"))
+    @Column(name = "country_code", length = 2, nullable = false)
+    private Set<String> countryCodes = new HashSet<>();
+
+    public StoredNewsArticle() { }
+
+    public StoredNewsArticle(String articleId, String title, Instant fetchedAt) {
+        this.articleId = articleId;
+        this.title = title;
+        this.fetchedAt = fetchedAt;
+    }
+
+    public String getArticleId() { return articleId; }
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+    public String getLink() { return link; }
+    public void setLink(String link) { this.link = link; }
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+    public Instant getPublishedAt() { return publishedAt; }
+    public void setPublishedAt(Instant publishedAt) { this.publishedAt = publishedAt; }
+    public String getImageUrl() { return imageUrl; }
+    public void setImageUrl(String imageUrl) { this.imageUrl = imageUrl; }
+    public String getSourceId() { return sourceId; }
+    public void setSourceId(String sourceId) { this.sourceId = sourceId; }
+    public String getSourceUrl() { return sourceUrl; }
+    public void setSourceUrl(String sourceUrl) { this.sourceUrl = sourceUrl; }
+    public String getSourceIcon() { return sourceIcon; }
+    public void setSourceIcon(String sourceIcon) { this.sourceIcon = sourceIcon; }
+    public Integer getSourcePriority() { return sourcePriority; }
+    public void setSourcePriority(Integer sourcePriority) { this.sourcePriority = sourcePriority; }
+    public String getLanguage() { return language; }
+    public void setLanguage(String language) { this.language = language; }
+    public String getSentiment() { return sentiment; }
+    public void setSentiment(String sentiment) { this.sentiment = sentiment; }
+    public Instant getFetchedAt() { return fetchedAt; }
+    public void setFetchedAt(Instant fetchedAt) { this.fetchedAt = fetchedAt; }
+    public Set<String> getCountryCodes() { return countryCodes; }
+}
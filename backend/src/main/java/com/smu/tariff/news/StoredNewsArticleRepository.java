@@ -0,0 +1,6 @@
+package com.smu.tariff.news;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface StoredNewsArticleRepository extends JpaRepository<StoredNewsArticle, String> {
+}
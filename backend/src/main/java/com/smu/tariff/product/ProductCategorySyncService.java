@@ -1,18 +1,19 @@
 package com.smu.tariff.product;
 
+import com.smu.tariff.http.OutboundHttp;
 import com.smu.tariff.model.ProductCategory;
 import com.smu.tariff.repository.ProductCategoryRepository;
+import com.smu.tariff.tariff.snapshot.TariffReferenceDataChangedEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
-import java.time.Duration;
 import java.util.Arrays;
 import java.util.Optional;
 
@@ -23,16 +24,16 @@ public class ProductCategorySyncService {
     private final ProductCategoryRepository repository;
     private final RestTemplate restTemplate;
     private final String apiUrl;
+    private final ApplicationEventPublisher eventPublisher;
 
     public ProductCategorySyncService(ProductCategoryRepository repository,
-                                      RestTemplateBuilder restTemplateBuilder,
-                                      @Value("${simplyduty.api.url:https://api.simplyduty.com/categories}") String apiUrl) {
+                                      OutboundHttp outboundHttp,
+                                      @Value("${simplyduty.api.url:https://api.simplyduty.com/categories}") String apiUrl,
+                                      ApplicationEventPublisher eventPublisher) {
         this.repository = repository;
-        this.restTemplate = restTemplateBuilder
-                .setConnectTimeout(Duration.ofSeconds(5))
-                .setReadTimeout(Duration.ofSeconds(20))
-                .build();
+        this.restTemplate = outboundHttp.restTemplate("simplyduty");
         this.apiUrl = apiUrl;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -67,6 +68,7 @@ public class ProductCategorySyncService {
             }
         });
 
+        eventPublisher.publishEvent(new TariffReferenceDataChangedEvent("productCategorySync"));
         log.info("Completed sync of product categories");
     }
 
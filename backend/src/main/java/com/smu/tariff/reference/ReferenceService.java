@@ -10,6 +10,8 @@ import com.smu.tariff.reference.dto.ProductCategoryCreateRequest;
 import com.smu.tariff.reference.dto.ProductCategoryUpdateRequest;
 import com.smu.tariff.repository.ProductCategoryRepository;
 import com.smu.tariff.repository.TariffRateRepository;
+import com.smu.tariff.tariff.snapshot.TariffReferenceDataChangedEvent;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.transaction.annotation.Transactional;
 import java.util.HashSet;
 import java.util.List;
@@ -23,13 +25,16 @@ public class ReferenceService {
     private final CountryRepository countryRepository;
     private final ProductCategoryRepository productCategoryRepository;
     private final TariffRateRepository tariffRateRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public ReferenceService(CountryRepository countryRepository,
                             ProductCategoryRepository productCategoryRepository,
-                            TariffRateRepository tariffRateRepository) {
+                            TariffRateRepository tariffRateRepository,
+                            ApplicationEventPublisher eventPublisher) {
         this.countryRepository = countryRepository;
         this.productCategoryRepository = productCategoryRepository;
         this.tariffRateRepository = tariffRateRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     public Country createCountry(CountryCreateRequest request) {
@@ -39,7 +44,9 @@ public class ReferenceService {
             throw new IllegalArgumentException("Country code already exists: " + code);
         });
         Country country = new Country(code, name);
-        return countryRepository.save(country);
+        Country saved = countryRepository.save(country);
+        publishChange("createCountry");
+        return saved;
     }
 
     public Country updateCountry(String currentCode, CountryUpdateRequest request) {
@@ -52,13 +59,16 @@ public class ReferenceService {
         }
         country.setCode(targetCode);
         country.setName(normalizeName(request.name));
-        return countryRepository.save(country);
+        Country saved = countryRepository.save(country);
+        publishChange("updateCountry");
+        return saved;
     }
 
     public void deleteCountry(String code) {
         Country country = getCountry(code);
         removeTariffsForCountry(country);
         countryRepository.delete(country);
+        publishChange("deleteCountry");
     }
 
     public ProductCategory createCategory(ProductCategoryCreateRequest request) {
@@ -71,7 +81,9 @@ public class ReferenceService {
         ProductCategory category = new ProductCategory(code, name);
         category.setHsCode(hsCode);
         category.setWeightBased(request.weightBased);
-        return productCategoryRepository.save(category);
+        ProductCategory saved = productCategoryRepository.save(category);
+        publishChange("createCategory");
+        return saved;
     }
 
     public ProductCategory updateCategory(String currentCode, ProductCategoryUpdateRequest request) {
@@ -86,7 +98,9 @@ public class ReferenceService {
         category.setName(normalizeName(request.name));
         category.setHsCode(normalizeHsCode(request.hsCode));
         category.setWeightBased(request.weightBased);
-        return productCategoryRepository.save(category);
+        ProductCategory saved = productCategoryRepository.save(category);
+        publishChange("updateCategory");
+        return saved;
     }
 
     public void deleteCategory(String code) {
@@ -96,6 +110,11 @@ public class ReferenceService {
             tariffRateRepository.deleteAll(related);
         }
         productCategoryRepository.delete(category);
+        publishChange("deleteCategory");
+    }
+
+    private void publishChange(String source) {
+        eventPublisher.publishEvent(new TariffReferenceDataChangedEvent(source));
     }
 
     private void removeTariffsForCountry(Country country) {
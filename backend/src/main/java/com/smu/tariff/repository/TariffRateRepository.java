@@ -3,14 +3,24 @@ package com.smu.tariff.repository;
 import com.smu.tariff.country.Country;
 import com.smu.tariff.model.ProductCategory;
 import com.smu.tariff.model.TariffRate;
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
-public interface TariffRateRepository extends JpaRepository<TariffRate, Long> {
+import com.smu.tariff.tariff.search.TariffRateSearchRepository;
+
+import jakarta.persistence.QueryHint;
+
+public interface TariffRateRepository extends JpaRepository<TariffRate, Long>, TariffRateSearchRepository {
 
     @Query("SELECT t FROM TariffRate t WHERE t.origin = :origin AND t.destination = :destination " +
            "AND t.productCategory = :category AND t.effectiveFrom <= :date " +
@@ -20,13 +30,6 @@ public interface TariffRateRepository extends JpaRepository<TariffRate, Long> {
                                          @Param("category") ProductCategory category,
                                          @Param("date") LocalDate date);
 
-    @Query("SELECT t FROM TariffRate t WHERE (:origin IS NULL OR t.origin = :origin) " +
-            "AND (:destination IS NULL OR t.destination = :destination) " +
-            "AND (:category IS NULL OR t.productCategory = :category)")
-    List<TariffRate> search(@Param("origin") Country origin,
-                            @Param("destination") Country destination,
-                            @Param("category") ProductCategory category);
-
     Optional<TariffRate> findTop1ByOriginAndDestinationAndProductCategoryOrderByEffectiveFromDesc(
             Country origin, Country destination, ProductCategory category);
     
@@ -41,9 +44,94 @@ public interface TariffRateRepository extends JpaRepository<TariffRate, Long> {
     @Query("SELECT t FROM TariffRate t JOIN FETCH t.origin JOIN FETCH t.destination JOIN FETCH t.productCategory")
     List<TariffRate> findAllWithRelations();
 
+    // Forward-only cursor for the admin export: rows arrive fetchSize at a time instead of all at once.
+    // Must be consumed inside a transaction and closed; Postgres only honours the fetch size with autocommit off.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT t FROM TariffRate t JOIN FETCH t.origin JOIN FETCH t.destination JOIN FETCH t.productCategory " +
+           "ORDER BY t.id")
+    Stream<TariffRate> streamAllWithRelations();
+
     List<TariffRate> findByOrigin(Country origin);
 
     List<TariffRate> findByDestination(Country destination);
 
     List<TariffRate> findByProductCategory(ProductCategory productCategory);
+
+    // ---- Trade insights aggregates: grouped in SQL so only the final rows leave the database ----
+
+    interface RateTotals {
+        BigDecimal getImportRateSum();
+        Long getImportCount();
+        BigDecimal getExportRateSum();
+        Long getExportCount();
+    }
+
+    interface CategoryRateSummary {
+        String getCode();
+        String getName();
+        BigDecimal getRateSum();
+        BigDecimal getFeeSum();
+        Long getRateCount();
+    }
+
+    interface PartnerRateCount {
+        String getCode();
+        String getName();
+        Long getItemCount();
+    }
+
+    interface PartnerRateItem {
+        String getPartnerCode();
+        String getCategoryCode();
+        String getCategoryName();
+        BigDecimal getBaseRate();
+        BigDecimal getAdditionalFee();
+    }
+
+    @Query("SELECT SUM(CASE WHEN t.destination.id = :countryId THEN t.baseRate ELSE null END) AS importRateSum, " +
+           "COUNT(CASE WHEN t.destination.id = :countryId THEN t.id ELSE null END) AS importCount, " +
+           "SUM(CASE WHEN t.origin.id = :countryId THEN t.baseRate ELSE null END) AS exportRateSum, " +
+           "COUNT(CASE WHEN t.origin.id = :countryId THEN t.id ELSE null END) AS exportCount " +
+           "FROM TariffRate t WHERE t.destination.id = :countryId OR t.origin.id = :countryId")
+    RateTotals sumRatesForCountry(@Param("countryId") Long countryId);
+
+    @Query("SELECT c.code AS code, c.name AS name, SUM(t.baseRate) AS rateSum, SUM(t.additionalFee) AS feeSum, " +
+           "COUNT(t.id) AS rateCount " +
+           "FROM TariffRate t JOIN t.productCategory c WHERE t.destination.id = :countryId " +
+           "GROUP BY c.code, c.name ORDER BY AVG(t.baseRate) DESC, c.code")
+    List<CategoryRateSummary> findTopImportCategories(@Param("countryId") Long countryId, Pageable page);
+
+    @Query("SELECT c.code AS code, c.name AS name, SUM(t.baseRate) AS rateSum, SUM(t.additionalFee) AS feeSum, " +
+           "COUNT(t.id) AS rateCount " +
+           "FROM TariffRate t JOIN t.productCategory c WHERE t.origin.id = :countryId " +
+           "GROUP BY c.code, c.name ORDER BY AVG(t.baseRate) DESC, c.code")
+    List<CategoryRateSummary> findTopExportCategories(@Param("countryId") Long countryId, Pageable page);
+
+    @Query("SELECT p.code AS code, p.name AS name, COUNT(t.id) AS itemCount " +
+           "FROM TariffRate t JOIN t.origin p WHERE t.destination.id = :countryId " +
+           "GROUP BY p.code, p.name ORDER BY COUNT(t.id) DESC, p.code")
+    List<PartnerRateCount> findTopImportPartners(@Param("countryId") Long countryId, Pageable page);
+
+    @Query("SELECT p.code AS code, p.name AS name, COUNT(t.id) AS itemCount " +
+           "FROM TariffRate t JOIN t.destination p WHERE t.origin.id = :countryId " +
+           "GROUP BY p.code, p.name ORDER BY COUNT(t.id) DESC, p.code")
+    List<PartnerRateCount> findTopExportPartners(@Param("countryId") Long countryId, Pageable page);
+
+    @Query("SELECT p.code AS partnerCode, c.code AS categoryCode, c.name AS categoryName, " +
+           "t.baseRate AS baseRate, t.additionalFee AS additionalFee " +
+           "FROM TariffRate t JOIN t.origin p JOIN t.productCategory c " +
+           "WHERE t.destination.id = :countryId AND p.code IN :partnerCodes ORDER BY t.baseRate DESC, c.code")
+    List<PartnerRateItem> findImportItemsForPartners(@Param("countryId") Long countryId,
+                                                     @Param("partnerCodes") Collection<String> partnerCodes);
+
+    @Query("SELECT p.code AS partnerCode, c.code AS categoryCode, c.name AS categoryName, " +
+           "t.baseRate AS baseRate, t.additionalFee AS additionalFee " +
+           "FROM TariffRate t JOIN t.destination p JOIN t.productCategory c " +
+           "WHERE t.origin.id = :countryId AND p.code IN :partnerCodes ORDER BY t.baseRate DESC, c.code")
+    List<PartnerRateItem> findExportItemsForPartners(@Param("countryId") Long countryId,
+                                                     @Param("partnerCodes") Collection<String> partnerCodes);
 }
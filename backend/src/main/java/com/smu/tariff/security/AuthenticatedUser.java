@@ -0,0 +1,77 @@
+package com.smu.tariff.security;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import com.smu.tariff.user.User;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * The principal behind a verified JWT, built from the token's claims alone: the subject, the {@code uid} claim
+ * and the {@code roles} claim written by {@link JwtService#generateToken(UserDetails)}. Immutable, so one instance
+ * can be shared by every request presenting the same token.
+ */
+public final class AuthenticatedUser implements UserDetails {
+
+    private final Long id;
+    private final String username;
+    private final List<GrantedAuthority> authorities;
+
+    public AuthenticatedUser(String username, List<GrantedAuthority> authorities) {
+        this(null, username, authorities);
+    }
+
+    public AuthenticatedUser(Long id, String username, List<GrantedAuthority> authorities) {
+        this.id = id;
+        this.username = username;
+        this.authorities = List.copyOf(authorities);
+    }
+
+    /** The principal for an already loaded user entity. */
+    public static AuthenticatedUser of(User user) {
+        List<GrantedAuthority> authorities = user.getRole() == null ? List.of() : List.copyOf(user.getAuthorities());
+        return new AuthenticatedUser(user.getId(), user.getUsername(), authorities);
+    }
+
+    static AuthenticatedUser fromClaims(Claims claims) {
+        Object roles = claims.get("roles");
+        List<GrantedAuthority> authorities = roles instanceof Collection<?> names
+                ? names.stream().map(name -> (GrantedAuthority) new SimpleGrantedAuthority(String.valueOf(name))).toList()
+                : List.of();
+        // Tokens issued before the uid claim existed carry only the subject
+        Object uid = claims.get(JwtService.USER_ID_CLAIM);
+        Long id = uid instanceof Number number ? Long.valueOf(number.longValue()) : null;
+        return new AuthenticatedUser(id, claims.getSubject(), authorities);
+    }
+
+    /** The user's primary key, or {@code null} if the token predates the {@code uid} claim. */
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    /** Tokens never carry the password. */
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return "AuthenticatedUser[" + id + ", " + username + ", " + authorities + "]";
+    }
+}
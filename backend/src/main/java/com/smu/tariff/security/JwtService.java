@@ -1,6 +1,7 @@
 package com.smu.tariff.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
@@ -10,6 +11,8 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import com.smu.tariff.user.User;
+
 import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
@@ -19,8 +22,11 @@ import java.util.stream.Collectors;
 
 @Service
 public class JwtService {
+    /** Claim holding the user's primary key, so requests can reference the user without looking it up. */
+    public static final String USER_ID_CLAIM = "uid";
+
     // For testing only
-    void setSecret(String secret) { this.secret = secret; }
+    void setSecret(String secret) { this.secret = secret; this.signInKey = null; this.parser = null; }
     void setJwtExpirationMs(long ms) { this.jwtExpirationMs = ms; }
 
     @Value("${app.jwt.secret}")
@@ -29,6 +35,19 @@ public class JwtService {
     @Value("${app.jwt.expirationMs}")
     private long jwtExpirationMs;
 
+    // Key and parser are derived from the secret once; both are immutable and thread-safe
+    private volatile Key signInKey;
+    private volatile JwtParser parser;
+
+    /**
+     * Check the signature and expiry of {@code token} in a single parse and return its claims.
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, forged or expired
+     */
+    public Claims verify(String token) {
+        return parser().parseClaimsJws(token).getBody();
+    }
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -44,6 +63,9 @@ public class JwtService {
         claims.put("roles", userDetails.getAuthorities().stream()
                 .map(GrantedAuthority::getAuthority)
                 .collect(Collectors.toList()));
+        if (userDetails instanceof User user && user.getId() != null) {
+            claims.put(USER_ID_CLAIM, user.getId());
+        }
         return generateToken(claims, userDetails);
     }
 
@@ -58,28 +80,30 @@ public class JwtService {
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
-    }
-
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+        final Claims claims = extractAllClaims(token);
+        return claims.getSubject().equals(userDetails.getUsername()) && !claims.getExpiration().before(new Date());
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    private Claims extractAllClaims(String token) {
+        return verify(token);
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    private JwtParser parser() {
+        JwtParser current = parser;
+        if (current == null) {
+            current = Jwts.parserBuilder().setSigningKey(getSignInKey()).build();
+            parser = current;
+        }
+        return current;
     }
 
     private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secret);
-        return Keys.hmacShaKeyFor(keyBytes);
+        Key current = signInKey;
+        if (current == null) {
+            byte[] keyBytes = Decoders.BASE64.decode(secret);
+            current = Keys.hmacShaKeyFor(keyBytes);
+            signInKey = current;
+        }
+        return current;
     }
 }
@@ -0,0 +1,90 @@
+package com.smu.tariff.security;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.smu.tariff.util.LruMap;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Verified tokens and their principals, so a client sending the same bearer token again is authenticated without
+ * checking the signature a second time.
+ *
+ * <p>An entry lives until the token expires or for {@code ttl-seconds}, whichever comes first, in a size-bounded
+ * LRU map. Only tokens that passed verification are stored, keyed by the full token string, so a hit is as good as
+ * a fresh verification. Lookups are published as {@code jwt.cache} counters.</p>
+ */
+@Component
+public class JwtTokenCache {
+
+    private final int maxEntries;
+    private final Duration ttl;
+    private final Clock clock;
+    private final Map<String, Entry> entries;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    @Autowired
+    public JwtTokenCache(@Value("${app.jwt.cache.max-entries:10000}") int maxEntries,
+                         @Value("${app.jwt.cache.ttl-seconds:300}") long ttlSeconds,
+                         MeterRegistry meterRegistry) {
+        this(maxEntries, Duration.ofSeconds(ttlSeconds), meterRegistry, Clock.systemUTC());
+    }
+
+    JwtTokenCache(int maxEntries, Duration ttl, MeterRegistry meterRegistry, Clock clock) {
+        this.maxEntries = maxEntries;
+        this.ttl = ttl;
+        this.clock = clock;
+        this.entries = new LruMap<>(maxEntries);
+        this.hits = Counter.builder("jwt.cache").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("jwt.cache").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("jwt.cache.size", this, JwtTokenCache::size).register(meterRegistry);
+    }
+
+    /** The principal for a previously verified, still unexpired {@code token}, or {@code null}. */
+    public AuthenticatedUser get(String token) {
+        Instant now = clock.instant();
+        synchronized (entries) {
+            Entry entry = entries.get(token);
+            if (entry != null && now.isBefore(entry.expiresAt())) {
+                hits.increment();
+                return entry.user();
+            }
+            if (entry != null) {
+                entries.remove(token);
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    /** Remember a verified token until {@code tokenExpiresAt}, or the cache TTL if sooner. */
+    public void put(String token, AuthenticatedUser user, Instant tokenExpiresAt) {
+        if (maxEntries <= 0 || tokenExpiresAt == null) {
+            return;
+        }
+        Instant capped = clock.instant().plus(ttl);
+        Instant expiresAt = tokenExpiresAt.isBefore(capped) ? tokenExpiresAt : capped;
+        synchronized (entries) {
+            entries.put(token, new Entry(user, expiresAt));
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private record Entry(AuthenticatedUser user, Instant expiresAt) { }
+}
@@ -0,0 +1,45 @@
+package com.smu.tariff.security;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Carries the authenticated principal for the current request. {@link JwtAuthFilter} binds it once when the
+ * token is verified, and services and controllers read it back instead of re-reading the {@code Authorization}
+ * header or loading the user again.
+ *
+ * <p>The principal lives in a request attribute, so it is scoped to the request exactly like a
+ * {@code @RequestScope} bean, but this component is safe to call off a request thread, where it simply returns
+ * {@code null}.</p>
+ */
+@Component
+public class RequestPrincipal {
+
+    static final String ATTRIBUTE = RequestPrincipal.class.getName() + ".PRINCIPAL";
+
+    /** Bind {@code user} to {@code request}; called by the filter before the request reaches any controller. */
+    public void bind(HttpServletRequest request, AuthenticatedUser user) {
+        request.setAttribute(ATTRIBUTE, user);
+    }
+
+    /** Bind {@code user} to the request being handled on this thread, if any. */
+    public void bind(AuthenticatedUser user) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.setAttribute(ATTRIBUTE, user, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    /** The principal bound to the current request, or {@code null} if there is none or no request is active. */
+    public AuthenticatedUser current() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        Object principal = attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        return principal instanceof AuthenticatedUser user ? user : null;
+    }
+}
@@ -1,5 +1,6 @@
 package com.smu.tariff.tariff;
 
+import java.io.IOException;
 import java.util.List;
 
 import org.springframework.http.HttpHeaders;
@@ -17,11 +18,19 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.smu.tariff.tariff.dto.TariffBatchCalcResponse;
 import com.smu.tariff.tariff.dto.TariffCalcRequest;
 import com.smu.tariff.tariff.dto.TariffCalcResponse;
 import com.smu.tariff.tariff.dto.TariffRateDto;
 import com.smu.tariff.tariff.dto.TariffRateDtoPost;
-
+import com.smu.tariff.tariff.dto.TariffRatePage;
+import com.smu.tariff.tariff.stream.ManifestFormat;
+import com.smu.tariff.tariff.stream.TariffCalculationStreamer;
+import com.smu.tariff.tariff.stream.TariffExportFormat;
+import com.smu.tariff.tariff.stream.TariffRateExporter;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
 @RestController
@@ -29,9 +38,15 @@ import jakarta.validation.Valid;
 public class TariffController {
 
     private final TariffService tariffService;
+    private final TariffCalculationStreamer calculationStreamer;
+    private final TariffRateExporter rateExporter;
 
-    public TariffController(TariffService tariffService) {
+    public TariffController(TariffService tariffService,
+                            TariffCalculationStreamer calculationStreamer,
+                            TariffRateExporter rateExporter) {
         this.tariffService = tariffService;
+        this.calculationStreamer = calculationStreamer;
+        this.rateExporter = rateExporter;
     }
 
     @PostMapping("/calculations")
@@ -41,12 +56,36 @@ public class TariffController {
         return ResponseEntity.ok(tariffService.calculate(request, includeSummary));
     }
 
+    // Lines are validated individually by the service so one bad line does not reject the whole manifest
+    @PostMapping("/calculations/batch")
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    public ResponseEntity<TariffBatchCalcResponse> calculateBatch(@RequestBody List<TariffCalcRequest> requests) {
+        return ResponseEntity.ok(tariffService.calculateBatch(requests));
+    }
+
+    // Manifests too large to buffer: NDJSON or CSV in, results streamed back chunk by chunk.
+    // The response format follows the Accept header and defaults to the request format.
+    @PostMapping("/calculations/stream")
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    public void calculateStream(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ManifestFormat inputFormat = ManifestFormat.fromContentType(request.getContentType());
+        ManifestFormat outputFormat = ManifestFormat.fromAccept(request.getHeader(HttpHeaders.ACCEPT), inputFormat);
+        response.setContentType(outputFormat.mediaType());
+        response.setCharacterEncoding("UTF-8");
+        calculationStreamer.stream(request.getInputStream(), inputFormat, response.getOutputStream(), outputFormat);
+    }
+
+    // sort is effectiveFrom, baseRate or id with an optional ,asc/,desc; pass nextCursor back as cursor for the next page
     @GetMapping("/rates")
     @PreAuthorize("hasAnyRole('USER','ADMIN')")
-    public ResponseEntity<List<TariffRateDto>> search(@RequestParam(required = false) String origin,
-                                                      @RequestParam(required = false) String destination,
-                                                      @RequestParam(required = false) String category) {
-        return ResponseEntity.ok(tariffService.search(origin, destination, category));
+    public ResponseEntity<TariffRatePage> search(@RequestParam(required = false) String origin,
+                                                 @RequestParam(required = false) String destination,
+                                                 @RequestParam(required = false) String category,
+                                                 @RequestParam(defaultValue = "0") int page,
+                                                 @RequestParam(defaultValue = "" + TariffService.DEFAULT_SEARCH_PAGE_SIZE) int size,
+                                                 @RequestParam(required = false) String sort,
+                                                 @RequestParam(required = false) String cursor) {
+        return ResponseEntity.ok(tariffService.search(origin, destination, category, page, size, sort, cursor));
     }
 
     // Admin CRUD endpoints for tariff management
@@ -56,6 +95,19 @@ public class TariffController {
         return ResponseEntity.ok(tariffService.getAllTariffs());
     }
 
+    // Whole-table export streamed from a database cursor: format=json|ndjson|csv, else the Accept header, else json
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public void exportTariffs(@RequestParam(required = false) String format,
+                              HttpServletRequest request,
+                              HttpServletResponse response) throws IOException {
+        TariffExportFormat exportFormat = TariffExportFormat.resolve(format, request.getHeader(HttpHeaders.ACCEPT));
+        response.setContentType(exportFormat.mediaType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + exportFormat.fileName());
+        rateExporter.export(response.getOutputStream(), exportFormat);
+    }
+
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<TariffRateDto> createTariff(@Valid @RequestBody TariffRateDtoPost request) {
@@ -87,7 +139,8 @@ public class TariffController {
     @PostMapping(value = "/calculations/pdf", produces = MediaType.APPLICATION_PDF_VALUE)
     @PreAuthorize("hasAnyRole('USER','ADMIN')")
     public ResponseEntity<byte[]> calculatePdf(@Valid @RequestBody TariffCalcRequest req) {
-        TariffCalcResponse resp = tariffService.calculate(req);
+        // The PDF does not include the AI summary, so don't start one
+        TariffCalcResponse resp = tariffService.calculate(req, false);
         byte[] pdfBytes = tariffService.generatePdfReport(resp);
 
         return ResponseEntity.ok()
@@ -2,14 +2,18 @@ package com.smu.tariff.tariff;
 
 import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
+import java.math.MathContext;
 import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.lowagie.text.Document;
@@ -21,18 +25,28 @@ import com.smu.tariff.country.Country;
 import com.smu.tariff.country.CountryRepository;
 import com.smu.tariff.exception.InvalidTariffRequestException;
 import com.smu.tariff.exception.TariffNotFoundException;
+import com.smu.tariff.logging.QueryLogBackpressure;
+import com.smu.tariff.logging.QueryLogDetails;
+import com.smu.tariff.logging.QueryLogEntry;
 import com.smu.tariff.logging.QueryLogService;
 import com.smu.tariff.model.ProductCategory;
 import com.smu.tariff.repository.ProductCategoryRepository;
 import com.smu.tariff.model.TariffRate;
 import com.smu.tariff.repository.TariffRateRepository;
+import com.smu.tariff.tariff.dto.TariffBatchCalcResponse;
+import com.smu.tariff.tariff.dto.TariffBatchLineResult;
 import com.smu.tariff.tariff.dto.TariffCalcRequest;
 import com.smu.tariff.tariff.dto.TariffCalcResponse;
 import com.smu.tariff.tariff.dto.TariffRateDto;
 import com.smu.tariff.tariff.dto.TariffRateDtoPost;
-import com.smu.tariff.user.User;
-import com.smu.tariff.user.UserRepository;
-import org.springframework.security.core.userdetails.UserDetails;
+import com.smu.tariff.tariff.dto.TariffRatePage;
+import com.smu.tariff.tariff.search.TariffRateCursor;
+import com.smu.tariff.tariff.search.TariffRateSort;
+import com.smu.tariff.tariff.snapshot.TariffRateLookup;
+import com.smu.tariff.tariff.snapshot.TariffReferenceDataChangedEvent;
+import com.smu.tariff.ai.AiSummaryCache;
+import com.smu.tariff.ai.AiSummaryJob;
+import com.smu.tariff.ai.AiSummaryService;
 import com.smu.tariff.ai.GeminiClient;
 
 import com.lowagie.text.*;
@@ -46,23 +60,40 @@ public class TariffService {
 
     private static final Logger logger = LoggerFactory.getLogger(TariffService.class);
 
+    static final int MAX_BATCH_LINES = 10_000;
+    static final int DEFAULT_SEARCH_PAGE_SIZE = 50;
+    static final int MAX_SEARCH_PAGE_SIZE = 200;
+
+    // Bump when buildAiPrompt changes so cached summaries from the old prompt are not reused
+    private static final String AI_PROMPT_VERSION = "v2";
+    private static final MathContext SUMMARY_BUCKET = new MathContext(2, RoundingMode.HALF_UP);
+
     private final TariffRateRepository tariffRateRepository;
     private final CountryRepository countryRepository;
     private final ProductCategoryRepository productCategoryRepository;
     private final QueryLogService queryLogService;
     private static final Safelist AI_SUMMARY_SAFE_LIST = Safelist.none().addTags("p", "b");
     private final GeminiClient geminiClient;
+    private final TariffRateLookup rateLookup;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AiSummaryService aiSummaryService;
 
     public TariffService(TariffRateRepository tariffRateRepository,
                          CountryRepository countryRepository,
                          ProductCategoryRepository productCategoryRepository,
                          QueryLogService queryLogService,
-                         GeminiClient geminiClient) {
+                         GeminiClient geminiClient,
+                         TariffRateLookup rateLookup,
+                         ApplicationEventPublisher eventPublisher,
+                         AiSummaryService aiSummaryService) {
         this.tariffRateRepository = tariffRateRepository;
         this.countryRepository = countryRepository;
         this.productCategoryRepository = productCategoryRepository;
         this.queryLogService = queryLogService;
         this.geminiClient = geminiClient;
+        this.rateLookup = rateLookup;
+        this.eventPublisher = eventPublisher;
+        this.aiSummaryService = aiSummaryService;
     }
 
     public TariffCalcResponse calculate(TariffCalcRequest req) {
@@ -70,6 +101,94 @@ public class TariffService {
     }
 
     public TariffCalcResponse calculate(TariffCalcRequest req, boolean includeSummary) {
+        TariffCalcResponse resp = price(req);
+
+        if (includeSummary) {
+            // The LLM call runs on the summary executor; clients fetch the result by id.
+            // Summaries that are already done by now (cache hits included) are returned inline without an id,
+            // since only pending jobs are guaranteed to be tracked.
+            String prompt = buildAiPrompt(resp);
+            AiSummaryJob job = aiSummaryService.submit(summaryCacheKey(resp),
+                    () -> normalizeAiSummary(geminiClient.generateSummary(prompt)));
+            resp.aiSummaryId = job.getStatus() == AiSummaryJob.Status.PENDING ? job.getId() : null;
+            resp.aiSummaryStatus = job.getStatus().name();
+            resp.aiSummary = job.getSummary();
+        } else {
+            resp.aiSummary = null;
+        }
+
+        // Logged last: the write-behind pipeline serializes resp later, so it must be complete by now
+        queryLogService.log(
+            "CALCULATE",
+            describeCalculation(req, resp),
+            resp,
+            resp.originCountryCode,
+            resp.destinationCountryCode,
+            calculationDetails(resp)
+        );
+
+        return resp;
+    }
+
+    /**
+     * Price a whole manifest in one transaction. Reference data comes from the rate snapshot, so no line
+     * touches the database; invalid lines are reported individually instead of failing the batch, and the
+     * query-log rows for successful lines are queued together and written in JDBC batches. AI summaries are not generated.
+     */
+    public TariffBatchCalcResponse calculateBatch(List<TariffCalcRequest> lines) {
+        List<QueryLogEntry> logEntries = new ArrayList<>();
+        TariffBatchCalcResponse batch = priceBatch(lines, logEntries);
+        queryLogService.logAll(logEntries);
+        return batch;
+    }
+
+    /**
+     * {@link #calculateBatch(List)}, but the query-log rows are queued with {@code backpressure} instead of the
+     * configured policy. Streamed manifests pass {@link QueryLogBackpressure#WAIT} so a long upload slows down
+     * rather than silently losing its audit rows.
+     */
+    public TariffBatchCalcResponse calculateBatch(List<TariffCalcRequest> lines, QueryLogBackpressure backpressure) {
+        List<QueryLogEntry> logEntries = new ArrayList<>();
+        TariffBatchCalcResponse batch = priceBatch(lines, logEntries);
+        queryLogService.logAll(logEntries, backpressure);
+        return batch;
+    }
+
+    private TariffBatchCalcResponse priceBatch(List<TariffCalcRequest> lines, List<QueryLogEntry> logEntries) {
+        if (lines == null || lines.isEmpty()) {
+            throw new InvalidTariffRequestException("At least one calculation line is required");
+        }
+        if (lines.size() > MAX_BATCH_LINES) {
+            throw new InvalidTariffRequestException("A batch cannot contain more than " + MAX_BATCH_LINES + " lines");
+        }
+
+        TariffBatchCalcResponse batch = new TariffBatchCalcResponse();
+        for (int i = 0; i < lines.size(); i++) {
+            TariffCalcRequest line = lines.get(i);
+            TariffBatchLineResult lineResult = new TariffBatchLineResult();
+            lineResult.index = i;
+            try {
+                if (line == null) {
+                    throw new InvalidTariffRequestException("Calculation line is required");
+                }
+                TariffCalcResponse resp = price(line);
+                lineResult.status = "OK";
+                lineResult.result = resp;
+                logEntries.add(new QueryLogEntry("CALCULATE", describeCalculation(line, resp), resp,
+                        resp.originCountryCode, resp.destinationCountryCode, calculationDetails(resp)));
+                batch.succeeded++;
+            } catch (InvalidTariffRequestException | TariffNotFoundException ex) {
+                lineResult.status = "ERROR";
+                lineResult.error = ex.getMessage();
+                batch.failed++;
+            }
+            batch.lines.add(lineResult);
+        }
+        batch.total = lines.size();
+        return batch;
+    }
+
+    private TariffCalcResponse price(TariffCalcRequest req) {
         if (req.originCountryCode == null || req.originCountryCode.trim().isEmpty()) {
             throw new InvalidTariffRequestException("Origin country code is required");
         }
@@ -89,9 +208,9 @@ public class TariffService {
             throw new InvalidTariffRequestException("effectiveFrom cannot be later than effectiveTo");
         }
 
-        Country origin = countryRepository.findByCode(req.originCountryCode.toUpperCase())
+        Country origin = rateLookup.findCountry(req.originCountryCode.toUpperCase())
                 .orElseThrow(() -> new InvalidTariffRequestException("Unknown origin country code: " + req.originCountryCode));
-        Country dest = countryRepository.findByCode(req.destinationCountryCode.toUpperCase())
+        Country dest = rateLookup.findCountry(req.destinationCountryCode.toUpperCase())
                 .orElseThrow(() -> new InvalidTariffRequestException("Unknown destination country code: " + req.destinationCountryCode));
 
         ProductCategory cat = resolveCategory(req.productCategoryCode, req.hsCode);
@@ -116,23 +235,23 @@ public class TariffService {
                 ? requestedFrom
                 : (requestedTo != null ? requestedTo : LocalDate.now());
 
-        List<TariffRate> rates = tariffRateRepository.findApplicableRates(origin, dest, cat, evaluationDate);
-        if (rates.isEmpty()) {
-            throw new TariffNotFoundException(
-                    String.format("No applicable tariff rate found for route %s -> %s, HS %s on %s",
-                            req.originCountryCode, req.destinationCountryCode, req.hsCode, evaluationDate));
-        }
-
-        TariffRate rate = selectRateForWindow(rates, requestedFrom, requestedTo);
-
-        if ((rate.getBaseRate() == null || rate.getBaseRate().compareTo(BigDecimal.ZERO) == 0)
-                && (rate.getAdditionalFee() == null || rate.getAdditionalFee().compareTo(BigDecimal.ZERO) == 0)) {
-            tariffRateRepository.findFirstByProductCategoryAndBaseRateGreaterThanOrderByEffectiveFromDesc(cat, BigDecimal.ZERO)
-                    .ifPresent(found -> {
-                        logger.info("Using fallback rate {} for category {}", found.getId(), cat.getCode());
-                        rate.setBaseRate(found.getBaseRate());
-                        rate.setAdditionalFee(found.getAdditionalFee());
-                    });
+        // The evaluation date lies inside the requested window, so the rate in force on it is the window's rate
+        TariffRate rate = rateLookup.findRateAt(origin, dest, cat, evaluationDate)
+                .orElseThrow(() -> new TariffNotFoundException(
+                        String.format("No applicable tariff rate found for route %s -> %s, HS %s on %s",
+                                req.originCountryCode, req.destinationCountryCode, req.hsCode, evaluationDate)));
+
+        // Rates come from a shared snapshot, so the fallback is applied to locals rather than the entity
+        BigDecimal storedBaseRate = rate.getBaseRate();
+        BigDecimal storedAdditionalFee = rate.getAdditionalFee();
+        if ((storedBaseRate == null || storedBaseRate.compareTo(BigDecimal.ZERO) == 0)
+                && (storedAdditionalFee == null || storedAdditionalFee.compareTo(BigDecimal.ZERO) == 0)) {
+            TariffRate fallback = rateLookup.findFallbackRate(cat).orElse(null);
+            if (fallback != null) {
+                logger.info("Using fallback rate {} for category {}", fallback.getId(), cat.getCode());
+                storedBaseRate = fallback.getBaseRate();
+                storedAdditionalFee = fallback.getAdditionalFee();
+            }
         }
 
         BigDecimal declaredPerUnit = BigDecimal.valueOf(req.declaredValue).setScale(2, RoundingMode.HALF_UP);
@@ -141,11 +260,11 @@ public class TariffService {
             declared = declaredPerUnit.multiply(weightQuantity).setScale(2, RoundingMode.HALF_UP);
         }
 
-        BigDecimal baseRate = BaseRateUtils.fromStoredPercentage(rate.getBaseRate());
+        BigDecimal baseRate = BaseRateUtils.fromStoredPercentage(storedBaseRate);
         if (baseRate == null) {
             baseRate = BigDecimal.ZERO;
         }
-        BigDecimal additionalFee = rate.getAdditionalFee() != null ? rate.getAdditionalFee() : BigDecimal.ZERO;
+        BigDecimal additionalFee = storedAdditionalFee != null ? storedAdditionalFee : BigDecimal.ZERO;
 
         BigDecimal tariffAmount = declared.multiply(baseRate).setScale(2, RoundingMode.HALF_UP);
         BigDecimal total = declared.add(tariffAmount).add(additionalFee).setScale(2, RoundingMode.HALF_UP);
@@ -173,48 +292,39 @@ public class TariffService {
                 ? "Total = (declaredValuePerUnit * weight) + (weightedValue * (baseRate / 100)) + additionalFee"
                 : "Total = declaredValue + (declaredValue * (baseRate / 100)) + additionalFee";
         resp.aiSummary = null; // to be filled later
-
-        queryLogService.log(
-            "CALCULATE",
-            String.format("{origin:%s,destination:%s,hs:%s,category:%s,declared:%s,weight:%s,requestedFrom:%s,requestedTo:%s}",
-                    resp.originCountryCode,
-                    resp.destinationCountryCode,
-                    req.hsCode,
-                    cat.getCode(),
-                    declaredPerUnit,
-                    weightQuantity != null ? weightQuantity : "-",
-                    resp.requestedEffectiveFrom == null ? "-" : resp.requestedEffectiveFrom,
-                    resp.requestedEffectiveTo == null ? "-" : resp.requestedEffectiveTo),
-            resp,
-            resp.originCountryCode,
-            resp.destinationCountryCode
-        );
-
-        if (includeSummary) {
-            String prompt = buildAiPrompt(resp);
-
-            try {
-                String aiSummary = geminiClient.generateSummary(prompt);
-                resp.aiSummary = normalizeAiSummary(aiSummary);
-            } catch (Exception e) {
-                logger.warn("Failed to generate AI summary", e);
-                resp.aiSummary = "AI summary unavailable.";
-            }
-        } else {
-            resp.aiSummary = null;
-        }
-
         return resp;
     }
 
+    private String describeCalculation(TariffCalcRequest req, TariffCalcResponse resp) {
+        return String.format("{origin:%s,destination:%s,hs:%s,category:%s,declared:%s,weight:%s,requestedFrom:%s,requestedTo:%s}",
+                resp.originCountryCode,
+                resp.destinationCountryCode,
+                req.hsCode,
+                resp.productCategoryCode,
+                resp.declaredValuePerUnit,
+                resp.weight != null ? BigDecimal.valueOf(resp.weight) : "-",
+                resp.requestedEffectiveFrom == null ? "-" : resp.requestedEffectiveFrom,
+                resp.requestedEffectiveTo == null ? "-" : resp.requestedEffectiveTo);
+    }
+
+    private QueryLogDetails calculationDetails(TariffCalcResponse resp) {
+        return new QueryLogDetails(
+                resp.hsCode,
+                resp.productCategoryCode,
+                resp.declaredValuePerUnit,
+                resp.weight != null ? BigDecimal.valueOf(resp.weight) : null,
+                resp.requestedEffectiveFrom == null ? null : LocalDate.parse(resp.requestedEffectiveFrom),
+                resp.requestedEffectiveTo == null ? null : LocalDate.parse(resp.requestedEffectiveTo));
+    }
+
     private ProductCategory resolveCategory(String categoryCode, String hsCode) {
         ProductCategory fromCode = null;
         if (categoryCode != null && !categoryCode.trim().isEmpty()) {
-            fromCode = productCategoryRepository.findByCode(categoryCode.trim().toUpperCase())
+            fromCode = rateLookup.findCategoryByCode(categoryCode.trim().toUpperCase())
                     .orElseThrow(() -> new InvalidTariffRequestException("Unknown product category code: " + categoryCode));
         }
 
-        ProductCategory fromHs = productCategoryRepository.findByHsCodeIgnoreCase(hsCode.trim())
+        ProductCategory fromHs = rateLookup.findCategoryByHsCode(hsCode.trim())
                 .orElse(null);
 
         if (fromCode != null && fromHs != null && !fromCode.getId().equals(fromHs.getId())) {
@@ -241,27 +351,8 @@ public class TariffService {
         }
     }
 
-    private TariffRate selectRateForWindow(List<TariffRate> rates, LocalDate from, LocalDate to) {
-        if (rates == null || rates.isEmpty()) {
-            throw new TariffNotFoundException("No tariff rates available for supplied filters");
-        }
-        return rates.stream()
-                .filter(rate -> overlapsRequestedWindow(rate, from, to))
-                .findFirst()
-                .orElse(rates.get(0));
-    }
-
-    private boolean overlapsRequestedWindow(TariffRate rate, LocalDate from, LocalDate to) {
-        if (from == null && to == null) {
-            return true;
-        }
-        LocalDate windowStart = from != null ? from : LocalDate.MIN;
-        LocalDate windowEnd = to != null ? to : LocalDate.MAX;
-        LocalDate rateStart = rate.getEffectiveFrom() != null ? rate.getEffectiveFrom() : LocalDate.MIN;
-        LocalDate rateEnd = rate.getEffectiveTo() != null ? rate.getEffectiveTo() : LocalDate.MAX;
-        return !rateStart.isAfter(windowEnd) && !rateEnd.isBefore(windowStart);
-    }
-
+    // No transaction: the Gemini round trip must not hold a database connection
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public String generateAiSummary(TariffCalcResponse resp) {
         if (resp == null) {
             throw new IllegalArgumentException("Tariff response is required");
@@ -269,8 +360,8 @@ public class TariffService {
 
         String prompt = buildAiPrompt(resp);
         try {
-            String aiSummary = geminiClient.generateSummary(prompt);
-            return normalizeAiSummary(aiSummary);
+            return aiSummaryService.generate(summaryCacheKey(resp),
+                    () -> normalizeAiSummary(geminiClient.generateSummary(prompt)));
         } catch (Exception e) {
             logger.warn("Failed to generate AI summary", e);
             return "AI summary unavailable.";
@@ -306,6 +397,39 @@ public class TariffService {
         return sanitized.replace("\n", "").trim();
     }
 
+    /**
+     * Cache key for the summary of {@code resp}. Covers the route, product, rate and windows exactly, but
+     * buckets declared value and weight to two significant figures since the narrative rarely depends on them.
+     * Amounts derived from those inputs (tariff, total) are left out, and {@link #buildAiPrompt} reads only
+     * these fields so a cached summary never quotes another caller's figures.
+     */
+    private String summaryCacheKey(TariffCalcResponse resp) {
+        return AiSummaryCache.keyOf(String.join("|",
+                AI_PROMPT_VERSION,
+                String.valueOf(resp.originCountryCode),
+                String.valueOf(resp.destinationCountryCode),
+                String.valueOf(resp.hsCode),
+                String.valueOf(resp.productCategoryCode),
+                String.valueOf(resp.rateEffectiveFrom),
+                String.valueOf(resp.rateEffectiveTo),
+                String.valueOf(resp.requestedEffectiveFrom),
+                String.valueOf(resp.requestedEffectiveTo),
+                summaryKeyPart(resp.baseRate, false),
+                summaryKeyPart(resp.additionalFee, false),
+                summaryKeyPart(resp.declaredValuePerUnit, true),
+                resp.weight == null ? "-" : summaryKeyPart(BigDecimal.valueOf(resp.weight), true)));
+    }
+
+    private static String summaryKeyPart(BigDecimal value, boolean bucketed) {
+        if (value == null) {
+            return "-";
+        }
+        BigDecimal normalized = bucketed ? value.round(SUMMARY_BUCKET) : value;
+        return normalized.stripTrailingZeros().toPlainString();
+    }
+
+    // Built from the cache key's fields only, with value and weight bucketed the same way, so every request that
+    // shares a cached summary would have produced the same prompt
     private String buildAiPrompt(TariffCalcResponse resp) {
         return String.format("""
             You are an international trade analyst. In fewer than 120 words, explain why the following tariff structure could be in place.
@@ -317,15 +441,12 @@ public class TariffService {
             - Product category: %s
             - Tariff schedule window: %s to %s
             - Requested period: %s to %s
-            - Declared value per unit (USD): %s
-            - Weight applied (kg): %s
-            - Weighted declared value (USD): %s
+            - Approximate declared value per unit (USD): %s
+            - Approximate weight applied (kg): %s
             - Base rate: %s
-            - Calculated tariff amount: %s
             - Additional fee: %s
-            - Total landed cost: %s
 
-            Focus on likely trade policies, agreements, or market dynamics that would justify the base rate and additional fee. Provide one actionable insight importers can use to manage this tariff exposure. Respond only with HTML consisting of exactly two <p> elements and use <b> tags for emphasis. Do not use Markdown.
+            Focus on likely trade policies, agreements, or market dynamics that would justify the base rate and additional fee. Provide one actionable insight importers can use to manage this tariff exposure. Do not quote a tariff amount or landed cost. Respond only with HTML consisting of exactly two <p> elements and use <b> tags for emphasis. Do not use Markdown.
             """,
             resp.originCountryCode,
             resp.destinationCountryCode,
@@ -335,17 +456,33 @@ public class TariffService {
             resp.rateEffectiveTo == null ? "open" : resp.rateEffectiveTo,
             resp.requestedEffectiveFrom == null ? "n/a" : resp.requestedEffectiveFrom,
             resp.requestedEffectiveTo == null ? "n/a" : resp.requestedEffectiveTo,
-            resp.declaredValuePerUnit.toPlainString(),
-            resp.weight == null ? "n/a" : resp.weight.toString(),
-            resp.declaredValue.toPlainString(),
-            resp.baseRate.toPlainString(),
-            resp.tariffAmount.toPlainString(),
-            resp.additionalFee.toPlainString(),
-            resp.totalCost.toPlainString()
+            resp.declaredValuePerUnit == null ? "n/a" : summaryKeyPart(resp.declaredValuePerUnit, true),
+            resp.weight == null ? "n/a" : summaryKeyPart(BigDecimal.valueOf(resp.weight), true),
+            summaryKeyPart(resp.baseRate, false),
+            summaryKeyPart(resp.additionalFee, false)
         );
     }
 
-    public List<TariffRateDto> search(String originCode, String destCode, String catCode) {
+    /**
+     * One page of rates matching the given codes, any of which may be blank. Pages are addressed by {@code page}
+     * and {@code size}, or by the {@code cursor} from the previous page, which seeks past it instead of skipping
+     * rows and takes precedence over {@code page}. Rows come back as DTOs from a single joined query.
+     */
+    public TariffRatePage search(String originCode, String destCode, String catCode,
+                                 int page, int size, String sort, String cursor) {
+        if (size < 1 || size > MAX_SEARCH_PAGE_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_SEARCH_PAGE_SIZE);
+        }
+        if (page < 0) {
+            throw new IllegalArgumentException("page must not be negative");
+        }
+        // The offset is page * size; past Integer.MAX_VALUE it would wrap negative and quietly serve page 0
+        if ((long) page * size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("page is too large for size " + size);
+        }
+        TariffRateSort order = TariffRateSort.parse(sort);
+        TariffRateCursor after = cursor == null || cursor.isBlank() ? null : TariffRateCursor.decode(cursor.trim(), order);
+
         Country origin = null;
         Country dest = null;
         ProductCategory cat = null;
@@ -363,10 +500,23 @@ public class TariffService {
                     .orElseThrow(() -> new InvalidTariffRequestException("Unknown product category code: " + catCode));
         }
 
-        List<TariffRateDto> dtos = tariffRateRepository.search(origin, dest, cat)
-                .stream()
-                .map(this::mapToDto)
-                .collect(Collectors.toList());
+        // One extra row tells us whether another page exists without a count query
+        List<TariffRateDto> rows = tariffRateRepository.searchRates(
+                origin == null ? null : origin.getId(),
+                dest == null ? null : dest.getId(),
+                cat == null ? null : cat.getId(),
+                order, after, page * size, size + 1);
+        boolean hasMore = rows.size() > size;
+        List<TariffRateDto> dtos = hasMore ? new ArrayList<>(rows.subList(0, size)) : rows;
+
+        TariffRatePage result = new TariffRatePage();
+        result.items = dtos;
+        result.page = after == null ? page : 0;
+        result.size = size;
+        result.sort = order.label();
+        if (hasMore) {
+            result.nextCursor = TariffRateCursor.after(order, dtos.get(size - 1)).encode();
+        }
 
         var resultSummary = new java.util.HashMap<String, Object>();
         resultSummary.put("count", dtos.size());
@@ -384,29 +534,34 @@ public class TariffService {
             String.format("{origin:%s,dest:%s,cat:%s}", originCode, destCode, catCode),
             resultSummary,
             originCode,
-            destCode
+            destCode,
+            new QueryLogDetails(null, catCode, null, null, null, null)
         );
 
-        return dtos;
+        return result;
     }
 
     public TariffRateDto createTariff(TariffRateDtoPost dto) {
         TariffRate rate = buildTariffFromPostDto(dto);
         TariffRate saved = tariffRateRepository.save(rate);
+        eventPublisher.publishEvent(new TariffReferenceDataChangedEvent("createTariff", routeCodes(saved)));
 
         queryLogService.log(
             "CREATE_TARIFF",
             summarizeTariff(rate),
             mapToDto(saved),
             saved.getOrigin().getCode(),
-            saved.getDestination().getCode()
+            saved.getDestination().getCode(),
+            tariffDetails(saved)
         );
 
         return mapToDto(saved);
     }
 
+    // Join-fetched so each row does not lazily load its countries and category; large exports use /export instead
+    @Transactional(readOnly = true)
     public List<TariffRateDto> getAllTariffs() {
-        return tariffRateRepository.findAll().stream()
+        return tariffRateRepository.findAllWithRelations().stream()
                 .map(this::mapToDto)
                 .collect(Collectors.toList());
     }
@@ -420,6 +575,7 @@ public class TariffService {
     public TariffRateDto updateTariff(Long id, TariffRateDto dto) {
         TariffRate rate = tariffRateRepository.findById(id)
                 .orElseThrow(() -> new TariffNotFoundException("Tariff with id " + id + " not found"));
+        List<String> touchedCountries = routeCodes(rate);
 
         if (dto.originCountryCode != null) {
             Country origin = countryRepository.findByCode(dto.originCountryCode.toUpperCase())
@@ -450,12 +606,16 @@ public class TariffService {
         }
 
         TariffRate saved = tariffRateRepository.save(rate);
+        // The route may have moved, so both the old and the new countries are affected
+        touchedCountries.addAll(routeCodes(saved));
+        eventPublisher.publishEvent(new TariffReferenceDataChangedEvent("updateTariff", touchedCountries));
 
         queryLogService.log(
             "UPDATE_TARIFF", summarizeTariff(saved),
             mapToDto(saved),
             saved.getOrigin().getCode(),
-            saved.getDestination().getCode()
+            saved.getDestination().getCode(),
+            tariffDetails(saved)
         );
 
         return mapToDto(saved);
@@ -465,6 +625,7 @@ public class TariffService {
     public TariffRateDto updateTariff(Long id, TariffRateDtoPost dto) {
         TariffRate rate = tariffRateRepository.findById(id)
                 .orElseThrow(() -> new TariffNotFoundException("Tariff with id " + id + " not found"));
+        List<String> touchedCountries = routeCodes(rate);
 
         if (dto.originCountryCode != null) {
             Country origin = countryRepository.findByCode(dto.originCountryCode.toUpperCase())
@@ -493,12 +654,16 @@ public class TariffService {
         rate.setEffectiveTo(dto.effectiveTo);
 
         TariffRate saved = tariffRateRepository.save(rate);
+        // The route may have moved, so both the old and the new countries are affected
+        touchedCountries.addAll(routeCodes(saved));
+        eventPublisher.publishEvent(new TariffReferenceDataChangedEvent("updateTariff", touchedCountries));
 
         queryLogService.log(
             "UPDATE_TARIFF", summarizeTariff(saved),
             mapToDto(saved),
             saved.getOrigin().getCode(),
-            saved.getDestination().getCode()
+            saved.getDestination().getCode(),
+            tariffDetails(saved)
         );
 
         return mapToDto(saved);
@@ -508,12 +673,14 @@ public class TariffService {
         TariffRate rate = tariffRateRepository.findById(id)
                 .orElseThrow(() -> new TariffNotFoundException("Tariff with id " + id + " not found"));
         tariffRateRepository.delete(rate);
+        eventPublisher.publishEvent(new TariffReferenceDataChangedEvent("deleteTariff", routeCodes(rate)));
 
         queryLogService.log(
             "DELETE_TARIFF", summarizeTariff(rate),
             null,
             rate.getOrigin().getCode(),
-            rate.getDestination().getCode()
+            rate.getDestination().getCode(),
+            tariffDetails(rate)
         );
     }
 
@@ -606,6 +773,21 @@ public class TariffService {
         );
     }
 
+    private List<String> routeCodes(TariffRate rate) {
+        List<String> codes = new ArrayList<>(2);
+        if (rate.getOrigin() != null) {
+            codes.add(rate.getOrigin().getCode());
+        }
+        if (rate.getDestination() != null) {
+            codes.add(rate.getDestination().getCode());
+        }
+        return codes;
+    }
+
+    private QueryLogDetails tariffDetails(TariffRate rate) {
+        return new QueryLogDetails(null, rate.getProductCategory().getCode(), null, null, null, null);
+    }
+
     private String summarizeTariff(TariffRate rate) {
         String idPart = rate.getId() != null ? rate.getId().toString() : "new";
         return String.format("{id:%s,origin:%s,dest:%s,cat:%s,from:%s,to:%s}",
@@ -618,20 +800,7 @@ public class TariffService {
     }
 
     private TariffRateDto mapToDto(TariffRate rate) {
-        TariffRateDto dto = new TariffRateDto();
-        dto.id = rate.getId();
-        dto.originCountryCode = rate.getOrigin().getCode();
-        dto.destinationCountryCode = rate.getDestination().getCode();
-        dto.productCategoryCode = rate.getProductCategory().getCode();
-        dto.productCategoryName = rate.getProductCategory().getName();
-        dto.hsCode = rate.getProductCategory().getHsCode();
-        dto.weightBased = rate.getProductCategory().getWeightBased();
-        dto.weightValue = rate.getWeightValue();
-        dto.baseRate = rate.getBaseRate();
-        dto.additionalFee = rate.getAdditionalFee();
-        dto.effectiveFrom = rate.getEffectiveFrom();
-        dto.effectiveTo = rate.getEffectiveTo();
-        return dto;
+        return TariffRateDto.from(rate);
     }
 
 }
@@ -0,0 +1,69 @@
+package com.smu.tariff.tariff;
+
+import java.io.IOException;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.smu.tariff.ai.AiSummaryJob;
+import com.smu.tariff.ai.AiSummaryService;
+import com.smu.tariff.exception.TariffNotFoundException;
+import com.smu.tariff.tariff.dto.TariffSummaryDto;
+
+/**
+ * Delivers AI summaries started by {@code POST /api/tariffs/calculations?includeSummary=true}.
+ */
+@RestController
+@RequestMapping("/api/tariffs/summaries")
+public class TariffSummaryController {
+
+    static final long SSE_TIMEOUT_MS = 60_000;
+
+    private final AiSummaryService aiSummaryService;
+
+    public TariffSummaryController(AiSummaryService aiSummaryService) {
+        this.aiSummaryService = aiSummaryService;
+    }
+
+    @GetMapping("/{id}")
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    public ResponseEntity<TariffSummaryDto> getSummary(@PathVariable String id) {
+        return ResponseEntity.ok(toDto(findJob(id)));
+    }
+
+    // Sends a single "summary" event once the job finishes, then closes the stream
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    public SseEmitter streamSummary(@PathVariable String id) {
+        AiSummaryJob job = findJob(id);
+        SseEmitter emitter = new SseEmitter(SSE_TIMEOUT_MS);
+        job.whenDone(done -> {
+            try {
+                emitter.send(SseEmitter.event().name("summary").data(toDto(done), MediaType.APPLICATION_JSON));
+                emitter.complete();
+            } catch (IOException | IllegalStateException ex) {
+                emitter.completeWithError(ex);
+            }
+        });
+        return emitter;
+    }
+
+    private AiSummaryJob findJob(String id) {
+        return aiSummaryService.find(id)
+                .orElseThrow(() -> new TariffNotFoundException("AI summary not found or expired: " + id));
+    }
+
+    private TariffSummaryDto toDto(AiSummaryJob job) {
+        TariffSummaryDto dto = new TariffSummaryDto();
+        dto.id = job.getId();
+        dto.status = job.getStatus().name();
+        dto.aiSummary = job.getSummary();
+        return dto;
+    }
+}
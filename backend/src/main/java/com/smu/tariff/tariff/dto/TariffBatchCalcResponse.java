@@ -0,0 +1,11 @@
+package com.smu.tariff.tariff.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class TariffBatchCalcResponse {
+    public int total;
+    public int succeeded;
+    public int failed;
+    public List<TariffBatchLineResult> lines = new ArrayList<>();
+}
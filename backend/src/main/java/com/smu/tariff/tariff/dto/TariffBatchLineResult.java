@@ -0,0 +1,8 @@
+package com.smu.tariff.tariff.dto;
+
+public class TariffBatchLineResult {
+    public int index; // zero-based position of the line in the submitted batch
+    public String status; // OK or ERROR
+    public TariffCalcResponse result;
+    public String error;
+}
@@ -23,6 +23,8 @@ public class TariffCalcResponse {
     public BigDecimal totalCost;
     public String notes;
     public String aiSummary; // Contains an AI-generated HTML summary of the tariff calculation
+    public String aiSummaryId; // set only while PENDING: poll GET /api/tariffs/summaries/{id}
+    public String aiSummaryStatus; // PENDING, READY or FAILED
 
 
     public TariffCalcResponse() { }
@@ -3,6 +3,8 @@ package com.smu.tariff.tariff.dto;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
+import com.smu.tariff.model.TariffRate;
+
 public class TariffRateDto {
     public Long id;
     public String originCountryCode;
@@ -16,4 +18,41 @@ public class TariffRateDto {
     public BigDecimal additionalFee;
     public LocalDate effectiveFrom;
     public LocalDate effectiveTo;
+
+    public TariffRateDto() { }
+
+    // Used by the search's criteria constructor expression, so rates are read without loading entities
+    public TariffRateDto(Long id, String originCountryCode, String destinationCountryCode,
+                         String productCategoryCode, String productCategoryName, String hsCode, Boolean weightBased,
+                         Float weightValue, BigDecimal baseRate, BigDecimal additionalFee,
+                         LocalDate effectiveFrom, LocalDate effectiveTo) {
+        this.id = id;
+        this.originCountryCode = originCountryCode;
+        this.destinationCountryCode = destinationCountryCode;
+        this.productCategoryCode = productCategoryCode;
+        this.productCategoryName = productCategoryName;
+        this.hsCode = hsCode;
+        this.weightBased = weightBased;
+        this.weightValue = weightValue;
+        this.baseRate = baseRate;
+        this.additionalFee = additionalFee;
+        this.effectiveFrom = effectiveFrom;
+        this.effectiveTo = effectiveTo;
+    }
+
+    /** Map a rate whose origin, destination and category are loaded (or loadable in the current session). */
+    public static TariffRateDto from(TariffRate rate) {
+        return new TariffRateDto(rate.getId(),
+                rate.getOrigin().getCode(),
+                rate.getDestination().getCode(),
+                rate.getProductCategory().getCode(),
+                rate.getProductCategory().getName(),
+                rate.getProductCategory().getHsCode(),
+                rate.getProductCategory().getWeightBased(),
+                rate.getWeightValue(),
+                rate.getBaseRate(),
+                rate.getAdditionalFee(),
+                rate.getEffectiveFrom(),
+                rate.getEffectiveTo());
+    }
 }
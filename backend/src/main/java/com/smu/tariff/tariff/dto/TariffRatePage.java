@@ -0,0 +1,16 @@
+package com.smu.tariff.tariff.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One page of a tariff rate search. {@code nextCursor} is null on the last page; otherwise pass it back as
+ * {@code cursor} (with the same {@code sort}) to continue after the last item without an offset scan.
+ */
+public class TariffRatePage {
+    public List<TariffRateDto> items = new ArrayList<>();
+    public int page;
+    public int size;
+    public String sort;
+    public String nextCursor;
+}
@@ -0,0 +1,7 @@
+package com.smu.tariff.tariff.dto;
+
+public class TariffSummaryDto {
+    public String id;
+    public String status; // PENDING, READY or FAILED
+    public String aiSummary;
+}
@@ -0,0 +1,46 @@
+package com.smu.tariff.tariff.search;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import com.smu.tariff.tariff.dto.TariffRateDto;
+
+/**
+ * Opaque keyset position in a tariff rate search: the sort key and id of the last row a client has seen, plus the
+ * ordering it belongs to so a cursor cannot be replayed against a different sort. Encoded as URL-safe base64.
+ */
+public record TariffRateCursor(TariffRateSort sort, Comparable<?> key, Long id) {
+
+    public static TariffRateCursor after(TariffRateSort sort, TariffRateDto row) {
+        return new TariffRateCursor(sort, sort.keyOf(row), row.id);
+    }
+
+    public String encode() {
+        String raw = sort.name() + "|" + key + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the token is malformed or was issued for another ordering
+     */
+    public static TariffRateCursor decode(String token, TariffRateSort expectedSort) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid tariff rate cursor", ex);
+        }
+        String[] parts = raw.split("\\|", -1);
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Invalid tariff rate cursor");
+        }
+        if (!expectedSort.name().equals(parts[0])) {
+            throw new IllegalArgumentException("Cursor was issued for a different sort");
+        }
+        try {
+            return new TariffRateCursor(expectedSort, expectedSort.parseKey(parts[1]), Long.valueOf(parts[2]));
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid tariff rate cursor", ex);
+        }
+    }
+}
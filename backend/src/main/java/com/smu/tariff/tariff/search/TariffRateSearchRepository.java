@@ -0,0 +1,26 @@
+package com.smu.tariff.tariff.search;
+
+import java.util.List;
+
+import com.smu.tariff.tariff.dto.TariffRateDto;
+
+/**
+ * Dynamic tariff rate search, mixed into {@code TariffRateRepository}. Only the filters that are set become
+ * predicates, so each combination gets a plan that can use the matching lane index.
+ */
+public interface TariffRateSearchRepository {
+
+    /**
+     * Rates matching the given ids, projected straight into DTOs with their countries and category joined in the
+     * same query.
+     *
+     * @param originId      origin country id, or {@code null} for any
+     * @param destinationId destination country id, or {@code null} for any
+     * @param categoryId    product category id, or {@code null} for any
+     * @param after         keyset position to continue after, or {@code null} to start at {@code offset}
+     * @param offset        rows to skip; ignored when {@code after} is given
+     * @param limit         maximum rows to return
+     */
+    List<TariffRateDto> searchRates(Long originId, Long destinationId, Long categoryId,
+                                    TariffRateSort sort, TariffRateCursor after, int offset, int limit);
+}
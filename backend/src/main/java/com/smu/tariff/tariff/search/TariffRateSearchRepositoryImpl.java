@@ -0,0 +1,95 @@
+package com.smu.tariff.tariff.search;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.smu.tariff.country.Country;
+import com.smu.tariff.model.ProductCategory;
+import com.smu.tariff.model.TariffRate;
+import com.smu.tariff.tariff.dto.TariffRateDto;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+/**
+ * Criteria implementation of {@link TariffRateSearchRepository}. Picked up by Spring Data by its {@code Impl}
+ * suffix.
+ */
+class TariffRateSearchRepositoryImpl implements TariffRateSearchRepository {
+
+    private final EntityManager entityManager;
+
+    TariffRateSearchRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<TariffRateDto> searchRates(Long originId, Long destinationId, Long categoryId,
+                                           TariffRateSort sort, TariffRateCursor after, int offset, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TariffRateDto> query = cb.createQuery(TariffRateDto.class);
+        Root<TariffRate> rate = query.from(TariffRate.class);
+        Join<TariffRate, Country> origin = rate.join("origin");
+        Join<TariffRate, Country> destination = rate.join("destination");
+        Join<TariffRate, ProductCategory> category = rate.join("productCategory");
+
+        query.select(cb.construct(TariffRateDto.class,
+                rate.get("id"), origin.get("code"), destination.get("code"),
+                category.get("code"), category.get("name"), category.get("hsCode"), category.get("weightBased"),
+                rate.get("weightValue"), rate.get("baseRate"), rate.get("additionalFee"),
+                rate.get("effectiveFrom"), rate.get("effectiveTo")));
+
+        // Filter on the foreign key columns of tariff_rate itself so the lane indexes apply
+        List<Predicate> where = new ArrayList<>();
+        if (originId != null) {
+            where.add(cb.equal(rate.get("origin").get("id"), originId));
+        }
+        if (destinationId != null) {
+            where.add(cb.equal(rate.get("destination").get("id"), destinationId));
+        }
+        if (categoryId != null) {
+            where.add(cb.equal(rate.get("productCategory").get("id"), categoryId));
+        }
+
+        Path<Long> id = rate.get("id");
+        Path<Comparable<Object>> key = rate.get(sort.property());
+        if (after != null) {
+            where.add(after(cb, sort, key, id, after));
+        }
+        query.where(where.toArray(Predicate[]::new));
+
+        if (sort.property().equals("id")) {
+            query.orderBy(sort.descending() ? cb.desc(id) : cb.asc(id));
+        } else if (sort.descending()) {
+            query.orderBy(cb.desc(key), cb.desc(id));
+        } else {
+            query.orderBy(cb.asc(key), cb.asc(id));
+        }
+
+        TypedQuery<TariffRateDto> typed = entityManager.createQuery(query).setMaxResults(limit);
+        if (after == null && offset > 0) {
+            typed.setFirstResult(offset);
+        }
+        return typed.getResultList();
+    }
+
+    // (key, id) strictly beyond the cursor in the sort direction
+    @SuppressWarnings("unchecked")
+    private static Predicate after(CriteriaBuilder cb, TariffRateSort sort, Expression<Comparable<Object>> key,
+                                   Path<Long> id, TariffRateCursor cursor) {
+        if (sort.property().equals("id")) {
+            return sort.descending() ? cb.lessThan(id, cursor.id()) : cb.greaterThan(id, cursor.id());
+        }
+        Comparable<Object> value = (Comparable<Object>) cursor.key();
+        Predicate beyondKey = sort.descending() ? cb.lessThan(key, value) : cb.greaterThan(key, value);
+        Predicate beyondId = sort.descending() ? cb.lessThan(id, cursor.id()) : cb.greaterThan(id, cursor.id());
+        return cb.or(beyondKey, cb.and(cb.equal(key, value), beyondId));
+    }
+}
@@ -0,0 +1,88 @@
+package com.smu.tariff.tariff.search;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+
+import com.smu.tariff.tariff.dto.TariffRateDto;
+
+/**
+ * Orderings offered by the tariff rate search. Every ordering ends with the rate id in the same direction, so
+ * rows with equal keys still have a stable order and a keyset cursor can resume between them.
+ */
+public enum TariffRateSort {
+    EFFECTIVE_FROM_DESC("effectiveFrom", true),
+    EFFECTIVE_FROM_ASC("effectiveFrom", false),
+    BASE_RATE_DESC("baseRate", true),
+    BASE_RATE_ASC("baseRate", false),
+    ID_ASC("id", false),
+    ID_DESC("id", true);
+
+    public static final TariffRateSort DEFAULT = EFFECTIVE_FROM_DESC;
+
+    private final String property;
+    private final boolean descending;
+
+    TariffRateSort(String property, boolean descending) {
+        this.property = property;
+        this.descending = descending;
+    }
+
+    /**
+     * Parse {@code property[,asc|desc]}, e.g. {@code baseRate,desc}. Blank selects {@link #DEFAULT}; a property
+     * without a direction sorts ascending.
+     *
+     * @throws IllegalArgumentException for an unknown property or direction
+     */
+    public static TariffRateSort parse(String value) {
+        if (value == null || value.isBlank()) {
+            return DEFAULT;
+        }
+        String[] parts = value.trim().split(",", 2);
+        String direction = parts.length > 1 ? parts[1].trim().toLowerCase(Locale.ROOT) : "asc";
+        if (!direction.equals("asc") && !direction.equals("desc")) {
+            throw new IllegalArgumentException("sort direction must be asc or desc");
+        }
+        for (TariffRateSort sort : values()) {
+            if (sort.property.equalsIgnoreCase(parts[0].trim()) && sort.descending == direction.equals("desc")) {
+                return sort;
+            }
+        }
+        throw new IllegalArgumentException("sort must be one of effectiveFrom, baseRate or id");
+    }
+
+    /** Entity attribute of {@code TariffRate} this ordering sorts by. */
+    public String property() {
+        return property;
+    }
+
+    public boolean descending() {
+        return descending;
+    }
+
+    /** The {@code property,direction} form accepted by {@link #parse(String)}. */
+    public String label() {
+        return property + (descending ? ",desc" : ",asc");
+    }
+
+    Comparable<?> keyOf(TariffRateDto row) {
+        return switch (this) {
+            case EFFECTIVE_FROM_DESC, EFFECTIVE_FROM_ASC -> row.effectiveFrom;
+            case BASE_RATE_DESC, BASE_RATE_ASC -> row.baseRate;
+            case ID_ASC, ID_DESC -> row.id;
+        };
+    }
+
+    Comparable<?> parseKey(String raw) {
+        try {
+            return switch (this) {
+                case EFFECTIVE_FROM_DESC, EFFECTIVE_FROM_ASC -> LocalDate.parse(raw);
+                case BASE_RATE_DESC, BASE_RATE_ASC -> new BigDecimal(raw);
+                case ID_ASC, ID_DESC -> Long.valueOf(raw);
+            };
+        } catch (DateTimeParseException | NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid tariff rate cursor", ex);
+        }
+    }
+}
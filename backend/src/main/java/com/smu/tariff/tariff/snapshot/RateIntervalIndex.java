@@ -0,0 +1,164 @@
+package com.smu.tariff.tariff.snapshot;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import com.smu.tariff.model.TariffRate;
+
+/**
+ * Static interval index over one route's rates.
+ * Rates are kept sorted by effectiveFrom and a max-effectiveTo segment tree sits on top, so
+ * "latest rate in force on D" is O(log n) and "all rates overlapping [from, to]" is O(k log n).
+ * A null effectiveFrom/effectiveTo is treated as open-ended.
+ */
+public final class RateIntervalIndex {
+
+    private static final RateIntervalIndex EMPTY = new RateIntervalIndex(List.of());
+
+    private final TariffRate[] rates;
+    private final long[] starts;
+    private final long[] ends;
+    private final long[] maxEnd;
+
+    /**
+     * @param sortedRates rates ordered by effectiveFrom ascending
+     */
+    private RateIntervalIndex(List<TariffRate> sortedRates) {
+        int n = sortedRates.size();
+        this.rates = sortedRates.toArray(new TariffRate[0]);
+        this.starts = new long[n];
+        this.ends = new long[n];
+        for (int i = 0; i < n; i++) {
+            starts[i] = startOf(rates[i].getEffectiveFrom());
+            ends[i] = endOf(rates[i].getEffectiveTo());
+        }
+        this.maxEnd = new long[Math.max(1, 4 * n)];
+        if (n > 0) {
+            build(1, 0, n - 1);
+        }
+    }
+
+    public static RateIntervalIndex of(List<TariffRate> sortedRates) {
+        return sortedRates.isEmpty() ? EMPTY : new RateIntervalIndex(sortedRates);
+    }
+
+    public static RateIntervalIndex empty() {
+        return EMPTY;
+    }
+
+    public int size() {
+        return rates.length;
+    }
+
+    /**
+     * All rates, ordered by effectiveFrom ascending.
+     */
+    public List<TariffRate> all() {
+        return List.of(rates);
+    }
+
+    /**
+     * The rate with the latest effectiveFrom that is in force on the given date.
+     */
+    public Optional<TariffRate> rateAt(LocalDate date) {
+        long day = date.toEpochDay();
+        int limit = upperBound(day) - 1;
+        if (limit < 0) {
+            return Optional.empty();
+        }
+        int idx = rightmost(1, 0, rates.length - 1, limit, day);
+        return idx < 0 ? Optional.empty() : Optional.of(rates[idx]);
+    }
+
+    /**
+     * Every rate in force on the given date, most recent effectiveFrom first.
+     */
+    public List<TariffRate> ratesAt(LocalDate date) {
+        long day = date.toEpochDay();
+        return collect(upperBound(day) - 1, day);
+    }
+
+    /**
+     * Every rate whose effective window intersects [from, to], most recent effectiveFrom first.
+     * Either bound may be null for an open-ended window.
+     */
+    public List<TariffRate> overlapping(LocalDate from, LocalDate to) {
+        long windowStart = startOf(from);
+        long windowEnd = endOf(to);
+        if (windowStart > windowEnd) {
+            return List.of();
+        }
+        return collect(upperBound(windowEnd) - 1, windowStart);
+    }
+
+    private List<TariffRate> collect(int limit, long minEnd) {
+        if (limit < 0) {
+            return List.of();
+        }
+        List<TariffRate> out = new ArrayList<>();
+        collect(1, 0, rates.length - 1, limit, minEnd, out);
+        return out;
+    }
+
+    private void build(int node, int lo, int hi) {
+        if (lo == hi) {
+            maxEnd[node] = ends[lo];
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        build(2 * node, lo, mid);
+        build(2 * node + 1, mid + 1, hi);
+        maxEnd[node] = Math.max(maxEnd[2 * node], maxEnd[2 * node + 1]);
+    }
+
+    // Rightmost index in [0, limit] whose end is >= minEnd, or -1
+    private int rightmost(int node, int lo, int hi, int limit, long minEnd) {
+        if (lo > limit || maxEnd[node] < minEnd) {
+            return -1;
+        }
+        if (lo == hi) {
+            return lo;
+        }
+        int mid = (lo + hi) >>> 1;
+        int right = rightmost(2 * node + 1, mid + 1, hi, limit, minEnd);
+        return right >= 0 ? right : rightmost(2 * node, lo, mid, limit, minEnd);
+    }
+
+    private void collect(int node, int lo, int hi, int limit, long minEnd, List<TariffRate> out) {
+        if (lo > limit || maxEnd[node] < minEnd) {
+            return;
+        }
+        if (lo == hi) {
+            out.add(rates[lo]);
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        collect(2 * node + 1, mid + 1, hi, limit, minEnd, out);
+        collect(2 * node, lo, mid, limit, minEnd, out);
+    }
+
+    // First index whose start is strictly after the given day
+    private int upperBound(long day) {
+        int lo = 0;
+        int hi = starts.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (starts[mid] <= day) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private static long startOf(LocalDate date) {
+        return date == null ? Long.MIN_VALUE : date.toEpochDay();
+    }
+
+    private static long endOf(LocalDate date) {
+        return date == null ? Long.MAX_VALUE : date.toEpochDay();
+    }
+}
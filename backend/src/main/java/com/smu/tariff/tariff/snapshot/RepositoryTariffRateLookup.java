@@ -0,0 +1,56 @@
+package com.smu.tariff.tariff.snapshot;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Optional;
+
+import com.smu.tariff.country.Country;
+import com.smu.tariff.country.CountryRepository;
+import com.smu.tariff.model.ProductCategory;
+import com.smu.tariff.model.TariffRate;
+import com.smu.tariff.repository.ProductCategoryRepository;
+import com.smu.tariff.repository.TariffRateRepository;
+
+/**
+ * Lookup that goes straight to the database on every call.
+ * Used when no snapshot is wired in (e.g. standalone construction of TariffService).
+ */
+public class RepositoryTariffRateLookup implements TariffRateLookup {
+
+    private final TariffRateRepository tariffRateRepository;
+    private final CountryRepository countryRepository;
+    private final ProductCategoryRepository productCategoryRepository;
+
+    public RepositoryTariffRateLookup(TariffRateRepository tariffRateRepository,
+                                      CountryRepository countryRepository,
+                                      ProductCategoryRepository productCategoryRepository) {
+        this.tariffRateRepository = tariffRateRepository;
+        this.countryRepository = countryRepository;
+        this.productCategoryRepository = productCategoryRepository;
+    }
+
+    @Override
+    public Optional<Country> findCountry(String code) {
+        return countryRepository.findByCode(code);
+    }
+
+    @Override
+    public Optional<ProductCategory> findCategoryByCode(String code) {
+        return productCategoryRepository.findByCode(code);
+    }
+
+    @Override
+    public Optional<ProductCategory> findCategoryByHsCode(String hsCode) {
+        return productCategoryRepository.findByHsCodeIgnoreCase(hsCode);
+    }
+
+    @Override
+    public Optional<TariffRate> findRateAt(Country origin, Country destination, ProductCategory category, LocalDate date) {
+        return tariffRateRepository.findApplicableRates(origin, destination, category, date).stream().findFirst();
+    }
+
+    @Override
+    public Optional<TariffRate> findFallbackRate(ProductCategory category) {
+        return tariffRateRepository.findFirstByProductCategoryAndBaseRateGreaterThanOrderByEffectiveFromDesc(category, BigDecimal.ZERO);
+    }
+}
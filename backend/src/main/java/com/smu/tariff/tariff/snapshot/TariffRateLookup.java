@@ -0,0 +1,31 @@
+package com.smu.tariff.tariff.snapshot;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import com.smu.tariff.country.Country;
+import com.smu.tariff.model.ProductCategory;
+import com.smu.tariff.model.TariffRate;
+
+/**
+ * Read-only reference lookups needed by a tariff calculation.
+ * Implementations must never hand out objects that callers are expected to mutate.
+ */
+public interface TariffRateLookup {
+
+    Optional<Country> findCountry(String code);
+
+    Optional<ProductCategory> findCategoryByCode(String code);
+
+    Optional<ProductCategory> findCategoryByHsCode(String hsCode);
+
+    /**
+     * The rate for the route in force on the given date; when several are, the one with the latest effectiveFrom.
+     */
+    Optional<TariffRate> findRateAt(Country origin, Country destination, ProductCategory category, LocalDate date);
+
+    /**
+     * Most recent rate for the category with a positive base rate, used when a route only carries a zero rate.
+     */
+    Optional<TariffRate> findFallbackRate(ProductCategory category);
+}
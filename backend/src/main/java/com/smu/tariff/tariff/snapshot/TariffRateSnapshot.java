@@ -0,0 +1,184 @@
+package com.smu.tariff.tariff.snapshot;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import com.smu.tariff.country.Country;
+import com.smu.tariff.model.ProductCategory;
+import com.smu.tariff.model.TariffRate;
+
+/**
+ * Immutable, versioned copy of the country, product_category and tariff_rate tables.
+ * A new instance is built for every change; readers never observe a half-built snapshot.
+ */
+public final class TariffRateSnapshot {
+
+    private static final Comparator<TariffRate> BY_EFFECTIVE_FROM = Comparator
+            .comparing(TariffRate::getEffectiveFrom, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(TariffRate::getId, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final long version;
+    private final Instant builtAt;
+    private final Map<String, Country> countriesByCode;
+    private final Map<String, ProductCategory> categoriesByCode;
+    private final Map<String, ProductCategory> categoriesByHsCode;
+    private final Map<RouteKey, RateIntervalIndex> ratesByRoute;
+    private final Map<Long, TariffRate> fallbackByCategory;
+    private final int rateCount;
+
+    private TariffRateSnapshot(long version,
+                               Map<String, Country> countriesByCode,
+                               Map<String, ProductCategory> categoriesByCode,
+                               Map<String, ProductCategory> categoriesByHsCode,
+                               Map<RouteKey, RateIntervalIndex> ratesByRoute,
+                               Map<Long, TariffRate> fallbackByCategory,
+                               int rateCount) {
+        this.version = version;
+        this.builtAt = Instant.now();
+        this.countriesByCode = Map.copyOf(countriesByCode);
+        this.categoriesByCode = Map.copyOf(categoriesByCode);
+        this.categoriesByHsCode = Map.copyOf(categoriesByHsCode);
+        this.ratesByRoute = Map.copyOf(ratesByRoute);
+        this.fallbackByCategory = Map.copyOf(fallbackByCategory);
+        this.rateCount = rateCount;
+    }
+
+    public static TariffRateSnapshot build(long version,
+                                           Collection<Country> countries,
+                                           Collection<ProductCategory> categories,
+                                           Collection<TariffRate> rates) {
+        Map<String, Country> countriesByCode = new HashMap<>();
+        for (Country country : countries) {
+            if (country.getCode() != null) {
+                countriesByCode.put(country.getCode().toUpperCase(), country);
+            }
+        }
+
+        Map<String, ProductCategory> categoriesByCode = new HashMap<>();
+        Map<String, ProductCategory> categoriesByHsCode = new HashMap<>();
+        for (ProductCategory category : categories) {
+            if (category.getCode() != null) {
+                categoriesByCode.put(category.getCode().toUpperCase(), category);
+            }
+            if (category.getHsCode() != null) {
+                categoriesByHsCode.putIfAbsent(category.getHsCode().trim().toUpperCase(), category);
+            }
+        }
+
+        Map<RouteKey, List<TariffRate>> grouped = new HashMap<>();
+        Map<Long, TariffRate> fallbackByCategory = new HashMap<>();
+        for (TariffRate rate : rates) {
+            RouteKey key = RouteKey.of(rate.getOrigin(), rate.getDestination(), rate.getProductCategory());
+            if (key == null) {
+                continue;
+            }
+            grouped.computeIfAbsent(key, k -> new ArrayList<>()).add(rate);
+
+            if (rate.getBaseRate() != null && rate.getBaseRate().compareTo(BigDecimal.ZERO) > 0) {
+                fallbackByCategory.merge(key.categoryId(), rate,
+                        (current, candidate) -> BY_EFFECTIVE_FROM.compare(candidate, current) > 0 ? candidate : current);
+            }
+        }
+
+        Map<RouteKey, RateIntervalIndex> ratesByRoute = new HashMap<>();
+        grouped.forEach((key, routeRates) -> {
+            routeRates.sort(BY_EFFECTIVE_FROM);
+            ratesByRoute.put(key, RateIntervalIndex.of(routeRates));
+        });
+
+        return new TariffRateSnapshot(version, countriesByCode, categoriesByCode, categoriesByHsCode,
+                ratesByRoute, fallbackByCategory, rates.size());
+    }
+
+    public static TariffRateSnapshot empty(long version) {
+        return new TariffRateSnapshot(version, Map.of(), Map.of(), Map.of(), Map.of(), Map.of(), 0);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public Instant getBuiltAt() {
+        return builtAt;
+    }
+
+    public int getRateCount() {
+        return rateCount;
+    }
+
+    public int getRouteCount() {
+        return ratesByRoute.size();
+    }
+
+    public Optional<Country> findCountry(String code) {
+        if (code == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(countriesByCode.get(code.trim().toUpperCase()));
+    }
+
+    public Optional<ProductCategory> findCategoryByCode(String code) {
+        if (code == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(categoriesByCode.get(code.trim().toUpperCase()));
+    }
+
+    public Optional<ProductCategory> findCategoryByHsCode(String hsCode) {
+        if (hsCode == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(categoriesByHsCode.get(hsCode.trim().toUpperCase()));
+    }
+
+    /**
+     * All rates stored for the route, ordered by effectiveFrom ascending.
+     */
+    public List<TariffRate> ratesForRoute(Country origin, Country destination, ProductCategory category) {
+        return routeIndex(origin, destination, category).all();
+    }
+
+    /**
+     * The most recent rate in force on the given date (the first row of the repository's applicable-rates query).
+     */
+    public Optional<TariffRate> findRateAt(Country origin, Country destination, ProductCategory category, LocalDate date) {
+        return routeIndex(origin, destination, category).rateAt(date);
+    }
+
+    private RateIntervalIndex routeIndex(Country origin, Country destination, ProductCategory category) {
+        RouteKey key = RouteKey.of(origin, destination, category);
+        if (key == null) {
+            return RateIntervalIndex.empty();
+        }
+        return ratesByRoute.getOrDefault(key, RateIntervalIndex.empty());
+    }
+
+    public Optional<TariffRate> findFallbackRate(ProductCategory category) {
+        if (category == null || category.getId() == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(fallbackByCategory.get(category.getId()));
+    }
+
+    /**
+     * Identifies a route by surrogate ids so lookups never depend on entity equality.
+     */
+    public record RouteKey(Long originId, Long destinationId, Long categoryId) {
+
+        static RouteKey of(Country origin, Country destination, ProductCategory category) {
+            if (origin == null || destination == null || category == null
+                    || origin.getId() == null || destination.getId() == null || category.getId() == null) {
+                return null;
+            }
+            return new RouteKey(origin.getId(), destination.getId(), category.getId());
+        }
+    }
+}
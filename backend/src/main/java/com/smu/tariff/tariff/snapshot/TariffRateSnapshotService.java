@@ -0,0 +1,126 @@
+package com.smu.tariff.tariff.snapshot;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.smu.tariff.country.Country;
+import com.smu.tariff.country.CountryRepository;
+import com.smu.tariff.model.ProductCategory;
+import com.smu.tariff.model.TariffRate;
+import com.smu.tariff.repository.ProductCategoryRepository;
+import com.smu.tariff.repository.TariffRateRepository;
+
+/**
+ * Serves tariff calculations from an in-memory {@link TariffRateSnapshot}.
+ * The snapshot is loaded on first use and replaced wholesale (copy-on-write) after every
+ * committed change to tariff rates, countries or product categories.
+ */
+@Service
+public class TariffRateSnapshotService implements TariffRateLookup {
+
+    private static final Logger logger = LoggerFactory.getLogger(TariffRateSnapshotService.class);
+
+    private final TariffRateRepository tariffRateRepository;
+    private final CountryRepository countryRepository;
+    private final ProductCategoryRepository productCategoryRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final AtomicReference<TariffRateSnapshot> current = new AtomicReference<>();
+    private final AtomicLong versionSequence = new AtomicLong();
+    private final Object rebuildLock = new Object();
+
+    public TariffRateSnapshotService(TariffRateRepository tariffRateRepository,
+                                     CountryRepository countryRepository,
+                                     ProductCategoryRepository productCategoryRepository,
+                                     PlatformTransactionManager transactionManager) {
+        this.tariffRateRepository = tariffRateRepository;
+        this.countryRepository = countryRepository;
+        this.productCategoryRepository = productCategoryRepository;
+        // Always load in a fresh persistence context so snapshot entities are never shared with a caller's session
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    public TariffRateSnapshot current() {
+        TariffRateSnapshot snapshot = current.get();
+        if (snapshot != null) {
+            return snapshot;
+        }
+        synchronized (rebuildLock) {
+            snapshot = current.get();
+            return snapshot != null ? snapshot : rebuild();
+        }
+    }
+
+    public TariffRateSnapshot refresh() {
+        synchronized (rebuildLock) {
+            return rebuild();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onReferenceDataChanged(TariffReferenceDataChangedEvent event) {
+        logger.debug("Reference data changed by {}, rebuilding tariff snapshot", event.getSource());
+        try {
+            refresh();
+        } catch (RuntimeException ex) {
+            // Drop the stale snapshot; the next reader retries the load
+            current.set(null);
+            logger.warn("Failed to rebuild tariff snapshot after change by {}: {}", event.getSource(), ex.getMessage());
+        }
+    }
+
+    private TariffRateSnapshot rebuild() {
+        long started = System.nanoTime();
+        TariffRateSnapshot snapshot = transactionTemplate.execute(status -> TariffRateSnapshot.build(
+                versionSequence.incrementAndGet(),
+                countryRepository.findAll(),
+                productCategoryRepository.findAll(),
+                tariffRateRepository.findAllWithRelations()));
+        if (snapshot == null) {
+            snapshot = TariffRateSnapshot.empty(versionSequence.incrementAndGet());
+        }
+        current.set(snapshot);
+        logger.info("Tariff snapshot v{} built with {} rates over {} routes in {} ms",
+                snapshot.getVersion(), snapshot.getRateCount(), snapshot.getRouteCount(),
+                (System.nanoTime() - started) / 1_000_000);
+        return snapshot;
+    }
+
+    @Override
+    public Optional<Country> findCountry(String code) {
+        return current().findCountry(code);
+    }
+
+    @Override
+    public Optional<ProductCategory> findCategoryByCode(String code) {
+        return current().findCategoryByCode(code);
+    }
+
+    @Override
+    public Optional<ProductCategory> findCategoryByHsCode(String hsCode) {
+        return current().findCategoryByHsCode(hsCode);
+    }
+
+    @Override
+    public Optional<TariffRate> findRateAt(Country origin, Country destination, ProductCategory category, LocalDate date) {
+        return current().findRateAt(origin, destination, category, date);
+    }
+
+    @Override
+    public Optional<TariffRate> findFallbackRate(ProductCategory category) {
+        return current().findFallbackRate(category);
+    }
+}
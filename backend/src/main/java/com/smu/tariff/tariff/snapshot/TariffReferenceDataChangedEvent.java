@@ -0,0 +1,51 @@
+package com.smu.tariff.tariff.snapshot;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Published whenever tariff_rate, country or product_category rows are written,
+ * so the in-memory snapshot can be rebuilt once the transaction commits.
+ * Rate writes also name the countries they touched; an empty set means the change may affect any country.
+ */
+public class TariffReferenceDataChangedEvent {
+
+    private final String source;
+    private final Set<String> countryCodes;
+    private final Instant occurredAt = Instant.now();
+
+    public TariffReferenceDataChangedEvent(String source) {
+        this(source, Set.of());
+    }
+
+    public TariffReferenceDataChangedEvent(String source, Collection<String> countryCodes) {
+        this.source = source;
+        Set<String> codes = new TreeSet<>();
+        if (countryCodes != null) {
+            for (String code : countryCodes) {
+                if (code != null) {
+                    codes.add(code);
+                }
+            }
+        }
+        this.countryCodes = Set.copyOf(codes);
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public Set<String> getCountryCodes() {
+        return countryCodes;
+    }
+
+    public boolean affectsAllCountries() {
+        return countryCodes.isEmpty();
+    }
+
+    public Instant getOccurredAt() {
+        return occurredAt;
+    }
+}
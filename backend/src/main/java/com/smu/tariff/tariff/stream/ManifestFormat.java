@@ -0,0 +1,51 @@
+package com.smu.tariff.tariff.stream;
+
+import com.smu.tariff.exception.InvalidTariffRequestException;
+
+/**
+ * Wire formats accepted and produced by the streaming calculation endpoint.
+ */
+public enum ManifestFormat {
+    NDJSON("application/x-ndjson"),
+    CSV("text/csv");
+
+    private final String mediaType;
+
+    ManifestFormat(String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public String mediaType() {
+        return mediaType;
+    }
+
+    public static ManifestFormat fromContentType(String contentType) {
+        ManifestFormat format = match(contentType);
+        if (format == null) {
+            throw new InvalidTariffRequestException("Manifest must be sent as application/x-ndjson or text/csv");
+        }
+        return format;
+    }
+
+    /**
+     * Pick the response format from the Accept header, falling back to the format the manifest was sent in.
+     */
+    public static ManifestFormat fromAccept(String accept, ManifestFormat fallback) {
+        ManifestFormat format = match(accept);
+        return format != null ? format : fallback;
+    }
+
+    private static ManifestFormat match(String header) {
+        if (header == null) {
+            return null;
+        }
+        String lower = header.toLowerCase();
+        if (lower.contains(CSV.mediaType)) {
+            return CSV;
+        }
+        if (lower.contains(NDJSON.mediaType)) {
+            return NDJSON;
+        }
+        return null;
+    }
+}
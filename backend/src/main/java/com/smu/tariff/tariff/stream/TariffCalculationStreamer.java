@@ -0,0 +1,331 @@
+package com.smu.tariff.tariff.stream;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smu.tariff.exception.InvalidTariffRequestException;
+import com.smu.tariff.logging.QueryLogBackpressure;
+import com.smu.tariff.tariff.TariffService;
+import com.smu.tariff.tariff.dto.TariffBatchCalcResponse;
+import com.smu.tariff.tariff.dto.TariffBatchLineResult;
+import com.smu.tariff.tariff.dto.TariffCalcRequest;
+import com.smu.tariff.tariff.dto.TariffCalcResponse;
+
+/**
+ * Prices manifests too large to buffer. Lines are read incrementally, priced through
+ * {@link TariffService#calculateBatch} in fixed-size chunks (one transaction and one query-log batch each),
+ * and every chunk is flushed to the client before the next one is read, so memory stays bounded by the chunk size.
+ * Lines are also capped at {@code app.tariff.stream.max-line-length} characters. A longer line before anything has
+ * been flushed rejects the manifest; once results have been sent it ends the stream with an {@code ERROR} line at
+ * its index, after the lines before it are priced. Chunks queue their query logs with
+ * {@link QueryLogBackpressure#WAIT}, so a long upload waits for the log writer instead of dropping audit rows.
+ */
+@Component
+public class TariffCalculationStreamer {
+
+    private static final Logger logger = LoggerFactory.getLogger(TariffCalculationStreamer.class);
+
+    static final int CHUNK_SIZE = 500;
+
+    static final List<String> CSV_OUTPUT_COLUMNS = List.of(
+            "index", "status", "originCountryCode", "destinationCountryCode", "hsCode", "productCategoryCode",
+            "weight", "declaredValue", "baseRate", "tariffAmount", "additionalFee", "totalCost",
+            "rateEffectiveFrom", "rateEffectiveTo", "error");
+
+    private static final List<String> CSV_REQUIRED_COLUMNS = List.of(
+            "originCountryCode", "destinationCountryCode", "hsCode", "declaredValue");
+
+    private final TariffService tariffService;
+    private final ObjectMapper mapper;
+    private final int maxLineLength;
+
+    public TariffCalculationStreamer(TariffService tariffService,
+                                     ObjectMapper mapper,
+                                     @Value("${app.tariff.stream.max-line-length:16384}") int maxLineLength) {
+        this.tariffService = tariffService;
+        this.mapper = mapper;
+        this.maxLineLength = maxLineLength;
+    }
+
+    /**
+     * Read a manifest from {@code in} and write one result per non-blank line to {@code out}.
+     *
+     * @return the number of lines priced
+     * @throws InvalidTariffRequestException if the manifest has a line longer than the configured maximum before
+     *         any result has been written
+     */
+    public long stream(InputStream in, ManifestFormat inputFormat, OutputStream out, ManifestFormat outputFormat)
+            throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+
+        Map<String, Integer> csvColumns = inputFormat == ManifestFormat.CSV ? readCsvHeader(reader) : null;
+        if (outputFormat == ManifestFormat.CSV) {
+            writer.write(String.join(",", CSV_OUTPUT_COLUMNS));
+            writer.write('\n');
+        }
+
+        long started = System.nanoTime();
+        long offset = 0;
+        List<TariffCalcRequest> chunk = new ArrayList<>(CHUNK_SIZE);
+        Map<Integer, String> parseErrors = new HashMap<>();
+        while (true) {
+            String line;
+            try {
+                line = readLine(reader);
+            } catch (InvalidTariffRequestException ex) {
+                if (offset == 0) {
+                    // Nothing has reached the client yet, so the whole request can still be rejected
+                    throw ex;
+                }
+                if (!chunk.isEmpty()) {
+                    offset += flushChunk(chunk, parseErrors, offset, writer, outputFormat);
+                }
+                // The response is already committed: report the failure in-band so a truncated body never looks complete
+                writeResult(writer, errorLine(offset, ex.getMessage()), outputFormat);
+                writer.flush();
+                logger.warn("Stopped manifest stream after {} lines: {}", offset, ex.getMessage());
+                return offset;
+            }
+            if (line == null) {
+                break;
+            }
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                chunk.add(inputFormat == ManifestFormat.CSV ? parseCsvLine(line, csvColumns) : parseJsonLine(line));
+            } catch (InvalidTariffRequestException ex) {
+                parseErrors.put(chunk.size(), ex.getMessage());
+                chunk.add(null);
+            }
+            if (chunk.size() == CHUNK_SIZE) {
+                offset += flushChunk(chunk, parseErrors, offset, writer, outputFormat);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            offset += flushChunk(chunk, parseErrors, offset, writer, outputFormat);
+        }
+        writer.flush();
+
+        logger.info("Streamed {} manifest lines in {} ms", offset, (System.nanoTime() - started) / 1_000_000);
+        return offset;
+    }
+
+    private int flushChunk(List<TariffCalcRequest> chunk,
+                           Map<Integer, String> parseErrors,
+                           long offset,
+                           Writer writer,
+                           ManifestFormat outputFormat) throws IOException {
+        TariffBatchCalcResponse batch = tariffService.calculateBatch(chunk, QueryLogBackpressure.WAIT);
+        for (TariffBatchLineResult lineResult : batch.lines) {
+            String parseError = parseErrors.get(lineResult.index);
+            if (parseError != null) {
+                lineResult.error = parseError;
+            }
+            lineResult.index += (int) offset;
+            writeResult(writer, lineResult, outputFormat);
+        }
+        // Push this chunk to the client before reading the next one
+        writer.flush();
+
+        int size = chunk.size();
+        chunk.clear();
+        parseErrors.clear();
+        return size;
+    }
+
+    private void writeResult(Writer writer, TariffBatchLineResult lineResult, ManifestFormat outputFormat)
+            throws IOException {
+        if (outputFormat == ManifestFormat.CSV) {
+            writeCsvResult(writer, lineResult);
+        } else {
+            writer.write(mapper.writeValueAsString(lineResult));
+            writer.write('\n');
+        }
+    }
+
+    private static TariffBatchLineResult errorLine(long index, String error) {
+        TariffBatchLineResult line = new TariffBatchLineResult();
+        line.index = (int) index;
+        line.status = "ERROR";
+        line.error = error;
+        return line;
+    }
+
+    // BufferedReader.readLine would buffer a line of any length, so one oversized line could exhaust the heap
+    private String readLine(BufferedReader reader) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int c;
+        while ((c = reader.read()) != -1) {
+            if (c == '\n') {
+                return line.toString();
+            }
+            if (c == '\r') {
+                reader.mark(1);
+                if (reader.read() != '\n') {
+                    reader.reset();
+                }
+                return line.toString();
+            }
+            if (line.length() == maxLineLength) {
+                throw new InvalidTariffRequestException(
+                        "Manifest lines cannot be longer than " + maxLineLength + " characters");
+            }
+            line.append((char) c);
+        }
+        return line.length() > 0 ? line.toString() : null;
+    }
+
+    private TariffCalcRequest parseJsonLine(String line) {
+        try {
+            return mapper.readValue(line, TariffCalcRequest.class);
+        } catch (JsonProcessingException ex) {
+            throw new InvalidTariffRequestException("Malformed JSON line: " + ex.getOriginalMessage());
+        }
+    }
+
+    private Map<String, Integer> readCsvHeader(BufferedReader reader) throws IOException {
+        String header;
+        do {
+            header = readLine(reader);
+        } while (header != null && header.isBlank());
+        if (header == null) {
+            throw new InvalidTariffRequestException("CSV manifest must start with a header row");
+        }
+
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> names = splitCsv(header);
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase(), i);
+        }
+        for (String required : CSV_REQUIRED_COLUMNS) {
+            if (!columns.containsKey(required.toLowerCase())) {
+                throw new InvalidTariffRequestException("CSV manifest is missing column: " + required);
+            }
+        }
+        return columns;
+    }
+
+    private TariffCalcRequest parseCsvLine(String line, Map<String, Integer> columns) {
+        List<String> fields = splitCsv(line);
+        TariffCalcRequest req = new TariffCalcRequest();
+        req.originCountryCode = csvField(fields, columns, "originCountryCode");
+        req.destinationCountryCode = csvField(fields, columns, "destinationCountryCode");
+        req.hsCode = csvField(fields, columns, "hsCode");
+        req.productCategoryCode = csvField(fields, columns, "productCategoryCode");
+        req.declaredValue = csvNumber(fields, columns, "declaredValue");
+        req.weight = csvNumber(fields, columns, "weight");
+        req.effectiveFrom = csvField(fields, columns, "effectiveFrom");
+        req.effectiveTo = csvField(fields, columns, "effectiveTo");
+        return req;
+    }
+
+    private String csvField(List<String> fields, Map<String, Integer> columns, String name) {
+        Integer position = columns.get(name.toLowerCase());
+        if (position == null || position >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(position).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private Double csvNumber(List<String> fields, Map<String, Integer> columns, String name) {
+        String raw = csvField(fields, columns, name);
+        if (raw == null) {
+            return null;
+        }
+        try {
+            return Double.valueOf(raw);
+        } catch (NumberFormatException ex) {
+            throw new InvalidTariffRequestException("Invalid number for " + name + ": " + raw);
+        }
+    }
+
+    // Minimal RFC 4180 splitting: commas separate fields, double quotes wrap fields and "" escapes a quote
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    private void writeCsvResult(Writer writer, TariffBatchLineResult lineResult) throws IOException {
+        TariffCalcResponse r = lineResult.result;
+        List<Object> values = new ArrayList<>(CSV_OUTPUT_COLUMNS.size());
+        values.add(lineResult.index);
+        values.add(lineResult.status);
+        values.add(r != null ? r.originCountryCode : null);
+        values.add(r != null ? r.destinationCountryCode : null);
+        values.add(r != null ? r.hsCode : null);
+        values.add(r != null ? r.productCategoryCode : null);
+        values.add(r != null ? r.weight : null);
+        values.add(r != null ? r.declaredValue : null);
+        values.add(r != null ? r.baseRate : null);
+        values.add(r != null ? r.tariffAmount : null);
+        values.add(r != null ? r.additionalFee : null);
+        values.add(r != null ? r.totalCost : null);
+        values.add(r != null ? r.rateEffectiveFrom : null);
+        values.add(r != null ? r.rateEffectiveTo : null);
+        values.add(lineResult.error);
+
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(escapeCsv(values.get(i)));
+        }
+        writer.write('\n');
+    }
+
+    static String escapeCsv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value instanceof BigDecimal ? ((BigDecimal) value).toPlainString() : String.valueOf(value);
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+        return text;
+    }
+}
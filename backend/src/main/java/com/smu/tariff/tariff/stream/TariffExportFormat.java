@@ -0,0 +1,57 @@
+package com.smu.tariff.tariff.stream;
+
+import java.util.Locale;
+
+import com.smu.tariff.exception.InvalidTariffRequestException;
+
+/**
+ * Wire formats produced by the admin tariff export.
+ */
+public enum TariffExportFormat {
+    JSON("application/json", "json"),
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String mediaType;
+    private final String extension;
+
+    TariffExportFormat(String mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public String mediaType() {
+        return mediaType;
+    }
+
+    public String fileName() {
+        return "tariffs." + extension;
+    }
+
+    /**
+     * Pick the export format from an explicit {@code format} parameter, then the Accept header, defaulting to a
+     * JSON array so the export matches the shape of {@code GET /api/tariffs}.
+     */
+    public static TariffExportFormat resolve(String format, String accept) {
+        if (format != null && !format.isBlank()) {
+            String requested = format.trim().toLowerCase(Locale.ROOT);
+            for (TariffExportFormat candidate : values()) {
+                if (candidate.extension.equals(requested)) {
+                    return candidate;
+                }
+            }
+            throw new InvalidTariffRequestException("format must be json, ndjson or csv");
+        }
+        if (accept != null) {
+            String lower = accept.toLowerCase(Locale.ROOT);
+            // ndjson first: "application/x-ndjson" must not be mistaken for plain JSON
+            if (lower.contains(NDJSON.mediaType)) {
+                return NDJSON;
+            }
+            if (lower.contains(CSV.mediaType)) {
+                return CSV;
+            }
+        }
+        return JSON;
+    }
+}
@@ -0,0 +1,121 @@
+package com.smu.tariff.tariff.stream;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.smu.tariff.model.TariffRate;
+import com.smu.tariff.repository.TariffRateRepository;
+import com.smu.tariff.tariff.dto.TariffRateDto;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Writes every tariff rate to a response without holding the table in memory. Rates are read through
+ * {@link TariffRateRepository#streamAllWithRelations()}, a forward-only cursor with the country and category
+ * associations join-fetched, and each row is detached once written so the persistence context does not grow with
+ * the export. Output is flushed to the client every {@link #FLUSH_EVERY} rows.
+ */
+@Component
+public class TariffRateExporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(TariffRateExporter.class);
+
+    static final int FLUSH_EVERY = 500;
+
+    static final List<String> CSV_COLUMNS = List.of(
+            "id", "originCountryCode", "destinationCountryCode", "productCategoryCode", "productCategoryName",
+            "hsCode", "weightBased", "weightValue", "baseRate", "additionalFee", "effectiveFrom", "effectiveTo");
+
+    private final TariffRateRepository tariffRateRepository;
+    private final EntityManager entityManager;
+    private final ObjectWriter rowWriter;
+
+    public TariffRateExporter(TariffRateRepository tariffRateRepository,
+                              EntityManager entityManager,
+                              ObjectMapper mapper) {
+        this.tariffRateRepository = tariffRateRepository;
+        this.entityManager = entityManager;
+        this.rowWriter = mapper.writerFor(TariffRateDto.class);
+    }
+
+    /**
+     * Write all tariff rates to {@code out} in {@code format}, ordered by id.
+     *
+     * <p>The read-only transaction keeps the cursor open while the response is written; it ends when the last row
+     * has been sent.</p>
+     *
+     * @return the number of rates written
+     */
+    @Transactional(readOnly = true)
+    public long export(OutputStream out, TariffExportFormat format) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        long started = System.nanoTime();
+        long written = 0;
+
+        if (format == TariffExportFormat.JSON) {
+            writer.write('[');
+        } else if (format == TariffExportFormat.CSV) {
+            writer.write(String.join(",", CSV_COLUMNS));
+            writer.write('\n');
+        }
+
+        try (Stream<TariffRate> rates = tariffRateRepository.streamAllWithRelations()) {
+            for (TariffRate rate : (Iterable<TariffRate>) rates::iterator) {
+                TariffRateDto row = TariffRateDto.from(rate);
+                entityManager.detach(rate);
+
+                if (format == TariffExportFormat.CSV) {
+                    writeCsvRow(writer, row);
+                } else {
+                    if (format == TariffExportFormat.JSON && written > 0) {
+                        writer.write(',');
+                    }
+                    writer.write(rowWriter.writeValueAsString(row));
+                    if (format == TariffExportFormat.NDJSON) {
+                        writer.write('\n');
+                    }
+                }
+                if (++written % FLUSH_EVERY == 0) {
+                    writer.flush();
+                }
+            }
+        }
+
+        if (format == TariffExportFormat.JSON) {
+            writer.write(']');
+        }
+        writer.flush();
+
+        logger.info("Exported {} tariff rates as {} in {} ms", written, format,
+                (System.nanoTime() - started) / 1_000_000);
+        return written;
+    }
+
+    private void writeCsvRow(Writer writer, TariffRateDto row) throws IOException {
+        Object[] values = {
+                row.id, row.originCountryCode, row.destinationCountryCode, row.productCategoryCode,
+                row.productCategoryName, row.hsCode, row.weightBased, row.weightValue, row.baseRate,
+                row.additionalFee, row.effectiveFrom, row.effectiveTo
+        };
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(TariffCalculationStreamer.escapeCsv(values[i]));
+        }
+        writer.write('\n');
+    }
+}
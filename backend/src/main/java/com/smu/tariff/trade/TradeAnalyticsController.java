@@ -1,24 +1,50 @@
 package com.smu.tariff.trade;
 
 import com.smu.tariff.trade.dto.CountryTradeInsightsDto;
+import com.smu.tariff.trade.dto.WeightedTradeInsightsDto;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/trade")
 public class TradeAnalyticsController {
 
-    private final TradeAnalyticsService tradeAnalyticsService;
+    private final TradeInsightsStore tradeInsightsStore;
+    private final WeightedTradeAnalyticsService weightedTradeAnalyticsService;
 
-    public TradeAnalyticsController(TradeAnalyticsService tradeAnalyticsService) {
-        this.tradeAnalyticsService = tradeAnalyticsService;
+    public TradeAnalyticsController(TradeInsightsStore tradeInsightsStore,
+                                    WeightedTradeAnalyticsService weightedTradeAnalyticsService) {
+        this.tradeInsightsStore = tradeInsightsStore;
+        this.weightedTradeAnalyticsService = weightedTradeAnalyticsService;
     }
 
+    /**
+     * Served from the materialized store. Clients that send back the ETag get a 304 until the country's rates change.
+     */
     @GetMapping("/insights")
-    public ResponseEntity<CountryTradeInsightsDto> getInsights(@RequestParam("country") String countryCode) {
-        return ResponseEntity.ok(tradeAnalyticsService.getCountryInsights(countryCode));
+    public ResponseEntity<CountryTradeInsightsDto> getInsights(@RequestParam("country") String countryCode,
+                                                               WebRequest request) {
+        TradeInsightsStore.Materialized materialized = tradeInsightsStore.get(countryCode);
+        if (request.checkNotModified(materialized.etag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(materialized.etag())
+                .cacheControl(CacheControl.noCache())
+                .body(materialized.insights());
+    }
+
+    /**
+     * Tariff burden weighted by recorded trade value. Defaults to the latest year the country has trade flows for.
+     */
+    @GetMapping("/weighted-insights")
+    public ResponseEntity<WeightedTradeInsightsDto> getWeightedInsights(@RequestParam("country") String countryCode,
+                                                                        @RequestParam(value = "year", required = false) Integer year) {
+        return ResponseEntity.ok(weightedTradeAnalyticsService.getWeightedInsights(countryCode, year));
     }
 }
@@ -5,20 +5,24 @@ import org.slf4j.LoggerFactory;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
-import java.util.stream.Collectors;
 
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.smu.tariff.country.Country;
 import com.smu.tariff.country.CountryRepository;
 import com.smu.tariff.exception.InvalidTariffRequestException;
-import com.smu.tariff.model.TariffRate;
 import com.smu.tariff.repository.TariffRateRepository;
-import com.smu.tariff.tariff.BaseRateUtils;
+import com.smu.tariff.repository.TariffRateRepository.CategoryRateSummary;
+import com.smu.tariff.repository.TariffRateRepository.PartnerRateCount;
+import com.smu.tariff.repository.TariffRateRepository.PartnerRateItem;
+import com.smu.tariff.repository.TariffRateRepository.RateTotals;
 import com.smu.tariff.trade.dto.CountryTradeInsightsDto;
 import com.smu.tariff.trade.dto.PartnerTradeDetailsDto;
 import com.smu.tariff.trade.dto.PartnerTradeItemDto;
@@ -30,6 +34,8 @@ public class TradeAnalyticsService {
 
     private static final Logger logger = LoggerFactory.getLogger(TradeAnalyticsService.class);
     private static final int MAX_ITEMS = 5;
+    private static final int RATE_SCALE = 4;
+    private static final int FEE_SCALE = 2;
 
     private final CountryRepository countryRepository;
     private final TariffRateRepository tariffRateRepository;
@@ -55,40 +61,30 @@ public class TradeAnalyticsService {
         dto.countryCode = country.getCode();
         dto.countryName = country.getName();
 
-        // Generate insights from existing tariff rate data
-        List<TariffRate> importTariffs = tariffRateRepository.search(null, country, null);  // Tariffs TO this country
-        List<TariffRate> exportTariffs = tariffRateRepository.search(country, null, null);  // Tariffs FROM this country
-
-        logger.debug("Found {} import tariff rates for {}", importTariffs.size(), normalizedCountryCode);
-        logger.debug("Found {} export tariff rates for {}", exportTariffs.size(), normalizedCountryCode);
-        
-        // Log sample data to debug null values
-        if (!importTariffs.isEmpty()) {
-            TariffRate sample = importTariffs.get(0);
-            logger.debug("Sample import tariff: id={}, origin={}, destination={}, baseRate={}, additionalFee={}, product={} ({})",
-                    sample.getId(),
-                    sample.getOrigin().getCode(),
-                    sample.getDestination().getCode(),
-                    sample.getBaseRate(),
-                    sample.getAdditionalFee(),
-                    sample.getProductCategory().getName(),
-                    sample.getProductCategory().getCode());
-        }
-
-        // Generate top import categories (highest tariff rates TO this country)
-        dto.topImports = generateTopProducts(importTariffs);
-        
-        // Generate top export categories (tariff rates FROM this country)  
-        dto.topExports = generateTopProducts(exportTariffs);
-
-        // Generate major trading partners for imports and exports
-        dto.majorImportPartners = generatePartnerDetails(importTariffs, true);
-        dto.majorExportPartners = generatePartnerDetails(exportTariffs, false);
+        // Every figure is aggregated in the database; only the final top-N rows are read back
+        Long countryId = country.getId();
+        Pageable topN = PageRequest.of(0, MAX_ITEMS);
+
+        // Top import categories (highest average tariff TO this country) and top export categories (FROM it)
+        dto.topImports = toProductMetrics(tariffRateRepository.findTopImportCategories(countryId, topN));
+        dto.topExports = toProductMetrics(tariffRateRepository.findTopExportCategories(countryId, topN));
+
+        // Major trading partners, ranked by how many rates they share with this country
+        List<PartnerRateCount> importPartners = tariffRateRepository.findTopImportPartners(countryId, topN);
+        List<PartnerRateCount> exportPartners = tariffRateRepository.findTopExportPartners(countryId, topN);
+        dto.majorImportPartners = toPartnerDetails(importPartners,
+                importPartners.isEmpty() ? List.of()
+                        : tariffRateRepository.findImportItemsForPartners(countryId, partnerCodes(importPartners)));
+        dto.majorExportPartners = toPartnerDetails(exportPartners,
+                exportPartners.isEmpty() ? List.of()
+                        : tariffRateRepository.findExportItemsForPartners(countryId, partnerCodes(exportPartners)));
+
+        RateTotals totals = tariffRateRepository.sumRatesForCountry(countryId);
+        dto.averageImportTariff = average(totals == null ? null : totals.getImportRateSum(),
+                totals == null ? null : totals.getImportCount());
+        dto.averageExportTariff = average(totals == null ? null : totals.getExportRateSum(),
+                totals == null ? null : totals.getExportCount());
 
-        // Calculate average tariffs
-        dto.averageImportTariff = computeAverageTariff(importTariffs);
-        dto.averageExportTariff = computeAverageTariff(exportTariffs);
-        
         logger.info("Average import tariff={}", dto.averageImportTariff);
         logger.info("Average export tariff={}", dto.averageExportTariff);
         logger.info("Trade insights generation completed for country={}", normalizedCountryCode);
@@ -96,125 +92,62 @@ public class TradeAnalyticsService {
         return dto;
     }
 
-    private BigDecimal computeAverageTariff(List<TariffRate> rates) {
-        BigDecimal zero = BigDecimal.ZERO.setScale(4, RoundingMode.HALF_UP);
-        if (rates == null || rates.isEmpty()) {
-            return zero;
+    /**
+     * Average stored percentage (e.g. 5.0000 for 5%) from a SQL sum and count, zero when there are no rates.
+     */
+    private BigDecimal average(BigDecimal sum, Long count) {
+        if (sum == null || count == null || count == 0) {
+            return BigDecimal.ZERO.setScale(RATE_SCALE, RoundingMode.HALF_UP);
         }
-        List<BigDecimal> baseRates = rates.stream()
-                .map(this::normalizedBaseRate)
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
-        if (baseRates.isEmpty()) {
-            return zero;
-        }
-        BigDecimal sum = baseRates.stream().reduce(BigDecimal.ZERO, BigDecimal::add);
-        BigDecimal averageDecimal = sum.divide(BigDecimal.valueOf(baseRates.size()), 6, RoundingMode.HALF_UP);
-        return BaseRateUtils.toStoredPercentage(averageDecimal);
+        return sum.divide(BigDecimal.valueOf(count), RATE_SCALE, RoundingMode.HALF_UP);
     }
 
-    private List<ProductMetricDto> generateTopProducts(List<TariffRate> tariffRates) {
-        logger.debug("generateTopProducts called with {} tariff rates", tariffRates.size());
-        
-        // Group by product category and calculate average tariff metrics
-        Map<String, List<TariffRate>> productGroups = tariffRates.stream()
-                .collect(Collectors.groupingBy(t -> t.getProductCategory().getCode()));
-
-        logger.debug("Found {} product categories", productGroups.size());
-
-        return productGroups.entrySet().stream()
-                .map(entry -> {
-                    String productCode = entry.getKey();
-                    List<TariffRate> rates = entry.getValue();
-                    
-                    logger.debug("Processing product {} with {} rates", productCode, rates.size());
-                    
-                    ProductMetricDto dto = new ProductMetricDto();
-                    dto.code = productCode;
-                    dto.name = rates.get(0).getProductCategory().getName();
-                    
-                    // Calculate average base rate (as percentage) - handle nulls
-                    List<BigDecimal> baseRates = rates.stream()
-                            .map(this::normalizedBaseRate)
-                            .filter(Objects::nonNull)
-                            .collect(Collectors.toList());
-                    
-                    if (!baseRates.isEmpty()) {
-                        BigDecimal avgDecimal = baseRates.stream()
-                                .reduce(BigDecimal.ZERO, BigDecimal::add)
-                                .divide(BigDecimal.valueOf(baseRates.size()), 6, RoundingMode.HALF_UP);
-                        dto.baseRate = BaseRateUtils.toStoredPercentage(avgDecimal);
-                    } else {
-                        dto.baseRate = null;
-                        logger.warn("No valid base rates found for product {}", productCode);
-                    }
-                    
-                    // Calculate average additional fee - handle nulls
-                    List<BigDecimal> additionalFees = rates.stream()
-                            .map(TariffRate::getAdditionalFee)
-                            .filter(Objects::nonNull)
-                            .collect(Collectors.toList());
-                    
-                    if (!additionalFees.isEmpty()) {
-                        dto.additionalFee = additionalFees.stream()
-                                .reduce(BigDecimal.ZERO, BigDecimal::add)
-                                .divide(BigDecimal.valueOf(additionalFees.size()), 2, RoundingMode.HALF_UP);
-                    } else {
-                        dto.additionalFee = null;
-                        logger.warn("No valid additional fees found for product {}", productCode);
-                    }
-                    
-                    logger.debug("Product {} summary: baseRate={}, additionalFee={}", productCode, dto.baseRate, dto.additionalFee);
-                    
-                    dto.totalValue = dto.baseRate != null ? dto.baseRate : BigDecimal.ZERO;
-                    
-                    return dto;
-                })
-                .filter(dto -> dto.totalValue != null)
-                .sorted((a, b) -> b.totalValue.compareTo(a.totalValue))
-                .limit(MAX_ITEMS)
-                .collect(Collectors.toList());
+    private List<ProductMetricDto> toProductMetrics(List<CategoryRateSummary> rows) {
+        List<ProductMetricDto> metrics = new ArrayList<>(rows.size());
+        for (CategoryRateSummary row : rows) {
+            ProductMetricDto dto = new ProductMetricDto();
+            dto.code = row.getCode();
+            dto.name = row.getName();
+            dto.baseRate = average(row.getRateSum(), row.getRateCount());
+            dto.additionalFee = row.getFeeSum() == null || row.getRateCount() == null || row.getRateCount() == 0
+                    ? null
+                    : row.getFeeSum().divide(BigDecimal.valueOf(row.getRateCount()), FEE_SCALE, RoundingMode.HALF_UP);
+            dto.totalValue = dto.baseRate;
+            metrics.add(dto);
+        }
+        return metrics;
     }
 
-    private List<PartnerTradeDetailsDto> generatePartnerDetails(List<TariffRate> tariffs, boolean isImport) {
-        Map<String, List<TariffRate>> grouped = tariffs.stream()
-                .collect(Collectors.groupingBy(rate -> isImport ? rate.getOrigin().getCode() : rate.getDestination().getCode()));
-
-        return grouped.entrySet().stream()
-                .map(entry -> {
-                    List<TariffRate> partnerRates = entry.getValue();
-                    PartnerTradeDetailsDto dto = new PartnerTradeDetailsDto();
-                    dto.code = entry.getKey();
-                    dto.name = isImport
-                            ? partnerRates.get(0).getOrigin().getName()
-                            : partnerRates.get(0).getDestination().getName();
-                    dto.itemCount = partnerRates.size();
-                    dto.items = partnerRates.stream()
-                            .sorted((a, b) -> b.getBaseRate().compareTo(a.getBaseRate()))
-                            .map(rate -> {
-                                PartnerTradeItemDto item = new PartnerTradeItemDto();
-                                item.categoryCode = rate.getProductCategory().getCode();
-                                item.categoryName = rate.getProductCategory().getName();
-                                item.baseRate = rate.getBaseRate();
-                                item.additionalFee = rate.getAdditionalFee();
-                                return item;
-                            })
-                            .collect(Collectors.toList());
-                    return dto;
-                })
-                .sorted((a, b) -> {
-                    int cmp = Integer.compare(b.itemCount, a.itemCount);
-                    if (cmp != 0) {
-                        return cmp;
-                    }
-                    return a.code.compareTo(b.code);
-                })
-                .limit(MAX_ITEMS)
-                .collect(Collectors.toList());
+    private List<String> partnerCodes(List<PartnerRateCount> partners) {
+        List<String> codes = new ArrayList<>(partners.size());
+        for (PartnerRateCount partner : partners) {
+            codes.add(partner.getCode());
+        }
+        return codes;
     }
 
-    private BigDecimal normalizedBaseRate(TariffRate rate) {
-        return BaseRateUtils.fromStoredPercentage(rate.getBaseRate());
+    private List<PartnerTradeDetailsDto> toPartnerDetails(List<PartnerRateCount> partners, List<PartnerRateItem> items) {
+        // Items arrive sorted by base rate, highest first; keep that order within each partner
+        Map<String, List<PartnerTradeItemDto>> itemsByPartner = new HashMap<>();
+        for (PartnerRateItem row : items) {
+            PartnerTradeItemDto item = new PartnerTradeItemDto();
+            item.categoryCode = row.getCategoryCode();
+            item.categoryName = row.getCategoryName();
+            item.baseRate = row.getBaseRate();
+            item.additionalFee = row.getAdditionalFee();
+            itemsByPartner.computeIfAbsent(row.getPartnerCode(), code -> new ArrayList<>()).add(item);
+        }
+
+        List<PartnerTradeDetailsDto> details = new ArrayList<>(partners.size());
+        for (PartnerRateCount partner : partners) {
+            PartnerTradeDetailsDto dto = new PartnerTradeDetailsDto();
+            dto.code = partner.getCode();
+            dto.name = partner.getName();
+            dto.itemCount = partner.getItemCount() == null ? 0 : partner.getItemCount().intValue();
+            dto.items = itemsByPartner.getOrDefault(partner.getCode(), new ArrayList<>());
+            details.add(dto);
+        }
+        return details;
     }
 }
 
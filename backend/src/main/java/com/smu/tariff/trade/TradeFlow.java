@@ -9,9 +9,10 @@ import java.math.BigDecimal;
 @Entity
 @Table(name = "trade_flow",
        indexes = {
-           @Index(name = "idx_trade_flow_reporting_direction", columnList = "reporting_country_id,direction"),
+           @Index(name = "idx_trade_flow_reporting_direction_year", columnList = "reporting_country_id,direction,year"),
            @Index(name = "idx_trade_flow_partner", columnList = "partner_country_id"),
-           @Index(name = "idx_trade_flow_product", columnList = "product_category_id")
+           @Index(name = "idx_trade_flow_product", columnList = "product_category_id"),
+           @Index(name = "idx_trade_flow_import_file", columnList = "import_file")
        })
 public class TradeFlow {
 
@@ -41,6 +42,10 @@ public class TradeFlow {
     @Column(nullable = false)
     private int year;
 
+    /** Import file the row was bulk-loaded from; null for rows written any other way. */
+    @Column(name = "import_file", length = 255)
+    private String importFile;
+
     public TradeFlow() { }
 
     public TradeFlow(Country reportingCountry,
@@ -108,4 +113,8 @@ public class TradeFlow {
     public void setYear(int year) {
         this.year = year;
     }
+
+    public String getImportFile() {
+        return importFile;
+    }
 }
@@ -0,0 +1,83 @@
+package com.smu.tariff.trade;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates yearly partitions of {@code trade_flow} ahead of loads when the table has been converted to a
+ * PostgreSQL range-partitioned table (see {@code db/partition-trade-flow.sql}). On an unpartitioned table or
+ * another database every call is a no-op.
+ */
+@Component
+public class TradeFlowPartitions {
+
+    private static final Logger logger = LoggerFactory.getLogger(TradeFlowPartitions.class);
+
+    private static final String IS_PARTITIONED_SQL =
+            "SELECT COUNT(*) FROM pg_partitioned_table p JOIN pg_class c ON c.oid = p.partrelid "
+                    + "WHERE c.relname = 'trade_flow' AND c.relnamespace = to_regnamespace(current_schema())";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Set<Integer> ensured = ConcurrentHashMap.newKeySet();
+    private volatile Boolean partitioned;
+
+    public TradeFlowPartitions(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public boolean isPartitioned() {
+        Boolean known = partitioned;
+        if (known == null) {
+            known = detect();
+            partitioned = known;
+        }
+        return known;
+    }
+
+    /**
+     * Make sure each year has its own partition. Years that cannot get one (for example because the default
+     * partition already holds rows for them) keep loading into the default partition.
+     */
+    public void ensureYears(Collection<Integer> years) {
+        if (!isPartitioned()) {
+            return;
+        }
+        for (Integer year : years) {
+            if (year == null || !ensured.add(year)) {
+                continue;
+            }
+            try {
+                jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS trade_flow_y" + year
+                        + " PARTITION OF trade_flow FOR VALUES FROM (" + year + ") TO (" + (year + 1) + ")");
+            } catch (DataAccessException ex) {
+                logger.warn("Could not create trade_flow partition for {}; rows stay in the default partition: {}",
+                        year, ex.getMostSpecificCause().getMessage());
+            }
+        }
+    }
+
+    private boolean detect() {
+        try {
+            Boolean postgres = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName()));
+            if (!Boolean.TRUE.equals(postgres)) {
+                return false;
+            }
+            Long count = jdbcTemplate.queryForObject(IS_PARTITIONED_SQL, Long.class);
+            boolean result = count != null && count > 0;
+            logger.info("trade_flow is {}partitioned by year", result ? "" : "not ");
+            return result;
+        } catch (DataAccessException ex) {
+            logger.warn("Could not detect trade_flow partitioning: {}", ex.getMessage());
+            return false;
+        }
+    }
+}
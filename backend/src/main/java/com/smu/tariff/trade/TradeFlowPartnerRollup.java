@@ -0,0 +1,52 @@
+package com.smu.tariff.trade;
+
+import java.math.BigDecimal;
+
+import com.smu.tariff.country.Country;
+
+import jakarta.persistence.*;
+
+/**
+ * Pre-aggregated trade value per reporting country, partner, direction and year.
+ * Rebuilt one year at a time by {@link TradeFlowRollupService}; never written through JPA.
+ */
+@Entity
+@Table(name = "trade_flow_partner_rollup",
+       indexes = @Index(name = "idx_trade_flow_partner_rollup_country", columnList = "reporting_country_id,year"))
+public class TradeFlowPartnerRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "reporting_country_id")
+    private Country reportingCountry;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "partner_country_id")
+    private Country partnerCountry;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private TradeDirection direction;
+
+    @Column(nullable = false)
+    private int year;
+
+    @Column(name = "trade_value", nullable = false, precision = 22, scale = 2)
+    private BigDecimal tradeValue;
+
+    @Column(name = "flow_count", nullable = false)
+    private long flowCount;
+
+    protected TradeFlowPartnerRollup() { }
+
+    public Long getId() { return id; }
+    public Country getReportingCountry() { return reportingCountry; }
+    public Country getPartnerCountry() { return partnerCountry; }
+    public TradeDirection getDirection() { return direction; }
+    public int getYear() { return year; }
+    public BigDecimal getTradeValue() { return tradeValue; }
+    public long getFlowCount() { return flowCount; }
+}
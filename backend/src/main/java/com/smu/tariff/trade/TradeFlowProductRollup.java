@@ -0,0 +1,53 @@
+package com.smu.tariff.trade;
+
+import java.math.BigDecimal;
+
+import com.smu.tariff.country.Country;
+import com.smu.tariff.model.ProductCategory;
+
+import jakarta.persistence.*;
+
+/**
+ * Pre-aggregated trade value per reporting country, direction, product category and year.
+ * Rebuilt one year at a time by {@link TradeFlowRollupService}; never written through JPA.
+ */
+@Entity
+@Table(name = "trade_flow_product_rollup",
+       indexes = @Index(name = "idx_trade_flow_product_rollup_country", columnList = "reporting_country_id,direction,year"))
+public class TradeFlowProductRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "reporting_country_id")
+    private Country reportingCountry;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private TradeDirection direction;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_category_id")
+    private ProductCategory productCategory;
+
+    @Column(nullable = false)
+    private int year;
+
+    @Column(name = "trade_value", nullable = false, precision = 22, scale = 2)
+    private BigDecimal tradeValue;
+
+    @Column(name = "flow_count", nullable = false)
+    private long flowCount;
+
+    protected TradeFlowProductRollup() { }
+
+    public Long getId() { return id; }
+    public Country getReportingCountry() { return reportingCountry; }
+    public TradeDirection getDirection() { return direction; }
+    public ProductCategory getProductCategory() { return productCategory; }
+    public int getYear() { return year; }
+    public BigDecimal getTradeValue() { return tradeValue; }
+    public long getFlowCount() { return flowCount; }
+}
@@ -1,11 +1,13 @@
 package com.smu.tariff.trade;
 
 import com.smu.tariff.country.Country;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 
 public interface TradeFlowRepository extends JpaRepository<TradeFlow, Long> {
@@ -22,18 +24,166 @@ public interface TradeFlowRepository extends JpaRepository<TradeFlow, Long> {
         BigDecimal getTotalValue();
     }
 
+    interface YearTotal {
+        TradeDirection getDirection();
+        Integer getYear();
+        BigDecimal getTotalValue();
+    }
+
+    // Product and partner totals are answered from the rollup tables maintained by TradeFlowRollupService, whose
+    // size grows with countries x categories (or partners) per year rather than with raw flows. Queries that need
+    // a finer grain than a rollup keeps (the weighted rate joins below need partner x category) use trade_flow.
+
+    default List<ProductSummary> findTopProductsByCountryAndDirection(Country country, TradeDirection direction) {
+        return findTopProductsFromRollup(country, direction);
+    }
+
+    default List<ProductSummary> findTopProductsByCountryAndDirectionAndYear(Country country, TradeDirection direction,
+                                                                             int year) {
+        return findTopProductsFromRollupForYear(country, direction, year);
+    }
+
+    default List<PartnerSummary> findPartnersByCountry(Country country) {
+        return findPartnersFromRollup(country);
+    }
+
+    default List<PartnerSummary> findPartnersByCountryAndYear(Country country, int year) {
+        return findPartnersFromRollupForYear(country, year);
+    }
+
+    @Query("SELECT r.productCategory.code AS code, r.productCategory.name AS name, SUM(r.tradeValue) AS totalValue " +
+           "FROM TradeFlowProductRollup r " +
+           "WHERE r.reportingCountry = :country AND r.direction = :direction " +
+           "GROUP BY r.productCategory.code, r.productCategory.name " +
+           "ORDER BY SUM(r.tradeValue) DESC")
+    List<ProductSummary> findTopProductsFromRollup(@Param("country") Country country,
+                                                   @Param("direction") TradeDirection direction);
+
+    @Query("SELECT r.productCategory.code AS code, r.productCategory.name AS name, SUM(r.tradeValue) AS totalValue " +
+           "FROM TradeFlowProductRollup r " +
+           "WHERE r.reportingCountry = :country AND r.direction = :direction AND r.year = :year " +
+           "GROUP BY r.productCategory.code, r.productCategory.name " +
+           "ORDER BY SUM(r.tradeValue) DESC")
+    List<ProductSummary> findTopProductsFromRollupForYear(@Param("country") Country country,
+                                                          @Param("direction") TradeDirection direction,
+                                                          @Param("year") int year);
+
+    @Query("SELECT r.partnerCountry.code AS code, r.partnerCountry.name AS name, SUM(r.tradeValue) AS totalValue " +
+           "FROM TradeFlowPartnerRollup r " +
+           "WHERE r.reportingCountry = :country " +
+           "GROUP BY r.partnerCountry.code, r.partnerCountry.name " +
+           "ORDER BY SUM(r.tradeValue) DESC")
+    List<PartnerSummary> findPartnersFromRollup(@Param("country") Country country);
+
+    @Query("SELECT r.partnerCountry.code AS code, r.partnerCountry.name AS name, SUM(r.tradeValue) AS totalValue " +
+           "FROM TradeFlowPartnerRollup r " +
+           "WHERE r.reportingCountry = :country AND r.year = :year " +
+           "GROUP BY r.partnerCountry.code, r.partnerCountry.name " +
+           "ORDER BY SUM(r.tradeValue) DESC")
+    List<PartnerSummary> findPartnersFromRollupForYear(@Param("country") Country country, @Param("year") int year);
+
+    /** Country x direction x year totals, e.g. for a trade trend chart. */
+    @Query("SELECT r.direction AS direction, r.year AS year, SUM(r.tradeValue) AS totalValue " +
+           "FROM TradeFlowProductRollup r WHERE r.reportingCountry = :country " +
+           "GROUP BY r.direction, r.year ORDER BY r.year, r.direction")
+    List<YearTotal> findYearTotalsByCountry(@Param("country") Country country);
+
+    /** The same product ranking computed from raw flows; kept to verify the rollups against. */
     @Query("SELECT tf.productCategory.code AS code, tf.productCategory.name AS name, SUM(tf.tradeValue) AS totalValue " +
            "FROM TradeFlow tf " +
            "WHERE tf.reportingCountry = :country AND tf.direction = :direction " +
            "GROUP BY tf.productCategory.code, tf.productCategory.name " +
            "ORDER BY SUM(tf.tradeValue) DESC")
-    List<ProductSummary> findTopProductsByCountryAndDirection(@Param("country") Country country,
-                                                              @Param("direction") TradeDirection direction);
+    List<ProductSummary> findTopProductsFromFlows(@Param("country") Country country,
+                                                  @Param("direction") TradeDirection direction);
 
+    /** The same partner ranking computed from raw flows; kept to verify the rollups against. */
     @Query("SELECT tf.partnerCountry.code AS code, tf.partnerCountry.name AS name, SUM(tf.tradeValue) AS totalValue " +
            "FROM TradeFlow tf " +
            "WHERE tf.reportingCountry = :country " +
            "GROUP BY tf.partnerCountry.code, tf.partnerCountry.name " +
            "ORDER BY SUM(tf.tradeValue) DESC")
-    List<PartnerSummary> findPartnersByCountry(@Param("country") Country country);
+    List<PartnerSummary> findPartnersFromFlows(@Param("country") Country country);
+
+    /** Value-weighted tariff aggregates; {@code weightedRateSum} is SUM(tradeValue * baseRate) over flows with a matching rate. */
+    interface WeightedTotals {
+        BigDecimal getTradeValue();
+        BigDecimal getCoveredValue();
+        BigDecimal getWeightedRateSum();
+    }
+
+    interface WeightedBreakdown extends WeightedTotals {
+        String getCode();
+        String getName();
+    }
+
+    String WEIGHTED_COLUMNS =
+            "SUM(tf.tradeValue) AS tradeValue, " +
+            "SUM(CASE WHEN tr.id IS NULL THEN NULL ELSE tf.tradeValue END) AS coveredValue, " +
+            "SUM(tf.tradeValue * tr.baseRate) AS weightedRateSum ";
+
+    // The rate in force for a flow is the latest one on its route and category whose window overlaps the year.
+    // Imports are shipped partner -> reporter, exports reporter -> partner.
+    String IMPORT_RATE_JOIN =
+            "LEFT JOIN TariffRate tr ON tr.origin = tf.partnerCountry AND tr.destination = tf.reportingCountry " +
+            "AND tr.productCategory = tf.productCategory AND tr.effectiveFrom = (" +
+            "SELECT MAX(r.effectiveFrom) FROM TariffRate r " +
+            "WHERE r.origin = tf.partnerCountry AND r.destination = tf.reportingCountry " +
+            "AND r.productCategory = tf.productCategory AND r.effectiveFrom <= :yearEnd " +
+            "AND (r.effectiveTo IS NULL OR r.effectiveTo >= :yearStart)) ";
+
+    String EXPORT_RATE_JOIN =
+            "LEFT JOIN TariffRate tr ON tr.origin = tf.reportingCountry AND tr.destination = tf.partnerCountry " +
+            "AND tr.productCategory = tf.productCategory AND tr.effectiveFrom = (" +
+            "SELECT MAX(r.effectiveFrom) FROM TariffRate r " +
+            "WHERE r.origin = tf.reportingCountry AND r.destination = tf.partnerCountry " +
+            "AND r.productCategory = tf.productCategory AND r.effectiveFrom <= :yearEnd " +
+            "AND (r.effectiveTo IS NULL OR r.effectiveTo >= :yearStart)) ";
+
+    String IMPORT_FILTER =
+            "WHERE tf.reportingCountry.id = :countryId AND tf.year = :year " +
+            "AND tf.direction = com.smu.tariff.trade.TradeDirection.IMPORT ";
+
+    String EXPORT_FILTER =
+            "WHERE tf.reportingCountry.id = :countryId AND tf.year = :year " +
+            "AND tf.direction = com.smu.tariff.trade.TradeDirection.EXPORT ";
+
+    @Query("SELECT MAX(tf.year) FROM TradeFlow tf WHERE tf.reportingCountry.id = :countryId")
+    Integer findLatestYear(@Param("countryId") Long countryId);
+
+    @Query("SELECT " + WEIGHTED_COLUMNS + "FROM TradeFlow tf " + IMPORT_RATE_JOIN + IMPORT_FILTER)
+    WeightedTotals sumWeightedImports(@Param("countryId") Long countryId, @Param("year") int year,
+                                      @Param("yearStart") LocalDate yearStart, @Param("yearEnd") LocalDate yearEnd);
+
+    @Query("SELECT " + WEIGHTED_COLUMNS + "FROM TradeFlow tf " + EXPORT_RATE_JOIN + EXPORT_FILTER)
+    WeightedTotals sumWeightedExports(@Param("countryId") Long countryId, @Param("year") int year,
+                                      @Param("yearStart") LocalDate yearStart, @Param("yearEnd") LocalDate yearEnd);
+
+    @Query("SELECT p.code AS code, p.name AS name, " + WEIGHTED_COLUMNS +
+           "FROM TradeFlow tf JOIN tf.partnerCountry p " + IMPORT_RATE_JOIN + IMPORT_FILTER +
+           "GROUP BY p.code, p.name ORDER BY SUM(tf.tradeValue) DESC, p.code")
+    List<WeightedBreakdown> findWeightedImportPartners(@Param("countryId") Long countryId, @Param("year") int year,
+                                                       @Param("yearStart") LocalDate yearStart,
+                                                       @Param("yearEnd") LocalDate yearEnd, Pageable page);
+
+    @Query("SELECT p.code AS code, p.name AS name, " + WEIGHTED_COLUMNS +
+           "FROM TradeFlow tf JOIN tf.partnerCountry p " + EXPORT_RATE_JOIN + EXPORT_FILTER +
+           "GROUP BY p.code, p.name ORDER BY SUM(tf.tradeValue) DESC, p.code")
+    List<WeightedBreakdown> findWeightedExportPartners(@Param("countryId") Long countryId, @Param("year") int year,
+                                                       @Param("yearStart") LocalDate yearStart,
+                                                       @Param("yearEnd") LocalDate yearEnd, Pageable page);
+
+    @Query("SELECT c.code AS code, c.name AS name, " + WEIGHTED_COLUMNS +
+           "FROM TradeFlow tf JOIN tf.productCategory c " + IMPORT_RATE_JOIN + IMPORT_FILTER +
+           "GROUP BY c.code, c.name ORDER BY SUM(tf.tradeValue) DESC, c.code")
+    List<WeightedBreakdown> findWeightedImportCategories(@Param("countryId") Long countryId, @Param("year") int year,
+                                                         @Param("yearStart") LocalDate yearStart,
+                                                         @Param("yearEnd") LocalDate yearEnd, Pageable page);
+
+    @Query("SELECT c.code AS code, c.name AS name, " + WEIGHTED_COLUMNS +
+           "FROM TradeFlow tf JOIN tf.productCategory c " + EXPORT_RATE_JOIN + EXPORT_FILTER +
+           "GROUP BY c.code, c.name ORDER BY SUM(tf.tradeValue) DESC, c.code")
+    List<WeightedBreakdown> findWeightedExportCategories(@Param("countryId") Long countryId, @Param("year") int year,
+                                                         @Param("yearStart") LocalDate yearStart,
+                                                         @Param("yearEnd") LocalDate yearEnd, Pageable page);
 }
@@ -0,0 +1,96 @@
+package com.smu.tariff.trade;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Keeps {@code trade_flow_product_rollup} and {@code trade_flow_partner_rollup} in step with {@code trade_flow}.
+ *
+ * <p>Rollups are rebuilt a year at a time: delete the year, re-aggregate it from {@code trade_flow} with
+ * {@code INSERT ... SELECT}, in one transaction so readers see either the old or the new totals. With
+ * {@code trade_flow} partitioned by year the aggregation touches a single partition, so a refresh costs the same
+ * however many years are stored. The importer refreshes the years it loaded; anything written to
+ * {@code trade_flow} by other means needs {@link #refreshAll()}.</p>
+ */
+@Service
+public class TradeFlowRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TradeFlowRollupService.class);
+
+    static final String DELETE_PRODUCT_SQL = "DELETE FROM trade_flow_product_rollup WHERE year = ?";
+    static final String INSERT_PRODUCT_SQL =
+            "INSERT INTO trade_flow_product_rollup "
+                    + "(reporting_country_id, direction, product_category_id, year, trade_value, flow_count) "
+                    + "SELECT reporting_country_id, direction, product_category_id, year, SUM(trade_value), COUNT(*) "
+                    + "FROM trade_flow WHERE year = ? "
+                    + "GROUP BY reporting_country_id, direction, product_category_id, year";
+    static final String DELETE_PARTNER_SQL = "DELETE FROM trade_flow_partner_rollup WHERE year = ?";
+    static final String INSERT_PARTNER_SQL =
+            "INSERT INTO trade_flow_partner_rollup "
+                    + "(reporting_country_id, partner_country_id, direction, year, trade_value, flow_count) "
+                    + "SELECT reporting_country_id, partner_country_id, direction, year, SUM(trade_value), COUNT(*) "
+                    + "FROM trade_flow WHERE year = ? "
+                    + "GROUP BY reporting_country_id, partner_country_id, direction, year";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public TradeFlowRollupService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /** Re-aggregate the given years. */
+    public void refreshYears(Collection<Integer> years) {
+        for (Integer year : new TreeSet<>(years)) {
+            long started = System.nanoTime();
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.update(DELETE_PRODUCT_SQL, year);
+                jdbcTemplate.update(INSERT_PRODUCT_SQL, year);
+                jdbcTemplate.update(DELETE_PARTNER_SQL, year);
+                jdbcTemplate.update(INSERT_PARTNER_SQL, year);
+            });
+            logger.info("Refreshed trade flow rollups for {} in {} ms", year, (System.nanoTime() - started) / 1_000_000);
+        }
+    }
+
+    /** Re-aggregate every year present in either the flows or the rollups, dropping years that no longer have flows. */
+    public void refreshAll() {
+        TreeSet<Integer> years = new TreeSet<>(jdbcTemplate.queryForList("SELECT DISTINCT year FROM trade_flow", Integer.class));
+        years.addAll(jdbcTemplate.queryForList("SELECT DISTINCT year FROM trade_flow_product_rollup", Integer.class));
+        years.addAll(jdbcTemplate.queryForList("SELECT DISTINCT year FROM trade_flow_partner_rollup", Integer.class));
+        refreshYears(years);
+    }
+
+    /**
+     * Build the rollups on first start against a database that already holds flows.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        try {
+            boolean haveFlows = !first("trade_flow").isEmpty();
+            boolean haveRollups = !first("trade_flow_product_rollup").isEmpty();
+            if (haveFlows && !haveRollups) {
+                logger.info("Trade flow rollups are empty; building them from trade_flow");
+                refreshAll();
+            }
+        } catch (DataAccessException ex) {
+            logger.warn("Skipping trade flow rollup initialization: {}", ex.getMessage());
+        }
+    }
+
+    private List<Integer> first(String table) {
+        return jdbcTemplate.queryForList("SELECT year FROM " + table + " FETCH FIRST 1 ROWS ONLY", Integer.class);
+    }
+}
@@ -0,0 +1,196 @@
+package com.smu.tariff.trade;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smu.tariff.country.Country;
+import com.smu.tariff.country.CountryRepository;
+import com.smu.tariff.tariff.snapshot.TariffReferenceDataChangedEvent;
+import com.smu.tariff.trade.dto.CountryTradeInsightsDto;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Materialized per-country trade insights. Reads are a map lookup; entries are computed on first use,
+ * recomputed after every committed rate change that touches the country, and rebuilt for all countries
+ * on a fixed schedule in case an incremental refresh was missed.
+ *
+ * <p>Every invalidation takes a stamp from a global sequence. A computation only replaces an entry if it
+ * started after the country's last invalidation, so a slow rebuild can never overwrite fresher data.</p>
+ */
+@Service
+public class TradeInsightsStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(TradeInsightsStore.class);
+
+    /** One materialized entry: the insights, their strong ETag and when they were computed. */
+    public record Materialized(CountryTradeInsightsDto insights, String etag, Instant computedAt, long stamp) { }
+
+    private final TradeAnalyticsService tradeAnalyticsService;
+    private final CountryRepository countryRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+
+    private final Map<String, Materialized> entries = new ConcurrentHashMap<>();
+    private final Map<String, Long> invalidatedAt = new ConcurrentHashMap<>();
+    private final AtomicLong stamps = new AtomicLong();
+    private volatile long clearedAt;
+    private final Timer refreshLag;
+
+    @Autowired
+    public TradeInsightsStore(TradeAnalyticsService tradeAnalyticsService,
+                              CountryRepository countryRepository,
+                              ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry) {
+        this(tradeAnalyticsService, countryRepository, objectMapper, transactionManager, meterRegistry, Clock.systemUTC());
+    }
+
+    TradeInsightsStore(TradeAnalyticsService tradeAnalyticsService,
+                       CountryRepository countryRepository,
+                       ObjectMapper objectMapper,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry,
+                       Clock clock) {
+        this.tradeAnalyticsService = tradeAnalyticsService;
+        this.countryRepository = countryRepository;
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+        // Refreshes run after the writer's commit, so they need their own read-only transaction
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+
+        this.refreshLag = Timer.builder("trade.insights.refresh.lag")
+                .description("Time from a committed tariff change to the refreshed insights")
+                .register(meterRegistry);
+        Gauge.builder("trade.insights.size", entries, Map::size).register(meterRegistry);
+        Gauge.builder("trade.insights.max.age.seconds", this, TradeInsightsStore::maxAgeSeconds)
+                .description("Age of the oldest materialized country insights")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Insights for one country, computed and stored on first use. Validation errors from
+     * {@link TradeAnalyticsService} (blank or unknown code) propagate and nothing is stored.
+     */
+    public Materialized get(String countryCode) {
+        String code = countryCode == null ? "" : countryCode.trim().toUpperCase();
+        Materialized current = entries.get(code);
+        if (current != null) {
+            return current;
+        }
+        return refresh(code);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onReferenceDataChanged(TariffReferenceDataChangedEvent event) {
+        if (event.affectsAllCountries()) {
+            // Country or category edits can rename or remove anything; drop everything and recompute lazily
+            clearedAt = stamps.incrementAndGet();
+            entries.clear();
+            logger.debug("Trade insights cleared after change by {}", event.getSource());
+            return;
+        }
+
+        Set<String> codes = event.getCountryCodes();
+        long stamp = stamps.incrementAndGet();
+        for (String code : codes) {
+            invalidatedAt.put(code, stamp);
+        }
+        for (String code : codes) {
+            // Only materialized countries are refreshed; readers keep the previous entry until the new one lands
+            if (entries.containsKey(code)) {
+                try {
+                    refresh(code);
+                } catch (RuntimeException ex) {
+                    entries.remove(code);
+                    logger.warn("Failed to refresh trade insights for {} after change by {}: {}",
+                            code, event.getSource(), ex.getMessage());
+                }
+            }
+        }
+        refreshLag.record(Duration.between(event.getOccurredAt(), clock.instant()));
+    }
+
+    /**
+     * Safety net for missed events: recompute every country on a fixed delay.
+     */
+    @Scheduled(fixedDelayString = "${app.trade.insights.rebuild-interval-ms:900000}",
+               initialDelayString = "${app.trade.insights.rebuild-initial-delay-ms:60000}")
+    public void rebuildAll() {
+        long started = System.nanoTime();
+        int rebuilt = 0;
+        for (Country country : countryRepository.findAll()) {
+            try {
+                refresh(country.getCode());
+                rebuilt++;
+            } catch (RuntimeException ex) {
+                logger.warn("Failed to rebuild trade insights for {}: {}", country.getCode(), ex.getMessage());
+            }
+        }
+        logger.info("Rebuilt trade insights for {} countries in {} ms", rebuilt, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private Materialized refresh(String code) {
+        long stamp = stamps.incrementAndGet();
+        CountryTradeInsightsDto insights = transactionTemplate.execute(status -> tradeAnalyticsService.getCountryInsights(code));
+        Materialized fresh = new Materialized(insights, etagOf(insights), clock.instant(), stamp);
+        Materialized stored = entries.compute(code, (key, existing) -> {
+            if (existing != null && existing.stamp() > stamp) {
+                return existing;
+            }
+            Long invalidated = invalidatedAt.get(key);
+            boolean superseded = clearedAt > stamp || (invalidated != null && invalidated > stamp);
+            return superseded ? existing : fresh;
+        });
+        // A concurrent invalidation won: still answer this caller, but leave the slot for the newer refresh
+        return stored != null ? stored : fresh;
+    }
+
+    private double maxAgeSeconds() {
+        Instant now = clock.instant();
+        long oldest = 0;
+        for (Materialized entry : entries.values()) {
+            oldest = Math.max(oldest, Duration.between(entry.computedAt(), now).toSeconds());
+        }
+        return oldest;
+    }
+
+    private String etagOf(CountryTradeInsightsDto insights) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(insights));
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (JsonProcessingException | NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("Unable to compute trade insights ETag", ex);
+        }
+    }
+}
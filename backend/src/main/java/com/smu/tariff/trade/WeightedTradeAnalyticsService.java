@@ -0,0 +1,220 @@
+package com.smu.tariff.trade;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.smu.tariff.country.Country;
+import com.smu.tariff.country.CountryRepository;
+import com.smu.tariff.exception.InvalidTariffRequestException;
+import com.smu.tariff.tariff.snapshot.TariffReferenceDataChangedEvent;
+import com.smu.tariff.trade.TradeFlowRepository.WeightedBreakdown;
+import com.smu.tariff.trade.TradeFlowRepository.WeightedTotals;
+import com.smu.tariff.trade.dto.WeightedTradeBreakdownDto;
+import com.smu.tariff.trade.dto.WeightedTradeDirectionDto;
+import com.smu.tariff.trade.dto.WeightedTradeInsightsDto;
+import com.smu.tariff.util.LruMap;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Trade-value-weighted tariff burden per country, partner and category for one year.
+ * Every figure is aggregated in SQL over {@code trade_flow} joined to the rate in force for each flow
+ * (see {@link TradeFlowRepository}); results are cached per country and year until a rate on one of the
+ * country's routes changes or trade flows are reloaded.
+ */
+@Service
+public class WeightedTradeAnalyticsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(WeightedTradeAnalyticsService.class);
+    private static final int MAX_ITEMS = 5;
+    private static final int RATE_SCALE = 4;
+    private static final int VALUE_SCALE = 2;
+    private static final int MIN_YEAR = 1900;
+    private static final int MAX_YEAR = 2100;
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    /** A null year means "latest year with data" and is cached separately from the explicit year. */
+    private record CacheKey(String countryCode, Integer year) { }
+
+    private final CountryRepository countryRepository;
+    private final TradeFlowRepository tradeFlowRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<CacheKey, WeightedTradeInsightsDto> cache;
+    private final AtomicLong generation = new AtomicLong();
+    private final Counter hits;
+    private final Counter misses;
+
+    public WeightedTradeAnalyticsService(CountryRepository countryRepository,
+                                         TradeFlowRepository tradeFlowRepository,
+                                         PlatformTransactionManager transactionManager,
+                                         @Value("${app.trade.weighted.cache.max-entries:1000}") int maxEntries,
+                                         MeterRegistry meterRegistry) {
+        this.countryRepository = countryRepository;
+        this.tradeFlowRepository = tradeFlowRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.cache = new LruMap<>(maxEntries);
+        this.hits = Counter.builder("trade.weighted.cache").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("trade.weighted.cache").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("trade.weighted.cache.size", this, WeightedTradeAnalyticsService::size).register(meterRegistry);
+    }
+
+    /**
+     * Weighted insights for a country in {@code year}, or in the latest year it has trade flows when {@code year} is null.
+     */
+    public WeightedTradeInsightsDto getWeightedInsights(String countryCode, Integer year) {
+        if (countryCode == null || countryCode.trim().isEmpty()) {
+            throw new InvalidTariffRequestException("Country code is required");
+        }
+        if (year != null && (year < MIN_YEAR || year > MAX_YEAR)) {
+            throw new InvalidTariffRequestException("Year must be between " + MIN_YEAR + " and " + MAX_YEAR);
+        }
+
+        CacheKey key = new CacheKey(countryCode.trim().toUpperCase(), year);
+        synchronized (cache) {
+            WeightedTradeInsightsDto cached = cache.get(key);
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+        }
+        misses.increment();
+
+        // An invalidation that lands while we compute wins: the result is returned but not cached
+        long observed = generation.get();
+        WeightedTradeInsightsDto computed = transactionTemplate.execute(status -> compute(key.countryCode(), year));
+        synchronized (cache) {
+            if (generation.get() == observed) {
+                cache.put(key, computed);
+            }
+        }
+        return computed;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onReferenceDataChanged(TariffReferenceDataChangedEvent event) {
+        synchronized (cache) {
+            generation.incrementAndGet();
+            if (event.affectsAllCountries()) {
+                cache.clear();
+            } else {
+                cache.keySet().removeIf(key -> event.getCountryCodes().contains(key.countryCode()));
+            }
+        }
+    }
+
+    /**
+     * Drop every cached result, e.g. after trade flows were loaded or replaced.
+     */
+    public void evictAll() {
+        synchronized (cache) {
+            generation.incrementAndGet();
+            cache.clear();
+        }
+    }
+
+    int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    private WeightedTradeInsightsDto compute(String countryCode, Integer requestedYear) {
+        Country country = countryRepository.findByCode(countryCode)
+                .orElseThrow(() -> new InvalidTariffRequestException("Unknown country code: " + countryCode));
+        Long countryId = country.getId();
+        Integer year = requestedYear != null ? requestedYear : tradeFlowRepository.findLatestYear(countryId);
+
+        logger.info("Generating weighted trade insights for country={} year={}", countryCode, year);
+
+        WeightedTradeInsightsDto dto = new WeightedTradeInsightsDto();
+        dto.countryCode = country.getCode();
+        dto.countryName = country.getName();
+        dto.year = year;
+        if (year == null) {
+            dto.imports = toDirection(null, List.of(), List.of());
+            dto.exports = toDirection(null, List.of(), List.of());
+            return dto;
+        }
+
+        LocalDate yearStart = LocalDate.of(year, 1, 1);
+        LocalDate yearEnd = LocalDate.of(year, 12, 31);
+        Pageable topN = PageRequest.of(0, MAX_ITEMS);
+        dto.imports = toDirection(
+                tradeFlowRepository.sumWeightedImports(countryId, year, yearStart, yearEnd),
+                tradeFlowRepository.findWeightedImportPartners(countryId, year, yearStart, yearEnd, topN),
+                tradeFlowRepository.findWeightedImportCategories(countryId, year, yearStart, yearEnd, topN));
+        dto.exports = toDirection(
+                tradeFlowRepository.sumWeightedExports(countryId, year, yearStart, yearEnd),
+                tradeFlowRepository.findWeightedExportPartners(countryId, year, yearStart, yearEnd, topN),
+                tradeFlowRepository.findWeightedExportCategories(countryId, year, yearStart, yearEnd, topN));
+        return dto;
+    }
+
+    private WeightedTradeDirectionDto toDirection(WeightedTotals totals,
+                                                  List<WeightedBreakdown> partners,
+                                                  List<WeightedBreakdown> categories) {
+        WeightedTradeDirectionDto dto = new WeightedTradeDirectionDto();
+        BigDecimal rateSum = totals == null ? null : totals.getWeightedRateSum();
+        dto.totalTradeValue = value(totals == null ? null : totals.getTradeValue());
+        dto.coveredTradeValue = value(totals == null ? null : totals.getCoveredValue());
+        dto.weightedAverageRate = weightedRate(rateSum, totals == null ? null : totals.getCoveredValue());
+        dto.estimatedDuty = duty(rateSum);
+        dto.topPartners = toBreakdown(partners);
+        dto.topCategories = toBreakdown(categories);
+        return dto;
+    }
+
+    private List<WeightedTradeBreakdownDto> toBreakdown(List<WeightedBreakdown> rows) {
+        List<WeightedTradeBreakdownDto> items = new ArrayList<>(rows.size());
+        for (WeightedBreakdown row : rows) {
+            WeightedTradeBreakdownDto item = new WeightedTradeBreakdownDto();
+            item.code = row.getCode();
+            item.name = row.getName();
+            item.tradeValue = value(row.getTradeValue());
+            item.coveredTradeValue = value(row.getCoveredValue());
+            item.weightedAverageRate = weightedRate(row.getWeightedRateSum(), row.getCoveredValue());
+            item.estimatedDuty = duty(row.getWeightedRateSum());
+            items.add(item);
+        }
+        return items;
+    }
+
+    private static BigDecimal value(BigDecimal amount) {
+        return (amount == null ? BigDecimal.ZERO : amount).setScale(VALUE_SCALE, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * SUM(value * rate) / SUM(covered value): the stored percentage each covered dollar pays on average.
+     */
+    private static BigDecimal weightedRate(BigDecimal rateSum, BigDecimal coveredValue) {
+        if (rateSum == null || coveredValue == null || coveredValue.signum() == 0) {
+            return BigDecimal.ZERO.setScale(RATE_SCALE, RoundingMode.HALF_UP);
+        }
+        return rateSum.divide(coveredValue, RATE_SCALE, RoundingMode.HALF_UP);
+    }
+
+    private static BigDecimal duty(BigDecimal rateSum) {
+        return rateSum == null
+                ? BigDecimal.ZERO.setScale(VALUE_SCALE, RoundingMode.HALF_UP)
+                : rateSum.divide(HUNDRED, VALUE_SCALE, RoundingMode.HALF_UP);
+    }
+}
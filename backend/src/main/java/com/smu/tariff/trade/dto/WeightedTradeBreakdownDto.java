@@ -0,0 +1,12 @@
+package com.smu.tariff.trade.dto;
+
+import java.math.BigDecimal;
+
+public class WeightedTradeBreakdownDto {
+    public String code;
+    public String name;
+    public BigDecimal tradeValue;
+    public BigDecimal coveredTradeValue;
+    public BigDecimal weightedAverageRate;
+    public BigDecimal estimatedDuty;
+}
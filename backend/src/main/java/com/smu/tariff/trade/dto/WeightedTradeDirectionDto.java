@@ -0,0 +1,13 @@
+package com.smu.tariff.trade.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public class WeightedTradeDirectionDto {
+    public BigDecimal totalTradeValue;
+    public BigDecimal coveredTradeValue; // value of flows that have a tariff rate in force for the year
+    public BigDecimal weightedAverageRate; // percentage, weighted by covered trade value
+    public BigDecimal estimatedDuty; // ad valorem duty on covered value; flat fees are per shipment and excluded
+    public List<WeightedTradeBreakdownDto> topPartners;
+    public List<WeightedTradeBreakdownDto> topCategories;
+}
@@ -0,0 +1,9 @@
+package com.smu.tariff.trade.dto;
+
+public class WeightedTradeInsightsDto {
+    public String countryCode;
+    public String countryName;
+    public Integer year; // null when the country has no recorded trade flows
+    public WeightedTradeDirectionDto imports;
+    public WeightedTradeDirectionDto exports;
+}
@@ -0,0 +1,102 @@
+package com.smu.tariff.trade.ingest;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+import org.postgresql.PGConnection;
+
+/**
+ * Writes parsed rows straight to {@code trade_flow} on the caller's connection, bypassing Hibernate
+ * (IDENTITY ids rule out JPA insert batching). PostgreSQL gets a single {@code COPY ... FROM STDIN} per chunk;
+ * other databases get multi-row {@code INSERT} statements of {@code rowsPerStatement} rows each. Every row is
+ * tagged with the import file it came from, so a re-import can remove what the file loaded before.
+ */
+class TradeFlowBulkWriter {
+
+    private static final String COLUMNS = "reporting_country_id, partner_country_id, product_category_id, direction, trade_value, year, import_file";
+    private static final String COPY_SQL = "COPY trade_flow (" + COLUMNS + ") FROM STDIN WITH (FORMAT csv)";
+
+    private final int rowsPerStatement;
+
+    TradeFlowBulkWriter(int rowsPerStatement) {
+        this.rowsPerStatement = Math.max(1, rowsPerStatement);
+    }
+
+    void write(Connection connection, String importFile, List<TradeFlowCsvFormat.Row> rows) throws SQLException {
+        if (rows.isEmpty()) {
+            return;
+        }
+        if (connection.isWrapperFor(PGConnection.class)) {
+            copy(connection.unwrap(PGConnection.class), importFile, rows);
+        } else {
+            insert(connection, importFile, rows);
+        }
+    }
+
+    private void copy(PGConnection connection, String importFile, List<TradeFlowCsvFormat.Row> rows) throws SQLException {
+        String tag = '"' + importFile.replace("\"", "\"\"") + '"';
+        StringBuilder csv = new StringBuilder(rows.size() * (48 + tag.length()));
+        for (TradeFlowCsvFormat.Row row : rows) {
+            csv.append(row.reporterId()).append(',')
+               .append(row.partnerId()).append(',')
+               .append(row.categoryId()).append(',')
+               .append(row.direction().name()).append(',')
+               .append(row.tradeValue().toPlainString()).append(',')
+               .append(row.year()).append(',')
+               .append(tag).append('\n');
+        }
+        try {
+            connection.getCopyAPI().copyIn(COPY_SQL, new StringReader(csv.toString()));
+        } catch (IOException ex) {
+            throw new SQLException("COPY into trade_flow failed", ex);
+        }
+    }
+
+    private void insert(Connection connection, String importFile, List<TradeFlowCsvFormat.Row> rows) throws SQLException {
+        int full = rows.size() / rowsPerStatement;
+        if (full > 0) {
+            try (PreparedStatement statement = connection.prepareStatement(insertSql(rowsPerStatement))) {
+                for (int i = 0; i < full; i++) {
+                    bind(statement, importFile, rows, i * rowsPerStatement, rowsPerStatement);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        }
+        int remainder = rows.size() % rowsPerStatement;
+        if (remainder > 0) {
+            try (PreparedStatement statement = connection.prepareStatement(insertSql(remainder))) {
+                bind(statement, importFile, rows, full * rowsPerStatement, remainder);
+                statement.executeUpdate();
+            }
+        }
+    }
+
+    private static void bind(PreparedStatement statement, String importFile, List<TradeFlowCsvFormat.Row> rows,
+                             int from, int count)
+            throws SQLException {
+        int p = 1;
+        for (int i = from; i < from + count; i++) {
+            TradeFlowCsvFormat.Row row = rows.get(i);
+            statement.setLong(p++, row.reporterId());
+            statement.setLong(p++, row.partnerId());
+            statement.setLong(p++, row.categoryId());
+            statement.setString(p++, row.direction().name());
+            statement.setBigDecimal(p++, row.tradeValue());
+            statement.setInt(p++, row.year());
+            statement.setString(p++, importFile);
+        }
+    }
+
+    private static String insertSql(int rows) {
+        StringBuilder sql = new StringBuilder("INSERT INTO trade_flow (" + COLUMNS + ") VALUES ");
+        for (int i = 0; i < rows; i++) {
+            sql.append(i == 0 ? "" : ",").append("(?,?,?,?,?,?,?)");
+        }
+        return sql.toString();
+    }
+}
@@ -0,0 +1,55 @@
+package com.smu.tariff.trade.ingest;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.smu.tariff.country.Country;
+import com.smu.tariff.model.ProductCategory;
+
+/**
+ * In-memory code-to-id maps built once per import, so resolving a row never touches the database.
+ * Commodity codes resolve by category code first, then by HS code, trimming digits until a category matches
+ * (a 6-digit HS subheading such as 851712 lands in the 8517 category).
+ */
+class TradeFlowCodes {
+
+    private static final int MIN_HS_DIGITS = 2;
+
+    private final Map<String, Long> countries = new HashMap<>();
+    private final Map<String, Long> categories = new HashMap<>();
+    private final Map<String, Long> hsCodes = new HashMap<>();
+
+    TradeFlowCodes(Iterable<Country> countryRows, Iterable<ProductCategory> categoryRows) {
+        for (Country country : countryRows) {
+            countries.put(country.getCode().toUpperCase(), country.getId());
+        }
+        for (ProductCategory category : categoryRows) {
+            categories.put(category.getCode().toUpperCase(), category.getId());
+            if (category.getHsCode() != null && !category.getHsCode().isBlank()) {
+                hsCodes.putIfAbsent(category.getHsCode().trim(), category.getId());
+            }
+        }
+    }
+
+    Long country(String code) {
+        return code == null ? null : countries.get(code.trim().toUpperCase());
+    }
+
+    Long category(String code) {
+        if (code == null) {
+            return null;
+        }
+        String trimmed = code.trim();
+        Long id = categories.get(trimmed.toUpperCase());
+        if (id != null) {
+            return id;
+        }
+        for (int digits = trimmed.length(); digits >= MIN_HS_DIGITS; digits--) {
+            id = hsCodes.get(trimmed.substring(0, digits));
+            if (id != null) {
+                return id;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,144 @@
+package com.smu.tariff.trade.ingest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import com.smu.tariff.trade.TradeDirection;
+
+/**
+ * Column layout of a trade-flow CSV, taken from its header row. Accepts our own column names and the
+ * UN Comtrade bulk-download names, in any order; extra columns are ignored.
+ */
+class TradeFlowCsvFormat {
+
+    /** One parsed row, already resolved to database ids. */
+    record Row(long reporterId, long partnerId, long categoryId, TradeDirection direction, BigDecimal tradeValue, int year) { }
+
+    private static final Map<String, List<String>> ALIASES = Map.of(
+            "reporter", List.of("reportercode", "reporteriso", "reporter"),
+            "partner", List.of("partnercode", "partneriso", "partner"),
+            "category", List.of("categorycode", "cmdcode", "hscode", "commoditycode"),
+            "direction", List.of("direction", "flowcode", "flow"),
+            "year", List.of("year", "refyear", "period"),
+            "value", List.of("tradevalue", "primaryvalue", "value"));
+
+    private final int reporter;
+    private final int partner;
+    private final int category;
+    private final int direction;
+    private final int year;
+    private final int value;
+    private final int width;
+
+    private TradeFlowCsvFormat(List<String> header) {
+        this.reporter = column(header, "reporter");
+        this.partner = column(header, "partner");
+        this.category = column(header, "category");
+        this.direction = column(header, "direction");
+        this.year = column(header, "year");
+        this.value = column(header, "value");
+        this.width = Math.max(Math.max(Math.max(reporter, partner), Math.max(category, direction)), Math.max(year, value)) + 1;
+    }
+
+    static TradeFlowCsvFormat fromHeader(String headerLine) {
+        if (headerLine == null || headerLine.isBlank()) {
+            throw new IllegalArgumentException("Import file is empty");
+        }
+        String header = headerLine.startsWith("\uFEFF") ? headerLine.substring(1) : headerLine;
+        List<String> names = new ArrayList<>();
+        for (String name : split(header)) {
+            names.add(name.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]", ""));
+        }
+        return new TradeFlowCsvFormat(names);
+    }
+
+    /**
+     * Parse and resolve one data line.
+     * @throws IllegalArgumentException with a short reason when the row cannot be loaded
+     */
+    Row parse(String line, TradeFlowCodes codes) {
+        List<String> fields = split(line);
+        if (fields.size() < width) {
+            throw new IllegalArgumentException("expected at least " + width + " columns, found " + fields.size());
+        }
+        Long reporterId = require(codes.country(fields.get(reporter)), "unknown reporter", fields.get(reporter));
+        Long partnerId = require(codes.country(fields.get(partner)), "unknown partner", fields.get(partner));
+        Long categoryId = require(codes.category(fields.get(category)), "unknown commodity", fields.get(category));
+        TradeDirection flow = direction(fields.get(direction));
+        int flowYear;
+        BigDecimal tradeValue;
+        try {
+            flowYear = Integer.parseInt(fields.get(year).trim());
+            tradeValue = new BigDecimal(fields.get(value).trim());
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("bad year or value");
+        }
+        if (tradeValue.signum() < 0) {
+            throw new IllegalArgumentException("negative trade value");
+        }
+        return new Row(reporterId, partnerId, categoryId, flow, tradeValue, flowYear);
+    }
+
+    private static TradeDirection direction(String raw) {
+        switch (raw.trim().toUpperCase(Locale.ROOT)) {
+            case "M", "IMPORT", "IMPORTS":
+                return TradeDirection.IMPORT;
+            case "X", "EXPORT", "EXPORTS":
+                return TradeDirection.EXPORT;
+            default:
+                // Re-imports/re-exports (RM/RX) and other flow codes are not modelled
+                throw new IllegalArgumentException("unsupported flow " + raw);
+        }
+    }
+
+    private static Long require(Long id, String reason, String code) {
+        if (id == null) {
+            throw new IllegalArgumentException(reason + " " + code);
+        }
+        return id;
+    }
+
+    private static int column(List<String> header, String field) {
+        for (String alias : ALIASES.get(field)) {
+            int index = header.indexOf(alias);
+            if (index >= 0) {
+                return index;
+            }
+        }
+        throw new IllegalArgumentException("Import file has no " + field + " column (accepted: " + ALIASES.get(field) + ")");
+    }
+
+    /** Split one CSV line, honouring double quotes and doubled quotes inside them. */
+    static List<String> split(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        current.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+}
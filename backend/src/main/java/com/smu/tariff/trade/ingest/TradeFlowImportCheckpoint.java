@@ -0,0 +1,80 @@
+package com.smu.tariff.trade.ingest;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Progress of one import file. {@code byteOffset} and the row counters are committed in the same transaction
+ * as each chunk of rows, so a restarted import resumes exactly after the last loaded chunk.
+ */
+@Entity
+@Table(name = "trade_flow_import")
+public class TradeFlowImportCheckpoint {
+
+    public enum Status { RUNNING, COMPLETED, FAILED }
+
+    @Id
+    @Column(name = "file_name", length = 255)
+    private String fileName;
+
+    @Column(name = "file_size", nullable = false)
+    private long fileSize;
+
+    @Column(name = "file_modified", nullable = false)
+    private Instant fileModified;
+
+    @Column(name = "byte_offset", nullable = false)
+    private long byteOffset;
+
+    @Column(name = "rows_loaded", nullable = false)
+    private long rowsLoaded;
+
+    @Column(name = "rows_rejected", nullable = false)
+    private long rowsRejected;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+
+    @Column(length = 1000)
+    private String message;
+
+    @Column(name = "started_at", nullable = false)
+    private Instant startedAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    public TradeFlowImportCheckpoint() { }
+
+    public TradeFlowImportCheckpoint(String fileName, long fileSize, Instant fileModified, Instant startedAt) {
+        this.fileName = fileName;
+        this.fileSize = fileSize;
+        this.fileModified = fileModified;
+        this.status = Status.RUNNING;
+        this.startedAt = startedAt;
+        this.updatedAt = startedAt;
+    }
+
+    /** Whether this checkpoint was taken against the same version of the file. */
+    public boolean matches(long size, Instant modified) {
+        return fileSize == size && fileModified.equals(modified);
+    }
+
+    public String getFileName() { return fileName; }
+    public long getFileSize() { return fileSize; }
+    public Instant getFileModified() { return fileModified; }
+    public long getByteOffset() { return byteOffset; }
+    public long getRowsLoaded() { return rowsLoaded; }
+    public long getRowsRejected() { return rowsRejected; }
+    public Status getStatus() { return status; }
+    public String getMessage() { return message; }
+    public Instant getStartedAt() { return startedAt; }
+    public Instant getUpdatedAt() { return updatedAt; }
+}
@@ -0,0 +1,6 @@
+package com.smu.tariff.trade.ingest;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface TradeFlowImportCheckpointRepository extends JpaRepository<TradeFlowImportCheckpoint, String> {
+}
@@ -0,0 +1,54 @@
+package com.smu.tariff.trade.ingest;
+
+import java.util.Map;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.smu.tariff.trade.TradeFlowRollupService;
+
+@RestController
+@RequestMapping("/api/trade/flows")
+@PreAuthorize("hasRole('ADMIN')")
+public class TradeFlowImportController {
+
+    private final TradeFlowImportService tradeFlowImportService;
+    private final TradeFlowRollupService tradeFlowRollupService;
+
+    public TradeFlowImportController(TradeFlowImportService tradeFlowImportService,
+                                     TradeFlowRollupService tradeFlowRollupService) {
+        this.tradeFlowImportService = tradeFlowImportService;
+        this.tradeFlowRollupService = tradeFlowRollupService;
+    }
+
+    /**
+     * Start loading a CSV from the server's import directory, e.g. {@code {"file": "comtrade-2023.csv"}}.
+     * Returns 202 immediately; poll the status endpoint for progress.
+     */
+    @PostMapping("/imports")
+    public ResponseEntity<TradeFlowImportStatus> startImport(@RequestBody Map<String, String> body) {
+        return ResponseEntity.accepted().body(tradeFlowImportService.start(body == null ? null : body.get("file")));
+    }
+
+    @GetMapping("/imports/{file}")
+    public ResponseEntity<TradeFlowImportStatus> getStatus(@PathVariable("file") String file) {
+        return tradeFlowImportService.status(file)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Rebuild every year's rollups, e.g. after trade_flow was changed outside the importer.
+     */
+    @PostMapping("/rollups/refresh")
+    public ResponseEntity<Void> refreshRollups() {
+        tradeFlowRollupService.refreshAll();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,443 @@
+package com.smu.tariff.trade.ingest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.smu.tariff.country.CountryRepository;
+import com.smu.tariff.repository.ProductCategoryRepository;
+import com.smu.tariff.trade.TradeFlowPartitions;
+import com.smu.tariff.trade.TradeFlowRollupService;
+import com.smu.tariff.trade.WeightedTradeAnalyticsService;
+import com.smu.tariff.trade.ingest.TradeFlowImportCheckpoint.Status;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Bulk loader for trade-flow CSV files placed in {@code app.trade.import.directory}.
+ *
+ * <p>Files are streamed line by line (see {@link TradeFlowLineReader}), codes are resolved against maps built
+ * once per run, and rows are written in chunks by {@link TradeFlowBulkWriter}. Each chunk commits together with
+ * its checkpoint, so an import stopped by a crash or shutdown resumes after the last committed chunk, either
+ * when it is started again or automatically at the next startup. Unloadable rows are counted and skipped.</p>
+ *
+ * <p>Imports run one at a time on a dedicated thread. Loaded rows are tagged with their file name. Loading a
+ * file again after it changed on disk starts over from the first line, and the rows the earlier version loaded
+ * are deleted in the same transaction that resets its checkpoint, so the file is never counted twice. When a run
+ * has loaded or replaced rows, the rollups for the years it touched are rebuilt and the weighted analytics cache
+ * is cleared.</p>
+ */
+@Service
+public class TradeFlowImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TradeFlowImportService.class);
+    private static final int MAX_LOGGED_REJECTS = 10;
+    private static final int MAX_MESSAGE_LENGTH = 1000;
+
+    private static final String UPDATE_PROGRESS_SQL =
+            "UPDATE trade_flow_import SET byte_offset = ?, rows_loaded = rows_loaded + ?, "
+                    + "rows_rejected = rows_rejected + ?, updated_at = ? WHERE file_name = ?";
+    private static final String UPDATE_STATUS_SQL =
+            "UPDATE trade_flow_import SET status = ?, message = ?, updated_at = ? WHERE file_name = ?";
+    private static final String DELETE_FILE_ROWS_SQL = "DELETE FROM trade_flow WHERE import_file = ?";
+    private static final String RESET_CHECKPOINT_SQL =
+            "UPDATE trade_flow_import SET file_size = ?, file_modified = ?, byte_offset = 0, rows_loaded = 0, "
+                    + "rows_rejected = 0, status = ?, message = NULL, started_at = ?, updated_at = ? WHERE file_name = ?";
+
+    private final Path directory;
+    private final int chunkSize;
+    private final boolean resumeOnStartup;
+    private final TradeFlowBulkWriter writer;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CountryRepository countryRepository;
+    private final ProductCategoryRepository productCategoryRepository;
+    private final TradeFlowImportCheckpointRepository checkpointRepository;
+    private final WeightedTradeAnalyticsService weightedTradeAnalyticsService;
+    private final TradeFlowRollupService rollupService;
+    private final TradeFlowPartitions partitions;
+    private final ExecutorService executor;
+    private final Map<String, Progress> active = new ConcurrentHashMap<>();
+    private final Map<String, Progress> lastRuns = new ConcurrentHashMap<>();
+    private final Counter loadedRows;
+    private final Counter rejectedRows;
+
+    public TradeFlowImportService(@Value("${app.trade.import.directory:./data/trade-flows}") String directory,
+                                  @Value("${app.trade.import.chunk-size:50000}") int chunkSize,
+                                  @Value("${app.trade.import.rows-per-insert:500}") int rowsPerInsert,
+                                  @Value("${app.trade.import.resume-on-startup:true}") boolean resumeOnStartup,
+                                  JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  CountryRepository countryRepository,
+                                  ProductCategoryRepository productCategoryRepository,
+                                  TradeFlowImportCheckpointRepository checkpointRepository,
+                                  WeightedTradeAnalyticsService weightedTradeAnalyticsService,
+                                  TradeFlowRollupService rollupService,
+                                  TradeFlowPartitions partitions,
+                                  MeterRegistry meterRegistry) {
+        this.directory = Paths.get(directory).toAbsolutePath().normalize();
+        this.chunkSize = Math.max(1, chunkSize);
+        this.resumeOnStartup = resumeOnStartup;
+        this.writer = new TradeFlowBulkWriter(rowsPerInsert);
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.countryRepository = countryRepository;
+        this.productCategoryRepository = productCategoryRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.weightedTradeAnalyticsService = weightedTradeAnalyticsService;
+        this.rollupService = rollupService;
+        this.partitions = partitions;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "trade-flow-import");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.loadedRows = Counter.builder("trade.flow.import.rows").tag("result", "loaded").register(meterRegistry);
+        this.rejectedRows = Counter.builder("trade.flow.import.rows").tag("result", "rejected").register(meterRegistry);
+    }
+
+    /**
+     * Queue an import of {@code fileName} (a plain file name inside the import directory).
+     * Starting a file that is already queued or running just returns its progress.
+     */
+    public TradeFlowImportStatus start(String fileName) {
+        resolve(fileName);
+        Progress progress = new Progress(fileName);
+        Progress existing = active.putIfAbsent(fileName, progress);
+        if (existing != null) {
+            return existing.toStatus();
+        }
+        executor.execute(() -> runImport(fileName, progress));
+        return progress.toStatus();
+    }
+
+    /** Live progress for a queued or running import, then this process's last run, then the stored checkpoint. */
+    public Optional<TradeFlowImportStatus> status(String fileName) {
+        Progress progress = active.get(fileName);
+        if (progress == null) {
+            progress = lastRuns.get(fileName);
+        }
+        if (progress != null) {
+            return Optional.of(progress.toStatus());
+        }
+        return checkpointRepository.findById(fileName).map(TradeFlowImportService::toStatus);
+    }
+
+    /**
+     * Pick up imports that were still running when the application last stopped.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterrupted() {
+        if (!resumeOnStartup) {
+            return;
+        }
+        try {
+            for (TradeFlowImportCheckpoint checkpoint : checkpointRepository.findAll()) {
+                if (checkpoint.getStatus() == Status.RUNNING) {
+                    logger.info("Resuming interrupted trade flow import of {} at byte {}",
+                            checkpoint.getFileName(), checkpoint.getByteOffset());
+                    try {
+                        start(checkpoint.getFileName());
+                    } catch (IllegalArgumentException ex) {
+                        logger.warn("Cannot resume import of {}: {}", checkpoint.getFileName(), ex.getMessage());
+                    }
+                }
+            }
+        } catch (DataAccessException ex) {
+            logger.warn("Skipping trade flow import resume: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Run an import on the calling thread and return its final status.
+     */
+    TradeFlowImportStatus runImport(String fileName) {
+        Progress progress = new Progress(fileName);
+        if (active.putIfAbsent(fileName, progress) != null) {
+            throw new IllegalArgumentException("Import of " + fileName + " is already running");
+        }
+        runImport(fileName, progress);
+        return progress.toStatus();
+    }
+
+    private void runImport(String fileName, Progress progress) {
+        try {
+            load(resolve(fileName), fileName, progress);
+        } catch (IOException | RuntimeException ex) {
+            String message = ex.getMessage() == null ? ex.getClass().getSimpleName() : ex.getMessage();
+            progress.status = Status.FAILED.name();
+            progress.message = message;
+            logger.error("Trade flow import of {} failed after {} rows: {}", fileName, progress.rowsLoaded, message);
+            try {
+                setStatus(fileName, Status.FAILED, message);
+            } catch (DataAccessException statusEx) {
+                logger.warn("Could not record failure of import {}: {}", fileName, statusEx.getMessage());
+            }
+        } finally {
+            if ((progress.runRows > 0 || progress.replacedRows > 0) && !progress.derivedRefreshed) {
+                refreshDerivedData(fileName, progress);
+            }
+            progress.finish();
+            lastRuns.put(fileName, progress);
+            active.remove(fileName, progress);
+        }
+    }
+
+    private void load(Path file, String fileName, Progress progress) throws IOException {
+        long size = Files.size(file);
+        Instant modified = Files.getLastModifiedTime(file).toInstant().truncatedTo(ChronoUnit.MILLIS);
+        TradeFlowImportCheckpoint stored = checkpointRepository.findById(fileName).orElse(null);
+        TradeFlowImportCheckpoint checkpoint = stored != null && stored.matches(size, modified) ? stored : null;
+
+        if (checkpoint != null && checkpoint.getStatus() == Status.COMPLETED) {
+            progress.restore(checkpoint);
+            logger.info("Trade flow file {} is already loaded ({} rows)", fileName, checkpoint.getRowsLoaded());
+            return;
+        }
+        if (checkpoint == null && stored == null) {
+            checkpoint = checkpointRepository.save(new TradeFlowImportCheckpoint(fileName, size, modified, Instant.now()));
+        } else if (checkpoint == null) {
+            checkpoint = startOver(fileName, size, modified, progress);
+        } else {
+            setStatus(fileName, Status.RUNNING, null);
+        }
+        progress.restore(checkpoint);
+        progress.status = Status.RUNNING.name();
+        progress.fileSize = size;
+        progress.resumed = checkpoint.getByteOffset() > 0;
+
+        TradeFlowCodes codes = new TradeFlowCodes(countryRepository.findAll(), productCategoryRepository.findAll());
+        try (TradeFlowLineReader reader = new TradeFlowLineReader(file)) {
+            TradeFlowCsvFormat format = TradeFlowCsvFormat.fromHeader(reader.nextLine());
+            if (checkpoint.getByteOffset() > reader.offset()) {
+                reader.seek(checkpoint.getByteOffset());
+            }
+
+            List<TradeFlowCsvFormat.Row> chunk = new ArrayList<>(Math.min(chunkSize, 100_000));
+            long chunkRejected = 0;
+            int loggedRejects = 0;
+            String line;
+            while ((line = reader.nextLine()) != null) {
+                if (Thread.currentThread().isInterrupted()) {
+                    // Leave the checkpoint RUNNING so the next startup resumes from the last committed chunk
+                    logger.info("Trade flow import of {} interrupted at byte {}", fileName, progress.bytesRead);
+                    return;
+                }
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    chunk.add(format.parse(line, codes));
+                } catch (IllegalArgumentException ex) {
+                    chunkRejected++;
+                    if (loggedRejects++ < MAX_LOGGED_REJECTS) {
+                        logger.warn("Skipping row in {} before byte {}: {}", fileName, reader.offset(), ex.getMessage());
+                    }
+                }
+                if (chunk.size() >= chunkSize) {
+                    commitChunk(fileName, chunk, chunkRejected, reader.offset(), progress);
+                    chunk.clear();
+                    chunkRejected = 0;
+                }
+            }
+            commitChunk(fileName, chunk, chunkRejected, reader.offset(), progress);
+        }
+
+        if (progress.runRows > 0 || progress.replacedRows > 0) {
+            refreshDerivedData(fileName, progress);
+        }
+        setStatus(fileName, Status.COMPLETED, null);
+        progress.status = Status.COMPLETED.name();
+        logger.info("Trade flow import of {} completed: {} rows loaded, {} rejected, {} rows/s",
+                fileName, progress.rowsLoaded, progress.rowsRejected, Math.round(progress.rowsPerSecond()));
+    }
+
+    /**
+     * The file changed since its checkpoint was taken: delete every row the earlier version loaded and reset the
+     * checkpoint to the start of the file, together, so a crash in between cannot leave both versions loaded.
+     */
+    private TradeFlowImportCheckpoint startOver(String fileName, long size, Instant modified, Progress progress) {
+        Instant now = Instant.now();
+        Integer deleted = transactionTemplate.execute(status -> {
+            int rows = jdbcTemplate.update(DELETE_FILE_ROWS_SQL, fileName);
+            jdbcTemplate.update(RESET_CHECKPOINT_SQL, size, Timestamp.from(modified), Status.RUNNING.name(),
+                    Timestamp.from(now), Timestamp.from(now), fileName);
+            return rows;
+        });
+        progress.replacedRows = deleted == null ? 0 : deleted;
+        logger.info("Trade flow file {} changed on disk; removed {} rows from its previous load and starting over",
+                fileName, progress.replacedRows);
+        return new TradeFlowImportCheckpoint(fileName, size, modified, now);
+    }
+
+    /** Write one chunk and advance the checkpoint in the same transaction. */
+    private void commitChunk(String fileName, List<TradeFlowCsvFormat.Row> chunk, long rejected, long offset,
+                             Progress progress) {
+        Set<Integer> years = new HashSet<>();
+        for (TradeFlowCsvFormat.Row row : chunk) {
+            years.add(row.year());
+        }
+        partitions.ensureYears(years);
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                writer.write(connection, fileName, chunk);
+                return null;
+            });
+            jdbcTemplate.update(UPDATE_PROGRESS_SQL, offset, chunk.size(), rejected, Timestamp.from(Instant.now()), fileName);
+        });
+        loadedRows.increment(chunk.size());
+        rejectedRows.increment(rejected);
+        progress.advance(chunk.size(), rejected, offset);
+        progress.years.addAll(years);
+        logger.info("Trade flow import of {}: {} rows loaded ({}% of file), {} rows/s", fileName, progress.rowsLoaded,
+                progress.fileSize == 0 ? 100 : offset * 100 / progress.fileSize, Math.round(progress.rowsPerSecond()));
+    }
+
+    /**
+     * Bring the rollups and caches derived from trade_flow up to date. A resumed run does not know which years
+     * its earlier chunks held, nor a replacing run which years the deleted rows held, so both rebuild every year.
+     */
+    private void refreshDerivedData(String fileName, Progress progress) {
+        progress.derivedRefreshed = true;
+        try {
+            if (progress.resumed || progress.replacedRows > 0) {
+                rollupService.refreshAll();
+            } else {
+                rollupService.refreshYears(progress.years);
+            }
+        } catch (DataAccessException ex) {
+            logger.error("Trade flow rollups are stale after import of {}; refresh them manually: {}", fileName, ex.getMessage());
+        }
+        weightedTradeAnalyticsService.evictAll();
+    }
+
+    private void setStatus(String fileName, Status status, String message) {
+        String clipped = message == null || message.length() <= MAX_MESSAGE_LENGTH ? message : message.substring(0, MAX_MESSAGE_LENGTH);
+        jdbcTemplate.update(UPDATE_STATUS_SQL, status.name(), clipped, Timestamp.from(Instant.now()), fileName);
+    }
+
+    private Path resolve(String fileName) {
+        if (fileName == null || fileName.isBlank() || fileName.contains("/") || fileName.contains("\\")
+                || fileName.startsWith(".")) {
+            throw new IllegalArgumentException("Import file must be a plain file name inside the import directory");
+        }
+        Path file = directory.resolve(fileName).normalize();
+        if (!file.startsWith(directory) || !Files.isRegularFile(file)) {
+            throw new IllegalArgumentException("Import file not found: " + fileName);
+        }
+        return file;
+    }
+
+    private static TradeFlowImportStatus toStatus(TradeFlowImportCheckpoint checkpoint) {
+        TradeFlowImportStatus status = new TradeFlowImportStatus();
+        status.fileName = checkpoint.getFileName();
+        status.status = checkpoint.getStatus().name();
+        status.fileSize = checkpoint.getFileSize();
+        status.bytesRead = checkpoint.getByteOffset();
+        status.rowsLoaded = checkpoint.getRowsLoaded();
+        status.rowsRejected = checkpoint.getRowsRejected();
+        status.message = checkpoint.getMessage();
+        status.startedAt = checkpoint.getStartedAt();
+        status.updatedAt = checkpoint.getUpdatedAt();
+        return status;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /** Live counters for one run; written by the import thread, read by status requests. */
+    private static final class Progress {
+        private final String fileName;
+        private final Instant runStartedAt = Instant.now();
+        private volatile String status = "QUEUED";
+        private volatile String message;
+        private volatile Instant startedAt = runStartedAt;
+        private volatile Instant updatedAt = runStartedAt;
+        private volatile long fileSize;
+        private volatile long bytesRead;
+        private volatile long rowsLoaded;
+        private volatile long rowsRejected;
+        private volatile long runRows;
+        private volatile Instant finishedAt;
+        private final Set<Integer> years = ConcurrentHashMap.newKeySet();
+        private volatile boolean resumed;
+        private volatile long replacedRows;
+        private volatile boolean derivedRefreshed;
+
+        Progress(String fileName) {
+            this.fileName = fileName;
+        }
+
+        void restore(TradeFlowImportCheckpoint checkpoint) {
+            status = checkpoint.getStatus().name();
+            fileSize = checkpoint.getFileSize();
+            bytesRead = checkpoint.getByteOffset();
+            rowsLoaded = checkpoint.getRowsLoaded();
+            rowsRejected = checkpoint.getRowsRejected();
+            startedAt = checkpoint.getStartedAt();
+            updatedAt = checkpoint.getUpdatedAt();
+        }
+
+        void advance(long rows, long rejected, long offset) {
+            rowsLoaded += rows;
+            rowsRejected += rejected;
+            runRows += rows;
+            bytesRead = offset;
+            updatedAt = Instant.now();
+        }
+
+        void finish() {
+            finishedAt = Instant.now();
+        }
+
+        double rowsPerSecond() {
+            long millis = Duration.between(runStartedAt, finishedAt != null ? finishedAt : Instant.now()).toMillis();
+            return millis <= 0 ? 0 : runRows * 1000.0 / millis;
+        }
+
+        TradeFlowImportStatus toStatus() {
+            TradeFlowImportStatus dto = new TradeFlowImportStatus();
+            dto.fileName = fileName;
+            dto.status = status;
+            dto.fileSize = fileSize;
+            dto.bytesRead = bytesRead;
+            dto.rowsLoaded = rowsLoaded;
+            dto.rowsRejected = rowsRejected;
+            dto.rowsPerSecond = rowsPerSecond();
+            dto.message = message;
+            dto.startedAt = startedAt;
+            dto.updatedAt = updatedAt;
+            return dto;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.smu.tariff.trade.ingest;
+
+import java.time.Instant;
+
+public class TradeFlowImportStatus {
+    public String fileName;
+    public String status; // QUEUED, RUNNING, COMPLETED or FAILED
+    public long fileSize;
+    public long bytesRead;
+    public long rowsLoaded;
+    public long rowsRejected;
+    public double rowsPerSecond; // for the current (or last) run only; resumed runs start counting again
+    public String message;
+    public Instant startedAt;
+    public Instant updatedAt;
+}
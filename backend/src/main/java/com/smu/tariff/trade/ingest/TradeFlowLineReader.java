@@ -0,0 +1,91 @@
+package com.smu.tariff.trade.ingest;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Reads UTF-8 lines straight off a {@link FileChannel} and tracks the byte offset after each line,
+ * so an import can checkpoint exactly where it stopped and later {@link #seek} back to it.
+ * Handles LF and CRLF endings and a final line without a terminator.
+ */
+class TradeFlowLineReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private byte[] line = new byte[256];
+    private long offset;
+    private boolean eof;
+
+    TradeFlowLineReader(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        buffer.flip(); // start empty
+    }
+
+    /** Byte offset just past the last line returned. */
+    long offset() {
+        return offset;
+    }
+
+    long size() throws IOException {
+        return channel.size();
+    }
+
+    void seek(long position) throws IOException {
+        channel.position(position);
+        buffer.clear().flip();
+        offset = position;
+        eof = false;
+    }
+
+    /** The next line without its terminator, or null at end of file. */
+    String nextLine() throws IOException {
+        int length = 0;
+        while (true) {
+            if (!buffer.hasRemaining()) {
+                if (eof || !fill()) {
+                    eof = true;
+                    if (length == 0) {
+                        return null;
+                    }
+                    return decode(length);
+                }
+            }
+            byte b = buffer.get();
+            offset++;
+            if (b == '\n') {
+                return decode(length);
+            }
+            if (length == line.length) {
+                line = Arrays.copyOf(line, line.length * 2);
+            }
+            line[length++] = b;
+        }
+    }
+
+    private boolean fill() throws IOException {
+        buffer.clear();
+        int read = channel.read(buffer);
+        buffer.flip();
+        return read > 0;
+    }
+
+    private String decode(int length) {
+        if (length > 0 && line[length - 1] == '\r') {
+            length--;
+        }
+        return new String(line, 0, length, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
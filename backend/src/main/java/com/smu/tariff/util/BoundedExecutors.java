@@ -0,0 +1,29 @@
+package com.smu.tariff.util;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Factory for the fixed-size worker pools used by request-path services. Every pool has a bounded queue and
+ * rejects work with {@link java.util.concurrent.RejectedExecutionException} once it is full, so callers decide
+ * how to shed load instead of queueing without limit. Threads are daemons named {@code <prefix>-<n>}; owners
+ * shut their pool down in a {@code @PreDestroy} method.
+ */
+public final class BoundedExecutors {
+
+    private BoundedExecutors() { }
+
+    public static ThreadPoolExecutor newBoundedExecutor(String threadPrefix, int threads, int queueCapacity) {
+        AtomicInteger counter = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, threadPrefix + "-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+}
@@ -0,0 +1,23 @@
+package com.smu.tariff.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Access-ordered map that drops its least recently used entry once it holds more than {@code maxEntries}.
+ * Not thread-safe: the in-memory caches that use it guard every access with {@code synchronized} on the map.
+ */
+public class LruMap<K, V> extends LinkedHashMap<K, V> {
+
+    private final int maxEntries;
+
+    public LruMap(int maxEntries) {
+        super(16, 0.75f, true);
+        this.maxEntries = maxEntries;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+        return size() > maxEntries;
+    }
+}
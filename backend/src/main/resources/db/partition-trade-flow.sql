@@ -0,0 +1,60 @@
+-- One-off conversion of trade_flow into a table range-partitioned by year (PostgreSQL 11+).
+-- Not run automatically: run it with psql during a maintenance window, with the application stopped.
+-- Afterwards TradeFlowPartitions creates the partition for each new year before the importer writes to it,
+-- and queries that filter on year (the weighted analytics, rollup refreshes) scan a single partition.
+--
+--   psql "$DATABASE_URL" -f backend/src/main/resources/db/partition-trade-flow.sql
+
+BEGIN;
+
+ALTER TABLE trade_flow RENAME TO trade_flow_unpartitioned;
+ALTER INDEX IF EXISTS idx_trade_flow_reporting_direction_year RENAME TO idx_trade_flow_unpartitioned_reporting;
+ALTER INDEX IF EXISTS idx_trade_flow_reporting_direction RENAME TO idx_trade_flow_unpartitioned_reporting_old;
+ALTER INDEX IF EXISTS idx_trade_flow_partner RENAME TO idx_trade_flow_unpartitioned_partner;
+ALTER INDEX IF EXISTS idx_trade_flow_product RENAME TO idx_trade_flow_unpartitioned_product;
+ALTER INDEX IF EXISTS idx_trade_flow_import_file RENAME TO idx_trade_flow_unpartitioned_import_file;
+
+-- The partition key has to be part of the primary key; ids stay unique because they still come from one sequence
+CREATE TABLE trade_flow (
+    id                   BIGSERIAL,
+    reporting_country_id BIGINT        NOT NULL REFERENCES country (id),
+    partner_country_id   BIGINT        NOT NULL REFERENCES country (id),
+    product_category_id  BIGINT        NOT NULL REFERENCES product_category (id),
+    direction            VARCHAR(16)   NOT NULL,
+    trade_value          NUMERIC(18,2) NOT NULL,
+    year                 INTEGER       NOT NULL,
+    import_file          VARCHAR(255),
+    PRIMARY KEY (id, year)
+) PARTITION BY RANGE (year);
+
+CREATE TABLE trade_flow_default PARTITION OF trade_flow DEFAULT;
+
+DO $$
+DECLARE
+    y INTEGER;
+BEGIN
+    FOR y IN SELECT DISTINCT year FROM trade_flow_unpartitioned ORDER BY 1 LOOP
+        EXECUTE format('CREATE TABLE trade_flow_y%s PARTITION OF trade_flow FOR VALUES FROM (%s) TO (%s)', y, y, y + 1);
+    END LOOP;
+END $$;
+
+-- Older tables predate the import tag
+ALTER TABLE trade_flow_unpartitioned ADD COLUMN IF NOT EXISTS import_file VARCHAR(255);
+
+INSERT INTO trade_flow (id, reporting_country_id, partner_country_id, product_category_id, direction, trade_value, year, import_file)
+SELECT id, reporting_country_id, partner_country_id, product_category_id, direction, trade_value, year, import_file
+FROM trade_flow_unpartitioned;
+
+SELECT setval(pg_get_serial_sequence('trade_flow', 'id'), COALESCE((SELECT MAX(id) FROM trade_flow), 0) + 1, false);
+
+-- Created on the parent, so every current and future partition gets them
+CREATE INDEX idx_trade_flow_reporting_direction_year ON trade_flow (reporting_country_id, direction, year);
+CREATE INDEX idx_trade_flow_partner ON trade_flow (partner_country_id);
+CREATE INDEX idx_trade_flow_product ON trade_flow (product_category_id);
+CREATE INDEX idx_trade_flow_import_file ON trade_flow (import_file);
+
+DROP TABLE trade_flow_unpartitioned;
+
+COMMIT;
+
+ANALYZE trade_flow;
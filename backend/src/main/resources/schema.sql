@@ -5,3 +5,13 @@ ALTER TABLE IF EXISTS users
     ADD CONSTRAINT users_role_check CHECK (
         role IN ('ADMIN', 'USER')
     );
+
+-- Full-text search over prefetched news (PostgreSQL). Hibernate creates news_article; the generated
+-- tsvector column and its GIN index are maintained here.
+ALTER TABLE IF EXISTS news_article
+    ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+        setweight(to_tsvector('english', coalesce(title, '')), 'A') ||
+        setweight(to_tsvector('english', coalesce(description, '')), 'B')
+    ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_news_article_search ON news_article USING GIN (search_vector);
@@ -0,0 +1,119 @@
+package com.smu.tariff.ai;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class AiSummaryCacheTest {
+
+    SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void hitsAndMissesAreCounted() {
+        AiSummaryCache cache = new AiSummaryCache(10, Duration.ofHours(1), null, registry);
+
+        assertThat(cache.get("k")).isEmpty();
+        cache.put("k", "<p>s</p>");
+        assertThat(cache.get("k")).contains("<p>s</p>");
+
+        assertThat(registry.counter("ai.summary.cache", "result", "hit", "tier", "memory").count()).isEqualTo(1.0);
+        assertThat(registry.counter("ai.summary.cache", "result", "miss").count()).isEqualTo(1.0);
+        assertThat(registry.get("ai.summary.cache.size").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    void leastRecentlyUsedEntryIsEvicted() {
+        AiSummaryCache cache = new AiSummaryCache(2, Duration.ofHours(1), null, registry);
+        cache.put("a", "A");
+        cache.put("b", "B");
+        cache.get("a");
+        cache.put("c", "C");
+
+        assertThat(cache.get("a")).contains("A");
+        assertThat(cache.get("b")).isEmpty();
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    void expiredEntriesAreMisses() {
+        AiSummaryCache cache = new AiSummaryCache(10, Duration.ofMillis(-1), null, registry);
+        cache.put("k", "old");
+        assertThat(cache.get("k")).isEmpty();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void persistentTierIsWrittenAndPromotedOnMemoryMiss() {
+        AiSummaryCacheRepository repository = mock(AiSummaryCacheRepository.class);
+        AiSummaryCache cache = new AiSummaryCache(10, Duration.ofHours(1), repository, registry);
+        cache.put("written", "W");
+        verify(repository).save(any(AiSummaryCacheEntry.class));
+
+        when(repository.findById("stored")).thenReturn(Optional.of(new AiSummaryCacheEntry("stored", "S", Instant.now())));
+        assertThat(cache.get("stored")).contains("S");
+        assertThat(cache.get("stored")).contains("S");
+        verify(repository, times(1)).findById("stored");
+        assertThat(registry.counter("ai.summary.cache", "result", "hit", "tier", "persistent").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void persistentFailuresDegradeToMisses() {
+        AiSummaryCacheRepository repository = mock(AiSummaryCacheRepository.class);
+        when(repository.findById(any())).thenThrow(new RuntimeException("db down"));
+        when(repository.save(any())).thenThrow(new RuntimeException("db down"));
+        AiSummaryCache cache = new AiSummaryCache(10, Duration.ofHours(1), repository, registry);
+
+        assertThat(cache.get("k")).isEmpty();
+        cache.put("k", "v");
+        assertThat(cache.get("k")).contains("v");
+    }
+
+    @Test
+    void purgeDeletesPersistentRowsOlderThanTtl() {
+        AiSummaryCacheRepository repository = mock(AiSummaryCacheRepository.class);
+        when(repository.deleteCreatedBefore(any())).thenReturn(3);
+        AiSummaryCache cache = new AiSummaryCache(10, Duration.ofHours(1), repository, registry);
+
+        Instant before = Instant.now();
+        assertThat(cache.purgeExpired()).isEqualTo(3);
+
+        org.mockito.ArgumentCaptor<Instant> cutoff = org.mockito.ArgumentCaptor.forClass(Instant.class);
+        verify(repository).deleteCreatedBefore(cutoff.capture());
+        assertThat(cutoff.getValue()).isBetween(before.minus(Duration.ofHours(1)), Instant.now().minus(Duration.ofHours(1)));
+    }
+
+    @Test
+    void purgeIsANoOpWithoutPersistentTierAndSurvivesFailures() {
+        assertThat(new AiSummaryCache(10, Duration.ofHours(1), null, registry).purgeExpired()).isZero();
+
+        AiSummaryCacheRepository repository = mock(AiSummaryCacheRepository.class);
+        when(repository.deleteCreatedBefore(any())).thenThrow(new RuntimeException("db down"));
+        assertThat(new AiSummaryCache(10, Duration.ofHours(1), repository, new SimpleMeterRegistry()).purgeExpired()).isZero();
+    }
+
+    @Test
+    void disabledCacheNeverStores() {
+        AiSummaryCache cache = AiSummaryCache.disabled();
+        cache.put("k", "v");
+        assertThat(cache.get("k")).isEmpty();
+    }
+
+    @Test
+    void keysAreStableHashes() {
+        assertThat(AiSummaryCache.keyOf("a|b")).hasSize(64).isEqualTo(AiSummaryCache.keyOf("a|b"));
+        assertThat(AiSummaryCache.keyOf("a|b")).isNotEqualTo(AiSummaryCache.keyOf("a|c"));
+    }
+}
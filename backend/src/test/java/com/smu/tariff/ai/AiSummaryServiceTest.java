@@ -0,0 +1,179 @@
+package com.smu.tariff.ai;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AiSummaryServiceTest {
+
+    @Test
+    void jobStaysPendingUntilExecutorRunsIt() {
+        List<Runnable> queued = new ArrayList<>();
+        AiSummaryService service = new AiSummaryService(queued::add, Duration.ofMinutes(5));
+
+        AiSummaryJob job = service.submit(() -> "<p>summary</p>");
+
+        assertThat(job.getStatus()).isEqualTo(AiSummaryJob.Status.PENDING);
+        assertThat(job.getSummary()).isNull();
+        assertThat(service.find(job.getId())).containsSame(job);
+
+        queued.forEach(Runnable::run);
+        assertThat(job.getStatus()).isEqualTo(AiSummaryJob.Status.READY);
+        assertThat(job.getSummary()).isEqualTo("<p>summary</p>");
+        assertThat(job.getCompletedAt()).isNotNull();
+    }
+
+    @Test
+    void failedGenerationReportsFallbackText() {
+        AiSummaryService service = new AiSummaryService(Runnable::run, Duration.ofMinutes(5));
+
+        AiSummaryJob job = service.submit(() -> { throw new IllegalStateException("Gemini down"); });
+
+        assertThat(job.getStatus()).isEqualTo(AiSummaryJob.Status.FAILED);
+        assertThat(job.getSummary()).isEqualTo(AiSummaryJob.UNAVAILABLE);
+    }
+
+    @Test
+    void rejectedSubmissionFailsFastInsteadOfThrowing() {
+        Executor saturated = task -> { throw new RejectedExecutionException("full"); };
+        AiSummaryService service = new AiSummaryService(saturated, Duration.ofMinutes(5));
+
+        AiSummaryJob job = service.submit(() -> "never");
+
+        assertThat(job.getStatus()).isEqualTo(AiSummaryJob.Status.FAILED);
+    }
+
+    @Test
+    void whenDoneNotifiesImmediatelyForFinishedJobs() {
+        AiSummaryService service = new AiSummaryService(Runnable::run, Duration.ofMinutes(5));
+        AiSummaryJob job = service.submit(() -> "done");
+
+        AtomicReference<AiSummaryJob> notified = new AtomicReference<>();
+        job.whenDone(notified::set);
+
+        assertThat(notified.get()).isSameAs(job);
+    }
+
+    @Test
+    void finishedJobsExpireAfterRetention() {
+        AiSummaryService service = new AiSummaryService(Runnable::run, Duration.ofMillis(-1));
+        AiSummaryJob job = service.submit(() -> "done");
+
+        assertThat(service.find(job.getId())).isEmpty();
+        service.submit(() -> "other");
+        service.purgeExpired();
+        assertThat(service.trackedJobs()).isZero();
+    }
+
+    @Test
+    void submissionsBeyondTheCapFailWithoutBeingTracked() {
+        List<Runnable> queued = new ArrayList<>();
+        AiSummaryService service = new AiSummaryService(queued::add, Duration.ofMinutes(5), Duration.ofMinutes(2), 2,
+                AiSummaryCache.disabled());
+
+        service.submit(() -> "a");
+        service.submit(() -> "b");
+        AiSummaryJob rejected = service.submit(() -> "c");
+
+        assertThat(rejected.getStatus()).isEqualTo(AiSummaryJob.Status.FAILED);
+        assertThat(service.find(rejected.getId())).isEmpty();
+        assertThat(service.trackedJobs()).isEqualTo(2);
+        assertThat(queued).hasSize(2);
+    }
+
+    @Test
+    void pendingJobsFailOnceTheirDeadlinePasses() {
+        List<Runnable> queued = new ArrayList<>();
+        AiSummaryService service = new AiSummaryService(queued::add, Duration.ofMinutes(5), Duration.ofMillis(-1), 10,
+                AiSummaryCache.disabled());
+        AiSummaryJob job = service.submit(() -> "late");
+        AtomicReference<AiSummaryJob> notified = new AtomicReference<>();
+        job.whenDone(notified::set);
+
+        service.purgeExpired();
+
+        assertThat(job.getStatus()).isEqualTo(AiSummaryJob.Status.FAILED);
+        assertThat(notified.get()).isSameAs(job);
+        // Still fetchable for the retention window so pollers see the failure
+        assertThat(service.find(job.getId())).containsSame(job);
+
+        // A task that finishes after its deadline does not flip the outcome
+        queued.forEach(Runnable::run);
+        assertThat(job.getStatus()).isEqualTo(AiSummaryJob.Status.FAILED);
+    }
+
+    @Test
+    void keyedSubmissionsAreServedFromCacheAfterFirstSuccess() {
+        AiSummaryCache cache = new AiSummaryCache(10, Duration.ofHours(1), null, new SimpleMeterRegistry());
+        AiSummaryService service = new AiSummaryService(Runnable::run, Duration.ofMinutes(5), cache);
+        AtomicInteger calls = new AtomicInteger();
+
+        AiSummaryJob first = service.submit("route", () -> "summary " + calls.incrementAndGet());
+        AiSummaryJob second = service.submit("route", () -> "summary " + calls.incrementAndGet());
+
+        assertThat(first.getSummary()).isEqualTo("summary 1");
+        assertThat(second.getSummary()).isEqualTo("summary 1");
+        assertThat(second.getId()).isNotEqualTo(first.getId());
+        assertThat(second.getStatus()).isEqualTo(AiSummaryJob.Status.READY);
+        // The hit is answered inline and not tracked, so it does not count against the cap
+        assertThat(service.find(second.getId())).isEmpty();
+        assertThat(service.trackedJobs()).isEqualTo(1);
+        assertThat(service.generate("route", () -> "summary " + calls.incrementAndGet())).isEqualTo("summary 1");
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentKeyedSubmissionsShareOneGeneration() {
+        List<Runnable> queued = new ArrayList<>();
+        AiSummaryCache cache = new AiSummaryCache(10, Duration.ofHours(1), null, new SimpleMeterRegistry());
+        AiSummaryService service = new AiSummaryService(queued::add, Duration.ofMinutes(5), cache);
+        AtomicInteger calls = new AtomicInteger();
+
+        AiSummaryJob first = service.submit("bucket", () -> "summary " + calls.incrementAndGet());
+        AiSummaryJob second = service.submit("bucket", () -> "summary " + calls.incrementAndGet());
+
+        // Only the first takes a worker; the second follows it
+        assertThat(queued).hasSize(1);
+        assertThat(second.getStatus()).isEqualTo(AiSummaryJob.Status.PENDING);
+        queued.forEach(Runnable::run);
+
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(first.getSummary()).isEqualTo("summary 1");
+        assertThat(second.getSummary()).isEqualTo("summary 1");
+        assertThat(service.find(second.getId())).containsSame(second);
+    }
+
+    @Test
+    void followersFailWithTheirLeader() {
+        List<Runnable> queued = new ArrayList<>();
+        AiSummaryService service = new AiSummaryService(queued::add, Duration.ofMinutes(5));
+
+        service.submit("bucket", () -> { throw new IllegalStateException("Gemini down"); });
+        AiSummaryJob follower = service.submit("bucket", () -> "never");
+        queued.forEach(Runnable::run);
+
+        assertThat(follower.getStatus()).isEqualTo(AiSummaryJob.Status.FAILED);
+        // The key is free again, so the next submission generates afresh
+        assertThat(service.submit("bucket", () -> "retry").getStatus()).isEqualTo(AiSummaryJob.Status.PENDING);
+        assertThat(queued).hasSize(2);
+    }
+
+    @Test
+    void failedGenerationIsNotCached() {
+        AiSummaryCache cache = new AiSummaryCache(10, Duration.ofHours(1), null, new SimpleMeterRegistry());
+        AiSummaryService service = new AiSummaryService(Runnable::run, Duration.ofMinutes(5), cache);
+
+        service.submit("route", () -> { throw new IllegalStateException("down"); });
+
+        assertThat(cache.get("route")).isEmpty();
+    }
+}
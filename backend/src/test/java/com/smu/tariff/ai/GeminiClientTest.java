@@ -2,9 +2,9 @@ package com.smu.tariff.ai;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smu.tariff.http.OutboundHttp;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
@@ -27,11 +27,13 @@ class GeminiClientTest {
     void setUp() {
         restTemplate = mock(RestTemplate.class);
         objectMapper = new ObjectMapper();
-        RestTemplateBuilder builder = mock(RestTemplateBuilder.class);
-        when(builder.setConnectTimeout(any())).thenReturn(builder);
-        when(builder.setReadTimeout(any())).thenReturn(builder);
-        when(builder.build()).thenReturn(restTemplate);
-        geminiClient = new GeminiClient("test-api-key", builder, objectMapper);
+        geminiClient = new GeminiClient("test-api-key", outboundHttp(), objectMapper);
+    }
+
+    private OutboundHttp outboundHttp() {
+        OutboundHttp outboundHttp = mock(OutboundHttp.class);
+        when(outboundHttp.restTemplate("gemini")).thenReturn(restTemplate);
+        return outboundHttp;
     }
 
     @Test
@@ -47,11 +49,7 @@ class GeminiClientTest {
 
     @Test
     void testGenerateSummary_noApiKey() {
-        RestTemplateBuilder builder = mock(RestTemplateBuilder.class);
-        when(builder.setConnectTimeout(any())).thenReturn(builder);
-        when(builder.setReadTimeout(any())).thenReturn(builder);
-        when(builder.build()).thenReturn(restTemplate);
-        GeminiClient client = new GeminiClient("", builder, objectMapper);
+        GeminiClient client = new GeminiClient("", outboundHttp(), objectMapper);
         assertThatThrownBy(() -> client.generateSummary("prompt")).isInstanceOf(IllegalStateException.class)
                 .hasMessageContaining("Gemini API key is not configured");
     }
@@ -64,4 +62,17 @@ class GeminiClientTest {
     assertThatThrownBy(() -> geminiClient.generateSummary(prompt)).isInstanceOf(IllegalStateException.class)
         .hasMessageContaining("Failed to generate Gemini summary");
     }
+
+    @Test
+    void testGenerateSummary_bulkheadRejectionSurfacesAsFailure() {
+        // The gemini upstream's bulkhead refuses the call before it leaves the JVM
+        when(restTemplate.postForEntity(anyString(), any(HttpEntity.class), eq(String.class))).thenThrow(
+                new org.springframework.web.client.ResourceAccessException("No gemini connection slot free",
+                        new com.smu.tariff.http.UpstreamUnavailableException("No gemini connection slot free after 2000 ms")));
+
+        assertThatThrownBy(() -> geminiClient.generateSummary("prompt"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Failed to generate Gemini summary")
+                .hasRootCauseInstanceOf(com.smu.tariff.http.UpstreamUnavailableException.class);
+    }
 }
@@ -1,6 +1,7 @@
 package com.smu.tariff.auth;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
@@ -11,10 +12,11 @@ import com.smu.tariff.security.JwtService;
 import com.smu.tariff.user.Role;
 import com.smu.tariff.user.User;
 import com.smu.tariff.user.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
@@ -24,6 +26,15 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.core.Authentication;
 
+import com.smu.tariff.exception.ServiceBusyException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
 @ExtendWith(MockitoExtension.class)
 class AuthControllerTest {
 
@@ -39,15 +50,29 @@ class AuthControllerTest {
     @Mock
     PasswordEncoder passwordEncoder;
 
-    @InjectMocks
+    SimpleMeterRegistry registry;
+    PasswordHashingService passwordHashing;
     AuthController authController;
 
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        passwordHashing = new PasswordHashingService(2, 4, registry);
+        authController = new AuthController(authenticationManager, jwtService, userRepository, passwordEncoder,
+                passwordHashing);
+    }
+
+    @AfterEach
+    void tearDown() {
+        passwordHashing.shutdown();
+    }
+
     @Test
     void registerReturnsConflictIfUsernameTaken() {
         RegisterRequest request = buildRegisterRequest(" demoUser ", "demo@example.com", "Abcd1234!");
         when(userRepository.existsByUsername("demoUser")).thenReturn(true);
 
-        ResponseEntity<?> response = authController.register(request);
+        ResponseEntity<?> response = authController.register(request).join();
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
         assertThat(response.getBody()).isEqualTo("Username is taken");
@@ -58,7 +83,7 @@ class AuthControllerTest {
         RegisterRequest request = buildRegisterRequest("demoUser", "Demo@Example.com", "Abcd1234!");
         when(userRepository.existsByEmail("demo@example.com")).thenReturn(true);
 
-        ResponseEntity<?> response = authController.register(request);
+        ResponseEntity<?> response = authController.register(request).join();
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
         assertThat(response.getBody()).isEqualTo("Email is taken");
@@ -68,7 +93,7 @@ class AuthControllerTest {
     void registerRejectsWeakPassword() {
         RegisterRequest request = buildRegisterRequest("demoUser", "demo@example.com", "weakpass");
 
-        ResponseEntity<?> response = authController.register(request);
+        ResponseEntity<?> response = authController.register(request).join();
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
         assertThat(response.getBody()).asString().contains("Password must be at least");
@@ -80,7 +105,7 @@ class AuthControllerTest {
         when(passwordEncoder.encode("Abcd1234!")).thenReturn("hashed");
         when(jwtService.generateToken(any(User.class))).thenReturn("mock-token");
 
-        ResponseEntity<?> response = authController.register(request);
+        ResponseEntity<?> response = authController.register(request).join();
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).isInstanceOf(AuthResponse.class);
@@ -108,12 +133,66 @@ class AuthControllerTest {
                 .thenReturn(authentication);
         when(jwtService.generateToken(principal)).thenReturn("jwt-token");
 
-        ResponseEntity<AuthResponse> response = authController.login(request);
+        ResponseEntity<AuthResponse> response = authController.login(request).join();
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody().token).isEqualTo("jwt-token");
         assertThat(response.getBody().username).isEqualTo("alice");
         assertThat(response.getBody().role).isEqualTo(Role.ADMIN.name());
+        assertThat(registry.get("auth.hashing").tag("operation", "login").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void loginRunsOffTheRequestThread() {
+        AuthRequest request = new AuthRequest();
+        request.username = "alice";
+        request.password = "Password123!";
+        User principal = new User("alice", "alice@example.com", "hash", Role.USER);
+        Authentication authentication = mock(Authentication.class);
+        when(authentication.getPrincipal()).thenReturn(principal);
+        String[] authenticatedOn = new String[1];
+        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class))).thenAnswer(inv -> {
+            authenticatedOn[0] = Thread.currentThread().getName();
+            return authentication;
+        });
+
+        authController.login(request).join();
+
+        assertThat(authenticatedOn[0]).startsWith("password-hashing-");
+    }
+
+    @Test
+    void saturatedHashingPoolRejectsLoginImmediately() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS, new ArrayBlockingQueue<>(1));
+        SimpleMeterRegistry meters = new SimpleMeterRegistry();
+        PasswordHashingService saturated = new PasswordHashingService(executor, meters);
+        AuthController controller = new AuthController(authenticationManager, jwtService, userRepository,
+                passwordEncoder, saturated);
+        try {
+            saturated.submit("login", () -> awaitQuietly(release));
+            saturated.submit("login", () -> awaitQuietly(release));
+
+            AuthRequest request = new AuthRequest();
+            request.username = "alice";
+            request.password = "Password123!";
+            assertThatThrownBy(() -> controller.login(request))
+                    .isInstanceOf(ServiceBusyException.class);
+            assertThat(meters.counter("auth.hashing.rejected").count()).isEqualTo(1);
+            assertThat(meters.get("auth.hashing.queue").gauge().value()).isEqualTo(1);
+        } finally {
+            release.countDown();
+            saturated.shutdown();
+        }
+    }
+
+    private static boolean awaitQuietly(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
     }
 
     private RegisterRequest buildRegisterRequest(String username, String email, String password) {
@@ -1,8 +1,6 @@
 package com.smu.tariff.config;
 
 import org.junit.jupiter.api.Test;
-import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.web.client.RestTemplate;
 import org.springframework.web.filter.CorsFilter;
 import io.swagger.v3.oas.models.OpenAPI;
 
@@ -64,6 +62,25 @@ class ConfigCoverageTest {
         // AuthenticationProvider bean
         assertThat(config.authenticationProvider()).isNotNull();
     }
+
+    @Test
+    void testLoginRehashesPasswordBelowConfiguredStrength() {
+        com.smu.tariff.user.UserRepository userRepository = org.mockito.Mockito.mock(com.smu.tariff.user.UserRepository.class);
+        com.smu.tariff.config.SecurityConfig config = new com.smu.tariff.config.SecurityConfig(userRepository,
+                org.mockito.Mockito.mock(com.smu.tariff.security.JwtService.class));
+        String weakHash = new org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder(4).encode("Secret123!");
+        com.smu.tariff.user.User user = new com.smu.tariff.user.User("alice", "alice@example.com", weakHash,
+                com.smu.tariff.user.Role.USER);
+        org.mockito.Mockito.when(userRepository.findByUsername("alice")).thenReturn(java.util.Optional.of(user));
+        org.mockito.Mockito.when(userRepository.save(user)).thenReturn(user);
+
+        config.authenticationProvider().authenticate(
+                new org.springframework.security.authentication.UsernamePasswordAuthenticationToken("alice", "Secret123!"));
+
+        org.mockito.Mockito.verify(userRepository).save(user);
+        assertThat(user.getPassword()).startsWith("$2a$10$");
+        assertThat(config.passwordEncoder().matches("Secret123!", user.getPassword())).isTrue();
+    }
     @Test
     void testOpenApiConfig() {
         OpenApiConfig config = new OpenApiConfig();
@@ -80,11 +97,11 @@ class ConfigCoverageTest {
     }
 
     @Test
-    void testRestTemplateConfig() {
-        RestTemplateConfig config = new RestTemplateConfig();
-        RestTemplateBuilder builder = new RestTemplateBuilder();
-        RestTemplate restTemplate = config.restTemplate(builder);
-        assertThat(restTemplate).isNotNull();
+    void testOutboundHttpConfig() {
+        OutboundHttpConfig config = new OutboundHttpConfig();
+        java.net.http.HttpClient client = config.outboundHttpClient(2500);
+        assertThat(client.version()).isEqualTo(java.net.http.HttpClient.Version.HTTP_2);
+        assertThat(client.connectTimeout()).contains(java.time.Duration.ofMillis(2500));
     }
 
     @Test
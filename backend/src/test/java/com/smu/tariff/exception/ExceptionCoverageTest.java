@@ -8,6 +8,17 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 class ExceptionCoverageTest {
+    @Test
+    void testHandleServiceBusy() {
+        GlobalExceptionHandler handler = new GlobalExceptionHandler();
+        org.springframework.mock.web.MockHttpServletRequest req = new org.springframework.mock.web.MockHttpServletRequest();
+        org.springframework.web.context.request.ServletWebRequest webRequest = new org.springframework.web.context.request.ServletWebRequest(req);
+        var response = handler.handleServiceBusy(new ServiceBusyException("busy", 2), webRequest);
+        assertThat(response.getStatusCode().value()).isEqualTo(429);
+        assertThat(response.getHeaders().getFirst("Retry-After")).isEqualTo("2");
+        assertThat(response.getBody().getMessage()).isEqualTo("busy");
+    }
+
     @Test
     void testHandleDataIntegrityViolation_nullCause() {
         GlobalExceptionHandler handler = new GlobalExceptionHandler();
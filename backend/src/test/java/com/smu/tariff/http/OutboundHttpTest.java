@@ -0,0 +1,112 @@
+package com.smu.tariff.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class OutboundHttpTest {
+
+    private HttpServer server;
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger status = new AtomicInteger(200);
+    private SimpleMeterRegistry registry;
+    private OutboundHttp outboundHttp;
+    private String baseUrl;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            byte[] body = "{\"ok\":true}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status.get(), body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("app.http.defaults.failure-threshold", "2")
+                .withProperty("app.http.upstreams.newsdata.max-concurrent", "3")
+                .withProperty("app.http.upstreams.newsdata.read-timeout-ms", "1500");
+        registry = new SimpleMeterRegistry();
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(2))
+                .build();
+        outboundHttp = new OutboundHttp(httpClient, new RestTemplateBuilder(), environment, registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void sequentialCalls_reuseOneKeepAliveConnection() {
+        RestTemplate restTemplate = outboundHttp.restTemplate("newsdata");
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(restTemplate.getForObject(baseUrl + "/latest?page=" + i, String.class)).contains("ok");
+        }
+
+        assertThat(clientPorts).hasSize(1);
+        assertThat(registry.get(UpstreamInterceptor.TIMER).tags("upstream", "newsdata", "outcome", "SUCCESS")
+                .timer().count()).isEqualTo(5);
+    }
+
+    @Test
+    void settingsResolvedPerUpstreamWithDefaults() {
+        UpstreamSettings newsdata = outboundHttp.interceptor("newsdata").settings();
+        UpstreamSettings gemini = outboundHttp.interceptor("gemini").settings();
+
+        assertThat(newsdata.maxConcurrent()).isEqualTo(3);
+        assertThat(newsdata.readTimeout()).isEqualTo(Duration.ofMillis(1500));
+        assertThat(newsdata.failureThreshold()).isEqualTo(2);
+        assertThat(gemini.maxConcurrent()).isEqualTo(16);
+        assertThat(gemini.readTimeout()).isEqualTo(Duration.ofSeconds(30));
+    }
+
+    @Test
+    void templatesForOneUpstreamShareItsCircuit() {
+        status.set(503);
+        RestTemplate first = outboundHttp.restTemplate("newsdata");
+        RestTemplate second = outboundHttp.restTemplate("newsdata");
+
+        assertThatThrownBy(() -> first.getForObject(baseUrl + "/latest", String.class))
+                .isInstanceOf(HttpServerErrorException.class);
+        assertThatThrownBy(() -> second.getForObject(baseUrl + "/latest", String.class))
+                .isInstanceOf(HttpServerErrorException.class);
+
+        status.set(200);
+        assertThatThrownBy(() -> first.getForObject(baseUrl + "/latest", String.class))
+                .isInstanceOf(ResourceAccessException.class)
+                .hasCauseInstanceOf(UpstreamUnavailableException.class);
+        assertThat(outboundHttp.restTemplate("gemini").getForObject(baseUrl + "/other", String.class)).contains("ok");
+    }
+}
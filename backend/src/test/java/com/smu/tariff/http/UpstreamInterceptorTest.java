@@ -0,0 +1,177 @@
+package com.smu.tariff.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class UpstreamInterceptorTest {
+
+    private MutableClock clock;
+    private SimpleMeterRegistry registry;
+    private ClientHttpRequestExecution execution;
+    private HttpRequest request;
+    private UpstreamInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+        registry = new SimpleMeterRegistry();
+        execution = mock(ClientHttpRequestExecution.class);
+        request = new MockClientHttpRequest(HttpMethod.GET, URI.create("https://newsdata.io/api/1/latest"));
+        interceptor = new UpstreamInterceptor("newsdata",
+                new UpstreamSettings(Duration.ofSeconds(5), 1, Duration.ofMillis(20), 2, Duration.ofSeconds(30)),
+                registry, clock);
+    }
+
+    @Test
+    void successfulCall_recordedWhenResponseClosed() throws IOException {
+        when(execution.execute(any(), any())).thenReturn(new MockClientHttpResponse(new byte[0], HttpStatus.OK));
+
+        ClientHttpResponse response = interceptor.intercept(request, new byte[0], execution);
+        assertThat(timerCount("SUCCESS")).isZero();
+        response.close();
+        response.close();
+
+        assertThat(timerCount("SUCCESS")).isEqualTo(1);
+        assertThat(registry.get("http.client.upstream.in-flight").tag("upstream", "newsdata").gauge().value()).isZero();
+    }
+
+    @Test
+    void slotHeldUntilResponseClosed_secondCallRejected() throws IOException {
+        when(execution.execute(any(), any())).thenReturn(new MockClientHttpResponse(new byte[0], HttpStatus.OK));
+
+        ClientHttpResponse open = interceptor.intercept(request, new byte[0], execution);
+
+        assertThatThrownBy(() -> interceptor.intercept(request, new byte[0], execution))
+                .isInstanceOf(UpstreamUnavailableException.class)
+                .hasMessageContaining("No newsdata connection slot free");
+        assertThat(timerCount("REJECTED")).isEqualTo(1);
+
+        open.close();
+        interceptor.intercept(request, new byte[0], execution).close();
+    }
+
+    @Test
+    void consecutiveFailuresOpenTheCircuit() throws IOException {
+        when(execution.execute(any(), any())).thenThrow(new ConnectException("refused"));
+
+        assertThatThrownBy(() -> interceptor.intercept(request, new byte[0], execution)).isInstanceOf(ConnectException.class);
+        assertThatThrownBy(() -> interceptor.intercept(request, new byte[0], execution)).isInstanceOf(ConnectException.class);
+        assertThat(interceptor.circuitState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        assertThatThrownBy(() -> interceptor.intercept(request, new byte[0], execution))
+                .isInstanceOf(UpstreamUnavailableException.class)
+                .hasMessageContaining("Circuit for newsdata is open");
+        verify(execution, times(2)).execute(any(), any());
+        assertThat(timerCount("IO_ERROR")).isEqualTo(2);
+        assertThat(timerCount("CIRCUIT_OPEN")).isEqualTo(1);
+    }
+
+    @Test
+    void serverErrorsAndThrottlingCountAsFailures_clientErrorsDoNot() throws IOException {
+        when(execution.execute(any(), any()))
+                .thenReturn(new MockClientHttpResponse(new byte[0], HttpStatus.NOT_FOUND))
+                .thenReturn(new MockClientHttpResponse(new byte[0], HttpStatus.BAD_GATEWAY))
+                .thenReturn(new MockClientHttpResponse(new byte[0], HttpStatus.TOO_MANY_REQUESTS));
+
+        interceptor.intercept(request, new byte[0], execution).close();
+        assertThat(interceptor.circuitState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        interceptor.intercept(request, new byte[0], execution).close();
+        interceptor.intercept(request, new byte[0], execution).close();
+
+        assertThat(interceptor.circuitState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(timerCount("CLIENT_ERROR")).isEqualTo(2);
+        assertThat(timerCount("SERVER_ERROR")).isEqualTo(1);
+    }
+
+    @Test
+    void afterOpenPeriod_oneTrialCallDecides() throws IOException {
+        when(execution.execute(any(), any())).thenThrow(new ConnectException("refused"));
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> interceptor.intercept(request, new byte[0], execution));
+        }
+
+        clock.advance(Duration.ofSeconds(31));
+        assertThatThrownBy(() -> interceptor.intercept(request, new byte[0], execution)).isInstanceOf(ConnectException.class);
+        assertThat(interceptor.circuitState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        clock.advance(Duration.ofSeconds(31));
+        doReturn(new MockClientHttpResponse(new byte[0], HttpStatus.OK)).when(execution).execute(any(), any());
+        interceptor.intercept(request, new byte[0], execution).close();
+        assertThat(interceptor.circuitState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void halfOpenCircuit_letsOnlyOneTrialThrough() {
+        CircuitBreaker breaker = new CircuitBreaker(1, Duration.ofSeconds(30), clock);
+        assertThat(breaker.tryAcquire()).isTrue();
+        breaker.onFailure();
+        assertThat(breaker.tryAcquire()).isFalse();
+
+        clock.advance(Duration.ofSeconds(30));
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+
+        breaker.onSuccess();
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    private long timerCount(String outcome) {
+        var timer = registry.find(UpstreamInterceptor.TIMER).tags("upstream", "newsdata", "outcome", outcome).timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
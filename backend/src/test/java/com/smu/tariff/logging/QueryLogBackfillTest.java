@@ -0,0 +1,99 @@
+package com.smu.tariff.logging;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class QueryLogBackfillTest {
+
+    @Test
+    void fromParamsReadsTheCalculationFormat() {
+        QueryLogDetails details = QueryLogBackfill.fromParams(
+                "{origin:SGP,destination:USA,hs:8517,category:ELEC,declared:100.00,weight:2.5,requestedFrom:2025-01-01,requestedTo:-}");
+
+        assertThat(details.hsCode()).isEqualTo("8517");
+        assertThat(details.categoryCode()).isEqualTo("ELEC");
+        assertThat(details.declaredValue()).isEqualByComparingTo("100");
+        assertThat(details.weight()).isEqualByComparingTo("2.5");
+        assertThat(details.requestedFrom()).isEqualTo(LocalDate.of(2025, 1, 1));
+        assertThat(details.requestedTo()).isNull();
+    }
+
+    @Test
+    void fromParamsReadsSearchCategoryAndIgnoresGarbage() {
+        assertThat(QueryLogBackfill.fromParams("{origin:SGP,dest:USA,cat:ELEC}").categoryCode()).isEqualTo("ELEC");
+
+        QueryLogDetails garbage = QueryLogBackfill.fromParams("{declared:abc,requestedFrom:yesterday,hs:null}");
+        assertThat(garbage.declaredValue()).isNull();
+        assertThat(garbage.requestedFrom()).isNull();
+        assertThat(garbage.hsCode()).isNull();
+
+        assertThat(QueryLogBackfill.fromParams(null)).isEqualTo(new QueryLogDetails(null, null, null, null, null, null));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void eachTickMigratesOneBatchInItsOwnTransactionUntilAShortBatch() {
+        JdbcTemplate jdbc = mock(JdbcTemplate.class);
+        List<Map<String, Object>> full = List.of(
+                Map.of("id", 1L, "params", "{hs:8517}"),
+                Map.of("id", 2L, "params", "{cat:ELEC}"));
+        List<Map<String, Object>> partial = List.of(Map.<String, Object>of("id", 3L, "params", "x"));
+        when(jdbc.queryForList(anyString(), eq(0L), eq(2))).thenReturn(full);
+        when(jdbc.queryForList(anyString(), eq(2L), eq(2))).thenReturn(partial);
+        List<Integer> batchSizes = new ArrayList<>();
+        when(jdbc.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenAnswer(inv -> {
+                    batchSizes.add(((List<?>) inv.getArgument(1)).size());
+                    return new int[0][];
+                });
+
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        QueryLogBackfill backfill = new QueryLogBackfill(jdbc, transactionManager, true, 2);
+
+        backfill.migrateNextBatch();
+        assertThat(batchSizes).containsExactly(2);
+        assertThat(backfill.isFinished()).isFalse();
+
+        backfill.migrateNextBatch();
+        backfill.migrateNextBatch();
+
+        assertThat(batchSizes).containsExactly(2, 1);
+        assertThat(backfill.isFinished()).isTrue();
+        // the second batch starts after the last id of the first instead of rescanning from the start
+        verify(jdbc).queryForList(contains("id > ?"), eq(0L), eq(2));
+        verify(jdbc).queryForList(contains("id > ?"), eq(2L), eq(2));
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    void databaseErrorStopsTheBackfillInsteadOfRetryingEveryTick() {
+        JdbcTemplate jdbc = mock(JdbcTemplate.class);
+        when(jdbc.queryForList(anyString(), anyLong(), anyInt())).thenThrow(new QueryTimeoutException("timeout"));
+        QueryLogBackfill backfill = new QueryLogBackfill(jdbc, mock(PlatformTransactionManager.class), true, 2);
+
+        backfill.migrateNextBatch();
+        backfill.migrateNextBatch();
+
+        assertThat(backfill.isFinished()).isTrue();
+        verify(jdbc, times(1)).queryForList(anyString(), anyLong(), anyInt());
+    }
+
+    @Test
+    void disabledBackfillDoesNotTouchTheDatabase() {
+        JdbcTemplate jdbc = mock(JdbcTemplate.class);
+        new QueryLogBackfill(jdbc, mock(PlatformTransactionManager.class), false, 500).migrateNextBatch();
+        verifyNoInteractions(jdbc);
+    }
+}
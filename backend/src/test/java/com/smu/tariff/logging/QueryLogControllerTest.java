@@ -1,10 +1,15 @@
 package com.smu.tariff.logging;
 
-import com.smu.tariff.user.User;
+import com.smu.tariff.security.AuthenticatedUser;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.http.ResponseEntity;
 
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+
 import java.util.*;
 
 import static org.assertj.core.api.Assertions.*;
@@ -14,79 +19,145 @@ class QueryLogControllerTest {
     QueryLogRepository repo;
     QueryLogService service;
     QueryLogController controller;
-    User user;
+    AuthenticatedUser principal;
 
     @BeforeEach
     void setUp() {
         repo = mock(QueryLogRepository.class);
         service = mock(QueryLogService.class);
         controller = new QueryLogController(repo, service);
-        user = mock(User.class);
-        when(user.getId()).thenReturn(1L);
-        when(user.getUsername()).thenReturn("testuser");
+        principal = new AuthenticatedUser(1L, "testuser", List.of());
     }
 
     @Test
     void testGetAllQueryLogs_unauthorized() {
-        when(service.getCurrentUser()).thenReturn(null);
-        ResponseEntity<List<Map<String, Object>>> resp = controller.getAllQueryLogs();
-    assertThat(resp.getStatusCode().value()).isEqualTo(401);
-        assertThat(resp.getBody()).isEmpty();
+        when(service.getCurrentPrincipal()).thenReturn(null);
+        ResponseEntity<QueryLogPage> resp = firstPage(50);
+        assertThat(resp.getStatusCode().value()).isEqualTo(401);
+        assertThat(resp.getBody().items).isEmpty();
+        verifyNoInteractions(repo);
     }
 
     @Test
     void testGetAllQueryLogs_success() {
-        when(service.getCurrentUser()).thenReturn(user);
-        QueryLog log = mock(QueryLog.class);
-        when(log.getId()).thenReturn(1L);
-    when(log.getCreatedAt()).thenReturn(java.time.Instant.now());
-        when(log.getType()).thenReturn("ACTION");
-        when(log.getParams()).thenReturn("foo:bar");
-        when(log.getResult()).thenReturn("result");
-        when(log.getUser()).thenReturn(user);
-        when(repo.findByUserIdWithUser(1L)).thenReturn(List.of(log));
-        ResponseEntity<List<Map<String, Object>>> resp = controller.getAllQueryLogs();
-    assertThat(resp.getStatusCode().value()).isEqualTo(200);
-        assertThat(resp.getBody()).hasSize(1);
-        assertThat(resp.getBody().get(0)).containsEntry("id", 1L);
+        when(service.getCurrentPrincipal()).thenReturn(principal);
+        QueryLogView row = new QueryLogView(1L, Instant.parse("2025-01-02T03:04:05Z"), "CALCULATE",
+                "{origin:SGP,destination:USA,hs:8517}", "result", "SGP", "USA", "8517", "ELEC",
+                new BigDecimal("100.0000"), new BigDecimal("2.5000"), LocalDate.of(2025, 1, 1), null);
+        when(repo.findPage(eq(1L), eq(new QueryLogFilter("CALCULATE", null, null, null, null)), isNull(), anyInt()))
+                .thenReturn(List.of(row));
+
+        ResponseEntity<QueryLogPage> resp = firstPage(50);
+
+        assertThat(resp.getStatusCode().value()).isEqualTo(200);
+        assertThat(resp.getBody().items).hasSize(1);
+        assertThat(resp.getBody().nextCursor).isNull();
+        QueryLogView item = resp.getBody().items.get(0);
+        assertThat(item.id).isEqualTo(1L);
+        assertThat(item.createdAt).isEqualTo("2025-01-02T03:04:05Z");
+        assertThat(item.username).isEqualTo("testuser");
+        assertThat(item.hsCode).isEqualTo("8517");
+        assertThat(item.category).isEqualTo("ELEC");
+        assertThat(item.value).isEqualTo("100.00");
+        assertThat(item.weight).isEqualTo("2.5");
+        assertThat(item.requestedEffectiveFrom).isEqualTo("2025-01-01");
+        assertThat(item.requestedEffectiveTo).isEqualTo("-");
+    }
+
+    @Test
+    void testGetAllQueryLogs_fetchesOneExtraRowAndReturnsCursorForNextPage() {
+        when(service.getCurrentPrincipal()).thenReturn(principal);
+        Instant t = Instant.parse("2025-01-02T00:00:00Z");
+        List<QueryLogView> rows = List.of(view(9L, t, "a:1"), view(8L, t, "a:1"), view(7L, t.minusSeconds(1), "a:1"));
+        ArgumentCaptor<Integer> window = ArgumentCaptor.forClass(Integer.class);
+        when(repo.findPage(eq(1L), any(), isNull(), window.capture())).thenReturn(rows);
+
+        QueryLogPage page = firstPage(2).getBody();
+
+        assertThat(window.getValue()).isEqualTo(3);
+        assertThat(page.items).extracting(v -> v.id).containsExactly(9L, 8L);
+        assertThat(page.nextCursor).isNotNull();
+
+        when(repo.findPage(eq(1L), any(), eq(new QueryLogCursor(t, 8L)), anyInt()))
+                .thenReturn(List.of(view(7L, t.minusSeconds(1), "a:1")));
+        QueryLogPage next = controller.getAllQueryLogs(page.nextCursor, 2, "CALCULATE", null, null, null, null).getBody();
+
+        assertThat(next.items).extracting(v -> v.id).containsExactly(7L);
+        assertThat(next.nextCursor).isNull();
+    }
+
+    @Test
+    void testGetAllQueryLogs_normalisesFiltersAndDateRange() {
+        when(service.getCurrentPrincipal()).thenReturn(principal);
+        when(repo.findPage(anyLong(), any(), any(), anyInt())).thenReturn(List.of());
+
+        controller.getAllQueryLogs(null, 10, "all", " sgp ", "usa",
+                LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31));
+
+        verify(repo).findPage(eq(1L), eq(new QueryLogFilter(null, "SGP", "USA",
+                Instant.parse("2025-01-01T00:00:00Z"), Instant.parse("2025-02-01T00:00:00Z"))), isNull(), eq(11));
+    }
+
+    @Test
+    void testGetAllQueryLogs_rejectsBadArguments() {
+        when(service.getCurrentPrincipal()).thenReturn(principal);
+        assertThatThrownBy(() -> firstPage(0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> firstPage(QueryLogController.MAX_PAGE_SIZE + 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> controller.getAllQueryLogs("not-a-cursor", 10, "CALCULATE", null, null, null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> controller.getAllQueryLogs(null, 10, "CALCULATE", null, null,
+                LocalDate.of(2025, 2, 1), LocalDate.of(2025, 1, 1)))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(repo);
+    }
+
+    private ResponseEntity<QueryLogPage> firstPage(int limit) {
+        return controller.getAllQueryLogs(null, limit, "CALCULATE", null, null, null, null);
+    }
+
+    private static QueryLogView view(Long id, Instant createdAt, String params) {
+        return new QueryLogView(id, createdAt, "CALCULATE", params, "result", "SGP", "USA",
+                null, null, null, null, null, null);
     }
 
     @Test
     void testGetQueryLogsByUser_unauthorized() {
-        when(service.getCurrentUser()).thenReturn(null);
-        ResponseEntity<List<Map<String, Object>>> resp = controller.getQueryLogsByUser(1L);
+        when(service.getCurrentPrincipal()).thenReturn(null);
+        ResponseEntity<QueryLogPage> resp = byUser(1L);
     assertThat(resp.getStatusCode().value()).isEqualTo(401);
     }
 
     @Test
     void testGetQueryLogsByUser_forbidden() {
-        User other = mock(User.class);
-        when(other.getId()).thenReturn(2L);
-        when(service.getCurrentUser()).thenReturn(other);
-        ResponseEntity<List<Map<String, Object>>> resp = controller.getQueryLogsByUser(1L);
+        AuthenticatedUser other = new AuthenticatedUser(2L, "other", List.of());
+        when(service.getCurrentPrincipal()).thenReturn(other);
+        ResponseEntity<QueryLogPage> resp = byUser(1L);
     assertThat(resp.getStatusCode().value()).isEqualTo(403);
+        verifyNoInteractions(repo);
     }
 
     @Test
-    void testGetQueryLogsByUser_success() {
-        when(service.getCurrentUser()).thenReturn(user);
-        QueryLog log = mock(QueryLog.class);
-        when(log.getId()).thenReturn(2L);
-    when(log.getCreatedAt()).thenReturn(java.time.Instant.now());
-        when(log.getType()).thenReturn("ACTION");
-        when(log.getParams()).thenReturn("foo:bar");
-        when(log.getResult()).thenReturn("result");
-        when(log.getUser()).thenReturn(user);
-        when(repo.findByUserIdWithUser(1L)).thenReturn(List.of(log));
-        ResponseEntity<List<Map<String, Object>>> resp = controller.getQueryLogsByUser(1L);
+    void testGetQueryLogsByUser_pagesLikeTheListEndpoint() {
+        when(service.getCurrentPrincipal()).thenReturn(principal);
+        Instant t = Instant.parse("2025-01-02T00:00:00Z");
+        when(repo.findPage(eq(1L), eq(new QueryLogFilter("CALCULATE", null, null, null, null)), isNull(), eq(2)))
+                .thenReturn(List.of(view(2L, t, "foo:bar"), view(1L, t, "foo:bar")));
+
+        ResponseEntity<QueryLogPage> resp = byUser(1L);
+
     assertThat(resp.getStatusCode().value()).isEqualTo(200);
-        assertThat(resp.getBody()).hasSize(1);
-        assertThat(resp.getBody().get(0)).containsEntry("id", 2L);
+        assertThat(resp.getBody().items).extracting(v -> v.id).containsExactly(2L);
+        assertThat(resp.getBody().items.get(0).username).isEqualTo("testuser");
+        assertThat(resp.getBody().nextCursor).isEqualTo(new QueryLogCursor(t, 2L).encode());
+    }
+
+    private ResponseEntity<QueryLogPage> byUser(Long userId) {
+        return controller.getQueryLogsByUser(userId, null, 1, "CALCULATE", null, null, null, null);
     }
 
     @Test
     void testTestConnection_unauthorized() {
-        when(service.getCurrentUser()).thenReturn(null);
+        when(service.getCurrentPrincipal()).thenReturn(null);
         ResponseEntity<Map<String, Object>> resp = controller.testConnection();
     assertThat(resp.getStatusCode().value()).isEqualTo(401);
         assertThat(resp.getBody()).containsEntry("status", "Unauthorized");
@@ -94,7 +165,7 @@ class QueryLogControllerTest {
 
     @Test
     void testTestConnection_success() {
-        when(service.getCurrentUser()).thenReturn(user);
+        when(service.getCurrentPrincipal()).thenReturn(principal);
         when(repo.countByUser_Id(1L)).thenReturn(5L);
         ResponseEntity<Map<String, Object>> resp = controller.testConnection();
     assertThat(resp.getStatusCode().value()).isEqualTo(200);
@@ -105,7 +176,7 @@ class QueryLogControllerTest {
 
     @Test
     void testTestConnection_dbError() {
-        when(service.getCurrentUser()).thenReturn(user);
+        when(service.getCurrentPrincipal()).thenReturn(principal);
         when(repo.countByUser_Id(1L)).thenThrow(new RuntimeException("fail"));
         ResponseEntity<Map<String, Object>> resp = controller.testConnection();
     assertThat(resp.getStatusCode().value()).isEqualTo(500);
@@ -113,44 +184,9 @@ class QueryLogControllerTest {
         assertThat(resp.getBody()).containsEntry("databaseConnected", false);
     }
 
-    @Test
-    void testDebugDatabase_unauthorized() {
-        when(service.getCurrentUser()).thenReturn(null);
-        ResponseEntity<Map<String, Object>> resp = controller.debugDatabase();
-    assertThat(resp.getStatusCode().value()).isEqualTo(401);
-        assertThat(resp.getBody()).containsEntry("status", "Unauthorized");
-    }
-
-    @Test
-    void testDebugDatabase_success() {
-        when(service.getCurrentUser()).thenReturn(user);
-        QueryLog log = mock(QueryLog.class);
-        when(log.getId()).thenReturn(3L);
-    when(log.getCreatedAt()).thenReturn(java.time.Instant.now());
-        when(log.getType()).thenReturn("ACTION");
-        when(log.getParams()).thenReturn("foo:bar");
-        when(log.getResult()).thenReturn("result");
-        when(log.getUser()).thenReturn(user);
-        when(repo.findByUserIdWithUser(1L)).thenReturn(List.of(log));
-        ResponseEntity<Map<String, Object>> resp = controller.debugDatabase();
-    assertThat(resp.getStatusCode().value()).isEqualTo(200);
-        assertThat(resp.getBody()).containsKey("totalForUser");
-        assertThat(resp.getBody()).containsKey("sampleLogs");
-    }
-
-    @Test
-    void testDebugDatabase_error() {
-        when(service.getCurrentUser()).thenReturn(user);
-        when(repo.findByUserIdWithUser(1L)).thenThrow(new RuntimeException("fail"));
-        ResponseEntity<Map<String, Object>> resp = controller.debugDatabase();
-    assertThat(resp.getStatusCode().value()).isEqualTo(500);
-        assertThat(resp.getBody()).containsEntry("error", "fail");
-        assertThat(resp.getBody()).containsEntry("errorType", "RuntimeException");
-    }
-
     @Test
     void testRawLatest_unauthorized() {
-        when(service.getCurrentUser()).thenReturn(null);
+        when(service.getCurrentPrincipal()).thenReturn(null);
         ResponseEntity<List<Map<String, Object>>> resp = controller.rawLatest();
     assertThat(resp.getStatusCode().value()).isEqualTo(401);
         assertThat(resp.getBody()).isEmpty();
@@ -158,7 +194,7 @@ class QueryLogControllerTest {
 
     @Test
     void testRawLatest_success() {
-        when(service.getCurrentUser()).thenReturn(user);
+        when(service.getCurrentPrincipal()).thenReturn(principal);
     Object[] row = new Object[]{1L, java.time.Instant.now(), 1L};
     List<Object[]> rows = new ArrayList<>();
     rows.add(row);
@@ -171,7 +207,7 @@ class QueryLogControllerTest {
 
     @Test
     void testRawLatest_error() {
-        when(service.getCurrentUser()).thenReturn(user);
+        when(service.getCurrentPrincipal()).thenReturn(principal);
         when(repo.findLatestRawByUser(1L)).thenThrow(new RuntimeException("fail"));
         ResponseEntity<List<Map<String, Object>>> resp = controller.rawLatest();
     assertThat(resp.getStatusCode().value()).isEqualTo(500);
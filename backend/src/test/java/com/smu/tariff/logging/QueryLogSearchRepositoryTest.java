@@ -0,0 +1,103 @@
+package com.smu.tariff.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.TestPropertySource;
+
+import com.smu.tariff.user.Role;
+import com.smu.tariff.user.User;
+import com.smu.tariff.user.UserRepository;
+
+/**
+ * Runs the Criteria history query against H2 so only-set filters and the (createdAt, id) keyset are checked
+ * against real rows.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:query-log-search;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=YEAR,VALUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.sql.init.mode=never"
+})
+class QueryLogSearchRepositoryTest {
+
+    private static final Instant T = Instant.parse("2025-03-01T00:00:00Z");
+    private static final QueryLogFilter ANY = new QueryLogFilter(null, null, null, null, null);
+
+    @Autowired QueryLogRepository queryLogRepository;
+    @Autowired UserRepository userRepository;
+
+    User alice;
+    User bob;
+
+    @BeforeEach
+    void setUp() {
+        queryLogRepository.deleteAll();
+        userRepository.deleteAll();
+        alice = userRepository.save(new User("alice", "alice@example.com", "x", Role.USER));
+        bob = userRepository.save(new User("bob", "bob@example.com", "x", Role.USER));
+    }
+
+    @Test
+    void keysetPagesVisitEveryRowOnceNewestFirstAcrossEqualTimestamps() {
+        List<QueryLog> saved = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            // Pairs of rows share a timestamp, so the id tie-break decides the order within them
+            saved.add(log(alice, "CALCULATE", "SGP", "USA", T.plusSeconds(i / 2)));
+        }
+        log(bob, "CALCULATE", "SGP", "USA", T.plusSeconds(10));
+        List<Long> newestFirst = saved.stream()
+                .sorted(Comparator.comparing(QueryLog::getCreatedAt).thenComparing(QueryLog::getId).reversed())
+                .map(QueryLog::getId)
+                .toList();
+
+        List<Long> visited = new ArrayList<>();
+        QueryLogCursor after = null;
+        while (true) {
+            List<QueryLogView> page = queryLogRepository.findPage(alice.getId(), ANY, after, 3);
+            page.forEach(v -> visited.add(v.id));
+            if (page.size() < 3) {
+                break;
+            }
+            after = QueryLogCursor.of(page.get(page.size() - 1));
+        }
+
+        assertThat(visited).containsExactlyElementsOf(newestFirst);
+    }
+
+    @Test
+    void onlyTheFiltersThatAreSetApply() {
+        log(alice, "CALCULATE", "SGP", "USA", T);
+        log(alice, "SEARCH", "SGP", "USA", T.plusSeconds(1));
+        log(alice, "CALCULATE", "CHN", "USA", T.plusSeconds(2));
+        log(alice, "CALCULATE", "SGP", "CHN", T.plusSeconds(86_400));
+
+        assertThat(types(new QueryLogFilter("CALCULATE", null, null, null, null))).hasSize(3);
+        assertThat(types(new QueryLogFilter(null, "SGP", null, null, null))).hasSize(3);
+        assertThat(types(new QueryLogFilter("CALCULATE", "SGP", "USA", null, null))).hasSize(1);
+        assertThat(types(new QueryLogFilter(null, null, null, T.plusSeconds(1), T.plusSeconds(86_400)))).hasSize(2);
+        assertThat(types(ANY)).hasSize(4);
+    }
+
+    private List<String> types(QueryLogFilter filter) {
+        return queryLogRepository.findPage(alice.getId(), filter, null, 100).stream().map(v -> v.type).toList();
+    }
+
+    private QueryLog log(User user, String type, String origin, String destination, Instant createdAt) {
+        return queryLogRepository.save(new QueryLog(user, type, "p", "r", origin, destination, null, createdAt));
+    }
+}
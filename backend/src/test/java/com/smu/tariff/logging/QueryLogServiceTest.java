@@ -1,104 +1,97 @@
 package com.smu.tariff.logging;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.smu.tariff.security.JwtService;
+import com.smu.tariff.security.AuthenticatedUser;
+import com.smu.tariff.security.RequestPrincipal;
 import com.smu.tariff.user.User;
 import com.smu.tariff.user.UserRepository;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
 
 class QueryLogServiceTest {
     @Test
-    void testGetCurrentUser_fromSecurityContext_UserDetails() {
+    void testGetCurrentPrincipal_fromRequestCarrierSkipsRepository() {
+        requestPrincipal.bind(new AuthenticatedUser(7L, "alice", List.of()));
+        AuthenticatedUser result = service.getCurrentPrincipal();
+        assertThat(result.getId()).isEqualTo(7L);
+        assertThat(result.getUsername()).isEqualTo("alice");
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void testGetCurrentPrincipal_tokenWithoutUserIdResolvedOncePerRequest() {
+        User user = user(9L, "dave");
+        when(userRepository.findByUsername("dave")).thenReturn(Optional.of(user));
+        requestPrincipal.bind(new AuthenticatedUser("dave", List.of()));
+
+        assertThat(service.getCurrentPrincipal().getId()).isEqualTo(9L);
+        assertThat(service.getCurrentPrincipal().getId()).isEqualTo(9L);
+        verify(userRepository, times(1)).findByUsername("dave");
+    }
+
+    @Test
+    void testGetCurrentPrincipal_fromSecurityContext_UserDetails() {
         UserDetails userDetails = mock(UserDetails.class);
         when(userDetails.getUsername()).thenReturn("alice");
-        User user = new User();
-        user.setUsername("alice");
+        User user = user(3L, "alice");
         when(userRepository.findByUsername("alice")).thenReturn(Optional.of(user));
         Authentication auth = mock(Authentication.class);
         when(auth.isAuthenticated()).thenReturn(true);
         when(auth.getPrincipal()).thenReturn(userDetails);
         SecurityContextHolder.getContext().setAuthentication(auth);
-        User result = service.getCurrentUser();
-        assertThat(result).isSameAs(user);
+        AuthenticatedUser result = service.getCurrentPrincipal();
+        assertThat(result.getId()).isEqualTo(3L);
+        assertThat(requestPrincipal.current()).isSameAs(result);
     }
 
     @Test
-    void testGetCurrentUser_fromSecurityContext_usernameString() {
-        User user = new User();
-        user.setUsername("bob");
+    void testGetCurrentPrincipal_fromSecurityContext_usernameString() {
+        User user = user(4L, "bob");
         when(userRepository.findByUsername("bob")).thenReturn(Optional.of(user));
         Authentication auth = mock(Authentication.class);
         when(auth.isAuthenticated()).thenReturn(true);
         when(auth.getPrincipal()).thenReturn("irrelevant");
         when(auth.getName()).thenReturn("bob");
         SecurityContextHolder.getContext().setAuthentication(auth);
-        User result = service.getCurrentUser();
-        assertThat(result).isSameAs(user);
+        AuthenticatedUser result = service.getCurrentPrincipal();
+        assertThat(result.getUsername()).isEqualTo("bob");
     }
 
     @Test
-    void testGetCurrentUser_fromSecurityContext_anonymous() {
+    void testGetCurrentPrincipal_fromSecurityContext_anonymous() {
         Authentication auth = mock(Authentication.class);
         when(auth.isAuthenticated()).thenReturn(true);
         when(auth.getPrincipal()).thenReturn("irrelevant");
         when(auth.getName()).thenReturn("anonymousUser");
         SecurityContextHolder.getContext().setAuthentication(auth);
-        User result = service.getCurrentUser();
-        assertThat(result).isNull();
+        assertThat(service.getCurrentPrincipal()).isNull();
     }
 
     @Test
-    void testGetCurrentUser_fromRequest_validToken() {
-        // Simulate no user in security context
-        SecurityContextHolder.clearContext();
-        // Mock request context
-        var request = mock(jakarta.servlet.http.HttpServletRequest.class);
-        var attrs = mock(org.springframework.web.context.request.ServletRequestAttributes.class);
-        when(attrs.getRequest()).thenReturn(request);
-        org.springframework.web.context.request.RequestContextHolder.setRequestAttributes(attrs);
-        when(request.getHeader("Authorization")).thenReturn("Bearer token123");
-        when(jwtService.extractUsername("token123")).thenReturn("carol");
-        User user = new User();
-        user.setUsername("carol");
-        when(userRepository.findByUsername("carol")).thenReturn(Optional.of(user));
-        User result = service.getCurrentUser();
-        assertThat(result).isSameAs(user);
-    }
-
-    @Test
-    void testGetCurrentUser_fromRequest_invalidToken() {
-        SecurityContextHolder.clearContext();
-        var request = mock(jakarta.servlet.http.HttpServletRequest.class);
-        var attrs = mock(org.springframework.web.context.request.ServletRequestAttributes.class);
-        when(attrs.getRequest()).thenReturn(request);
-        org.springframework.web.context.request.RequestContextHolder.setRequestAttributes(attrs);
-        when(request.getHeader("Authorization")).thenReturn("Bearer token123");
-        when(jwtService.extractUsername("token123")).thenThrow(new RuntimeException("bad token"));
-        User result = service.getCurrentUser();
-        assertThat(result).isNull();
-    }
-
-    @Test
-    void testGetCurrentUser_fromRequest_noHeader() {
-        SecurityContextHolder.clearContext();
-        var request = mock(jakarta.servlet.http.HttpServletRequest.class);
-        var attrs = mock(org.springframework.web.context.request.ServletRequestAttributes.class);
-        when(attrs.getRequest()).thenReturn(request);
-        org.springframework.web.context.request.RequestContextHolder.setRequestAttributes(attrs);
-        when(request.getHeader("Authorization")).thenReturn(null);
-        User result = service.getCurrentUser();
-        assertThat(result).isNull();
+    void testGetCurrentPrincipal_outsideRequestWithoutAuthentication() {
+        RequestContextHolder.resetRequestAttributes();
+        assertThat(service.getCurrentPrincipal()).isNull();
+        verifyNoInteractions(userRepository);
     }
 
     @Test
@@ -118,37 +111,153 @@ class QueryLogServiceTest {
         String result = (String) m.invoke(service, json, "origin", "from");
         assertThat(result).isNull();
     }
-    @Mock QueryLogRepository queryLogRepository;
     @Mock UserRepository userRepository;
-    @Mock JwtService jwtService;
     @Mock ObjectMapper objectMapper;
+    @Mock QueryLogWriteBehind writeBehind;
 
+    RequestPrincipal requestPrincipal;
     QueryLogService service;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        service = new QueryLogService(queryLogRepository, userRepository, jwtService, objectMapper);
+        when(writeBehind.submit(any())).thenReturn(true);
+        SecurityContextHolder.clearContext();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        requestPrincipal = new RequestPrincipal();
+        service = new QueryLogService(userRepository, requestPrincipal, objectMapper, writeBehind);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    private static User user(Long id, String username) {
+        User user = mock(User.class);
+        when(user.getId()).thenReturn(id);
+        when(user.getUsername()).thenReturn(username);
+        return user;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<QueryLog> submittedRows(int expected) {
+        ArgumentCaptor<Supplier<QueryLog>> captor = ArgumentCaptor.forClass(Supplier.class);
+        verify(writeBehind, times(expected)).submit(captor.capture());
+        return captor.getAllValues().stream().map(Supplier::get).toList();
     }
 
     @Test
     void testLogWithUser() {
-        User user = new User();
-        user.setUsername("bob");
-        when(userRepository.findByUsername("bob")).thenReturn(Optional.of(user));
+        User reference = mock(User.class);
+        when(userRepository.getReferenceById(7L)).thenReturn(reference);
+        requestPrincipal.bind(new AuthenticatedUser(7L, "bob", List.of()));
+        service.log("TYPE", "params");
+        QueryLog row = submittedRows(1).get(0);
+        assertThat(row.getUser()).isSameAs(reference);
+        assertThat(row.getType()).isEqualTo("TYPE");
+        verify(userRepository, never()).findByUsername(any());
+    }
+
+    @Test
+    void testLogWithUserEntityPrincipalUsesIdReference() {
+        User user = user(5L, "bob");
+        User reference = mock(User.class);
+        when(userRepository.getReferenceById(5L)).thenReturn(reference);
         Authentication auth = mock(Authentication.class);
         when(auth.isAuthenticated()).thenReturn(true);
         when(auth.getPrincipal()).thenReturn(user);
         SecurityContextHolder.getContext().setAuthentication(auth);
         service.log("TYPE", "params");
-        verify(queryLogRepository).save(any(QueryLog.class));
+        assertThat(submittedRows(1).get(0).getUser()).isSameAs(reference);
+        verify(userRepository, never()).findByUsername(any());
     }
 
     @Test
     void testLogWithAnonymous() {
         SecurityContextHolder.clearContext();
         service.log("TYPE", "params");
-        verify(queryLogRepository).save(any(QueryLog.class));
+        assertThat(submittedRows(1).get(0).getUser()).isNull();
+    }
+
+    @Test
+    void testLogDefersResultSerializationToTheWriter() throws Exception {
+        SecurityContextHolder.clearContext();
+        when(objectMapper.writeValueAsString(any())).thenReturn("{\"total\":1}");
+
+        service.log("CALCULATE", "{origin:SG,destination:MY}", new Object(), null, null);
+        verify(objectMapper, never()).writeValueAsString(any());
+
+        QueryLog row = submittedRows(1).get(0);
+        assertThat(row.getResult()).isEqualTo("{\"total\":1}");
+        assertThat(row.getOriginCountry()).isEqualTo("SG");
+    }
+
+    @Test
+    void testLogAllResolvesUserOnceAndQueuesEveryEntry() {
+        User user = mock(User.class);
+        when(userRepository.getReferenceById(7L)).thenReturn(user);
+        requestPrincipal.bind(new AuthenticatedUser(7L, "bob", List.of()));
+
+        service.logAll(List.of(
+                new QueryLogEntry("CALCULATE", "{origin:SG,destination:MY}", "r1", null, null),
+                new QueryLogEntry("CALCULATE", "{origin:SG,destination:US}", "r2", "SGP", "USA")));
+
+        List<QueryLog> logs = submittedRows(2);
+        assertThat(logs).allSatisfy(log -> assertThat(log.getUser()).isSameAs(user));
+        assertThat(logs.get(0).getOriginCountry()).isEqualTo("SG");
+        assertThat(logs.get(0).getDestinationCountry()).isEqualTo("MY");
+        assertThat(logs.get(1).getOriginCountry()).isEqualTo("SGP");
+        verify(userRepository, times(1)).getReferenceById(7L);
+    }
+
+    @Test
+    void testLogCarriesStructuredDetailsIntoTheRow() {
+        QueryLogDetails details = new QueryLogDetails("8517", "ELEC", new BigDecimal("100.00"), null,
+                LocalDate.of(2025, 1, 1), null);
+
+        service.log("CALCULATE", "{origin:SGP}", "r", "SGP", "USA", details);
+
+        QueryLog row = submittedRows(1).get(0);
+        assertThat(row.getHsCode()).isEqualTo("8517");
+        assertThat(row.getCategoryCode()).isEqualTo("ELEC");
+        assertThat(row.getDeclaredValue()).isEqualByComparingTo("100");
+        assertThat(row.getWeight()).isNull();
+        assertThat(row.getRequestedFrom()).isEqualTo(LocalDate.of(2025, 1, 1));
+        assertThat(row.getStructured()).isTrue();
+    }
+
+    @Test
+    void testCreatedAtIsTheLogCallNotTheWriterFlush() throws Exception {
+        Instant before = Instant.now();
+        service.log("CALCULATE", "{origin:SG}", "r");
+        service.logAll(List.of(new QueryLogEntry("CALCULATE", "{origin:SG,destination:MY}", "r1", null, null)));
+        Instant after = Instant.now();
+        Thread.sleep(20);
+
+        List<QueryLog> rows = submittedRows(2);
+        assertThat(rows).allSatisfy(row -> assertThat(row.getCreatedAt()).isBetween(before, after));
+    }
+
+    @Test
+    void testLogAllWithBackpressureOverridesThePolicyAndCountsDrops() {
+        when(writeBehind.submit(any(), eq(QueryLogBackpressure.BLOCK))).thenReturn(true, false);
+
+        int dropped = service.logAll(List.of(
+                new QueryLogEntry("CALCULATE", "{origin:SG,destination:MY}", "r1", null, null),
+                new QueryLogEntry("CALCULATE", "{origin:SG,destination:US}", "r2", null, null)),
+                QueryLogBackpressure.BLOCK);
+
+        assertThat(dropped).isEqualTo(1);
+        verify(writeBehind, times(2)).submit(any(), eq(QueryLogBackpressure.BLOCK));
+        verify(writeBehind, never()).submit(any());
+    }
+
+    @Test
+    void testLogAllEmptyDoesNothing() {
+        service.logAll(List.of());
+        verifyNoInteractions(writeBehind);
     }
 
     @Test
@@ -0,0 +1,174 @@
+package com.smu.tariff.logging;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class QueryLogWriteBehindTest {
+
+    QueryLogBatchWriter batchWriter = mock(QueryLogBatchWriter.class);
+    PlatformTransactionManager txManager = mock(PlatformTransactionManager.class);
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    QueryLogWriteBehind pipeline;
+
+    QueryLogWriteBehind pipeline(boolean enabled, int capacity, int batchSize, QueryLogBackpressure backpressure) {
+        TransactionStatus status = new SimpleTransactionStatus();
+        when(txManager.getTransaction(any())).thenReturn(status);
+        pipeline = new QueryLogWriteBehind(batchWriter, txManager, registry, enabled, capacity, batchSize, 20,
+                backpressure, 5, 0.0);
+        return pipeline;
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (pipeline != null) {
+            pipeline.stop();
+        }
+    }
+
+    @Test
+    void queuedRowsAreWrittenInBatchesOnFlush() {
+        pipeline(true, 100, 2, QueryLogBackpressure.DROP);
+        for (int i = 0; i < 5; i++) {
+            pipeline.submit(() -> new QueryLog(null, "CALCULATE", "p"));
+        }
+        verifyNoInteractions(batchWriter);
+
+        pipeline.flush();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<QueryLog>> batches = ArgumentCaptor.forClass(List.class);
+        verify(batchWriter, times(3)).insertAll(batches.capture());
+        assertThat(batches.getAllValues()).extracting(List::size).containsExactly(2, 2, 1);
+        assertThat(pipeline.queued()).isZero();
+        assertThat(registry.counter("query.log.write-behind", "outcome", "written").count()).isEqualTo(5.0);
+    }
+
+    @Test
+    void backgroundWriterDrainsQueueAndStopFlushesTheRest() throws Exception {
+        List<QueryLog> written = java.util.Collections.synchronizedList(new ArrayList<>());
+        doAnswer(inv -> written.addAll(inv.getArgument(0))).when(batchWriter).insertAll(any());
+        pipeline(true, 100, 10, QueryLogBackpressure.DROP);
+        pipeline.start();
+
+        for (int i = 0; i < 25; i++) {
+            pipeline.submit(() -> new QueryLog(null, "SEARCH", "p"));
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (written.size() < 25 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(written).hasSize(25);
+
+        pipeline.submit(() -> new QueryLog(null, "SEARCH", "late"));
+        pipeline.stop();
+        assertThat(written).hasSize(26);
+    }
+
+    @Test
+    void dropModeDiscardsWhenFull() {
+        pipeline(true, 2, 10, QueryLogBackpressure.DROP);
+        assertThat(pipeline.submit(() -> new QueryLog(null, "A", "p"))).isTrue();
+        assertThat(pipeline.submit(() -> new QueryLog(null, "A", "p"))).isTrue();
+        assertThat(pipeline.submit(() -> new QueryLog(null, "A", "p"))).isFalse();
+        assertThat(registry.counter("query.log.write-behind", "outcome", "dropped").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void blockModeGivesUpAfterTimeoutWhenNothingDrains() {
+        pipeline(true, 1, 10, QueryLogBackpressure.BLOCK);
+        pipeline.submit(() -> new QueryLog(null, "A", "p"));
+        long started = System.nanoTime();
+        assertThat(pipeline.submit(() -> new QueryLog(null, "A", "p"))).isFalse();
+        assertThat(System.nanoTime() - started).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(5));
+    }
+
+    @Test
+    void perCallBlockWaitsForTheWriterEvenWhenTheConfiguredPolicyDrops() throws Exception {
+        List<QueryLog> written = java.util.Collections.synchronizedList(new ArrayList<>());
+        doAnswer(inv -> written.addAll(inv.getArgument(0))).when(batchWriter).insertAll(any());
+        when(txManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        pipeline = new QueryLogWriteBehind(batchWriter, txManager, registry, true, 1, 1, 20,
+                QueryLogBackpressure.DROP, 5000, 0.0);
+        pipeline.start();
+
+        for (int i = 0; i < 20; i++) {
+            assertThat(pipeline.submit(() -> new QueryLog(null, "CALCULATE", "p"), QueryLogBackpressure.BLOCK)).isTrue();
+        }
+        pipeline.stop();
+
+        assertThat(written).hasSize(20);
+        assertThat(registry.counter("query.log.write-behind", "outcome", "dropped").count()).isZero();
+    }
+
+    @Test
+    void waitModeNeverDropsWhileTheWriterRuns() throws Exception {
+        List<QueryLog> written = java.util.Collections.synchronizedList(new ArrayList<>());
+        doAnswer(inv -> {
+            Thread.sleep(10); // slower than the submitter, so the queue stays full
+            return written.addAll(inv.getArgument(0));
+        }).when(batchWriter).insertAll(any());
+        pipeline(true, 1, 1, QueryLogBackpressure.DROP);
+        pipeline.start();
+
+        for (int i = 0; i < 20; i++) {
+            assertThat(pipeline.submit(() -> new QueryLog(null, "CALCULATE", "p"), QueryLogBackpressure.WAIT)).isTrue();
+        }
+        pipeline.stop();
+
+        assertThat(written).hasSize(20);
+        assertThat(registry.counter("query.log.write-behind", "outcome", "dropped").count()).isZero();
+    }
+
+    @Test
+    void waitModeDrainsOnTheCallerWhenNoWriterIsRunning() {
+        pipeline(true, 1, 10, QueryLogBackpressure.DROP);
+        assertThat(pipeline.submit(() -> new QueryLog(null, "A", "p"), QueryLogBackpressure.WAIT)).isTrue();
+        assertThat(pipeline.submit(() -> new QueryLog(null, "A", "p"), QueryLogBackpressure.WAIT)).isTrue();
+
+        verify(batchWriter).insertAll(argThat(rows -> rows.size() == 1));
+        assertThat(pipeline.queued()).isEqualTo(1);
+    }
+
+    @Test
+    void sampleModeThinsEntriesAboveHalfCapacity() {
+        pipeline(true, 4, 10, QueryLogBackpressure.SAMPLE);
+        assertThat(pipeline.submit(() -> new QueryLog(null, "A", "p"))).isTrue();
+        assertThat(pipeline.submit(() -> new QueryLog(null, "A", "p"))).isTrue();
+        // sample rate is 0, so nothing is admitted once the queue is half full
+        assertThat(pipeline.submit(() -> new QueryLog(null, "A", "p"))).isFalse();
+    }
+
+    @Test
+    void disabledPipelineWritesSynchronously() {
+        pipeline(false, 10, 10, QueryLogBackpressure.DROP);
+        pipeline.submit(() -> new QueryLog(null, "A", "p"));
+        verify(batchWriter).insertAll(any());
+        assertThat(pipeline.queued()).isZero();
+    }
+
+    @Test
+    void failingBatchIsCountedAndDoesNotStopLaterWrites() {
+        doThrow(new RuntimeException("db down")).doNothing().when(batchWriter).insertAll(any());
+        pipeline(true, 10, 1, QueryLogBackpressure.DROP);
+        pipeline.submit(() -> new QueryLog(null, "A", "p"));
+        pipeline.submit(() -> new QueryLog(null, "B", "p"));
+
+        pipeline.flush();
+
+        verify(batchWriter, times(2)).insertAll(any());
+        assertThat(registry.counter("query.log.write-behind", "outcome", "failed").count()).isEqualTo(1.0);
+    }
+}
@@ -0,0 +1,170 @@
+package com.smu.tariff.news;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class NewsAggregationServiceTest {
+
+    private NewsService newsService;
+    private SimpleMeterRegistry registry;
+    private ExecutorService pool;
+
+    @BeforeEach
+    void setUp() {
+        newsService = mock(NewsService.class);
+        registry = new SimpleMeterRegistry();
+        pool = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void mergesCountries_dedupesByIdAndLink_newestFirst() {
+        when(newsService.getCountryTradeNews("us", "steel", 3)).thenReturn(response(
+                article("a1", "https://x/1", "2025-03-01 08:00:00"),
+                article("a2", "https://x/2", "2025-03-03 08:00:00")));
+        when(newsService.getCountryTradeNews("cn", "steel", 3)).thenReturn(response(
+                article("a1", "https://x/1", "2025-03-01 08:00:00"),
+                article("a3", "https://x/2", "2025-03-02 08:00:00"),
+                article("a4", "https://x/4", null),
+                article("a5", "https://x/5", "2025-03-04 08:00:00")));
+
+        AggregatedNewsResponse response = service(Runnable::run, Duration.ofSeconds(1))
+                .getCountriesTradeNews(List.of("us", "cn"), "steel", 3);
+
+        assertThat(response.getStatus()).isEqualTo("success");
+        assertThat(response.getTotalResults()).isEqualTo(4);
+        assertThat(response.getArticles()).extracting(NewsArticle::getArticleId).containsExactly("a5", "a2", "a1");
+        assertThat(response.getCountries()).containsExactly("us", "cn");
+        assertThat(response.getFailedCountries()).isEmpty();
+    }
+
+    @Test
+    void countriesAreFetchedConcurrently() {
+        CyclicBarrier bothRunning = new CyclicBarrier(2);
+        when(newsService.getCountryTradeNews(any(), any(), any())).thenAnswer(invocation -> {
+            // Only passes when the other country's call is in flight at the same time
+            bothRunning.await(2, TimeUnit.SECONDS);
+            return response(article(invocation.getArgument(0), null, "2025-03-01 08:00:00"));
+        });
+
+        AggregatedNewsResponse response = service(pool, Duration.ofSeconds(5))
+                .getCountriesTradeNews(List.of("us", "cn"), null, 10);
+
+        assertThat(response.getStatus()).isEqualTo("success");
+        assertThat(response.getArticles()).hasSize(2);
+    }
+
+    @Test
+    void slowCountry_leftOutOfPartialResult() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(newsService.getCountryTradeNews(eq("us"), any(), any())).thenReturn(response(
+                article("a1", "https://x/1", "2025-03-01 08:00:00")));
+        when(newsService.getCountryTradeNews(eq("cn"), any(), any())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return response(article("late", "https://x/late", "2025-03-09 08:00:00"));
+        });
+
+        long started = System.nanoTime();
+        AggregatedNewsResponse response = service(pool, Duration.ofMillis(200))
+                .getCountriesTradeNews(List.of("us", "cn"), null, 10);
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+        release.countDown();
+
+        assertThat(response.getStatus()).isEqualTo("partial");
+        assertThat(response.getArticles()).extracting(NewsArticle::getArticleId).containsExactly("a1");
+        assertThat(response.getFailedCountries()).containsExactly("cn");
+        assertThat(elapsedMs).isLessThan(2_000);
+        assertThat(registry.counter("news.aggregate.calls", "result", "timeout").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void failingCountry_leftOutOfPartialResult() {
+        when(newsService.getCountryTradeNews(eq("us"), any(), any())).thenReturn(response(
+                article("a1", "https://x/1", "2025-03-01 08:00:00")));
+        when(newsService.getCountryTradeNews(eq("cn"), any(), any())).thenThrow(new RuntimeException("quota exceeded"));
+
+        AggregatedNewsResponse response = service(Runnable::run, Duration.ofSeconds(1))
+                .getCountriesTradeNews(List.of("us", "cn"), null, 10);
+
+        assertThat(response.getStatus()).isEqualTo("partial");
+        assertThat(response.getFailedCountries()).containsExactly("cn");
+        assertThat(registry.counter("news.aggregate.calls", "result", "error").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void saturatedPool_reportsEveryCountryAsFailed() {
+        AggregatedNewsResponse response = service(task -> { throw new RejectedExecutionException("full"); }, Duration.ofSeconds(1))
+                .getCountriesTradeNews(List.of("us"), null, 10);
+
+        assertThat(response.getStatus()).isEqualTo("error");
+        assertThat(response.getArticles()).isEmpty();
+        assertThat(response.getFailedCountries()).containsExactly("us");
+        assertThat(registry.counter("news.aggregate.calls", "result", "rejected").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void alpha3CodesNormalizedAndDeduplicated() {
+        when(newsService.getCountryTradeNews(any(), any(), any())).thenReturn(response());
+
+        AggregatedNewsResponse response = service(Runnable::run, Duration.ofSeconds(1))
+                .getCountriesTradeNews(List.of("USA", "us", " sgp ", ""), null, 10);
+
+        assertThat(response.getCountries()).containsExactly("us", "sg");
+    }
+
+    @Test
+    void unknownOrTooManyCountries_rejected() {
+        NewsAggregationService service = service(Runnable::run, Duration.ofSeconds(1));
+
+        assertThatThrownBy(() -> service.getCountriesTradeNews(List.of("XYZ"), null, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.getCountriesTradeNews(List.of("us", "cn", "sg", "gb"), null, 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("At most 3");
+    }
+
+    private NewsAggregationService service(Executor executor, Duration timeout) {
+        return new NewsAggregationService(newsService, executor, timeout, 3, registry);
+    }
+
+    private static NewsDataResponse response(NewsArticle... articles) {
+        NewsDataResponse response = new NewsDataResponse();
+        response.setStatus("success");
+        response.setArticles(List.of(articles));
+        response.setTotalResults(articles.length);
+        return response;
+    }
+
+    private static NewsArticle article(String id, String link, String pubDate) {
+        NewsArticle article = new NewsArticle();
+        article.setArticleId(id);
+        article.setLink(link);
+        article.setPubDate(pubDate);
+        article.setPubDateTZ("UTC");
+        return article;
+    }
+}
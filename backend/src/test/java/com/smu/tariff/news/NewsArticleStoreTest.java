@@ -0,0 +1,175 @@
+package com.smu.tariff.news;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+class NewsArticleStoreTest {
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbc;
+    private StoredNewsArticleRepository repository;
+    private NewsArticleStore store;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder().generateUniqueName(true).setType(EmbeddedDatabaseType.H2).build();
+        jdbc = new JdbcTemplate(database);
+        jdbc.execute("CREATE TABLE news_article (article_id VARCHAR(128) PRIMARY KEY, title VARCHAR(1024) NOT NULL, "
+                + "link VARCHAR(2048), description TEXT, published_at TIMESTAMP WITH TIME ZONE, image_url VARCHAR(2048), "
+                + "source_id VARCHAR(128), source_url VARCHAR(2048), source_icon VARCHAR(2048), source_priority INT, "
+                + "language VARCHAR(64), sentiment VARCHAR(32), fetched_at TIMESTAMP WITH TIME ZONE NOT NULL)");
+        jdbc.execute("CREATE TABLE news_article_country (article_id VARCHAR(128) NOT NULL, country_code VARCHAR(2) NOT NULL)");
+        repository = mock(StoredNewsArticleRepository.class);
+        store = new NewsArticleStore(repository, jdbc, true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void find_pagesNewestFirstWithNextPageToken() {
+        for (int i = 1; i <= 5; i++) {
+            insert("a" + i, "Tariff update " + i, "2025-03-0" + i + "T00:00:00Z", "us");
+        }
+
+        NewsDataResponse first = store.find(null, null, 0, 2);
+        NewsDataResponse last = store.find(null, null, 2, 2);
+
+        assertThat(first.getTotalResults()).isEqualTo(5);
+        assertThat(first.getArticles()).extracting(NewsArticle::getArticleId).containsExactly("a5", "a4");
+        assertThat(first.getArticles().get(0).getPubDate()).isEqualTo("2025-03-05 00:00:00");
+        assertThat(first.getNextPage()).isEqualTo("1");
+        assertThat(last.getArticles()).extracting(NewsArticle::getArticleId).containsExactly("a1");
+        assertThat(last.getNextPage()).isNull();
+    }
+
+    @Test
+    void find_filtersByCountryAcceptingAlpha3Codes() {
+        insert("us1", "US steel tariffs", "2025-03-01T00:00:00Z", "us");
+        insert("sg1", "Singapore customs duty", "2025-03-02T00:00:00Z", "sg");
+
+        assertThat(store.find("USA", null, 0, 10).getArticles())
+                .extracting(NewsArticle::getArticleId).containsExactly("us1");
+        assertThat(store.find("sg", null, 0, 10).getArticles())
+                .extracting(NewsArticle::getArticleId).containsExactly("sg1");
+    }
+
+    @Test
+    void find_matchesTextWithAndOrNot() {
+        insert("steel", "Steel tariffs rise", "2025-03-01T00:00:00Z", "us");
+        insert("chips", "Semiconductor import duty", "2025-03-02T00:00:00Z", "us");
+        insert("steelchips", "Steel and semiconductor tariffs", "2025-03-03T00:00:00Z", "us");
+
+        assertThat(ids(store.find(null, "steel AND tariffs", 0, 10))).containsExactly("steelchips", "steel");
+        assertThat(ids(store.find(null, "steel OR semiconductor", 0, 10))).containsExactly("steelchips", "chips", "steel");
+        assertThat(ids(store.find(null, "tariffs NOT semiconductor", 0, 10))).containsExactly("steel");
+    }
+
+    @Test
+    void save_dedupesByArticleIdAndTagsCountry() {
+        StoredNewsArticle known = new StoredNewsArticle("a1", "old title", Instant.parse("2025-03-01T00:00:00Z"));
+        known.getCountryCodes().add("sg");
+        when(repository.findAllById(anyIterable())).thenReturn(List.of(known));
+        assertThat(store.isReady(null)).isFalse();
+
+        int added = store.save(List.of(article("a1", "new title"), article("a2", "second"), article("a2", "dup"),
+                article(null, "no id")), "USA", Instant.parse("2025-03-02T00:00:00Z"));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<StoredNewsArticle>> saved = ArgumentCaptor.forClass(List.class);
+        verify(repository).saveAll(saved.capture());
+        assertThat(added).isEqualTo(1);
+        assertThat(saved.getValue()).extracting(StoredNewsArticle::getArticleId).containsExactly("a1", "a2");
+        assertThat(known.getTitle()).isEqualTo("new title");
+        assertThat(known.getCountryCodes()).containsExactlyInAnyOrder("sg", "us");
+        assertThat(saved.getValue().get(1).getTitle()).isEqualTo("second");
+        assertThat(saved.getValue().get(1).getPublishedAt()).isEqualTo(Instant.parse("2025-03-01T08:00:00Z"));
+        assertThat(store.isReady(null)).isTrue();
+        assertThat(store.isReady("USA")).isTrue();
+        assertThat(store.isReady("sg")).isFalse();
+    }
+
+    @Test
+    void isReady_onlyForCountriesWithStoredArticles() {
+        assertThat(store.isReady(null)).isFalse();
+        assertThat(new NewsArticleStore(repository, jdbc, false).isReady(null)).isFalse();
+
+        insert("a1", "Tariff", "2025-03-01T00:00:00Z", "us");
+
+        NewsArticleStore fresh = new NewsArticleStore(repository, jdbc, true);
+        assertThat(fresh.isReady(null)).isTrue();
+        assertThat(fresh.isReady("us")).isTrue();
+        assertThat(fresh.isReady("USA")).isTrue();
+        assertThat(fresh.isReady("sg")).isFalse();
+        assertThat(new NewsArticleStore(repository, jdbc, false).isReady("us")).isFalse();
+    }
+
+    @Test
+    void isReady_falseAgainOncePurgeEmptiesTheStore() {
+        insert("old", "Old tariff", "2024-01-01T00:00:00Z", "us");
+        assertThat(store.isReady("us")).isTrue();
+
+        store.purgeOlderThan(Instant.parse("2025-01-01T00:00:00Z"));
+
+        assertThat(store.isReady("us")).isFalse();
+        assertThat(store.isReady(null)).isFalse();
+    }
+
+    @Test
+    void purgeOlderThan_removesArticlesAndTheirCountryTags() {
+        insert("old", "Old tariff", "2024-01-01T00:00:00Z", "us");
+        insert("new", "New tariff", "2025-03-01T00:00:00Z", "us");
+
+        int purged = store.purgeOlderThan(Instant.parse("2025-01-01T00:00:00Z"));
+
+        assertThat(purged).isEqualTo(1);
+        assertThat(ids(store.find(null, null, 0, 10))).containsExactly("new");
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM news_article_country", Integer.class)).isEqualTo(1);
+    }
+
+    @Test
+    void toWebSearch_translatesNewsDataSyntax() {
+        assertThat(NewsArticleStore.toWebSearch("(tariff OR \"import duty\") AND steel NOT china"))
+                .isEqualTo("tariff or \"import duty\" steel -china");
+    }
+
+    private void insert(String id, String title, String publishedAt, String country) {
+        jdbc.update("INSERT INTO news_article (article_id, title, published_at, fetched_at) VALUES (?, ?, ?, ?)",
+                id, title, Timestamp.from(Instant.parse(publishedAt)), Timestamp.from(Instant.parse(publishedAt)));
+        jdbc.update("INSERT INTO news_article_country (article_id, country_code) VALUES (?, ?)", id, country);
+    }
+
+    private static List<String> ids(NewsDataResponse response) {
+        List<String> ids = new ArrayList<>();
+        response.getArticles().forEach(article -> ids.add(article.getArticleId()));
+        return ids;
+    }
+
+    private static NewsArticle article(String id, String title) {
+        NewsArticle article = new NewsArticle();
+        article.setArticleId(id);
+        article.setTitle(title);
+        article.setPubDate("2025-03-01 16:00:00");
+        article.setPubDateTZ("Asia/Singapore");
+        return article;
+    }
+}
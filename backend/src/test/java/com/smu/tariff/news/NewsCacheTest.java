@@ -0,0 +1,204 @@
+package com.smu.tariff.news;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.smu.tariff.news.NewsCache.Endpoint;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class NewsCacheTest {
+
+    private MutableClock clock;
+    private List<Runnable> refreshQueue;
+    private SimpleMeterRegistry registry;
+    private NewsCache cache;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+        refreshQueue = new ArrayList<>();
+        registry = new SimpleMeterRegistry();
+        cache = new NewsCache(2,
+                Map.of(Endpoint.TARIFF, Duration.ofMinutes(5), Endpoint.ARCHIVE, Duration.ofHours(24)),
+                Duration.ofMinutes(10), Duration.ofHours(1), refreshQueue::add, registry, clock);
+    }
+
+    @Test
+    void freshEntry_servedWithoutCallingUpstream() {
+        AtomicInteger calls = new AtomicInteger();
+        NewsDataRequest request = request("us", 10);
+
+        String first = cache.get(Endpoint.TARIFF, request, () -> "v" + calls.incrementAndGet());
+        clock.advance(Duration.ofMinutes(4));
+        String second = cache.get(Endpoint.TARIFF, request("us", 10), () -> "v" + calls.incrementAndGet());
+
+        assertThat(first).isEqualTo("v1");
+        assertThat(second).isEqualTo("v1");
+        assertThat(calls).hasValue(1);
+        assertThat(counter("tariff", "hit")).isEqualTo(1.0);
+    }
+
+    @Test
+    void keyCoversEveryRequestParameter() {
+        AtomicInteger calls = new AtomicInteger();
+
+        cache.get(Endpoint.TARIFF, request("us", 10), () -> "v" + calls.incrementAndGet());
+        String otherSize = cache.get(Endpoint.TARIFF, request("us", 20), () -> "v" + calls.incrementAndGet());
+        String otherEndpoint = cache.get(Endpoint.ARCHIVE, request("us", 10), () -> "v" + calls.incrementAndGet());
+
+        assertThat(otherSize).isEqualTo("v2");
+        assertThat(otherEndpoint).isEqualTo("v3");
+    }
+
+    @Test
+    void staleEntry_servedImmediatelyWhileOneRefreshRuns() {
+        AtomicInteger calls = new AtomicInteger();
+        NewsDataRequest request = request("us", 10);
+        cache.get(Endpoint.TARIFF, request, () -> "v" + calls.incrementAndGet());
+
+        clock.advance(Duration.ofMinutes(6));
+        String stale = cache.get(Endpoint.TARIFF, request, () -> "v" + calls.incrementAndGet());
+
+        assertThat(stale).isEqualTo("v1");
+        assertThat(calls).hasValue(1);
+        assertThat(refreshQueue).hasSize(1);
+
+        refreshQueue.remove(0).run();
+        assertThat(cache.get(Endpoint.TARIFF, request, () -> "v" + calls.incrementAndGet())).isEqualTo("v2");
+        assertThat(counter("tariff", "stale")).isEqualTo(1.0);
+    }
+
+    @Test
+    void failedBackgroundRefresh_keepsServingTheOldResult() {
+        NewsDataRequest request = request("us", 10);
+        cache.get(Endpoint.TARIFF, request, () -> "good");
+
+        clock.advance(Duration.ofMinutes(6));
+        cache.get(Endpoint.TARIFF, request, () -> { throw new IllegalStateException("quota exceeded"); });
+        refreshQueue.remove(0).run();
+
+        assertThat(cache.get(Endpoint.TARIFF, request, () -> "unused")).isEqualTo("good");
+        assertThat(counter("tariff", "refresh_error")).isEqualTo(1.0);
+    }
+
+    @Test
+    void expiredEntry_fetchedSynchronously() {
+        NewsDataRequest request = request("us", 10);
+        cache.get(Endpoint.TARIFF, request, () -> "old");
+
+        clock.advance(Duration.ofMinutes(16));
+        String result = cache.get(Endpoint.TARIFF, request, () -> "new");
+
+        assertThat(result).isEqualTo("new");
+        assertThat(refreshQueue).isEmpty();
+    }
+
+    @Test
+    void upstreamError_servesLastGoodResultWithinStaleIfError() {
+        NewsDataRequest request = request("us", 10);
+        cache.get(Endpoint.TARIFF, request, () -> "good");
+
+        clock.advance(Duration.ofMinutes(30));
+        String result = cache.get(Endpoint.TARIFF, request, () -> { throw new IllegalStateException("timeout"); });
+
+        assertThat(result).isEqualTo("good");
+        assertThat(counter("tariff", "error_fallback")).isEqualTo(1.0);
+    }
+
+    @Test
+    void upstreamError_propagatesOnceStaleIfErrorHasPassed() {
+        NewsDataRequest request = request("us", 10);
+        cache.get(Endpoint.TARIFF, request, () -> "good");
+
+        clock.advance(Duration.ofHours(2));
+
+        assertThatThrownBy(() -> cache.get(Endpoint.TARIFF, request, () -> { throw new IllegalStateException("timeout"); }))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("timeout");
+    }
+
+    @Test
+    void upstreamError_withNothingCached_propagates() {
+        assertThatThrownBy(() -> cache.get(Endpoint.TARIFF, request("us", 10), () -> { throw new IllegalStateException("down"); }))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void leastRecentlyUsedEntryEvictedAtCapacity() {
+        cache.get(Endpoint.TARIFF, request("us", 10), () -> "us");
+        cache.get(Endpoint.TARIFF, request("cn", 10), () -> "cn");
+        cache.get(Endpoint.TARIFF, request("us", 10), () -> "unused");
+        cache.get(Endpoint.TARIFF, request("gb", 10), () -> "gb");
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get(Endpoint.TARIFF, request("us", 10), () -> "refetched")).isEqualTo("us");
+        assertThat(cache.get(Endpoint.TARIFF, request("cn", 10), () -> "refetched")).isEqualTo("refetched");
+    }
+
+    @Test
+    void disabledCache_alwaysCallsThrough() {
+        NewsCache disabled = NewsCache.disabled();
+        AtomicInteger calls = new AtomicInteger();
+
+        disabled.get(Endpoint.TARIFF, request("us", 10), calls::incrementAndGet);
+        disabled.get(Endpoint.TARIFF, request("us", 10), calls::incrementAndGet);
+
+        assertThat(calls).hasValue(2);
+        assertThat(disabled.size()).isZero();
+    }
+
+    private double counter(String endpoint, String result) {
+        return registry.counter("news.cache", "endpoint", endpoint, "result", result).count();
+    }
+
+    private static NewsDataRequest request(String country, int size) {
+        return NewsDataRequest.builder()
+                .query("tariff")
+                .country(List.of(country))
+                .language(List.of("en"))
+                .size(size)
+                .build();
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
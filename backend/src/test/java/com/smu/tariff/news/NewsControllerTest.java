@@ -44,83 +44,97 @@ class NewsControllerTest {
     }
     @Test
     void testGetCountryTradeNews_nullCountryCode() {
-        when(newsService.getCountryTradeNews(null, "cat", 5)).thenReturn(new NewsDataResponse());
-        ResponseEntity<NewsDataResponse> resp = newsController.getCountryTradeNews(null, "cat", 5);
+        when(newsService.getCountryTradeNews(null, "cat", 5, 0)).thenReturn(new NewsDataResponse());
+        ResponseEntity<NewsDataResponse> resp = newsController.getCountryTradeNews(null, "cat", 5, 0);
         assertThat(resp.getStatusCode().value()).isEqualTo(200);
     }
 
     @Test
     void testGetCountryTradeNews_blankCountryCode() {
-        when(newsService.getCountryTradeNews("   ", "cat", 5)).thenReturn(new NewsDataResponse());
-        ResponseEntity<NewsDataResponse> resp = newsController.getCountryTradeNews("   ", "cat", 5);
+        when(newsService.getCountryTradeNews("   ", "cat", 5, 0)).thenReturn(new NewsDataResponse());
+        ResponseEntity<NewsDataResponse> resp = newsController.getCountryTradeNews("   ", "cat", 5, 0);
         assertThat(resp.getStatusCode().value()).isEqualTo(200);
     }
 
     @Test
     void testGetCountryTradeNews_nullProductCategory() {
-        when(newsService.getCountryTradeNews("us", null, 5)).thenReturn(new NewsDataResponse());
-        ResponseEntity<NewsDataResponse> resp = newsController.getCountryTradeNews("us", null, 5);
+        when(newsService.getCountryTradeNews("us", null, 5, 0)).thenReturn(new NewsDataResponse());
+        ResponseEntity<NewsDataResponse> resp = newsController.getCountryTradeNews("us", null, 5, 0);
         assertThat(resp.getStatusCode().value()).isEqualTo(200);
     }
 
     @Test
     void testGetCountryTradeNews_emptyProductCategory() {
-        when(newsService.getCountryTradeNews("us", "   ", 5)).thenReturn(new NewsDataResponse());
-        ResponseEntity<NewsDataResponse> resp = newsController.getCountryTradeNews("us", "   ", 5);
+        when(newsService.getCountryTradeNews("us", "   ", 5, 0)).thenReturn(new NewsDataResponse());
+        ResponseEntity<NewsDataResponse> resp = newsController.getCountryTradeNews("us", "   ", 5, 0);
         assertThat(resp.getStatusCode().value()).isEqualTo(200);
     }
 
     @Test
     void testGetCountryTradeNews_limitNull() {
-        when(newsService.getCountryTradeNews("us", "cat", null)).thenReturn(new NewsDataResponse());
-        ResponseEntity<NewsDataResponse> resp = newsController.getCountryTradeNews("us", "cat", null);
+        when(newsService.getCountryTradeNews("us", "cat", null, 0)).thenReturn(new NewsDataResponse());
+        ResponseEntity<NewsDataResponse> resp = newsController.getCountryTradeNews("us", "cat", null, 0);
         assertThat(resp.getStatusCode().value()).isEqualTo(200);
     }
 
     @Test
     void testGetCountryTradeNews_limitOver50() {
-        when(newsService.getCountryTradeNews("us", "cat", 100)).thenReturn(new NewsDataResponse());
-        ResponseEntity<NewsDataResponse> resp = newsController.getCountryTradeNews("us", "cat", 100);
+        when(newsService.getCountryTradeNews("us", "cat", 100, 0)).thenReturn(new NewsDataResponse());
+        ResponseEntity<NewsDataResponse> resp = newsController.getCountryTradeNews("us", "cat", 100, 0);
         assertThat(resp.getStatusCode().value()).isEqualTo(200);
     }
 
     @Test
     void testGetCountryTradeNews_serviceThrows() {
-        when(newsService.getCountryTradeNews(any(), any(), any())).thenThrow(new RuntimeException("fail"));
-        assertThatThrownBy(() -> newsController.getCountryTradeNews("us", "cat", 5)).isInstanceOf(RuntimeException.class);
+        when(newsService.getCountryTradeNews(any(), any(), any(), any())).thenThrow(new RuntimeException("fail"));
+        assertThatThrownBy(() -> newsController.getCountryTradeNews("us", "cat", 5, 0)).isInstanceOf(RuntimeException.class);
     }
     NewsService newsService;
+    NewsAggregationService aggregationService;
     NewsController newsController;
 
     @BeforeEach
     void setUp() {
         newsService = mock(NewsService.class);
-        newsController = new NewsController(newsService);
+        aggregationService = mock(NewsAggregationService.class);
+        newsController = new NewsController(newsService, aggregationService);
     }
 
     @Test
     void testGetLatestTariffNews() {
         NewsDataResponse resp = new NewsDataResponse();
-        when(newsService.getLatestTariffNews("us", "steel", 5)).thenReturn(resp);
-        ResponseEntity<NewsDataResponse> result = newsController.getLatestTariffNews("us", "steel", 5);
+        when(newsService.getLatestTariffNews("us", "steel", 5, 2)).thenReturn(resp);
+        ResponseEntity<NewsDataResponse> result = newsController.getLatestTariffNews("us", "steel", 5, 2);
         assertThat(result.getStatusCode().value()).isEqualTo(200);
         assertThat(result.getBody()).isSameAs(resp);
+        verify(newsService).getLatestTariffNews("us", "steel", 5, 2);
     }
 
     @Test
     void testSearchNews() {
         NewsDataResponse resp = new NewsDataResponse();
-        when(newsService.searchNews("tariff", "us", 3)).thenReturn(resp);
-        ResponseEntity<NewsDataResponse> result = newsController.searchNews("tariff", "us", 3);
+        when(newsService.searchNews("tariff", "us", 3, 1)).thenReturn(resp);
+        ResponseEntity<NewsDataResponse> result = newsController.searchNews("tariff", "us", 3, 1);
         assertThat(result.getStatusCode().value()).isEqualTo(200);
         assertThat(result.getBody()).isSameAs(resp);
+        verify(newsService).searchNews("tariff", "us", 3, 1);
     }
 
     @Test
     void testGetCountryTradeNews() {
         NewsDataResponse resp = new NewsDataResponse();
-        when(newsService.getCountryTradeNews("us", "agriculture", 4)).thenReturn(resp);
-        ResponseEntity<NewsDataResponse> result = newsController.getCountryTradeNews("us", "agriculture", 4);
+        when(newsService.getCountryTradeNews("us", "agriculture", 4, 3)).thenReturn(resp);
+        ResponseEntity<NewsDataResponse> result = newsController.getCountryTradeNews("us", "agriculture", 4, 3);
+        assertThat(result.getStatusCode().value()).isEqualTo(200);
+        assertThat(result.getBody()).isSameAs(resp);
+        verify(newsService).getCountryTradeNews("us", "agriculture", 4, 3);
+    }
+
+    @Test
+    void testGetCountriesTradeNews() {
+        AggregatedNewsResponse resp = new AggregatedNewsResponse();
+        when(aggregationService.getCountriesTradeNews(List.of("us", "cn"), "steel", 5)).thenReturn(resp);
+        ResponseEntity<AggregatedNewsResponse> result = newsController.getCountriesTradeNews(List.of("us", "cn"), "steel", 5);
         assertThat(result.getStatusCode().value()).isEqualTo(200);
         assertThat(result.getBody()).isSameAs(resp);
     }
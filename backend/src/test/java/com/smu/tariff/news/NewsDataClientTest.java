@@ -1,14 +1,19 @@
 package com.smu.tariff.news;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smu.tariff.http.OutboundHttp;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.List;
 
@@ -21,9 +26,7 @@ class NewsDataClientTest {
     @Test
     void testExecuteRequest_apiErrorStatus() throws Exception {
         // Simulate API error in response JSON
-        String errorJson = "{\"status\":\"error\",\"message\":\"bad request\",\"code\":\"400\"}";
-        ResponseEntity<String> resp = new ResponseEntity<>(errorJson, HttpStatus.OK);
-        when(restTemplate.exchange(anyString(), any(), any(), eq(String.class))).thenReturn(resp);
+        respondWith("{\"status\":\"error\",\"message\":\"bad request\",\"code\":\"400\"}");
         Throwable thrown = catchThrowable(() -> client.getLatestNews(NewsDataRequest.builder().query("tariff").build()));
         assertThat(thrown).isInstanceOf(IllegalStateException.class)
             .hasMessageContaining("Failed to parse NewsData.io response");
@@ -35,21 +38,48 @@ class NewsDataClientTest {
     @Test
     void testExecuteRequest_nullArticles() throws Exception {
         // Simulate valid response but no articles array
-        String json = "{\"status\":\"success\",\"totalResults\":0}";
-        ResponseEntity<String> resp = new ResponseEntity<>(json, HttpStatus.OK);
-        when(restTemplate.exchange(anyString(), any(), any(), eq(String.class))).thenReturn(resp);
+        respondWith("{\"status\":\"success\",\"totalResults\":0}");
         NewsDataResponse result = client.getLatestNews(NewsDataRequest.builder().query("tariff").build());
         assertThat(result).isNotNull();
         assertThat(result.getArticles()).isEmpty();
     }
 
+    @Test
+    void testExecuteRequest_decodesFromTheResponseStream() throws Exception {
+        respondWith("{\"status\":\"success\",\"totalResults\":1,\"results\":[{\"article_id\":\"a1\","
+                + "\"title\":\"Steel tariffs\",\"content\":\"long body\"}],\"nextPage\":\"p2\"}");
+
+        NewsDataResponse result = client.getLatestNews(NewsDataRequest.builder().query("tariff").build(),
+                NewsProjection.CARD);
+
+        assertThat(result.getArticles()).extracting(NewsArticle::getTitle).containsExactly("Steel tariffs");
+        assertThat(result.getArticles().get(0).getContent()).isNull();
+        assertThat(result.getNextPage()).isEqualTo("p2");
+        verify(restTemplate, never()).exchange(anyString(), any(), any(), eq(String.class));
+    }
+
+    @Test
+    void testExecuteRequest_malformedBodyIsAParseFailure() {
+        respondWith("not-json");
+        assertThatThrownBy(() -> client.getLatestNews(NewsDataRequest.builder().query("tariff").build()))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Failed to parse NewsData.io response");
+    }
+
+    @SuppressWarnings("unchecked")
+    private void respondWith(String json) {
+        when(restTemplate.execute(anyString(), eq(HttpMethod.GET), any(RequestCallback.class), any(ResponseExtractor.class)))
+                .thenAnswer(inv -> ((ResponseExtractor<?>) inv.getArgument(3)).extractData(
+                        new MockClientHttpResponse(json.getBytes(StandardCharsets.UTF_8), HttpStatus.OK)));
+    }
+
     @Test
     void testParseStringArray_emptyOrNull() throws Exception {
         // Use reflection to call private method
         var method = NewsDataClient.class.getDeclaredMethod("parseStringArray", com.fasterxml.jackson.databind.JsonNode.class);
         method.setAccessible(true);
         ObjectMapper om = new ObjectMapper();
-        NewsDataClient c = new NewsDataClient("key", new MockRestTemplateBuilder(restTemplate), om);
+        NewsDataClient c = new NewsDataClient("key", outboundHttp(), om);
         // Null node
         com.fasterxml.jackson.databind.JsonNode nullNode = om.readTree("null");
         @SuppressWarnings("unchecked")
@@ -69,13 +99,18 @@ class NewsDataClientTest {
     void setUp() {
         restTemplate = mock(RestTemplate.class);
         objectMapper = new ObjectMapper();
-        RestTemplateBuilder builder = new MockRestTemplateBuilder(restTemplate);
-        client = new NewsDataClient("test-key", builder, objectMapper);
+        client = new NewsDataClient("test-key", outboundHttp(), objectMapper);
+    }
+
+    private OutboundHttp outboundHttp() {
+        OutboundHttp outboundHttp = mock(OutboundHttp.class);
+        when(outboundHttp.restTemplate("newsdata")).thenReturn(restTemplate);
+        return outboundHttp;
     }
 
     @Test
     void testGetLatestNews_apiKeyMissing() {
-        NewsDataClient badClient = new NewsDataClient("", new MockRestTemplateBuilder(restTemplate), objectMapper);
+        NewsDataClient badClient = new NewsDataClient("", outboundHttp(), objectMapper);
         NewsDataRequest req = NewsDataRequest.builder().query("tariff").build();
         assertThatThrownBy(() -> badClient.getLatestNews(req))
                 .isInstanceOf(IllegalStateException.class)
@@ -84,7 +119,7 @@ class NewsDataClientTest {
 
     @Test
     void testGetArchiveNews_apiKeyMissing() {
-        NewsDataClient badClient = new NewsDataClient(null, new MockRestTemplateBuilder(restTemplate), objectMapper);
+        NewsDataClient badClient = new NewsDataClient(null, outboundHttp(), objectMapper);
         NewsDataRequest req = NewsDataRequest.builder().query("tariff").build();
         assertThatThrownBy(() -> badClient.getArchiveNews(req))
                 .isInstanceOf(IllegalStateException.class)
@@ -93,7 +128,7 @@ class NewsDataClientTest {
 
     @Test
     void testGetSources_apiKeyMissing() {
-        NewsDataClient badClient = new NewsDataClient(" ", new MockRestTemplateBuilder(restTemplate), objectMapper);
+        NewsDataClient badClient = new NewsDataClient(" ", outboundHttp(), objectMapper);
         NewsDataRequest req = NewsDataRequest.builder().country(List.of("us")).build();
         assertThatThrownBy(() -> badClient.getSources(req))
                 .isInstanceOf(IllegalStateException.class)
@@ -125,7 +160,7 @@ class NewsDataClientTest {
     void testExecuteRequest_restClientException() {
     // Simulate RestClientException in executeRequest (used by getLatestNews)
     NewsDataRequest req = NewsDataRequest.builder().query("tariff").build();
-    when(restTemplate.exchange(anyString(), any(), any(), eq(String.class)))
+    when(restTemplate.execute(anyString(), eq(HttpMethod.GET), any(RequestCallback.class), any(ResponseExtractor.class)))
         .thenThrow(new RestClientException("rest client fail"));
     assertThatThrownBy(() -> client.getLatestNews(req))
         .isInstanceOf(IllegalStateException.class)
@@ -136,7 +171,7 @@ class NewsDataClientTest {
     void testExecuteRequest_genericException() {
     // Simulate generic Exception in executeRequest (used by getLatestNews)
     NewsDataRequest req = NewsDataRequest.builder().query("tariff").build();
-    when(restTemplate.exchange(anyString(), any(), any(), eq(String.class)))
+    when(restTemplate.execute(anyString(), eq(HttpMethod.GET), any(RequestCallback.class), any(ResponseExtractor.class)))
         .thenThrow(new RuntimeException("unexpected error"));
     assertThatThrownBy(() -> client.getLatestNews(req))
         .isInstanceOf(IllegalStateException.class)
@@ -0,0 +1,104 @@
+package com.smu.tariff.news;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Compares the streaming decoder with the JsonNode tree parsing NewsDataClient used before, on a
+ * 50-article response with multi-KB {@code content} and {@code ai_content}. Run with {@code -prof gc} to see
+ * allocation per decode. Not run by surefire; launch with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.smu.tariff.news.NewsDataDecoderBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NewsDataDecoderBenchmark {
+
+    @Param({"CARD", "STANDARD", "FULL"})
+    public NewsProjection projection;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private String body;
+
+    @Setup
+    public void setUp() {
+        String content = "Tariff policy analysis. ".repeat(250);
+        StringBuilder json = new StringBuilder("{\"status\":\"success\",\"totalResults\":500,\"results\":[");
+        for (int i = 0; i < 50; i++) {
+            json.append(i == 0 ? "" : ",")
+                .append("{\"article_id\":\"id").append(i).append("\",\"title\":\"Steel tariffs rise ").append(i)
+                .append("\",\"link\":\"https://example.com/").append(i).append("\",\"keywords\":[\"steel\",\"tariff\"],")
+                .append("\"creator\":[\"Reporter\"],\"description\":\"Duties on steel imports rise again.\",")
+                .append("\"content\":\"").append(content).append("\",\"pubDate\":\"2025-03-01 08:00:00\",\"pubDateTZ\":\"UTC\",")
+                .append("\"image_url\":\"https://example.com/").append(i).append(".jpg\",\"source_id\":\"reuters\",")
+                .append("\"source_priority\":120,\"source_url\":\"https://reuters.com\",\"source_icon\":\"https://reuters.com/i.png\",")
+                .append("\"language\":\"english\",\"country\":[\"united states of america\"],\"category\":[\"business\"],")
+                .append("\"ai_tag\":[\"trade\"],\"sentiment\":\"negative\",\"sentiment_stats\":{\"positive\":1.5,\"negative\":90.1},")
+                .append("\"ai_region\":null,\"ai_org\":null,\"ai_summary\":\"Summary\",\"ai_content\":\"").append(content)
+                .append("\",\"duplicate\":false}");
+        }
+        body = json.append("],\"nextPage\":\"token\"}").toString();
+    }
+
+    @Benchmark
+    public NewsDataResponse streaming() throws IOException {
+        try (JsonParser parser = objectMapper.createParser(body)) {
+            return NewsDataDecoder.decode(parser, projection);
+        }
+    }
+
+    @Benchmark
+    public NewsDataResponse tree() throws IOException {
+        JsonNode root = objectMapper.readTree(body);
+        NewsDataResponse response = new NewsDataResponse();
+        response.setStatus(root.path("status").asText());
+        response.setTotalResults(root.path("totalResults").asInt(0));
+        response.setNextPage(root.path("nextPage").asText(null));
+        List<NewsArticle> articles = new ArrayList<>();
+        for (JsonNode node : root.path("results")) {
+            NewsArticle article = new NewsArticle();
+            article.setArticleId(node.path("article_id").asText(null));
+            article.setTitle(node.path("title").asText(null));
+            article.setLink(node.path("link").asText(null));
+            article.setDescription(node.path("description").asText(null));
+            article.setContent(node.path("content").asText(null));
+            article.setPubDate(node.path("pubDate").asText(null));
+            article.setImageUrl(node.path("image_url").asText(null));
+            article.setSourceId(node.path("source_id").asText(null));
+            article.setSentiment(node.path("sentiment").asText(null));
+            article.setSentimentStats(node.path("sentiment_stats").asText(null));
+            article.setAiContent(node.path("ai_content").asText(null));
+            articles.add(article);
+        }
+        response.setArticles(articles);
+        return response;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(NewsDataDecoderBenchmark.class.getSimpleName()).build()).run();
+    }
+}
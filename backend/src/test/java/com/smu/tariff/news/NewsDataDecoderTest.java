@@ -0,0 +1,113 @@
+package com.smu.tariff.news;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class NewsDataDecoderTest {
+
+    private static final String BODY = """
+            {"status":"success","totalResults":42,"results":[{
+              "article_id":"a1","title":"Steel tariffs","link":"https://example.com/a1",
+              "keywords":["steel","tariff"],"creator":null,"video_url":null,
+              "description":"Duties rise","content":"ONLY AVAILABLE IN PAID PLANS",
+              "pubDate":"2025-03-01 08:00:00","pubDateTZ":"UTC","image_url":"https://example.com/a1.jpg",
+              "source_id":"reuters","source_priority":120,"source_url":"https://reuters.com","source_icon":"https://reuters.com/i.png",
+              "language":"english","country":["united states of america"],"category":["business"],
+              "ai_tag":["trade","economy"],"sentiment":"negative","sentiment_stats":{"positive":1.5,"negative":90.1},
+              "ai_region":null,"ai_org":null,"ai_content":"long text","duplicate":true,
+              "future_field":{"nested":[1,2,{"x":null}]}}],
+             "nextPage":"token-2"}
+            """;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void card_keepsOnlyHeadlineFields() throws IOException {
+        NewsDataResponse response = decode(BODY, NewsProjection.CARD);
+
+        assertThat(response.getStatus()).isEqualTo("success");
+        assertThat(response.getTotalResults()).isEqualTo(42);
+        assertThat(response.getNextPage()).isEqualTo("token-2");
+        NewsArticle article = response.getArticles().get(0);
+        assertThat(article.getArticleId()).isEqualTo("a1");
+        assertThat(article.getTitle()).isEqualTo("Steel tariffs");
+        assertThat(article.getImageUrl()).isEqualTo("https://example.com/a1.jpg");
+        assertThat(article.getPubDate()).isEqualTo("2025-03-01 08:00:00");
+        assertThat(article.getSourceId()).isEqualTo("reuters");
+        assertThat(article.getDescription()).isNull();
+        assertThat(article.getContent()).isNull();
+        assertThat(article.getKeywords()).isNull();
+        assertThat(article.getDuplicate()).isNull();
+    }
+
+    @Test
+    void standard_addsDescriptionAndTagsButNotContent() throws IOException {
+        NewsArticle article = decode(BODY, NewsProjection.STANDARD).getArticles().get(0);
+
+        assertThat(article.getDescription()).isEqualTo("Duties rise");
+        assertThat(article.getSentiment()).isEqualTo("negative");
+        assertThat(article.getSourcePriority()).isEqualTo(120);
+        assertThat(article.getKeywords()).containsExactly("steel", "tariff");
+        assertThat(article.getCreator()).isNull();
+        assertThat(article.getDuplicate()).isTrue();
+        assertThat(article.getContent()).isNull();
+        assertThat(article.getAiContent()).isNull();
+        assertThat(article.getSentimentStats()).isNull();
+    }
+
+    @Test
+    void full_decodesEveryField() throws IOException {
+        NewsArticle article = decode(BODY, NewsProjection.FULL).getArticles().get(0);
+
+        assertThat(article.getContent()).isEqualTo("ONLY AVAILABLE IN PAID PLANS");
+        assertThat(article.getAiContent()).isEqualTo("long text");
+        assertThat(article.getAiTag()).isEqualTo("trade, economy");
+        assertThat(article.getSentimentStats()).isEqualTo("{\"positive\":1.5,\"negative\":90.1}");
+        assertThat(article.getAiRegion()).isNull();
+    }
+
+    @Test
+    void errorResponse_throwsWithCodeAndMessage() {
+        assertThatThrownBy(() -> decode("{\"status\":\"error\",\"results\":{\"message\":\"quota exceeded\",\"code\":\"RateLimitExceeded\"}}",
+                NewsProjection.CARD))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("NewsData.io API error [RateLimitExceeded]: quota exceeded");
+    }
+
+    @Test
+    void missingResultsAndNullNextPage() throws IOException {
+        NewsDataResponse response = decode("{\"status\":\"success\",\"totalResults\":0,\"nextPage\":null}", NewsProjection.FULL);
+
+        assertThat(response.getArticles()).isEmpty();
+        assertThat(response.getNextPage()).isNull();
+    }
+
+    @Test
+    void projectionApply_clearsFieldsOfStoredArticles() {
+        NewsArticle article = new NewsArticle();
+        article.setTitle("t");
+        article.setDescription("d");
+        article.setContent("c");
+
+        NewsProjection.STANDARD.apply(article);
+        assertThat(article.getDescription()).isEqualTo("d");
+        assertThat(article.getContent()).isNull();
+
+        NewsProjection.CARD.apply(article);
+        assertThat(article.getTitle()).isEqualTo("t");
+        assertThat(article.getDescription()).isNull();
+    }
+
+    private NewsDataResponse decode(String body, NewsProjection projection) throws IOException {
+        try (JsonParser parser = objectMapper.createParser(body)) {
+            return NewsDataDecoder.decode(parser, projection);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.smu.tariff.news;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Sort;
+
+import com.smu.tariff.country.Country;
+import com.smu.tariff.country.CountryRepository;
+import com.smu.tariff.model.ProductCategory;
+import com.smu.tariff.repository.ProductCategoryRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class NewsPrefetchServiceTest {
+
+    private static final Instant NOW = Instant.parse("2025-03-01T00:00:00Z");
+
+    private NewsDataClient client;
+    private NewsArticleStore store;
+    private CountryRepository countryRepository;
+    private ProductCategoryRepository productCategoryRepository;
+
+    @BeforeEach
+    void setUp() {
+        client = mock(NewsDataClient.class);
+        store = mock(NewsArticleStore.class);
+        countryRepository = mock(CountryRepository.class);
+        productCategoryRepository = mock(ProductCategoryRepository.class);
+        when(countryRepository.findAll(any(Sort.class)))
+                .thenReturn(List.of(new Country("SGP", "Singapore"), new Country("USA", "United States"), new Country("XXX", "Nowhere")));
+        when(productCategoryRepository.findAll(any(Sort.class)))
+                .thenReturn(List.of(new ProductCategory("ELEC", "Electronics"), new ProductCategory("STEEL", "Steel")));
+        when(client.isConfigured()).thenReturn(true);
+        when(client.getLatestNews(any(), any())).thenReturn(new NewsDataResponse());
+    }
+
+    @Test
+    void plan_coversKnownCountriesThenCategories() {
+        assertThat(service(10).plan()).containsExactly(
+                new NewsPrefetchService.Target("sg", null),
+                new NewsPrefetchService.Target("us", null),
+                new NewsPrefetchService.Target(null, "Electronics"),
+                new NewsPrefetchService.Target(null, "Steel"));
+    }
+
+    @Test
+    void runOnce_spendsTheBudgetAndResumesWhereItStopped() {
+        NewsPrefetchService service = service(3);
+        ArgumentCaptor<NewsDataRequest> requests = ArgumentCaptor.forClass(NewsDataRequest.class);
+
+        service.runOnce();
+        service.runOnce();
+
+        verify(client, times(6)).getLatestNews(requests.capture(), eq(NewsProjection.STANDARD));
+        List<String> targets = new ArrayList<>();
+        for (NewsDataRequest request : requests.getAllValues()) {
+            targets.add(request.getCountry() != null ? request.getCountry().get(0) : request.getQuery());
+        }
+        assertThat(targets).containsExactly("sg", "us",
+                "(tariff OR \"import duty\" OR \"customs duty\") AND trade AND \"electronics\"",
+                "(tariff OR \"import duty\" OR \"customs duty\") AND trade AND \"steel\"",
+                "sg", "us");
+        verify(store, times(2)).save(any(), eq("sg"), eq(NOW));
+        verify(store, times(2)).purgeOlderThan(NOW.minus(Duration.ofDays(30)));
+    }
+
+    @Test
+    void runOnce_stopsAfterRepeatedFailures() {
+        when(client.getLatestNews(any(), any())).thenThrow(new IllegalStateException("quota exceeded"));
+
+        service(4).runOnce();
+
+        verify(client, times(3)).getLatestNews(any(), any());
+        verify(store, never()).save(anyList(), any(), any());
+    }
+
+    @Test
+    void prefetch_skippedWithoutApiKey() {
+        when(client.isConfigured()).thenReturn(false);
+
+        service(4).prefetch();
+
+        verify(client, never()).getLatestNews(any(), any());
+    }
+
+    private NewsPrefetchService service(int maxRequestsPerRun) {
+        return new NewsPrefetchService(client, store, countryRepository, productCategoryRepository, true,
+                maxRequestsPerRun, 10, Duration.ofDays(30), new SimpleMeterRegistry(), Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+}
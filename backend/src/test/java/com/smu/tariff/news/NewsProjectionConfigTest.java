@@ -0,0 +1,51 @@
+package com.smu.tariff.news;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.ConfigDataApplicationContextInitializer;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import com.smu.tariff.repository.ProductCategoryRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Loads the real application.yml so a misplaced {@code app.news.projection} block shows up as the
+ * {@code @Value} default being used instead of the configured projection.
+ */
+class NewsProjectionConfigTest {
+
+    private final NewsDataClient newsDataClient = mock(NewsDataClient.class);
+
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+            .withInitializer(new ConfigDataApplicationContextInitializer())
+            .withBean(NewsDataClient.class, () -> newsDataClient)
+            .withBean(NewsCache.class, NewsCache::disabled)
+            .withBean(NewsArticleStore.class, () -> mock(NewsArticleStore.class))
+            .withBean(ProductCategoryRepository.class, () -> mock(ProductCategoryRepository.class))
+            .withBean(NewsService.class);
+
+    @Test
+    void projectionsAreReadFromTheNewsBlock() {
+        runner.run(context -> {
+            assertThat(context.getEnvironment().getProperty("app.news.projection.tariff")).isEqualTo("STANDARD");
+            assertThat(context.getEnvironment().getProperty("app.news.projection.next-page")).isEqualTo("STANDARD");
+            assertThat(context.getEnvironment().containsProperty("app.http.projection.tariff")).isFalse();
+        });
+    }
+
+    @Test
+    void configuredNonDefaultProjectionReachesTheClient() {
+        when(newsDataClient.getLatestNews(any(), any())).thenReturn(new NewsDataResponse());
+
+        runner.withSystemProperties("NEWS_PROJECTION_TARIFF=CARD").run(context -> {
+            context.getBean(NewsService.class).getLatestTariffNews("us", null, 5);
+
+            verify(newsDataClient).getLatestNews(any(), eq(NewsProjection.CARD));
+        });
+    }
+}
@@ -6,10 +6,16 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import java.util.List;
+import java.util.Optional;
+
+import com.smu.tariff.model.ProductCategory;
+import com.smu.tariff.repository.ProductCategoryRepository;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class NewsServiceTest {
@@ -18,17 +24,17 @@ class NewsServiceTest {
         // Create a productCategory that will make the query string > 100 chars
         String longCategory = "verylongcategorynameverylongcategorynameverylongcategorynameverylongcategorynameverylongcategorynameverylongcategoryname";
         NewsDataResponse resp = new NewsDataResponse();
-        when(newsDataClient.getLatestNews(any())).thenReturn(resp);
+        when(newsDataClient.getLatestNews(any(), any())).thenReturn(resp);
         NewsDataResponse result = newsService.getLatestTariffNews("us", longCategory, 5);
         assertThat(result).isSameAs(resp);
         // Optionally verify that the query in the request is the default (cannot directly check without argument captor)
-        verify(newsDataClient).getLatestNews(any());
+        verify(newsDataClient).getLatestNews(any(), any());
     }
 
     @Test
     void testGetNextPage_validToken() {
         NewsDataResponse resp = new NewsDataResponse();
-        when(newsDataClient.getLatestNews(any())).thenReturn(resp);
+        when(newsDataClient.getLatestNews(any(), any())).thenReturn(resp);
         NewsDataResponse result = newsService.getNextPage("sometoken");
         assertThat(result).isSameAs(resp);
     }
@@ -80,61 +86,61 @@ class NewsServiceTest {
     @Test
     void testGetCountryTradeNews_nullProductCategory() {
         NewsDataResponse mockResp = new NewsDataResponse();
-        when(newsDataClient.getLatestNews(any())).thenReturn(mockResp);
+        when(newsDataClient.getLatestNews(any(), any())).thenReturn(mockResp);
         NewsDataResponse resp = newsService.getCountryTradeNews("us", null, 5);
         assertThat(resp).isSameAs(mockResp);
-        verify(newsDataClient).getLatestNews(any());
+        verify(newsDataClient).getLatestNews(any(), any());
     }
 
     @Test
     void testGetCountryTradeNews_emptyProductCategory() {
         NewsDataResponse mockResp = new NewsDataResponse();
-        when(newsDataClient.getLatestNews(any())).thenReturn(mockResp);
+        when(newsDataClient.getLatestNews(any(), any())).thenReturn(mockResp);
         NewsDataResponse resp = newsService.getCountryTradeNews("us", "   ", 5);
         assertThat(resp).isSameAs(mockResp);
-        verify(newsDataClient).getLatestNews(any());
+        verify(newsDataClient).getLatestNews(any(), any());
     }
 
     @Test
     void testGetCountryTradeNews_limitNull() {
         NewsDataResponse mockResp = new NewsDataResponse();
-        when(newsDataClient.getLatestNews(any())).thenReturn(mockResp);
+        when(newsDataClient.getLatestNews(any(), any())).thenReturn(mockResp);
         NewsDataResponse resp = newsService.getCountryTradeNews("us", "cat", null);
         assertThat(resp).isSameAs(mockResp);
-        verify(newsDataClient).getLatestNews(any());
+        verify(newsDataClient).getLatestNews(any(), any());
     }
 
     @Test
     void testGetCountryTradeNews_limitOver50() {
         NewsDataResponse mockResp = new NewsDataResponse();
-        when(newsDataClient.getLatestNews(any())).thenReturn(mockResp);
+        when(newsDataClient.getLatestNews(any(), any())).thenReturn(mockResp);
         NewsDataResponse resp = newsService.getCountryTradeNews("us", "cat", 100);
         assertThat(resp).isSameAs(mockResp);
-        verify(newsDataClient).getLatestNews(any());
+        verify(newsDataClient).getLatestNews(any(), any());
     }
 
     @Test
     void testGetCountryTradeNews_serviceThrows() {
-        when(newsDataClient.getLatestNews(any())).thenThrow(new RuntimeException("fail"));
+        when(newsDataClient.getLatestNews(any(), any())).thenThrow(new RuntimeException("fail"));
         assertThatThrownBy(() -> newsService.getCountryTradeNews("us", "cat", 5)).isInstanceOf(RuntimeException.class);
     }
     @Test
     void testGetLatestTariffNews_nullsAndZeroLimit() {
         NewsDataResponse resp = new NewsDataResponse();
-        when(newsDataClient.getLatestNews(any())).thenReturn(resp);
+        when(newsDataClient.getLatestNews(any(), any())).thenReturn(resp);
         assertThat(newsService.getLatestTariffNews(null, null, 0)).isSameAs(resp);
     }
 
     @Test
     void testGetLatestTariffNews_newsDataClientThrows() {
-        when(newsDataClient.getLatestNews(any())).thenThrow(new RuntimeException("fail"));
+        when(newsDataClient.getLatestNews(any(), any())).thenThrow(new RuntimeException("fail"));
         assertThatThrownBy(() -> newsService.getLatestTariffNews("us", "steel", 5)).isInstanceOf(RuntimeException.class);
     }
 
     @Test
     void testSearchNews_nullQuery() {
         NewsDataResponse resp = new NewsDataResponse();
-        when(newsDataClient.getLatestNews(any())).thenReturn(resp);
+        when(newsDataClient.getLatestNews(any(), any())).thenReturn(resp);
         assertThat(newsService.searchNews(null, null, 1)).isSameAs(resp);
     }
 
@@ -147,13 +153,13 @@ class NewsServiceTest {
 
     @Test
     void testGetHistoricalTariffNews_newsDataClientThrows() {
-        when(newsDataClient.getArchiveNews(any())).thenThrow(new RuntimeException("fail"));
+        when(newsDataClient.getArchiveNews(any(), any())).thenThrow(new RuntimeException("fail"));
         assertThatThrownBy(() -> newsService.getHistoricalTariffNews("2020-01-01", "2020-12-31", "us", 10)).isInstanceOf(RuntimeException.class);
     }
 
     @Test
     void testGetNextPage_emptyResult() {
-        when(newsDataClient.getLatestNews(any())).thenReturn(null);
+        when(newsDataClient.getLatestNews(any(), any())).thenReturn(null);
         assertThat(newsService.getNextPage("token")).isNull();
     }
 
@@ -168,22 +174,22 @@ class NewsServiceTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        newsService = new NewsService(newsDataClient);
+        newsService = new NewsService(newsDataClient, NewsCache.disabled(), null, null);
     }
 
     @Test
     void testGetLatestTariffNews_withCategoryAndLimit() {
         NewsDataResponse resp = new NewsDataResponse();
-        when(newsDataClient.getLatestNews(any())).thenReturn(resp);
+        when(newsDataClient.getLatestNews(any(), any())).thenReturn(resp);
         NewsDataResponse result = newsService.getLatestTariffNews("us", "steel", 5);
         assertThat(result).isSameAs(resp);
-        verify(newsDataClient).getLatestNews(any());
+        verify(newsDataClient).getLatestNews(any(), any());
     }
 
     @Test
     void testGetLatestTariffNews_overloaded() {
         NewsDataResponse resp = new NewsDataResponse();
-        when(newsDataClient.getLatestNews(any())).thenReturn(resp);
+        when(newsDataClient.getLatestNews(any(), any())).thenReturn(resp);
         NewsDataResponse result = newsService.getLatestTariffNews("us", 3);
         assertThat(result).isSameAs(resp);
     }
@@ -191,7 +197,7 @@ class NewsServiceTest {
     @Test
     void testSearchNews() {
         NewsDataResponse resp = new NewsDataResponse();
-        when(newsDataClient.getLatestNews(any())).thenReturn(resp);
+        when(newsDataClient.getLatestNews(any(), any())).thenReturn(resp);
         NewsDataResponse result = newsService.searchNews("tariff", "us", 2);
         assertThat(result).isSameAs(resp);
     }
@@ -199,7 +205,7 @@ class NewsServiceTest {
     @Test
     void testGetCountryTradeNews_withCategory() {
         NewsDataResponse resp = new NewsDataResponse();
-        when(newsDataClient.getLatestNews(any())).thenReturn(resp);
+        when(newsDataClient.getLatestNews(any(), any())).thenReturn(resp);
         NewsDataResponse result = newsService.getCountryTradeNews("us", "agriculture", 4);
         assertThat(result).isSameAs(resp);
     }
@@ -207,7 +213,7 @@ class NewsServiceTest {
     @Test
     void testGetCountryTradeNews_overloaded() {
         NewsDataResponse resp = new NewsDataResponse();
-        when(newsDataClient.getLatestNews(any())).thenReturn(resp);
+        when(newsDataClient.getLatestNews(any(), any())).thenReturn(resp);
         NewsDataResponse result = newsService.getCountryTradeNews("us", 2);
         assertThat(result).isSameAs(resp);
     }
@@ -215,7 +221,7 @@ class NewsServiceTest {
     @Test
     void testGetHistoricalTariffNews() {
         NewsDataResponse resp = new NewsDataResponse();
-        when(newsDataClient.getArchiveNews(any())).thenReturn(resp);
+        when(newsDataClient.getArchiveNews(any(), any())).thenReturn(resp);
         NewsDataResponse result = newsService.getHistoricalTariffNews("2020-01-01", "2020-12-31", "us", 10);
         assertThat(result).isSameAs(resp);
     }
@@ -223,7 +229,7 @@ class NewsServiceTest {
     @Test
     void testGetNextPage_withToken() {
         NewsDataResponse resp = new NewsDataResponse();
-        when(newsDataClient.getLatestNews(any())).thenReturn(resp);
+        when(newsDataClient.getLatestNews(any(), any())).thenReturn(resp);
         NewsDataResponse result = newsService.getNextPage("token123");
         assertThat(result).isSameAs(resp);
     }
@@ -234,6 +240,50 @@ class NewsServiceTest {
         assertThatThrownBy(() -> newsService.getNextPage("")).isInstanceOf(IllegalArgumentException.class);
     }
 
+    @Test
+    void storeReady_servesTariffNewsLocallyWithCategoryName() {
+        NewsArticleStore store = mock(NewsArticleStore.class);
+        ProductCategoryRepository categories = mock(ProductCategoryRepository.class);
+        when(store.isReady("us")).thenReturn(true);
+        when(categories.findByCode("ELEC")).thenReturn(Optional.of(new ProductCategory("ELEC", "Electronics")));
+        NewsDataResponse page = new NewsDataResponse();
+        page.setTotalResults(1);
+        page.setArticles(List.of(new NewsArticle()));
+        when(store.find("us", "Electronics", 2, 5)).thenReturn(page);
+        NewsService service = new NewsService(newsDataClient, NewsCache.disabled(), store, categories);
+
+        assertThat(service.getLatestTariffNews("us", "elec", 5, 2)).isSameAs(page);
+        verify(newsDataClient, never()).getLatestNews(any(), any());
+    }
+
+    @Test
+    void storeNotReady_fallsBackToUpstream() {
+        NewsArticleStore store = mock(NewsArticleStore.class);
+        when(store.isReady("us")).thenReturn(false);
+        NewsDataResponse resp = new NewsDataResponse();
+        when(newsDataClient.getLatestNews(any(), any())).thenReturn(resp);
+        NewsService service = new NewsService(newsDataClient, NewsCache.disabled(), store, null);
+
+        assertThat(service.searchNews("tariff", "us", 5, 1)).isSameAs(resp);
+        verify(store, never()).find(any(), any(), anyInt(), anyInt());
+    }
+
+    @Test
+    void storeWithoutMatchingArticles_fallsBackToUpstream() {
+        NewsArticleStore store = mock(NewsArticleStore.class);
+        when(store.isReady("sg")).thenReturn(true);
+        NewsDataResponse empty = new NewsDataResponse();
+        empty.setTotalResults(0);
+        empty.setArticles(List.of());
+        when(store.find(eq("sg"), any(), anyInt(), anyInt())).thenReturn(empty);
+        NewsDataResponse resp = new NewsDataResponse();
+        when(newsDataClient.getLatestNews(any(), any())).thenReturn(resp);
+        NewsService service = new NewsService(newsDataClient, NewsCache.disabled(), store, null);
+
+        assertThat(service.getCountryTradeNews("sg", null, 5, 0)).isSameAs(resp);
+        verify(newsDataClient).getLatestNews(any(), any());
+    }
+
     @Test
     void testGetTariffNewsSources() {
         List<NewsSource> sources = List.of(new NewsSource());
@@ -1,5 +1,6 @@
 package com.smu.tariff.product;
 
+import com.smu.tariff.http.OutboundHttp;
 import com.smu.tariff.model.ProductCategory;
 import com.smu.tariff.repository.ProductCategoryRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -7,7 +8,7 @@ import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.client.RestTemplate;
 
@@ -58,7 +59,7 @@ class ProductCategorySyncServiceTest {
     private ProductCategoryRepository repository;
 
     @Mock
-    private RestTemplateBuilder restTemplateBuilder;
+    private OutboundHttp outboundHttp;
 
     @Mock
     private RestTemplate restTemplate;
@@ -68,11 +69,10 @@ class ProductCategorySyncServiceTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        when(restTemplateBuilder.setConnectTimeout(any())).thenReturn(restTemplateBuilder);
-        when(restTemplateBuilder.setReadTimeout(any())).thenReturn(restTemplateBuilder);
-        when(restTemplateBuilder.build()).thenReturn(restTemplate);
+        when(outboundHttp.restTemplate("simplyduty")).thenReturn(restTemplate);
 
-        service = new ProductCategorySyncService(repository, restTemplateBuilder, "http://example/api/categories");
+        service = new ProductCategorySyncService(repository, outboundHttp, "http://example/api/categories",
+                mock(ApplicationEventPublisher.class));
     }
 
     @Test
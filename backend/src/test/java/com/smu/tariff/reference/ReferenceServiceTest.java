@@ -19,6 +19,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import com.smu.tariff.country.Country;
 import com.smu.tariff.country.CountryRepository;
@@ -30,6 +31,7 @@ import com.smu.tariff.reference.dto.ProductCategoryCreateRequest;
 import com.smu.tariff.reference.dto.ProductCategoryUpdateRequest;
 import com.smu.tariff.repository.ProductCategoryRepository;
 import com.smu.tariff.repository.TariffRateRepository;
+import com.smu.tariff.tariff.snapshot.TariffReferenceDataChangedEvent;
 
 @ExtendWith(MockitoExtension.class)
 class ReferenceServiceTest {
@@ -205,6 +207,9 @@ class ReferenceServiceTest {
     @Mock
     private TariffRateRepository tariffRateRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private ReferenceService service;
 
@@ -281,6 +286,7 @@ class ReferenceServiceTest {
         verify(tariffRateRepository).deleteAll(captor.capture());
         assertThat(captor.getValue()).containsExactlyInAnyOrder(outbound, inbound);
         verify(countryRepository).delete(existingCountry);
+        verify(eventPublisher).publishEvent(any(TariffReferenceDataChangedEvent.class));
     }
 
     @Test
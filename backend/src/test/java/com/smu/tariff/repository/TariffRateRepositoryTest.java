@@ -6,8 +6,13 @@ import com.smu.tariff.country.Country;
 import com.smu.tariff.country.CountryRepository;
 import com.smu.tariff.model.ProductCategory;
 import com.smu.tariff.model.TariffRate;
+import com.smu.tariff.tariff.dto.TariffRateDto;
+import com.smu.tariff.tariff.search.TariffRateCursor;
+import com.smu.tariff.tariff.search.TariffRateSort;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -52,7 +57,113 @@ class TariffRateRepositoryTest {
         textiles = productCategoryRepository.save(new ProductCategory("TEXT", "Textiles"));
     }
 
-    // All test methods removed due to errors
+    @Test
+    void searchRatesAppliesOnlyTheFiltersThatAreSet() {
+        TariffRate sgUsElec = saveRate(singapore, unitedStates, electronics, "5.00", "0", LocalDate.of(2024, 1, 1), null);
+        TariffRate sgUsText = saveRate(singapore, unitedStates, textiles, "7.00", "0", LocalDate.of(2024, 1, 1), null);
+        TariffRate cnUsElec = saveRate(china, unitedStates, electronics, "9.00", "0", LocalDate.of(2024, 1, 1), null);
+        TariffRate sgCnElec = saveRate(singapore, china, electronics, "3.00", "0", LocalDate.of(2024, 1, 1), null);
+
+        assertThat(ids(search(null, null, null, TariffRateSort.ID_ASC)))
+                .containsExactly(sgUsElec.getId(), sgUsText.getId(), cnUsElec.getId(), sgCnElec.getId());
+        assertThat(ids(search(singapore.getId(), null, null, TariffRateSort.ID_ASC)))
+                .containsExactly(sgUsElec.getId(), sgUsText.getId(), sgCnElec.getId());
+        assertThat(ids(search(null, unitedStates.getId(), electronics.getId(), TariffRateSort.ID_ASC)))
+                .containsExactly(sgUsElec.getId(), cnUsElec.getId());
+        assertThat(ids(search(singapore.getId(), unitedStates.getId(), textiles.getId(), TariffRateSort.ID_ASC)))
+                .containsExactly(sgUsText.getId());
+        assertThat(search(china.getId(), singapore.getId(), null, TariffRateSort.ID_ASC)).isEmpty();
+
+        TariffRateDto row = search(china.getId(), null, null, TariffRateSort.ID_ASC).get(0);
+        assertThat(row.originCountryCode).isEqualTo("CHN");
+        assertThat(row.destinationCountryCode).isEqualTo("USA");
+        assertThat(row.productCategoryCode).isEqualTo("ELEC");
+        assertThat(row.baseRate).isEqualByComparingTo("9.00");
+    }
+
+    @Test
+    void offsetPagesSliceTheFullOrderingForEverySort() {
+        saveRatesWithDuplicateKeys();
+        for (TariffRateSort sort : TariffRateSort.values()) {
+            List<TariffRateDto> all = search(null, null, null, sort);
+            assertThat(ids(all)).as(sort.label()).containsExactlyElementsOf(ids(expectedOrder(all, sort)));
+
+            List<Long> paged = new ArrayList<>();
+            for (int offset = 0; offset < all.size(); offset += 3) {
+                List<TariffRateDto> page = tariffRateRepository.searchRates(null, null, null, sort, null, offset, 3);
+                assertThat(page).as(sort.label()).hasSizeLessThanOrEqualTo(3);
+                paged.addAll(ids(page));
+            }
+            assertThat(paged).as(sort.label()).containsExactlyElementsOf(ids(all));
+            assertThat(tariffRateRepository.searchRates(null, null, null, sort, null, all.size(), 3)).isEmpty();
+        }
+    }
+
+    @Test
+    void cursorContinuationVisitsEveryRowOnceAcrossDuplicateKeysForEverySort() {
+        saveRatesWithDuplicateKeys();
+        for (TariffRateSort sort : TariffRateSort.values()) {
+            List<TariffRateDto> all = search(null, null, null, sort);
+
+            List<Long> walked = new ArrayList<>();
+            TariffRateCursor cursor = null;
+            while (true) {
+                List<TariffRateDto> page = tariffRateRepository.searchRates(null, null, null, sort, cursor, 0, 2);
+                if (page.isEmpty()) {
+                    break;
+                }
+                walked.addAll(ids(page));
+                // Round-trip through the wire form, as a client would
+                cursor = TariffRateCursor.decode(TariffRateCursor.after(sort, page.get(page.size() - 1)).encode(), sort);
+            }
+            assertThat(walked).as(sort.label()).containsExactlyElementsOf(ids(all));
+        }
+    }
+
+    @Test
+    void cursorContinuationKeepsTheFilters() {
+        saveRatesWithDuplicateKeys();
+        List<TariffRateDto> filtered = search(singapore.getId(), unitedStates.getId(), null, TariffRateSort.BASE_RATE_DESC);
+        TariffRateCursor cursor = TariffRateCursor.after(TariffRateSort.BASE_RATE_DESC, filtered.get(0));
+
+        List<TariffRateDto> rest = tariffRateRepository.searchRates(singapore.getId(), unitedStates.getId(), null,
+                TariffRateSort.BASE_RATE_DESC, cursor, 0, 100);
+
+        assertThat(ids(rest)).containsExactlyElementsOf(ids(filtered.subList(1, filtered.size())));
+    }
+
+    // Several rates share an effectiveFrom and several share a base rate, so continuation has to break ties on id
+    private void saveRatesWithDuplicateKeys() {
+        LocalDate first = LocalDate.of(2023, 1, 1);
+        LocalDate second = LocalDate.of(2024, 1, 1);
+        saveRate(singapore, unitedStates, electronics, "5.00", "0", first, LocalDate.of(2023, 12, 31));
+        saveRate(singapore, unitedStates, electronics, "5.00", "0", second, null);
+        saveRate(singapore, unitedStates, textiles, "5.00", "0", first, null);
+        saveRate(china, unitedStates, electronics, "7.50", "0", second, null);
+        saveRate(china, unitedStates, textiles, "5.00", "0", second, null);
+        saveRate(singapore, china, electronics, "7.50", "0", first, null);
+        saveRate(singapore, unitedStates, textiles, "2.00", "0", second, null);
+    }
+
+    private List<TariffRateDto> search(Long originId, Long destinationId, Long categoryId, TariffRateSort sort) {
+        return tariffRateRepository.searchRates(originId, destinationId, categoryId, sort, null, 0, 100);
+    }
+
+    private static List<TariffRateDto> expectedOrder(List<TariffRateDto> rows, TariffRateSort sort) {
+        Comparator<TariffRateDto> byId = Comparator.comparing(row -> row.id);
+        Comparator<TariffRateDto> order = switch (sort.property()) {
+            case "effectiveFrom" -> Comparator.<TariffRateDto, LocalDate>comparing(row -> row.effectiveFrom).thenComparing(byId);
+            case "baseRate" -> Comparator.<TariffRateDto, BigDecimal>comparing(row -> row.baseRate).thenComparing(byId);
+            default -> byId;
+        };
+        List<TariffRateDto> sorted = new ArrayList<>(rows);
+        sorted.sort(sort.descending() ? order.reversed() : order);
+        return sorted;
+    }
+
+    private static List<Long> ids(List<TariffRateDto> rows) {
+        return rows.stream().map(row -> row.id).toList();
+    }
 
     private TariffRate saveRate(Country origin,
                                 Country destination,
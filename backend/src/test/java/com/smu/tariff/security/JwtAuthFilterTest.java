@@ -4,20 +4,33 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
 
 import static org.mockito.Mockito.*;
 import static org.assertj.core.api.Assertions.assertThat;
 
 class JwtAuthFilterTest {
+    private static final String SECRET = "MDEyMzQ1Njc4OWFiY2RlZjAxMjM0NTY3ODlhYmNkZWYwMTIzNDU2Nzg5YWJjZGVm";
+
     private JwtService jwtService;
-    private UserDetailsService userDetailsService;
+    private JwtTokenCache tokenCache;
+    private RequestPrincipal requestPrincipal;
     private JwtAuthFilter filter;
     private HttpServletRequest request;
     private HttpServletResponse response;
@@ -25,15 +38,25 @@ class JwtAuthFilterTest {
 
     @BeforeEach
     void setUp() {
-        jwtService = mock(JwtService.class);
-        userDetailsService = mock(UserDetailsService.class);
-        filter = new JwtAuthFilter(jwtService, userDetailsService);
+        JwtService real = new JwtService();
+        real.setSecret(SECRET);
+        real.setJwtExpirationMs(60_000L);
+        jwtService = spy(real);
+        tokenCache = new JwtTokenCache(100, Duration.ofMinutes(5), new SimpleMeterRegistry(), Clock.systemUTC());
+        requestPrincipal = new RequestPrincipal();
+        filter = new JwtAuthFilter(jwtService, tokenCache, requestPrincipal);
         request = mock(HttpServletRequest.class);
         response = mock(HttpServletResponse.class);
         filterChain = mock(FilterChain.class);
         SecurityContextHolder.clearContext();
     }
 
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
     @Test
     void testNoAuthHeader() throws ServletException, IOException {
         when(request.getHeader("Authorization")).thenReturn(null);
@@ -51,37 +74,86 @@ class JwtAuthFilterTest {
     }
 
     @Test
-    void testExceptionOnExtractUsername() throws Exception {
+    void testMalformedTokenDoesNotSetAuthentication() throws Exception {
         when(request.getHeader("Authorization")).thenReturn("Bearer token");
-        when(jwtService.extractUsername(anyString())).thenThrow(new RuntimeException("bad token"));
         filter.doFilterInternal(request, response, filterChain);
         verify(filterChain).doFilter(request, response);
         assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        assertThat(tokenCache.size()).isZero();
+    }
+
+    @Test
+    void testValidTokenSetsAuthenticationFromClaims() throws Exception {
+        String token = jwtService.generateToken(user("alice", "ROLE_ADMIN"));
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+
+        filter.doFilterInternal(request, response, filterChain);
+
+        verify(filterChain).doFilter(request, response);
+        var authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(authentication).isNotNull();
+        assertThat(authentication.getPrincipal()).isInstanceOf(AuthenticatedUser.class);
+        assertThat(authentication.getName()).isEqualTo("alice");
+        assertThat(authentication.getAuthorities()).extracting(GrantedAuthority::getAuthority).containsExactly("ROLE_ADMIN");
+    }
+
+    @Test
+    void testValidTokenBindsPrincipalToRequest() throws Exception {
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest();
+        servletRequest.addHeader("Authorization", "Bearer " + jwtService.generateToken(user("alice", "ROLE_USER")));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(servletRequest));
+
+        filter.doFilterInternal(servletRequest, response, filterChain);
+
+        AuthenticatedUser bound = requestPrincipal.current();
+        assertThat(bound).isSameAs(SecurityContextHolder.getContext().getAuthentication().getPrincipal());
+        assertThat(bound.getUsername()).isEqualTo("alice");
+    }
+
+    @Test
+    void testRepeatedTokenVerifiedOnce() throws Exception {
+        String token = jwtService.generateToken(user("alice", "ROLE_USER"));
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+
+        filter.doFilterInternal(request, response, filterChain);
+        SecurityContextHolder.clearContext();
+        filter.doFilterInternal(request, response, filterChain);
+
+        verify(jwtService, times(1)).verify(token);
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getName()).isEqualTo("alice");
     }
 
     @Test
-    void testValidTokenSetsAuthentication() throws Exception {
-        when(request.getHeader("Authorization")).thenReturn("Bearer goodtoken");
-        when(jwtService.extractUsername("goodtoken")).thenReturn("user");
-        UserDetails userDetails = mock(UserDetails.class);
-        when(userDetailsService.loadUserByUsername("user")).thenReturn(userDetails);
-        when(jwtService.isTokenValid("goodtoken", userDetails)).thenReturn(true);
-        when(userDetails.getAuthorities()).thenReturn(java.util.Collections.emptyList());
+    void testForgedTokenDoesNotSetAuthentication() throws Exception {
+        JwtService other = new JwtService();
+        other.setSecret("b3RoZXJzZWNyZXRvdGhlcnNlY3JldG90aGVyc2VjcmV0b3RoZXJzZWNyZXQxMjM0");
+        other.setJwtExpirationMs(60_000L);
+        String forged = other.generateToken(user("mallory", "ROLE_ADMIN"));
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + forged);
+
         filter.doFilterInternal(request, response, filterChain);
+
         verify(filterChain).doFilter(request, response);
-        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNotNull();
-        assertThat(SecurityContextHolder.getContext().getAuthentication().getPrincipal()).isEqualTo(userDetails);
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
     }
 
     @Test
-    void testTokenInvalidDoesNotSetAuthentication() throws Exception {
-        when(request.getHeader("Authorization")).thenReturn("Bearer badtoken");
-        when(jwtService.extractUsername("badtoken")).thenReturn("user");
-        UserDetails userDetails = mock(UserDetails.class);
-        when(userDetailsService.loadUserByUsername("user")).thenReturn(userDetails);
-        when(jwtService.isTokenValid("badtoken", userDetails)).thenReturn(false);
+    void testExpiredTokenDoesNotSetAuthentication() throws Exception {
+        jwtService.setJwtExpirationMs(-1_000L);
+        String token = jwtService.generateToken(user("alice", "ROLE_USER"));
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+
         filter.doFilterInternal(request, response, filterChain);
+
         verify(filterChain).doFilter(request, response);
         assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
     }
+
+    private static UserDetails user(String username, String role) {
+        UserDetails user = mock(UserDetails.class);
+        when(user.getUsername()).thenReturn(username);
+        Collection<? extends GrantedAuthority> authorities = List.of((GrantedAuthority) () -> role);
+        doReturn(authorities).when(user).getAuthorities();
+        return user;
+    }
 }
@@ -44,6 +44,19 @@ class JwtServiceTest {
         assertThat(jwtService.extractUsername(token)).isEqualTo("user");
     }
 
+    @Test
+    void testUserEntityTokenCarriesUserIdClaim() {
+        com.smu.tariff.user.User user = mock(com.smu.tariff.user.User.class);
+        when(user.getId()).thenReturn(42L);
+        when(user.getUsername()).thenReturn("user");
+        when(user.getAuthorities()).thenReturn(Collections.emptyList());
+
+        Claims claims = jwtService.verify(jwtService.generateToken(user));
+
+        assertThat(claims.get(JwtService.USER_ID_CLAIM, Long.class)).isEqualTo(42L);
+        assertThat(AuthenticatedUser.fromClaims(claims).getId()).isEqualTo(42L);
+    }
+
     @Test
     void testExtractClaim() {
         UserDetails user = mock(UserDetails.class);
@@ -71,4 +84,32 @@ class JwtServiceTest {
         }
         assertThat(expired).isTrue();
     }
+
+    @Test
+    void testVerifyReturnsClaimsFromOneParse() {
+        UserDetails user = mock(UserDetails.class);
+        when(user.getUsername()).thenReturn("user");
+        java.util.Collection<? extends GrantedAuthority> authorities = List.of((GrantedAuthority) () -> "ROLE_ADMIN");
+        when(user.getAuthorities()).thenAnswer(invocation -> authorities);
+        String token = jwtService.generateToken(user);
+
+        Claims claims = jwtService.verify(token);
+
+        assertThat(claims.getSubject()).isEqualTo("user");
+        assertThat(claims.get("roles")).isEqualTo(List.of("ROLE_ADMIN"));
+        assertThat(claims.getExpiration()).isAfter(new Date());
+    }
+
+    @Test
+    void testChangingSecretInvalidatesOldTokens() {
+        UserDetails user = mock(UserDetails.class);
+        when(user.getUsername()).thenReturn("user");
+        when(user.getAuthorities()).thenReturn(Collections.emptyList());
+        String token = jwtService.generateToken(user);
+
+        jwtService.setSecret("b3RoZXJzZWNyZXRvdGhlcnNlY3JldG90aGVyc2VjcmV0b3RoZXJzZWNyZXQxMjM0");
+
+        org.assertj.core.api.Assertions.assertThatThrownBy(() -> jwtService.verify(token))
+                .isInstanceOf(io.jsonwebtoken.security.SignatureException.class);
+    }
 }
@@ -0,0 +1,104 @@
+package com.smu.tariff.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class JwtTokenCacheTest {
+
+    private MutableClock clock;
+    private SimpleMeterRegistry registry;
+    private JwtTokenCache cache;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+        registry = new SimpleMeterRegistry();
+        cache = new JwtTokenCache(2, Duration.ofMinutes(5), registry, clock);
+    }
+
+    @Test
+    void entryExpiresWithTheToken() {
+        AuthenticatedUser alice = user("alice");
+        cache.put("t1", alice, clock.instant().plusSeconds(60));
+
+        assertThat(cache.get("t1")).isSameAs(alice);
+        clock.advance(Duration.ofSeconds(60));
+        assertThat(cache.get("t1")).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void longLivedTokenCappedAtCacheTtl() {
+        cache.put("t1", user("alice"), clock.instant().plus(Duration.ofDays(1)));
+
+        clock.advance(Duration.ofMinutes(4));
+        assertThat(cache.get("t1")).isNotNull();
+        clock.advance(Duration.ofMinutes(1));
+        assertThat(cache.get("t1")).isNull();
+    }
+
+    @Test
+    void leastRecentlyUsedTokenEvictedAtCapacity() {
+        Instant expiry = clock.instant().plusSeconds(60);
+        cache.put("t1", user("alice"), expiry);
+        cache.put("t2", user("bob"), expiry);
+        cache.get("t1");
+        cache.put("t3", user("carol"), expiry);
+
+        assertThat(cache.get("t1")).isNotNull();
+        assertThat(cache.get("t2")).isNull();
+        assertThat(registry.counter("jwt.cache", "result", "hit").count()).isEqualTo(2.0);
+    }
+
+    @Test
+    void zeroCapacityCacheStoresNothing() {
+        JwtTokenCache disabled = new JwtTokenCache(0, Duration.ofMinutes(5), new SimpleMeterRegistry(), clock);
+        disabled.put("t1", user("alice"), clock.instant().plusSeconds(60));
+
+        assertThat(disabled.get("t1")).isNull();
+        assertThat(disabled.size()).isZero();
+    }
+
+    private static AuthenticatedUser user(String username) {
+        return new AuthenticatedUser(username, List.of(new SimpleGrantedAuthority("ROLE_USER")));
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
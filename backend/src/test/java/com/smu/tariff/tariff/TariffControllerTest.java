@@ -8,6 +8,7 @@ import com.smu.tariff.tariff.dto.TariffCalcRequest;
 import com.smu.tariff.tariff.dto.TariffCalcResponse;
 import com.smu.tariff.tariff.dto.TariffRateDto;
 import com.smu.tariff.tariff.dto.TariffRateDtoPost;
+import com.smu.tariff.tariff.dto.TariffRatePage;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
@@ -22,34 +23,70 @@ import static org.mockito.Mockito.*;
 class TariffControllerTest {
     @Test
     void testCalculateEndpoint_serviceThrows() {
-        TariffController controller = new TariffController(tariffService);
+        TariffController controller = new TariffController(tariffService, calculationStreamer, rateExporter);
         TariffCalcRequest req = new TariffCalcRequest();
         when(tariffService.calculate(any(), eq(true))).thenThrow(new RuntimeException("fail"));
         org.assertj.core.api.Assertions.assertThatThrownBy(() -> controller.calculate(req, true))
             .isInstanceOf(RuntimeException.class);
     }
 
+    @Test
+    void testCalculateBatchEndpoint_delegatesToService() {
+        TariffController controller = new TariffController(tariffService, calculationStreamer, rateExporter);
+        var batch = new com.smu.tariff.tariff.dto.TariffBatchCalcResponse();
+        batch.total = 1;
+        java.util.List<TariffCalcRequest> lines = java.util.List.of(new TariffCalcRequest());
+        when(tariffService.calculateBatch(lines)).thenReturn(batch);
+        var result = controller.calculateBatch(lines);
+        assertThat(result.getBody()).isSameAs(batch);
+    }
+
     @Test
     void testSearchEndpoint_emptyResult() {
-        TariffController controller = new TariffController(tariffService);
-        when(tariffService.search(any(), any(), any())).thenReturn(java.util.List.of());
-        var result = controller.search(null, null, null);
+        TariffController controller = new TariffController(tariffService, calculationStreamer, rateExporter);
+        when(tariffService.search(any(), any(), any(), anyInt(), anyInt(), any(), any()))
+                .thenReturn(new TariffRatePage());
+        var result = controller.search(null, null, null, 0, 50, null, null);
         assertThat(result.getBody()).isNotNull();
-        assertThat(result.getBody()).isEmpty();
+        assertThat(result.getBody().items).isEmpty();
     }
 
     @Test
     void testGetAllTariffsEndpoint_emptyResult() {
-        TariffController controller = new TariffController(tariffService);
+        TariffController controller = new TariffController(tariffService, calculationStreamer, rateExporter);
         when(tariffService.getAllTariffs()).thenReturn(java.util.List.of());
         var result = controller.getAllTariffs();
         assertThat(result.getBody()).isNotNull();
         assertThat(result.getBody()).isEmpty();
     }
 
+    @Test
+    void testExportEndpoint_formatParamWinsOverAccept() throws Exception {
+        TariffController controller = new TariffController(tariffService, calculationStreamer, rateExporter);
+        org.springframework.mock.web.MockHttpServletRequest request = new org.springframework.mock.web.MockHttpServletRequest();
+        request.addHeader("Accept", "application/x-ndjson");
+        org.springframework.mock.web.MockHttpServletResponse response = new org.springframework.mock.web.MockHttpServletResponse();
+
+        controller.exportTariffs("csv", request, response);
+
+        assertThat(response.getContentType()).startsWith("text/csv");
+        assertThat(response.getHeader("Content-Disposition")).isEqualTo("attachment; filename=tariffs.csv");
+        verify(rateExporter).export(response.getOutputStream(), com.smu.tariff.tariff.stream.TariffExportFormat.CSV);
+    }
+
+    @Test
+    void testExportEndpoint_unknownFormatIsRejectedBeforeStreaming() throws Exception {
+        TariffController controller = new TariffController(tariffService, calculationStreamer, rateExporter);
+        org.assertj.core.api.Assertions.assertThatThrownBy(() -> controller.exportTariffs("xml",
+                        new org.springframework.mock.web.MockHttpServletRequest(),
+                        new org.springframework.mock.web.MockHttpServletResponse()))
+            .isInstanceOf(com.smu.tariff.exception.InvalidTariffRequestException.class);
+        verifyNoInteractions(rateExporter);
+    }
+
     @Test
     void testCreateTariffEndpoint_serviceThrows() {
-        TariffController controller = new TariffController(tariffService);
+        TariffController controller = new TariffController(tariffService, calculationStreamer, rateExporter);
         TariffRateDtoPost post = new TariffRateDtoPost();
         when(tariffService.createTariff(any())).thenThrow(new RuntimeException("fail"));
         org.assertj.core.api.Assertions.assertThatThrownBy(() -> controller.createTariff(post))
@@ -58,7 +95,7 @@ class TariffControllerTest {
 
     @Test
     void testUpdateTariffEndpoint_serviceThrows() {
-        TariffController controller = new TariffController(tariffService);
+        TariffController controller = new TariffController(tariffService, calculationStreamer, rateExporter);
         TariffRateDtoPost post = new TariffRateDtoPost();
         when(tariffService.updateTariff(eq(1L), any(TariffRateDtoPost.class))).thenThrow(new RuntimeException("fail"));
         org.assertj.core.api.Assertions.assertThatThrownBy(() -> controller.updateTariff(1L, post))
@@ -67,7 +104,7 @@ class TariffControllerTest {
 
     @Test
     void testDeleteTariffEndpoint_serviceThrows() {
-        TariffController controller = new TariffController(tariffService);
+        TariffController controller = new TariffController(tariffService, calculationStreamer, rateExporter);
         doThrow(new RuntimeException("fail")).when(tariffService).deleteTariff(1L);
         org.assertj.core.api.Assertions.assertThatThrownBy(() -> controller.deleteTariff(1L))
             .isInstanceOf(RuntimeException.class);
@@ -75,7 +112,7 @@ class TariffControllerTest {
 
     @Test
     void testGenerateSummaryEndpoint_serviceThrows() {
-        TariffController controller = new TariffController(tariffService);
+        TariffController controller = new TariffController(tariffService, calculationStreamer, rateExporter);
         TariffCalcResponse resp = new TariffCalcResponse();
         when(tariffService.generateAiSummary(any())).thenThrow(new RuntimeException("fail"));
         org.assertj.core.api.Assertions.assertThatThrownBy(() -> controller.generateSummary(resp))
@@ -84,7 +121,7 @@ class TariffControllerTest {
 
     @Test
     void testCalculateEndpointReturnsResponse() {
-        TariffController controller = new TariffController(tariffService);
+        TariffController controller = new TariffController(tariffService, calculationStreamer, rateExporter);
         TariffCalcRequest req = new TariffCalcRequest();
         req.originCountryCode = "SG";
         req.destinationCountryCode = "MY";
@@ -100,19 +137,23 @@ class TariffControllerTest {
 
     @Test
     void testSearchEndpointReturnsList() {
-        TariffController controller = new TariffController(tariffService);
+        TariffController controller = new TariffController(tariffService, calculationStreamer, rateExporter);
         TariffRateDto dto = new TariffRateDto();
         dto.originCountryCode = "SG";
-        when(tariffService.search(any(), any(), any())).thenReturn(java.util.List.of(dto));
-        var result = controller.search("SG", "MY", "CAT1");
+        TariffRatePage page = new TariffRatePage();
+        page.items = java.util.List.of(dto);
+        page.nextCursor = "next";
+        when(tariffService.search("SG", "MY", "CAT1", 0, 20, "baseRate,desc", null)).thenReturn(page);
+        var result = controller.search("SG", "MY", "CAT1", 0, 20, "baseRate,desc", null);
         assertThat(result.getBody()).isNotNull();
-        assertThat(result.getBody().size()).isEqualTo(1);
-        assertThat(result.getBody().get(0).originCountryCode).isEqualTo("SG");
+        assertThat(result.getBody().items.size()).isEqualTo(1);
+        assertThat(result.getBody().items.get(0).originCountryCode).isEqualTo("SG");
+        assertThat(result.getBody().nextCursor).isEqualTo("next");
     }
 
     @Test
     void testGetAllTariffsEndpointReturnsList() {
-        TariffController controller = new TariffController(tariffService);
+        TariffController controller = new TariffController(tariffService, calculationStreamer, rateExporter);
         TariffRateDto dto = new TariffRateDto();
         dto.originCountryCode = "SG";
         when(tariffService.getAllTariffs()).thenReturn(java.util.List.of(dto));
@@ -123,7 +164,7 @@ class TariffControllerTest {
 
     @Test
     void testCreateTariffEndpointReturnsDto() {
-        TariffController controller = new TariffController(tariffService);
+        TariffController controller = new TariffController(tariffService, calculationStreamer, rateExporter);
         TariffRateDtoPost post = new TariffRateDtoPost();
         TariffRateDto dto = new TariffRateDto();
         dto.originCountryCode = "SG";
@@ -135,7 +176,7 @@ class TariffControllerTest {
 
     @Test
     void testUpdateTariffEndpointReturnsDto() {
-        TariffController controller = new TariffController(tariffService);
+        TariffController controller = new TariffController(tariffService, calculationStreamer, rateExporter);
         TariffRateDtoPost post = new TariffRateDtoPost();
         TariffRateDto dto = new TariffRateDto();
         dto.originCountryCode = "SG";
@@ -147,7 +188,7 @@ class TariffControllerTest {
 
     @Test
     void testDeleteTariffEndpointReturnsNoContent() {
-        TariffController controller = new TariffController(tariffService);
+        TariffController controller = new TariffController(tariffService, calculationStreamer, rateExporter);
         doNothing().when(tariffService).deleteTariff(1L);
         var result = controller.deleteTariff(1L);
         assertThat(result.getStatusCode().is2xxSuccessful()).isTrue();
@@ -155,7 +196,7 @@ class TariffControllerTest {
 
     @Test
     void testGenerateSummaryEndpointReturnsSummary() {
-        TariffController controller = new TariffController(tariffService);
+        TariffController controller = new TariffController(tariffService, calculationStreamer, rateExporter);
         TariffCalcResponse resp = new TariffCalcResponse();
         when(tariffService.generateAiSummary(any())).thenReturn("<p>summary</p>");
         var result = controller.generateSummary(resp);
@@ -169,6 +210,12 @@ class TariffControllerTest {
     @Mock
     private ProductCategoryRepository productCategoryRepository;
 
+    @Mock
+    private com.smu.tariff.tariff.stream.TariffCalculationStreamer calculationStreamer;
+
+    @Mock
+    private com.smu.tariff.tariff.stream.TariffRateExporter rateExporter;
+
     private CalculateTariffController controller;
 
     @BeforeEach
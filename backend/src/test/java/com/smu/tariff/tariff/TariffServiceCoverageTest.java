@@ -1,8 +1,11 @@
 package com.smu.tariff.tariff;
 
+import com.smu.tariff.ai.AiSummaryCache;
+import com.smu.tariff.ai.AiSummaryService;
 import com.smu.tariff.country.CountryRepository;
 import com.smu.tariff.exception.InvalidTariffRequestException;
 import com.smu.tariff.exception.TariffNotFoundException;
+import com.smu.tariff.logging.QueryLogBackpressure;
 import com.smu.tariff.logging.QueryLogService;
 import com.smu.tariff.model.ProductCategory;
 import com.smu.tariff.model.TariffRate;
@@ -10,7 +13,13 @@ import com.smu.tariff.repository.ProductCategoryRepository;
 import com.smu.tariff.repository.TariffRateRepository;
 import com.smu.tariff.tariff.dto.TariffCalcRequest;
 import com.smu.tariff.tariff.dto.TariffCalcResponse;
+import com.smu.tariff.tariff.dto.TariffRateDto;
+import com.smu.tariff.tariff.dto.TariffRatePage;
+import com.smu.tariff.tariff.search.TariffRateCursor;
+import com.smu.tariff.tariff.search.TariffRateSort;
+import com.smu.tariff.tariff.snapshot.RepositoryTariffRateLookup;
 import com.smu.tariff.user.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
@@ -321,6 +330,36 @@ class TariffServiceCoverageTest {
         when(geminiClient.generateSummary(anyString())).thenReturn("AI summary");
         TariffCalcResponse resp = tariffService.calculate(req, true);
         assertThat(resp.aiSummary).contains("AI summary");
+        // Returned inline, so there is no job to poll
+        assertThat(resp.aiSummaryId).isNull();
+        assertThat(resp.aiSummaryStatus).isEqualTo("READY");
+    }
+
+    @Test
+    void testPendingSummaryIdResolvesAndCacheHitIsReturnedInline() {
+        stubRoute();
+        var rate = mock(TariffRate.class);
+        when(rate.getBaseRate()).thenReturn(new BigDecimal("5.0000"));
+        when(rate.getEffectiveFrom()).thenReturn(LocalDate.of(2025, 1, 1));
+        when(tariffRateRepository.findApplicableRates(any(), any(), any(), any())).thenReturn(List.of(rate));
+        when(geminiClient.generateSummary(anyString())).thenReturn("AI summary");
+        List<Runnable> queued = new java.util.ArrayList<>();
+        AiSummaryService summaries = new AiSummaryService(queued::add, java.time.Duration.ofMinutes(15),
+                new AiSummaryCache(10, java.time.Duration.ofHours(1), null, new SimpleMeterRegistry()));
+        TariffService service = service(summaries);
+
+        TariffCalcResponse pending = service.calculate(routeRequest(), true);
+
+        assertThat(pending.aiSummaryStatus).isEqualTo("PENDING");
+        assertThat(pending.aiSummaryId).isNotNull();
+        assertThat(summaries.find(pending.aiSummaryId)).isPresent();
+
+        queued.forEach(Runnable::run);
+        TariffCalcResponse cached = service.calculate(routeRequest(), true);
+
+        assertThat(cached.aiSummaryStatus).isEqualTo("READY");
+        assertThat(cached.aiSummary).contains("AI summary");
+        assertThat(cached.aiSummaryId).isNull();
     }
 
     @Test
@@ -356,6 +395,7 @@ class TariffServiceCoverageTest {
         when(geminiClient.generateSummary(anyString())).thenThrow(new RuntimeException("AI error"));
         TariffCalcResponse resp = tariffService.calculate(req, true);
         assertThat(resp.aiSummary).contains("AI summary unavailable");
+        assertThat(resp.aiSummaryStatus).isEqualTo("FAILED");
     }
 
     @Test
@@ -411,23 +451,63 @@ class TariffServiceCoverageTest {
     }
 
     @Test
-    void testSelectRateForWindowEmptyThrows() {
-        assertThatThrownBy(() -> {
-            java.lang.reflect.Method m = TariffService.class.getDeclaredMethod("selectRateForWindow", List.class, LocalDate.class, LocalDate.class);
-            m.setAccessible(true);
-            m.invoke(tariffService, Collections.emptyList(), null, null);
-        }).hasRootCauseInstanceOf(TariffNotFoundException.class);
+    void testCalculateChargesTheMostRecentRateInForceAtTheWindowStart() {
+        stubRoute();
+        var older = mock(TariffRate.class);
+        when(older.getBaseRate()).thenReturn(new BigDecimal("5.0000"));
+        when(older.getEffectiveFrom()).thenReturn(LocalDate.of(2020, 1, 1));
+        var newer = mock(TariffRate.class);
+        when(newer.getBaseRate()).thenReturn(new BigDecimal("7.0000"));
+        when(newer.getEffectiveFrom()).thenReturn(LocalDate.of(2025, 1, 1));
+        when(tariffRateRepository.findApplicableRates(any(), any(), any(), eq(LocalDate.of(2025, 6, 1))))
+                .thenReturn(List.of(newer, older));
+        TariffCalcRequest req = routeRequest();
+        req.effectiveFrom = "2025-06-01";
+        req.effectiveTo = "2026-06-01";
+
+        TariffCalcResponse resp = tariffService.calculate(req, false);
+
+        assertThat(resp.baseRate).isEqualByComparingTo("7");
+        assertThat(resp.rateEffectiveFrom).isEqualTo("2025-01-01");
+        assertThat(resp.effectiveDate).isEqualTo("2025-06-01");
     }
 
     @Test
-    void testSelectRateForWindowOverlap() throws Exception {
-        var rate = mock(TariffRate.class);
-        when(rate.getEffectiveFrom()).thenReturn(LocalDate.of(2025, 1, 1));
-        when(rate.getEffectiveTo()).thenReturn(LocalDate.of(2025, 12, 31));
-        java.lang.reflect.Method m = TariffService.class.getDeclaredMethod("selectRateForWindow", List.class, LocalDate.class, LocalDate.class);
-        m.setAccessible(true);
-        Object result = m.invoke(tariffService, List.of(rate), LocalDate.of(2025, 6, 1), null);
-        assertThat(result).isEqualTo(rate);
+    void testCalculateWithOnlyWindowEndEvaluatesOnThatDate() {
+        stubRoute();
+        when(tariffRateRepository.findApplicableRates(any(), any(), any(), any())).thenReturn(List.of());
+        TariffCalcRequest req = routeRequest();
+        req.effectiveTo = "2019-12-31";
+
+        assertThatThrownBy(() -> tariffService.calculate(req, false))
+                .isInstanceOf(TariffNotFoundException.class)
+                .hasMessageContaining("2019-12-31");
+        verify(tariffRateRepository).findApplicableRates(any(), any(), any(), eq(LocalDate.of(2019, 12, 31)));
+    }
+
+    private void stubRoute() {
+        var origin = mock(com.smu.tariff.country.Country.class);
+        when(origin.getCode()).thenReturn("SG");
+        var dest = mock(com.smu.tariff.country.Country.class);
+        when(dest.getCode()).thenReturn("MY");
+        var cat = mock(ProductCategory.class);
+        when(cat.getCode()).thenReturn("CAT1");
+        when(cat.getHsCode()).thenReturn("HS123");
+        when(cat.getWeightBased()).thenReturn(false);
+        when(countryRepository.findByCode("SG")).thenReturn(Optional.of(origin));
+        when(countryRepository.findByCode("MY")).thenReturn(Optional.of(dest));
+        when(productCategoryRepository.findByCode("CAT1")).thenReturn(Optional.of(cat));
+        when(productCategoryRepository.findByHsCodeIgnoreCase("HS123")).thenReturn(Optional.of(cat));
+    }
+
+    private static TariffCalcRequest routeRequest() {
+        TariffCalcRequest req = new TariffCalcRequest();
+        req.originCountryCode = "SG";
+        req.destinationCountryCode = "MY";
+        req.hsCode = "HS123";
+        req.productCategoryCode = "CAT1";
+        req.declaredValue = 100.0;
+        return req;
     }
     @Mock TariffRateRepository tariffRateRepository;
     @Mock CountryRepository countryRepository;
@@ -440,13 +520,15 @@ class TariffServiceCoverageTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        tariffService = new TariffService(
-            tariffRateRepository,
-            countryRepository,
-            productCategoryRepository,
-            queryLogService,
-            geminiClient
-        );
+        // Summaries run on the calling thread, so calculate returns them inline
+        tariffService = service(new AiSummaryService(Runnable::run, java.time.Duration.ofMinutes(15)));
+    }
+
+    private TariffService service(AiSummaryService summaries) {
+        return new TariffService(tariffRateRepository, countryRepository, productCategoryRepository,
+                queryLogService, geminiClient,
+                new RepositoryTariffRateLookup(tariffRateRepository, countryRepository, productCategoryRepository),
+                event -> { }, summaries);
     }
 
     @Test
@@ -650,40 +732,6 @@ class TariffServiceCoverageTest {
         assertThat(m.invoke(tariffService, " ")).isNull();
     }
 
-    @Test
-    void testSelectRateForWindowReturnsFirstIfNoOverlap() throws Exception {
-        var rate1 = mock(TariffRate.class);
-        when(rate1.getEffectiveFrom()).thenReturn(LocalDate.of(2020, 1, 1));
-        when(rate1.getEffectiveTo()).thenReturn(LocalDate.of(2020, 12, 31));
-        java.lang.reflect.Method m = TariffService.class.getDeclaredMethod("selectRateForWindow", List.class, LocalDate.class, LocalDate.class);
-        m.setAccessible(true);
-        Object result = m.invoke(tariffService, List.of(rate1), LocalDate.of(2022, 1, 1), LocalDate.of(2022, 12, 31));
-        assertThat(result).isEqualTo(rate1);
-    }
-
-    @Test
-    void testOverlapsRequestedWindowAllNulls() throws Exception {
-        var rate = mock(TariffRate.class);
-        when(rate.getEffectiveFrom()).thenReturn(null);
-        when(rate.getEffectiveTo()).thenReturn(null);
-        java.lang.reflect.Method m = TariffService.class.getDeclaredMethod("overlapsRequestedWindow", TariffRate.class, LocalDate.class, LocalDate.class);
-        m.setAccessible(true);
-        assertThat(m.invoke(tariffService, rate, null, null)).isEqualTo(true);
-    }
-
-    @Test
-    void testOverlapsRequestedWindowNoOverlap() throws Exception {
-        var rate = mock(TariffRate.class);
-        when(rate.getEffectiveFrom()).thenReturn(LocalDate.of(2020, 1, 1));
-        when(rate.getEffectiveTo()).thenReturn(LocalDate.of(2020, 12, 31));
-        java.lang.reflect.Method m = TariffService.class.getDeclaredMethod("overlapsRequestedWindow", TariffRate.class, LocalDate.class, LocalDate.class);
-        m.setAccessible(true);
-        // Window after rate
-        assertThat(m.invoke(tariffService, rate, LocalDate.of(2021, 1, 1), LocalDate.of(2021, 12, 31))).isEqualTo(false);
-        // Window before rate
-        assertThat(m.invoke(tariffService, rate, LocalDate.of(2018, 1, 1), LocalDate.of(2018, 12, 31))).isEqualTo(false);
-    }
-
     @Test
     void testNormalizeAiSummaryNullAndEmpty() throws Exception {
         java.lang.reflect.Method m = TariffService.class.getDeclaredMethod("normalizeAiSummary", String.class);
@@ -724,4 +772,184 @@ class TariffServiceCoverageTest {
         when(productCategoryRepository.findByCode(anyString())).thenReturn(Optional.empty());
         assertThatThrownBy(() -> m.invoke(tariffService, dto)).hasRootCauseInstanceOf(InvalidTariffRequestException.class);
     }
+
+    @Test
+    void testCalculateBatchReportsPerLineResultsAndLogsOnce() {
+        var origin = mock(com.smu.tariff.country.Country.class);
+        when(origin.getCode()).thenReturn("SG");
+        var dest = mock(com.smu.tariff.country.Country.class);
+        when(dest.getCode()).thenReturn("MY");
+        var cat = mock(ProductCategory.class);
+        when(cat.getId()).thenReturn(1L);
+        when(cat.getCode()).thenReturn("CAT1");
+        when(cat.getHsCode()).thenReturn("HS123");
+        when(cat.getWeightBased()).thenReturn(false);
+        when(countryRepository.findByCode("SG")).thenReturn(Optional.of(origin));
+        when(countryRepository.findByCode("MY")).thenReturn(Optional.of(dest));
+        when(countryRepository.findByCode("XX")).thenReturn(Optional.empty());
+        when(productCategoryRepository.findByHsCodeIgnoreCase("HS123")).thenReturn(Optional.of(cat));
+        var rate = mock(TariffRate.class);
+        when(rate.getBaseRate()).thenReturn(new BigDecimal("5.0000"));
+        when(rate.getAdditionalFee()).thenReturn(new BigDecimal("10.00"));
+        when(tariffRateRepository.findApplicableRates(any(), any(), any(), any())).thenReturn(List.of(rate));
+
+        TariffCalcRequest good = new TariffCalcRequest();
+        good.originCountryCode = "SG";
+        good.destinationCountryCode = "MY";
+        good.hsCode = "HS123";
+        good.declaredValue = 100.0;
+        TariffCalcRequest unknownOrigin = new TariffCalcRequest();
+        unknownOrigin.originCountryCode = "XX";
+        unknownOrigin.destinationCountryCode = "MY";
+        unknownOrigin.hsCode = "HS123";
+        unknownOrigin.declaredValue = 100.0;
+
+        var batch = tariffService.calculateBatch(java.util.Arrays.asList(good, unknownOrigin, null));
+
+        assertThat(batch.total).isEqualTo(3);
+        assertThat(batch.succeeded).isEqualTo(1);
+        assertThat(batch.failed).isEqualTo(2);
+        assertThat(batch.lines.get(0).status).isEqualTo("OK");
+        assertThat(batch.lines.get(0).result.totalCost).isEqualByComparingTo("115.00");
+        assertThat(batch.lines.get(1).status).isEqualTo("ERROR");
+        assertThat(batch.lines.get(1).error).contains("Unknown origin country code");
+        assertThat(batch.lines.get(2).index).isEqualTo(2);
+        verify(queryLogService, times(1)).logAll(argThat(entries -> entries.size() == 1));
+        verify(queryLogService, never()).log(anyString(), anyString(), any(), any(), any());
+        verifyNoInteractions(geminiClient);
+    }
+
+    @Test
+    void testCalculateBatchWithBackpressureQueuesLogsWithThatPolicy() {
+        var batch = tariffService.calculateBatch(java.util.Arrays.asList((TariffCalcRequest) null),
+                QueryLogBackpressure.BLOCK);
+
+        assertThat(batch.failed).isEqualTo(1);
+        verify(queryLogService).logAll(argThat(List::isEmpty), eq(QueryLogBackpressure.BLOCK));
+        verify(queryLogService, never()).logAll(anyList());
+    }
+
+    @Test
+    void testCalculateBatchRejectsEmptyAndOversizedBatches() {
+        assertThatThrownBy(() -> tariffService.calculateBatch(List.of()))
+            .isInstanceOf(InvalidTariffRequestException.class);
+        List<TariffCalcRequest> tooMany = Collections.nCopies(TariffService.MAX_BATCH_LINES + 1, new TariffCalcRequest());
+        assertThatThrownBy(() -> tariffService.calculateBatch(tooMany))
+            .isInstanceOf(InvalidTariffRequestException.class);
+    }
+
+    @Test
+    void testSummaryCacheKeyBucketsDeclaredValueAndWeight() throws Exception {
+        java.lang.reflect.Method m = TariffService.class.getDeclaredMethod("summaryCacheKey", TariffCalcResponse.class);
+        m.setAccessible(true);
+        TariffCalcResponse a = summaryResponse("1234.56", 2.04);
+        TariffCalcResponse b = summaryResponse("1210.00", 1.96);
+        TariffCalcResponse c = summaryResponse("1290.00", 2.04);
+        TariffCalcResponse d = summaryResponse("1234.56", 2.04);
+        d.baseRate = new BigDecimal("7.5000");
+
+        assertThat(m.invoke(tariffService, a)).isEqualTo(m.invoke(tariffService, b));
+        assertThat(m.invoke(tariffService, a)).isNotEqualTo(m.invoke(tariffService, c));
+        assertThat(m.invoke(tariffService, a)).isNotEqualTo(m.invoke(tariffService, d));
+    }
+
+    @Test
+    void testAiPromptUsesOnlyBucketedKeyFields() throws Exception {
+        java.lang.reflect.Method m = TariffService.class.getDeclaredMethod("buildAiPrompt", TariffCalcResponse.class);
+        m.setAccessible(true);
+        TariffCalcResponse a = summaryResponse("1234.56", 2.04);
+        a.declaredValue = new BigDecimal("2518.50");
+        a.tariffAmount = new BigDecimal("125.93");
+        a.totalCost = new BigDecimal("2654.43");
+        TariffCalcResponse b = summaryResponse("1210.00", 1.96);
+        b.declaredValue = new BigDecimal("2371.60");
+        b.tariffAmount = new BigDecimal("118.58");
+        b.totalCost = new BigDecimal("2500.18");
+
+        String prompt = (String) m.invoke(tariffService, a);
+
+        // Same cache bucket, so the cached summary must be one either caller could have been given
+        assertThat(prompt).isEqualTo(m.invoke(tariffService, b));
+        assertThat(prompt).contains("declared value per unit (USD): 1200").contains("weight applied (kg): 2");
+        assertThat(prompt).doesNotContain("1234.56", "2518.50", "125.93", "2654.43");
+    }
+
+    @Test
+    void testSearchFetchesOneExtraRowAndReturnsCursor() {
+        com.smu.tariff.country.Country sg = mock(com.smu.tariff.country.Country.class);
+        when(sg.getId()).thenReturn(11L);
+        when(countryRepository.findByCode("SGP")).thenReturn(Optional.of(sg));
+        List<TariffRateDto> rows = List.of(rateRow(9L, "2025-03-01"), rateRow(8L, "2025-02-01"), rateRow(7L, "2025-01-01"));
+        when(tariffRateRepository.searchRates(eq(11L), isNull(), isNull(), eq(TariffRateSort.EFFECTIVE_FROM_DESC),
+                isNull(), eq(2), eq(3))).thenReturn(rows);
+
+        TariffRatePage page = tariffService.search("sgp", null, " ", 1, 2, null, null);
+
+        assertThat(page.items).extracting(r -> r.id).containsExactly(9L, 8L);
+        assertThat(page.page).isEqualTo(1);
+        assertThat(page.sort).isEqualTo("effectiveFrom,desc");
+        TariffRateCursor next = TariffRateCursor.decode(page.nextCursor, TariffRateSort.EFFECTIVE_FROM_DESC);
+        assertThat(next.id()).isEqualTo(8L);
+        assertThat(next.key()).isEqualTo(LocalDate.parse("2025-02-01"));
+    }
+
+    @Test
+    void testSearchWithCursorSeeksInsteadOfSkipping() {
+        String cursor = new TariffRateCursor(TariffRateSort.BASE_RATE_ASC, new BigDecimal("5.0000"), 4L).encode();
+        when(tariffRateRepository.searchRates(any(), any(), any(), any(), any(), anyInt(), anyInt()))
+                .thenReturn(List.of(rateRow(5L, "2025-01-01")));
+
+        TariffRatePage page = tariffService.search(null, null, null, 3, 10, "baseRate,asc", cursor);
+
+        verify(tariffRateRepository).searchRates(isNull(), isNull(), isNull(), eq(TariffRateSort.BASE_RATE_ASC),
+                argThat(c -> c.id() == 4L && new BigDecimal("5").compareTo((BigDecimal) c.key()) == 0), anyInt(), eq(11));
+        assertThat(page.items).hasSize(1);
+        assertThat(page.nextCursor).isNull();
+    }
+
+    @Test
+    void testSearchRejectsBadPagingArguments() {
+        assertThatThrownBy(() -> tariffService.search(null, null, null, 0, 0, null, null))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> tariffService.search(null, null, null, 0, 201, null, null))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> tariffService.search(null, null, null, 0, 10, "hsCode", null))
+            .isInstanceOf(IllegalArgumentException.class);
+        String idCursor = new TariffRateCursor(TariffRateSort.ID_ASC, 4L, 4L).encode();
+        assertThatThrownBy(() -> tariffService.search(null, null, null, 0, 10, null, idCursor))
+            .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(tariffRateRepository);
+    }
+
+    @Test
+    void testSearchRejectsPagesWhoseOffsetOverflows() {
+        assertThatThrownBy(() -> tariffService.search(null, null, null, 20_000_000, 200, null, null))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("page is too large");
+        verifyNoInteractions(tariffRateRepository);
+
+        when(tariffRateRepository.searchRates(any(), any(), any(), any(), any(), anyInt(), anyInt())).thenReturn(List.of());
+        tariffService.search(null, null, null, Integer.MAX_VALUE / 200, 200, null, null);
+        verify(tariffRateRepository).searchRates(isNull(), isNull(), isNull(), any(), isNull(),
+                eq(Integer.MAX_VALUE / 200 * 200), eq(201));
+    }
+
+    private static TariffRateDto rateRow(Long id, String effectiveFrom) {
+        return new TariffRateDto(id, "SGP", "USA", "ELEC", "Electronics", "8517", false, 0f,
+                new BigDecimal("5.0000"), new BigDecimal("1.00"), LocalDate.parse(effectiveFrom), null);
+    }
+
+    private static TariffCalcResponse summaryResponse(String declaredPerUnit, Double weight) {
+        TariffCalcResponse resp = new TariffCalcResponse();
+        resp.originCountryCode = "SGP";
+        resp.destinationCountryCode = "USA";
+        resp.hsCode = "8517";
+        resp.productCategoryCode = "ELEC";
+        resp.rateEffectiveFrom = "2024-01-01";
+        resp.declaredValuePerUnit = new BigDecimal(declaredPerUnit);
+        resp.weight = weight;
+        resp.baseRate = new BigDecimal("5.0000");
+        resp.additionalFee = new BigDecimal("10.00");
+        return resp;
+    }
 }
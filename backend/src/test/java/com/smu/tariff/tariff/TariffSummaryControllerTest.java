@@ -0,0 +1,42 @@
+package com.smu.tariff.tariff;
+
+import com.smu.tariff.ai.AiSummaryJob;
+import com.smu.tariff.ai.AiSummaryService;
+import com.smu.tariff.exception.TariffNotFoundException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TariffSummaryControllerTest {
+
+    @Test
+    void getSummaryReportsPendingThenReady() {
+        List<Runnable> queued = new ArrayList<>();
+        AiSummaryService service = new AiSummaryService(queued::add, Duration.ofMinutes(5));
+        TariffSummaryController controller = new TariffSummaryController(service);
+        AiSummaryJob job = service.submit(() -> "<p>ok</p>");
+
+        var pending = controller.getSummary(job.getId()).getBody();
+        assertThat(pending.status).isEqualTo("PENDING");
+        assertThat(pending.aiSummary).isNull();
+
+        queued.forEach(Runnable::run);
+        var ready = controller.getSummary(job.getId()).getBody();
+        assertThat(ready.status).isEqualTo("READY");
+        assertThat(ready.aiSummary).isEqualTo("<p>ok</p>");
+    }
+
+    @Test
+    void unknownSummaryIsNotFound() {
+        TariffSummaryController controller = new TariffSummaryController(new AiSummaryService(Runnable::run, Duration.ofMinutes(5)));
+        assertThatThrownBy(() -> controller.getSummary("missing"))
+            .isInstanceOf(TariffNotFoundException.class);
+        assertThatThrownBy(() -> controller.streamSummary("missing"))
+            .isInstanceOf(TariffNotFoundException.class);
+    }
+}
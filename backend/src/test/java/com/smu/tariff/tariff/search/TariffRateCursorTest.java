@@ -0,0 +1,52 @@
+package com.smu.tariff.tariff.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+import com.smu.tariff.tariff.dto.TariffRateDto;
+
+class TariffRateCursorTest {
+
+    @Test
+    void sortParsesPropertyAndDirection() {
+        assertThat(TariffRateSort.parse(null)).isEqualTo(TariffRateSort.EFFECTIVE_FROM_DESC);
+        assertThat(TariffRateSort.parse("baseRate")).isEqualTo(TariffRateSort.BASE_RATE_ASC);
+        assertThat(TariffRateSort.parse(" BaseRate , DESC ")).isEqualTo(TariffRateSort.BASE_RATE_DESC);
+        assertThat(TariffRateSort.parse("id,desc").label()).isEqualTo("id,desc");
+        assertThatThrownBy(() -> TariffRateSort.parse("baseRate,sideways")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> TariffRateSort.parse("origin")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void cursorRoundTripsTheSortKeyOfTheLastRow() {
+        TariffRateDto row = new TariffRateDto(42L, "SGP", "USA", "ELEC", "Electronics", "8517", false, 0f,
+                new BigDecimal("7.2500"), BigDecimal.ONE, LocalDate.of(2025, 6, 1), null);
+
+        TariffRateCursor byDate = TariffRateCursor.decode(
+                TariffRateCursor.after(TariffRateSort.EFFECTIVE_FROM_DESC, row).encode(), TariffRateSort.EFFECTIVE_FROM_DESC);
+        TariffRateCursor byRate = TariffRateCursor.decode(
+                TariffRateCursor.after(TariffRateSort.BASE_RATE_ASC, row).encode(), TariffRateSort.BASE_RATE_ASC);
+
+        assertThat(byDate.key()).isEqualTo(LocalDate.of(2025, 6, 1));
+        assertThat(byDate.id()).isEqualTo(42L);
+        assertThat(byRate.key()).isEqualTo(new BigDecimal("7.2500"));
+    }
+
+    @Test
+    void cursorRejectsGarbageAndOtherSorts() {
+        String token = new TariffRateCursor(TariffRateSort.ID_ASC, 5L, 5L).encode();
+
+        assertThatThrownBy(() -> TariffRateCursor.decode(token, TariffRateSort.ID_DESC))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> TariffRateCursor.decode("not base64!", TariffRateSort.ID_ASC))
+                .isInstanceOf(IllegalArgumentException.class);
+        String badKey = new TariffRateCursor(TariffRateSort.BASE_RATE_ASC, "abc", 1L).encode();
+        assertThatThrownBy(() -> TariffRateCursor.decode(badKey, TariffRateSort.BASE_RATE_ASC))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,143 @@
+package com.smu.tariff.tariff.snapshot;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.smu.tariff.country.Country;
+import com.smu.tariff.model.ProductCategory;
+import com.smu.tariff.model.TariffRate;
+
+/**
+ * Compares the rate lookup TariffService.calculate makes today ({@link TariffRateSnapshot#findRateAt}, a route
+ * map hit then the interval index) with the stream-filter resolution it used before: every rate in force on the
+ * date, sorted newest first, then the first one overlapping the requested window.
+ * Not run by surefire; launch with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.smu.tariff.tariff.snapshot.RateIntervalIndexBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateIntervalIndexBenchmark {
+
+    private static final int ROUTES = 64;
+    private static final LocalDate FIRST = LocalDate.of(1990, 1, 1);
+
+    @Param({"5", "50", "500"})
+    public int revisions;
+
+    private Country[] origins;
+    private Country destination;
+    private ProductCategory category;
+    private List<List<TariffRate>> histories;
+    private TariffRateSnapshot snapshot;
+    private int[] probeRoutes;
+    private LocalDate[] probeDates;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(7);
+        destination = withId(new Country("USA", "United States"), 0L);
+        category = withId(new ProductCategory("ELEC", "Electronics", "8517", false), 1L);
+        origins = new Country[ROUTES];
+        histories = new ArrayList<>();
+        List<Country> countries = new ArrayList<>(List.of(destination));
+        List<TariffRate> all = new ArrayList<>();
+        long lastDay = Long.MAX_VALUE;
+        long id = 1;
+        for (int route = 0; route < ROUTES; route++) {
+            origins[route] = withId(new Country("C" + route, "Country " + route), route + 1L);
+            countries.add(origins[route]);
+            List<TariffRate> history = new ArrayList<>();
+            LocalDate from = FIRST;
+            for (int i = 0; i < revisions; i++) {
+                LocalDate next = from.plusDays(30 + random.nextInt(60));
+                LocalDate to = i == revisions - 1 ? null : next.minusDays(1);
+                history.add(withId(new TariffRate(origins[route], destination, category, BigDecimal.ONE,
+                        BigDecimal.ZERO, from, to), id++));
+                from = next;
+            }
+            lastDay = Math.min(lastDay, from.toEpochDay());
+            histories.add(history);
+            all.addAll(history);
+        }
+        snapshot = TariffRateSnapshot.build(1L, countries, List.of(category), all);
+
+        probeRoutes = new int[1024];
+        probeDates = new LocalDate[1024];
+        long span = lastDay - FIRST.toEpochDay();
+        for (int i = 0; i < probeDates.length; i++) {
+            probeRoutes[i] = random.nextInt(ROUTES);
+            probeDates[i] = FIRST.plusDays((long) (random.nextDouble() * span));
+        }
+    }
+
+    @Benchmark
+    public TariffRate streamFilter() {
+        int probe = nextProbe();
+        LocalDate date = probeDates[probe];
+        List<TariffRate> applicable = histories.get(probeRoutes[probe]).stream()
+                .filter(r -> !r.getEffectiveFrom().isAfter(date))
+                .filter(r -> r.getEffectiveTo() == null || !r.getEffectiveTo().isBefore(date))
+                .sorted(Comparator.comparing(TariffRate::getEffectiveFrom).reversed())
+                .collect(Collectors.toList());
+        return applicable.stream()
+                .filter(r -> overlaps(r, date, null))
+                .findFirst()
+                .orElse(applicable.isEmpty() ? null : applicable.get(0));
+    }
+
+    @Benchmark
+    public TariffRate snapshotLookup() {
+        int probe = nextProbe();
+        return snapshot.findRateAt(origins[probeRoutes[probe]], destination, category, probeDates[probe]).orElse(null);
+    }
+
+    private int nextProbe() {
+        cursor = (cursor + 1) & (probeDates.length - 1);
+        return cursor;
+    }
+
+    private static boolean overlaps(TariffRate rate, LocalDate from, LocalDate to) {
+        LocalDate windowStart = from != null ? from : LocalDate.MIN;
+        LocalDate windowEnd = to != null ? to : LocalDate.MAX;
+        LocalDate rateEnd = rate.getEffectiveTo() != null ? rate.getEffectiveTo() : LocalDate.MAX;
+        return !rate.getEffectiveFrom().isAfter(windowEnd) && !rateEnd.isBefore(windowStart);
+    }
+
+    private static <T> T withId(T entity, Long id) {
+        ReflectionTestUtils.setField(entity, "id", id);
+        return entity;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RateIntervalIndexBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
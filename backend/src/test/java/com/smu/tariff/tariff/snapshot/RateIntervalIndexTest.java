@@ -0,0 +1,95 @@
+package com.smu.tariff.tariff.snapshot;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import com.smu.tariff.model.TariffRate;
+
+class RateIntervalIndexTest {
+
+    private static final LocalDate BASE = LocalDate.of(2000, 1, 1);
+
+    @Test
+    void emptyIndexAnswersNothing() {
+        RateIntervalIndex index = RateIntervalIndex.of(List.of());
+        assertThat(index.size()).isZero();
+        assertThat(index.rateAt(BASE)).isEmpty();
+        assertThat(index.ratesAt(BASE)).isEmpty();
+        assertThat(index.overlapping(null, null)).isEmpty();
+    }
+
+    @Test
+    void consecutiveRevisionsResolveToTheRevisionInForce() {
+        TariffRate first = rate(BASE, BASE.plusYears(1).minusDays(1));
+        TariffRate second = rate(BASE.plusYears(1), BASE.plusYears(2).minusDays(1));
+        TariffRate current = rate(BASE.plusYears(2), null);
+        RateIntervalIndex index = RateIntervalIndex.of(List.of(first, second, current));
+
+        assertThat(index.rateAt(BASE.minusDays(1))).isEmpty();
+        assertThat(index.rateAt(BASE.plusMonths(6))).contains(first);
+        assertThat(index.rateAt(BASE.plusYears(1))).contains(second);
+        assertThat(index.rateAt(BASE.plusYears(50))).contains(current);
+        assertThat(index.overlapping(BASE.plusMonths(6), BASE.plusYears(1).plusMonths(6))).containsExactly(second, first);
+        assertThat(index.overlapping(null, BASE)).containsExactly(first);
+        assertThat(index.overlapping(BASE.plusYears(3), BASE)).isEmpty();
+    }
+
+    @Test
+    void matchesLinearScanOnRandomOverlappingHistories() {
+        Random random = new Random(42);
+        for (int round = 0; round < 200; round++) {
+            List<TariffRate> rates = randomHistory(random, 1 + random.nextInt(40));
+            RateIntervalIndex index = RateIntervalIndex.of(rates);
+
+            for (int probe = 0; probe < 50; probe++) {
+                LocalDate date = BASE.plusDays(random.nextInt(4000) - 200);
+                List<TariffRate> expected = scanInForce(rates, date);
+                assertThat(index.ratesAt(date)).containsExactlyElementsOf(expected);
+                assertThat(index.rateAt(date).orElse(null)).isEqualTo(expected.isEmpty() ? null : expected.get(0));
+
+                LocalDate windowEnd = date.plusDays(random.nextInt(400));
+                assertThat(index.overlapping(date, windowEnd)).containsExactlyElementsOf(scanOverlapping(rates, date, windowEnd));
+            }
+        }
+    }
+
+    private static List<TariffRate> randomHistory(Random random, int size) {
+        List<TariffRate> rates = new ArrayList<>();
+        LocalDate from = BASE;
+        for (int i = 0; i < size; i++) {
+            from = from.plusDays(1 + random.nextInt(120));
+            LocalDate to = random.nextInt(4) == 0 ? null : from.plusDays(random.nextInt(500));
+            rates.add(rate(from, to));
+        }
+        return rates;
+    }
+
+    private static List<TariffRate> scanInForce(List<TariffRate> rates, LocalDate date) {
+        return rates.stream()
+                .filter(r -> !r.getEffectiveFrom().isAfter(date))
+                .filter(r -> r.getEffectiveTo() == null || !r.getEffectiveTo().isBefore(date))
+                .sorted(Comparator.comparing(TariffRate::getEffectiveFrom).reversed())
+                .collect(Collectors.toList());
+    }
+
+    private static List<TariffRate> scanOverlapping(List<TariffRate> rates, LocalDate from, LocalDate to) {
+        return rates.stream()
+                .filter(r -> !r.getEffectiveFrom().isAfter(to))
+                .filter(r -> r.getEffectiveTo() == null || !r.getEffectiveTo().isBefore(from))
+                .sorted(Comparator.comparing(TariffRate::getEffectiveFrom).reversed())
+                .collect(Collectors.toList());
+    }
+
+    private static TariffRate rate(LocalDate from, LocalDate to) {
+        return new TariffRate(null, null, null, BigDecimal.ONE, BigDecimal.ZERO, from, to);
+    }
+}
@@ -0,0 +1,88 @@
+package com.smu.tariff.tariff.snapshot;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.smu.tariff.country.Country;
+import com.smu.tariff.model.ProductCategory;
+import com.smu.tariff.model.TariffRate;
+
+class TariffRateSnapshotTest {
+
+    private Country singapore;
+    private Country unitedStates;
+    private ProductCategory electronics;
+    private TariffRate rate2023;
+    private TariffRate rate2024;
+    private TariffRate zeroRate;
+    private TariffRateSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        singapore = withId(new Country("SGP", "Singapore"), 1L);
+        unitedStates = withId(new Country("USA", "United States"), 2L);
+        electronics = withId(new ProductCategory("ELEC", "Electronics", "8517", false), 10L);
+
+        rate2023 = withId(new TariffRate(singapore, unitedStates, electronics,
+                new BigDecimal("5.0000"), new BigDecimal("1.00"), LocalDate.of(2023, 1, 1), LocalDate.of(2023, 12, 31)), 100L);
+        rate2024 = withId(new TariffRate(singapore, unitedStates, electronics,
+                new BigDecimal("7.5000"), new BigDecimal("2.00"), LocalDate.of(2024, 1, 1), null), 101L);
+        zeroRate = withId(new TariffRate(unitedStates, singapore, electronics,
+                BigDecimal.ZERO, BigDecimal.ZERO, LocalDate.of(2025, 1, 1), null), 102L);
+
+        snapshot = TariffRateSnapshot.build(3L,
+                List.of(singapore, unitedStates),
+                List.of(electronics),
+                List.of(rate2024, zeroRate, rate2023));
+    }
+
+    @Test
+    void resolvesReferenceDataCaseInsensitively() {
+        assertThat(snapshot.getVersion()).isEqualTo(3L);
+        assertThat(snapshot.findCountry("sgp")).contains(singapore);
+        assertThat(snapshot.findCategoryByCode("elec")).contains(electronics);
+        assertThat(snapshot.findCategoryByHsCode(" 8517 ")).contains(electronics);
+        assertThat(snapshot.findCountry("XXX")).isEmpty();
+    }
+
+    @Test
+    void keepsRouteRatesSortedByEffectiveFrom() {
+        assertThat(snapshot.ratesForRoute(singapore, unitedStates, electronics)).containsExactly(rate2023, rate2024);
+        assertThat(snapshot.getRouteCount()).isEqualTo(2);
+        assertThat(snapshot.getRateCount()).isEqualTo(3);
+    }
+
+    @Test
+    void findRateAtMatchesRepositorySemantics() {
+        assertThat(snapshot.findRateAt(singapore, unitedStates, electronics, LocalDate.of(2023, 6, 1)))
+                .contains(rate2023);
+        assertThat(snapshot.findRateAt(singapore, unitedStates, electronics, LocalDate.of(2030, 1, 1)))
+                .contains(rate2024);
+        assertThat(snapshot.findRateAt(singapore, unitedStates, electronics, LocalDate.of(2022, 1, 1)))
+                .isEmpty();
+    }
+
+    @Test
+    void fallbackRateIsLatestPositiveRateForCategory() {
+        assertThat(snapshot.findFallbackRate(electronics)).contains(rate2024);
+    }
+
+    @Test
+    void unknownOrUnsavedEntitiesDoNotMatch() {
+        Country unsaved = new Country("SGP", "Singapore");
+        assertThat(snapshot.findRateAt(unsaved, unitedStates, electronics, LocalDate.of(2024, 1, 1))).isEmpty();
+        assertThat(TariffRateSnapshot.empty(1L).findFallbackRate(electronics)).isEmpty();
+    }
+
+    private static <T> T withId(T entity, Long id) {
+        ReflectionTestUtils.setField(entity, "id", id);
+        return entity;
+    }
+}
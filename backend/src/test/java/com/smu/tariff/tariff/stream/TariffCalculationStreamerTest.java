@@ -0,0 +1,231 @@
+package com.smu.tariff.tariff.stream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smu.tariff.exception.InvalidTariffRequestException;
+import com.smu.tariff.logging.QueryLogBackpressure;
+import com.smu.tariff.tariff.TariffService;
+import com.smu.tariff.tariff.dto.TariffBatchCalcResponse;
+import com.smu.tariff.tariff.dto.TariffBatchLineResult;
+import com.smu.tariff.tariff.dto.TariffCalcRequest;
+import com.smu.tariff.tariff.dto.TariffCalcResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class TariffCalculationStreamerTest {
+
+    static final int MAX_LINE_LENGTH = 200;
+
+    @Mock TariffService tariffService;
+
+    ObjectMapper mapper = new ObjectMapper();
+    TariffCalculationStreamer streamer;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        streamer = new TariffCalculationStreamer(tariffService, mapper, MAX_LINE_LENGTH);
+        // Echo each line back as a priced result, or as an error for null (unparsable) lines
+        when(tariffService.calculateBatch(anyList(), eq(QueryLogBackpressure.WAIT))).thenAnswer(inv -> {
+            List<TariffCalcRequest> lines = inv.getArgument(0);
+            TariffBatchCalcResponse batch = new TariffBatchCalcResponse();
+            for (int i = 0; i < lines.size(); i++) {
+                TariffBatchLineResult line = new TariffBatchLineResult();
+                line.index = i;
+                if (lines.get(i) == null) {
+                    line.status = "ERROR";
+                    line.error = "Calculation line is required";
+                } else {
+                    TariffCalcResponse resp = new TariffCalcResponse();
+                    resp.originCountryCode = lines.get(i).originCountryCode;
+                    resp.totalCost = BigDecimal.valueOf(lines.get(i).declaredValue);
+                    line.status = "OK";
+                    line.result = resp;
+                }
+                batch.lines.add(line);
+            }
+            batch.total = lines.size();
+            return batch;
+        });
+    }
+
+    @Test
+    void ndjsonIsProcessedInBoundedChunksWithGlobalIndexes() throws Exception {
+        int count = TariffCalculationStreamer.CHUNK_SIZE + 3;
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            body.append("{\"originCountryCode\":\"SGP\",\"destinationCountryCode\":\"USA\",\"hsCode\":\"8517\",\"declaredValue\":")
+                .append(i + 1).append("}\n");
+        }
+        body.append("\n");
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long priced = streamer.stream(input(body.toString()), ManifestFormat.NDJSON, out, ManifestFormat.NDJSON);
+
+        assertThat(priced).isEqualTo(count);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<TariffCalcRequest>> chunks = ArgumentCaptor.forClass(List.class);
+        verify(tariffService, times(2)).calculateBatch(chunks.capture(), eq(QueryLogBackpressure.WAIT));
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(count);
+        JsonNode last = mapper.readTree(lines[count - 1]);
+        assertThat(last.get("index").asInt()).isEqualTo(count - 1);
+        assertThat(last.get("result").get("totalCost").decimalValue()).isEqualByComparingTo(BigDecimal.valueOf(count));
+    }
+
+    @Test
+    void malformedNdjsonLineIsReportedWithoutStoppingTheStream() throws Exception {
+        String body = "{\"originCountryCode\":\"SGP\",\"declaredValue\":10}\n{not json\n";
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        streamer.stream(input(body), ManifestFormat.NDJSON, out, ManifestFormat.NDJSON);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(mapper.readTree(lines[0]).get("status").asText()).isEqualTo("OK");
+        JsonNode bad = mapper.readTree(lines[1]);
+        assertThat(bad.get("status").asText()).isEqualTo("ERROR");
+        assertThat(bad.get("error").asText()).startsWith("Malformed JSON line");
+    }
+
+    @Test
+    void csvInputIsMappedByHeaderAndWrittenAsCsv() throws Exception {
+        String body = "hsCode,declaredValue,originCountryCode,destinationCountryCode\n"
+                + "8517,100,SGP,USA\n"
+                + "8517,abc,SGP,USA\n";
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        streamer.stream(input(body), ManifestFormat.CSV, out, ManifestFormat.CSV);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines[0]).isEqualTo(String.join(",", TariffCalculationStreamer.CSV_OUTPUT_COLUMNS));
+        assertThat(lines[1]).startsWith("0,OK,SGP,").contains(",100.0,");
+        assertThat(lines[2]).startsWith("1,ERROR,").endsWith("Invalid number for declaredValue: abc");
+    }
+
+    @Test
+    void csvWithoutRequiredColumnsIsRejectedBeforeAnyOutput() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertThatThrownBy(() -> streamer.stream(input("hsCode,declaredValue\n8517,1\n"), ManifestFormat.CSV, out, ManifestFormat.NDJSON))
+            .isInstanceOf(InvalidTariffRequestException.class)
+            .hasMessageContaining("originCountryCode");
+        assertThat(out.size()).isZero();
+        verifyNoInteractions(tariffService);
+    }
+
+    @Test
+    void crlfLineEndingsAreAccepted() throws Exception {
+        String body = "originCountryCode,destinationCountryCode,hsCode,declaredValue\r\n"
+                + "SGP,USA,8517,5\r\n"
+                + "\r\n"
+                + "SGP,USA,8517,6";
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long priced = streamer.stream(input(body), ManifestFormat.CSV, out, ManifestFormat.NDJSON);
+
+        assertThat(priced).isEqualTo(2);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(mapper.readTree(lines[1]).get("result").get("totalCost").decimalValue()).isEqualByComparingTo("6");
+    }
+
+    @Test
+    void lineLongerThanTheLimitRejectsTheManifest() {
+        String body = "{\"originCountryCode\":\"SGP\",\"declaredValue\":10}\n"
+                + "{\"hsCode\":\"" + "8".repeat(MAX_LINE_LENGTH) + "\"}\n"
+                + "{\"originCountryCode\":\"SGP\",\"declaredValue\":20}\n";
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertThatThrownBy(() -> streamer.stream(input(body), ManifestFormat.NDJSON, out, ManifestFormat.NDJSON))
+            .isInstanceOf(InvalidTariffRequestException.class)
+            .hasMessageContaining(String.valueOf(MAX_LINE_LENGTH));
+        verifyNoInteractions(tariffService);
+    }
+
+    @Test
+    void lineLongerThanTheLimitAfterTheFirstChunkEndsTheStreamWithAnErrorLine() throws Exception {
+        int valid = TariffCalculationStreamer.CHUNK_SIZE + 2;
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < valid; i++) {
+            body.append("{\"originCountryCode\":\"SGP\",\"declaredValue\":").append(i + 1).append("}\n");
+        }
+        body.append("{\"hsCode\":\"").append("8".repeat(MAX_LINE_LENGTH)).append("\"}\n");
+        body.append("{\"originCountryCode\":\"SGP\",\"declaredValue\":1}\n");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long priced = streamer.stream(input(body.toString()), ManifestFormat.NDJSON, out, ManifestFormat.NDJSON);
+
+        assertThat(priced).isEqualTo(valid);
+        verify(tariffService, times(2)).calculateBatch(anyList(), eq(QueryLogBackpressure.WAIT));
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(valid + 1);
+        assertThat(mapper.readTree(lines[valid - 1]).get("status").asText()).isEqualTo("OK");
+        JsonNode last = mapper.readTree(lines[valid]);
+        assertThat(last.get("index").asInt()).isEqualTo(valid);
+        assertThat(last.get("status").asText()).isEqualTo("ERROR");
+        assertThat(last.get("error").asText()).contains(String.valueOf(MAX_LINE_LENGTH));
+    }
+
+    @Test
+    void lineLongerThanTheLimitAfterTheFirstChunkEndsCsvOutputWithAnErrorRow() throws Exception {
+        StringBuilder body = new StringBuilder("originCountryCode,destinationCountryCode,hsCode,declaredValue\n");
+        for (int i = 0; i < TariffCalculationStreamer.CHUNK_SIZE; i++) {
+            body.append("SGP,USA,8517,").append(i + 1).append('\n');
+        }
+        body.append("SGP,USA,").append("8".repeat(MAX_LINE_LENGTH)).append(",1\n");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        streamer.stream(input(body.toString()), ManifestFormat.CSV, out, ManifestFormat.CSV);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(TariffCalculationStreamer.CHUNK_SIZE + 2);
+        assertThat(lines[lines.length - 1])
+            .startsWith(TariffCalculationStreamer.CHUNK_SIZE + ",ERROR,")
+            .contains(String.valueOf(MAX_LINE_LENGTH));
+    }
+
+    @Test
+    void lineExactlyAtTheLimitIsAccepted() throws Exception {
+        String prefix = "{\"originCountryCode\":\"SGP\",\"declaredValue\":1,\"hsCode\":\"";
+        String line = prefix + "8".repeat(MAX_LINE_LENGTH - prefix.length() - 2) + "\"}";
+        assertThat(line).hasSize(MAX_LINE_LENGTH);
+
+        long priced = streamer.stream(input(line + "\n"), ManifestFormat.NDJSON, new ByteArrayOutputStream(),
+                ManifestFormat.NDJSON);
+
+        assertThat(priced).isEqualTo(1);
+    }
+
+    @Test
+    void csvSplittingHandlesQuotesAndEscaping() {
+        assertThat(TariffCalculationStreamer.splitCsv("a,\"b,c\",\"d\"\"e\",")).containsExactly("a", "b,c", "d\"e", "");
+        assertThat(TariffCalculationStreamer.escapeCsv("x,\"y\"")).isEqualTo("\"x,\"\"y\"\"\"");
+        assertThat(TariffCalculationStreamer.escapeCsv(new BigDecimal("1E+2"))).isEqualTo("100");
+    }
+
+    @Test
+    void formatsAreNegotiatedFromHeaders() {
+        assertThat(ManifestFormat.fromContentType("text/csv; charset=UTF-8")).isEqualTo(ManifestFormat.CSV);
+        assertThat(ManifestFormat.fromAccept("*/*", ManifestFormat.CSV)).isEqualTo(ManifestFormat.CSV);
+        assertThat(ManifestFormat.fromAccept("application/x-ndjson", ManifestFormat.CSV)).isEqualTo(ManifestFormat.NDJSON);
+        assertThatThrownBy(() -> ManifestFormat.fromContentType("application/json"))
+            .isInstanceOf(InvalidTariffRequestException.class);
+    }
+
+    private static ByteArrayInputStream input(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
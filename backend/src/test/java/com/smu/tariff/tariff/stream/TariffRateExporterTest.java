@@ -0,0 +1,166 @@
+package com.smu.tariff.tariff.stream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.smu.tariff.country.Country;
+import com.smu.tariff.exception.InvalidTariffRequestException;
+import com.smu.tariff.model.ProductCategory;
+import com.smu.tariff.model.TariffRate;
+import com.smu.tariff.repository.TariffRateRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class TariffRateExporterTest {
+
+    @Mock TariffRateRepository tariffRateRepository;
+    @Mock EntityManager entityManager;
+
+    // Same date handling as the Boot-configured mapper the exporter receives in the app
+    ObjectMapper mapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    TariffRateExporter exporter;
+
+    Country sgp = new Country("SGP", "Singapore");
+    Country usa = new Country("USA", "United States");
+    ProductCategory elec = new ProductCategory("ELEC", "Electronics, consumer", "8517", false);
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        exporter = new TariffRateExporter(tariffRateRepository, entityManager, mapper);
+    }
+
+    @Test
+    void jsonExportIsAnArrayOfRatesAndDetachesEachRow() throws Exception {
+        TariffRate first = rate(1L, "5.00");
+        TariffRate second = rate(2L, "7.50");
+        AtomicBoolean closed = new AtomicBoolean();
+        when(tariffRateRepository.streamAllWithRelations())
+                .thenReturn(Stream.of(first, second).onClose(() -> closed.set(true)));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long written = exporter.export(out, TariffExportFormat.JSON);
+
+        assertThat(written).isEqualTo(2);
+        JsonNode rows = mapper.readTree(out.toString(StandardCharsets.UTF_8));
+        assertThat(rows.isArray()).isTrue();
+        assertThat(rows).hasSize(2);
+        assertThat(rows.get(0).get("originCountryCode").asText()).isEqualTo("SGP");
+        assertThat(rows.get(0).get("effectiveFrom").asText()).isEqualTo("2024-01-01");
+        assertThat(rows.get(1).get("baseRate").decimalValue()).isEqualByComparingTo("7.50");
+        verify(entityManager).detach(first);
+        verify(entityManager).detach(second);
+        assertThat(closed).isTrue();
+    }
+
+    @Test
+    void emptyTableIsAnEmptyJsonArray() throws Exception {
+        when(tariffRateRepository.streamAllWithRelations()).thenReturn(Stream.empty());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exporter.export(out, TariffExportFormat.JSON);
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("[]");
+    }
+
+    @Test
+    void ndjsonWritesOneRatePerLine() throws Exception {
+        when(tariffRateRepository.streamAllWithRelations()).thenReturn(Stream.of(rate(1L, "5.00"), rate(2L, "6.00")));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exporter.export(out, TariffExportFormat.NDJSON);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(mapper.readTree(lines[1]).get("id").asLong()).isEqualTo(2L);
+    }
+
+    @Test
+    void csvHasHeaderAndQuotesFieldsWithCommas() throws Exception {
+        when(tariffRateRepository.streamAllWithRelations()).thenReturn(Stream.of(rate(1L, "5.00")));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exporter.export(out, TariffExportFormat.CSV);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines[0]).isEqualTo(String.join(",", TariffRateExporter.CSV_COLUMNS));
+        assertThat(lines[1]).isEqualTo("1,SGP,USA,ELEC,\"Electronics, consumer\",8517,false,0.0,5.00,0,2024-01-01,");
+    }
+
+    @Test
+    void outputIsFlushedAsRowsArriveRatherThanAtTheEnd() throws Exception {
+        int count = TariffRateExporter.FLUSH_EVERY * 2 + 1;
+        when(tariffRateRepository.streamAllWithRelations())
+                .thenReturn(IntStream.rangeClosed(1, count).mapToObj(i -> rate((long) i, "1.00")));
+        AtomicInteger flushes = new AtomicInteger();
+        OutputStream out = new OutputStream() {
+            @Override public void write(int b) { }
+            @Override public void write(byte[] b, int off, int len) { }
+            @Override public void flush() { flushes.incrementAndGet(); }
+        };
+
+        long written = exporter.export(out, TariffExportFormat.NDJSON);
+
+        assertThat(written).isEqualTo(count);
+        // Two mid-stream flushes plus the final one
+        assertThat(flushes.get()).isGreaterThanOrEqualTo(3);
+        verify(entityManager, times(count)).detach(any());
+    }
+
+    @Test
+    void cursorIsClosedWhenTheClientGoesAway() {
+        AtomicBoolean closed = new AtomicBoolean();
+        when(tariffRateRepository.streamAllWithRelations()).thenReturn(
+                IntStream.rangeClosed(1, TariffRateExporter.FLUSH_EVERY)
+                        .mapToObj(i -> rate((long) i, "1.00"))
+                        .onClose(() -> closed.set(true)));
+        OutputStream broken = new OutputStream() {
+            @Override public void write(int b) throws IOException { throw new IOException("Broken pipe"); }
+            @Override public void write(byte[] b, int off, int len) throws IOException { throw new IOException("Broken pipe"); }
+        };
+
+        assertThatThrownBy(() -> exporter.export(broken, TariffExportFormat.NDJSON)).isInstanceOf(IOException.class);
+        assertThat(closed).isTrue();
+    }
+
+    @Test
+    void formatParameterWinsThenAcceptThenJson() {
+        assertThat(TariffExportFormat.resolve("CSV", "application/x-ndjson")).isEqualTo(TariffExportFormat.CSV);
+        assertThat(TariffExportFormat.resolve(null, "application/x-ndjson")).isEqualTo(TariffExportFormat.NDJSON);
+        assertThat(TariffExportFormat.resolve(" ", "text/csv;q=0.9")).isEqualTo(TariffExportFormat.CSV);
+        assertThat(TariffExportFormat.resolve(null, "*/*")).isEqualTo(TariffExportFormat.JSON);
+        assertThat(TariffExportFormat.resolve(null, null)).isEqualTo(TariffExportFormat.JSON);
+        assertThatThrownBy(() -> TariffExportFormat.resolve("xml", null))
+                .isInstanceOf(InvalidTariffRequestException.class);
+    }
+
+    private TariffRate rate(Long id, String baseRate) {
+        TariffRate rate = new TariffRate(sgp, usa, elec, new BigDecimal(baseRate), BigDecimal.ZERO,
+                LocalDate.of(2024, 1, 1), null);
+        ReflectionTestUtils.setField(rate, "id", id);
+        return rate;
+    }
+}
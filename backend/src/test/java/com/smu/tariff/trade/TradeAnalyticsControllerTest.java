@@ -0,0 +1,48 @@
+package com.smu.tariff.trade;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.smu.tariff.trade.dto.CountryTradeInsightsDto;
+
+class TradeAnalyticsControllerTest {
+
+    private final TradeInsightsStore store = mock(TradeInsightsStore.class);
+    private final TradeAnalyticsController controller = new TradeAnalyticsController(store, mock(WeightedTradeAnalyticsService.class));
+    private final CountryTradeInsightsDto insights = new CountryTradeInsightsDto();
+
+    @Test
+    void returnsInsightsWithEtag() {
+        when(store.get("SGP")).thenReturn(new TradeInsightsStore.Materialized(insights, "\"abc\"", Instant.now(), 1));
+
+        ResponseEntity<CountryTradeInsightsDto> response = controller.getInsights("SGP",
+                new ServletWebRequest(new MockHttpServletRequest("GET", "/api/trade/insights"), new MockHttpServletResponse()));
+
+        assertThat(response.getStatusCode().value()).isEqualTo(200);
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"abc\"");
+        assertThat(response.getBody()).isSameAs(insights);
+    }
+
+    @Test
+    void matchingIfNoneMatchAnswersNotModified() {
+        when(store.get("SGP")).thenReturn(new TradeInsightsStore.Materialized(insights, "\"abc\"", Instant.now(), 1));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/trade/insights");
+        request.addHeader("If-None-Match", "\"abc\"");
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+
+        ResponseEntity<CountryTradeInsightsDto> response = controller.getInsights("SGP",
+                new ServletWebRequest(request, servletResponse));
+
+        assertThat(response).isNull();
+        assertThat(servletResponse.getStatus()).isEqualTo(304);
+    }
+}
@@ -2,10 +2,14 @@ package com.smu.tariff.trade;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.math.BigDecimal;
-import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,13 +19,18 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import com.smu.tariff.country.Country;
 import com.smu.tariff.country.CountryRepository;
 import com.smu.tariff.exception.InvalidTariffRequestException;
 import com.smu.tariff.model.ProductCategory;
-import com.smu.tariff.model.TariffRate;
 import com.smu.tariff.repository.TariffRateRepository;
+import com.smu.tariff.repository.TariffRateRepository.CategoryRateSummary;
+import com.smu.tariff.repository.TariffRateRepository.PartnerRateCount;
+import com.smu.tariff.repository.TariffRateRepository.PartnerRateItem;
+import com.smu.tariff.repository.TariffRateRepository.RateTotals;
 import com.smu.tariff.trade.dto.CountryTradeInsightsDto;
 
 @ExtendWith(MockitoExtension.class)
@@ -49,24 +58,32 @@ class TradeAnalyticsServiceTest {
         china = new Country("CHN", "China");
         electronics = new ProductCategory("ELEC", "Electronics");
         apparel = new ProductCategory("APP", "Apparel");
+        ReflectionTestUtils.setField(singapore, "id", 1L);
     }
 
     @Test
     void getCountryInsightsAggregatesRatesAndPartners() {
         when(countryRepository.findByCode("SGP")).thenReturn(Optional.of(singapore));
 
-        var importRates = List.of(
-                rate(unitedStates, singapore, electronics, "5.0000", "10.00"),
-                rate(unitedStates, singapore, apparel, "7.0000", "6.00"),
-                rate(china, singapore, electronics, "3.0000", "4.00")
-        );
-        var exportRates = List.of(
-                rate(singapore, unitedStates, electronics, "2.0000", "2.50"),
-                rate(singapore, china, apparel, "4.0000", "3.50")
-        );
-
-        when(tariffRateRepository.search(null, singapore, null)).thenReturn(importRates);
-        when(tariffRateRepository.search(singapore, null, null)).thenReturn(exportRates);
+        // Import side: USA ships ELEC@5/10.00 and APP@7/6.00, CHN ships ELEC@3/4.00
+        when(tariffRateRepository.findTopImportCategories(eq(1L), any(Pageable.class))).thenReturn(List.of(
+                category("APP", "Apparel", "7.0000", "6.00", 1),
+                category("ELEC", "Electronics", "8.0000", "14.00", 2)));
+        when(tariffRateRepository.findTopExportCategories(eq(1L), any(Pageable.class))).thenReturn(List.of(
+                category("APP", "Apparel", "4.0000", "3.50", 1),
+                category("ELEC", "Electronics", "2.0000", "2.50", 1)));
+        when(tariffRateRepository.findTopImportPartners(eq(1L), any(Pageable.class))).thenReturn(List.of(
+                partner("USA", "United States", 2), partner("CHN", "China", 1)));
+        when(tariffRateRepository.findTopExportPartners(eq(1L), any(Pageable.class))).thenReturn(List.of(
+                partner("CHN", "China", 1), partner("USA", "United States", 1)));
+        when(tariffRateRepository.findImportItemsForPartners(1L, List.of("USA", "CHN"))).thenReturn(List.of(
+                item("USA", apparel, "7.0000", "6.00"),
+                item("USA", electronics, "5.0000", "10.00"),
+                item("CHN", electronics, "3.0000", "4.00")));
+        when(tariffRateRepository.findExportItemsForPartners(1L, List.of("CHN", "USA"))).thenReturn(List.of(
+                item("CHN", apparel, "4.0000", "3.50"),
+                item("USA", electronics, "2.0000", "2.50")));
+        when(tariffRateRepository.sumRatesForCountry(1L)).thenReturn(totals("15.0000", 3, "6.0000", 2));
 
         CountryTradeInsightsDto dto = service.getCountryInsights("sgp");
 
@@ -78,14 +95,34 @@ class TradeAnalyticsServiceTest {
         assertThat(dto.topImports.get(0).code).isEqualTo("APP");
         assertThat(dto.topImports.get(0).baseRate).isEqualByComparingTo("7.0000");
         assertThat(dto.topImports.get(0).additionalFee).isEqualByComparingTo("6.00");
+        assertThat(dto.topImports.get(1).baseRate).isEqualByComparingTo("4.0000");
+        assertThat(dto.topImports.get(1).additionalFee).isEqualByComparingTo("7.00");
 
         assertThat(dto.majorImportPartners).hasSize(2);
         assertThat(dto.majorImportPartners.get(0).code).isEqualTo("USA");
         assertThat(dto.majorImportPartners.get(0).itemCount).isEqualTo(2);
+        assertThat(dto.majorImportPartners.get(0).items).hasSize(2);
         assertThat(dto.majorImportPartners.get(0).items.get(0).baseRate).isEqualByComparingTo("7.0000");
+        assertThat(dto.majorImportPartners.get(1).items).extracting(i -> i.categoryCode).containsExactly("ELEC");
 
         assertThat(dto.majorExportPartners).extracting(p -> p.code)
                 .containsExactlyInAnyOrder("USA", "CHN");
+        verify(tariffRateRepository, never()).searchRates(any(), any(), any(), any(), any(), anyInt(), anyInt());
+    }
+
+    @Test
+    void getCountryInsightsForCountryWithoutRatesSkipsItemQueries() {
+        when(countryRepository.findByCode("SGP")).thenReturn(Optional.of(singapore));
+        when(tariffRateRepository.sumRatesForCountry(1L)).thenReturn(totals(null, 0, null, 0));
+
+        CountryTradeInsightsDto dto = service.getCountryInsights("SGP");
+
+        assertThat(dto.averageImportTariff).isEqualByComparingTo("0");
+        assertThat(dto.averageExportTariff).isEqualByComparingTo("0");
+        assertThat(dto.topImports).isEmpty();
+        assertThat(dto.majorImportPartners).isEmpty();
+        verify(tariffRateRepository, never()).findImportItemsForPartners(any(), any());
+        verify(tariffRateRepository, never()).findExportItemsForPartners(any(), any());
     }
 
     @Test
@@ -104,18 +141,40 @@ class TradeAnalyticsServiceTest {
                 .hasMessageContaining("Unknown country code");
     }
 
-    private TariffRate rate(Country origin,
-                            Country destination,
-                            ProductCategory category,
-                            String baseRate,
-                            String fee) {
-        TariffRate rate = new TariffRate();
-        rate.setOrigin(origin);
-        rate.setDestination(destination);
-        rate.setProductCategory(category);
-        rate.setBaseRate(new BigDecimal(baseRate));
-        rate.setAdditionalFee(new BigDecimal(fee));
-        rate.setEffectiveFrom(LocalDate.now());
-        return rate;
+    private static CategoryRateSummary category(String code, String name, String rateSum, String feeSum, long count) {
+        return new CategoryRateSummary() {
+            public String getCode() { return code; }
+            public String getName() { return name; }
+            public BigDecimal getRateSum() { return new BigDecimal(rateSum); }
+            public BigDecimal getFeeSum() { return new BigDecimal(feeSum); }
+            public Long getRateCount() { return count; }
+        };
+    }
+
+    private static PartnerRateCount partner(String code, String name, long count) {
+        return new PartnerRateCount() {
+            public String getCode() { return code; }
+            public String getName() { return name; }
+            public Long getItemCount() { return count; }
+        };
+    }
+
+    private static PartnerRateItem item(String partnerCode, ProductCategory category, String baseRate, String fee) {
+        return new PartnerRateItem() {
+            public String getPartnerCode() { return partnerCode; }
+            public String getCategoryCode() { return category.getCode(); }
+            public String getCategoryName() { return category.getName(); }
+            public BigDecimal getBaseRate() { return new BigDecimal(baseRate); }
+            public BigDecimal getAdditionalFee() { return new BigDecimal(fee); }
+        };
+    }
+
+    private static RateTotals totals(String importSum, long importCount, String exportSum, long exportCount) {
+        return new RateTotals() {
+            public BigDecimal getImportRateSum() { return importSum == null ? null : new BigDecimal(importSum); }
+            public Long getImportCount() { return importCount; }
+            public BigDecimal getExportRateSum() { return exportSum == null ? null : new BigDecimal(exportSum); }
+            public Long getExportCount() { return exportCount; }
+        };
     }
 }
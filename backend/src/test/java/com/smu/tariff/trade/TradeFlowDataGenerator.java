@@ -0,0 +1,106 @@
+package com.smu.tariff.trade;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+
+/**
+ * Synthetic trade flows with a realistic skew (a few large routes, a long tail of small ones), one row per
+ * reporter x partner x commodity x direction x year. Used by {@link TradeFlowRollupBenchmark}; {@link #main}
+ * writes a Comtrade-style CSV that the trade flow importer accepts, for local load testing:
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.smu.tariff.trade.TradeFlowDataGenerator
+ *     -Dexec.args="data/trade-flows/synthetic.csv 2015 2024 USA,CHN,SGP,DEU,JPN 8517,8471,6109"
+ */
+public final class TradeFlowDataGenerator {
+
+    static final List<String> DEFAULT_COUNTRIES = List.of("USA", "CHN", "SGP", "DEU", "JPN", "KOR", "GBR", "FRA", "IND",
+            "BRA", "CAN", "MEX", "AUS", "IDN", "MYS", "THA", "VNM", "ITA", "NLD", "ESP");
+    static final List<String> DEFAULT_HS_CODES = List.of("8517", "8471", "8542", "8703", "2709", "3004", "6109", "8708",
+            "9018", "8473", "2710", "7108", "8411", "8802", "3002", "8541", "8504", "9013", "2711", "1001");
+
+    /** One generated flow; reporter, partner and commodity are indexes into the generator's code lists. */
+    public record Flow(int reporter, int partner, int commodity, TradeDirection direction, long valueCents, int year) { }
+
+    private final List<String> countries;
+    private final List<String> hsCodes;
+    private final long seed;
+
+    public TradeFlowDataGenerator(List<String> countries, List<String> hsCodes, long seed) {
+        this.countries = countries;
+        this.hsCodes = hsCodes;
+        this.seed = seed;
+    }
+
+    public List<String> countries() {
+        return countries;
+    }
+
+    public List<String> hsCodes() {
+        return hsCodes;
+    }
+
+    public long rowsPerYear() {
+        return (long) countries.size() * (countries.size() - 1) * hsCodes.size() * TradeDirection.values().length;
+    }
+
+    /** Emit every flow for the inclusive year range; the same seed always yields the same data. */
+    public void forEachFlow(int fromYear, int toYear, Consumer<Flow> sink) {
+        for (int year = fromYear; year <= toYear; year++) {
+            Random random = new Random(seed * 31 + year);
+            for (int reporter = 0; reporter < countries.size(); reporter++) {
+                for (int partner = 0; partner < countries.size(); partner++) {
+                    if (partner == reporter) {
+                        continue;
+                    }
+                    for (int commodity = 0; commodity < hsCodes.size(); commodity++) {
+                        for (TradeDirection direction : TradeDirection.values()) {
+                            // Log-normal-ish values between roughly $1k and $10bn
+                            long cents = (long) (Math.exp(7 + random.nextGaussian() * 2.5) * 100);
+                            sink.accept(new Flow(reporter, partner, commodity, direction, Math.max(100_00, cents), year));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    public void writeCsv(Path file, int fromYear, int toYear) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("refYear,reporterISO,flowCode,partnerISO,cmdCode,primaryValue\n");
+            forEachFlow(fromYear, toYear, flow -> {
+                try {
+                    writer.write(flow.year() + "," + countries.get(flow.reporter()) + ","
+                            + (flow.direction() == TradeDirection.IMPORT ? "M" : "X") + ","
+                            + countries.get(flow.partner()) + "," + hsCodes.get(flow.commodity()) + ","
+                            + flow.valueCents() / 100 + "." + String.format("%02d", flow.valueCents() % 100) + "\n");
+                } catch (IOException ex) {
+                    throw new IllegalStateException(ex);
+                }
+            });
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("usage: TradeFlowDataGenerator <file.csv> <fromYear> <toYear> [countries] [hsCodes]");
+            return;
+        }
+        List<String> countries = args.length > 3 ? Arrays.asList(args[3].split(",")) : DEFAULT_COUNTRIES;
+        List<String> hsCodes = args.length > 4 ? Arrays.asList(args[4].split(",")) : DEFAULT_HS_CODES;
+        TradeFlowDataGenerator generator = new TradeFlowDataGenerator(countries, hsCodes, 42);
+        int fromYear = Integer.parseInt(args[1]);
+        int toYear = Integer.parseInt(args[2]);
+        generator.writeCsv(Paths.get(args[0]), fromYear, toYear);
+        System.out.println("Wrote " + generator.rowsPerYear() * (toYear - fromYear + 1) + " flows to " + args[0]);
+    }
+}
@@ -0,0 +1,174 @@
+package com.smu.tariff.trade;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Country ranking queries against raw trade_flow versus the rollup tables, as stored years grow.
+ * Raw-flow cost grows with every year loaded; the rollups grow only by countries x categories (or partners) per
+ * year, and a single-year rollup lookup stays flat. Runs on in-memory H2 with the production indexes.
+ * Not run by surefire; launch with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.smu.tariff.trade.TradeFlowRollupBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TradeFlowRollupBenchmark {
+
+    private static final int LAST_YEAR = 2024;
+
+    private static final String PRODUCTS_FROM_FLOWS =
+            "SELECT product_category_id, SUM(trade_value) FROM trade_flow "
+                    + "WHERE reporting_country_id = ? AND direction = 'IMPORT' "
+                    + "GROUP BY product_category_id ORDER BY 2 DESC";
+    private static final String PRODUCTS_FROM_ROLLUP =
+            "SELECT product_category_id, SUM(trade_value) FROM trade_flow_product_rollup "
+                    + "WHERE reporting_country_id = ? AND direction = 'IMPORT' "
+                    + "GROUP BY product_category_id ORDER BY 2 DESC";
+    private static final String YEAR_PRODUCTS_FROM_FLOWS =
+            "SELECT product_category_id, SUM(trade_value) FROM trade_flow "
+                    + "WHERE reporting_country_id = ? AND direction = 'IMPORT' AND year = ? "
+                    + "GROUP BY product_category_id ORDER BY 2 DESC";
+    private static final String YEAR_PRODUCTS_FROM_ROLLUP =
+            "SELECT product_category_id, SUM(trade_value) FROM trade_flow_product_rollup "
+                    + "WHERE reporting_country_id = ? AND direction = 'IMPORT' AND year = ? "
+                    + "GROUP BY product_category_id ORDER BY 2 DESC";
+    private static final String PARTNERS_FROM_FLOWS =
+            "SELECT partner_country_id, SUM(trade_value) FROM trade_flow "
+                    + "WHERE reporting_country_id = ? GROUP BY partner_country_id ORDER BY 2 DESC";
+    private static final String PARTNERS_FROM_ROLLUP =
+            "SELECT partner_country_id, SUM(trade_value) FROM trade_flow_partner_rollup "
+                    + "WHERE reporting_country_id = ? GROUP BY partner_country_id ORDER BY 2 DESC";
+
+    @Param({"1", "5", "20"})
+    public int years;
+
+    private JdbcDataSource dataSource;
+    private JdbcTemplate jdbc;
+    private int countryCount;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:trade-rollup-" + years + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=YEAR,VALUE;DB_CLOSE_DELAY=-1");
+        jdbc = new JdbcTemplate(dataSource);
+        createSchema();
+
+        TradeFlowDataGenerator generator = new TradeFlowDataGenerator(
+                TradeFlowDataGenerator.DEFAULT_COUNTRIES, TradeFlowDataGenerator.DEFAULT_HS_CODES, 42);
+        countryCount = generator.countries().size();
+        List<Object[]> batch = new ArrayList<>(10_000);
+        generator.forEachFlow(LAST_YEAR - years + 1, LAST_YEAR, flow -> {
+            batch.add(new Object[] {flow.reporter() + 1, flow.partner() + 1, flow.commodity() + 1,
+                    flow.direction().name(), BigDecimal.valueOf(flow.valueCents(), 2), flow.year()});
+            if (batch.size() == 10_000) {
+                insert(batch);
+            }
+        });
+        insert(batch);
+
+        for (int year = LAST_YEAR - years + 1; year <= LAST_YEAR; year++) {
+            jdbc.update(TradeFlowRollupService.INSERT_PRODUCT_SQL, year);
+            jdbc.update(TradeFlowRollupService.INSERT_PARTNER_SQL, year);
+        }
+        jdbc.execute("ANALYZE");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        jdbc.execute("SHUTDOWN");
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> productsFromFlows() {
+        return jdbc.queryForList(PRODUCTS_FROM_FLOWS, nextCountry());
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> productsFromRollup() {
+        return jdbc.queryForList(PRODUCTS_FROM_ROLLUP, nextCountry());
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> latestYearProductsFromFlows() {
+        return jdbc.queryForList(YEAR_PRODUCTS_FROM_FLOWS, nextCountry(), LAST_YEAR);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> latestYearProductsFromRollup() {
+        return jdbc.queryForList(YEAR_PRODUCTS_FROM_ROLLUP, nextCountry(), LAST_YEAR);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> partnersFromFlows() {
+        return jdbc.queryForList(PARTNERS_FROM_FLOWS, nextCountry());
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> partnersFromRollup() {
+        return jdbc.queryForList(PARTNERS_FROM_ROLLUP, nextCountry());
+    }
+
+    private long nextCountry() {
+        cursor = (cursor + 1) % countryCount;
+        return cursor + 1;
+    }
+
+    private void insert(List<Object[]> batch) {
+        jdbc.batchUpdate("INSERT INTO trade_flow (reporting_country_id, partner_country_id, product_category_id, "
+                + "direction, trade_value, year) VALUES (?, ?, ?, ?, ?, ?)", batch);
+        batch.clear();
+    }
+
+    private void createSchema() {
+        jdbc.execute("CREATE TABLE trade_flow (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+                + "reporting_country_id BIGINT NOT NULL, partner_country_id BIGINT NOT NULL, "
+                + "product_category_id BIGINT NOT NULL, direction VARCHAR(16) NOT NULL, "
+                + "trade_value NUMERIC(18,2) NOT NULL, year INTEGER NOT NULL)");
+        jdbc.execute("CREATE INDEX idx_trade_flow_reporting_direction_year ON trade_flow (reporting_country_id, direction, year)");
+        jdbc.execute("CREATE INDEX idx_trade_flow_partner ON trade_flow (partner_country_id)");
+        jdbc.execute("CREATE INDEX idx_trade_flow_product ON trade_flow (product_category_id)");
+        jdbc.execute("CREATE TABLE trade_flow_product_rollup (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+                + "reporting_country_id BIGINT NOT NULL, direction VARCHAR(16) NOT NULL, "
+                + "product_category_id BIGINT NOT NULL, year INTEGER NOT NULL, "
+                + "trade_value NUMERIC(22,2) NOT NULL, flow_count BIGINT NOT NULL)");
+        jdbc.execute("CREATE INDEX idx_trade_flow_product_rollup_country ON trade_flow_product_rollup (reporting_country_id, direction, year)");
+        jdbc.execute("CREATE TABLE trade_flow_partner_rollup (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+                + "reporting_country_id BIGINT NOT NULL, partner_country_id BIGINT NOT NULL, "
+                + "direction VARCHAR(16) NOT NULL, year INTEGER NOT NULL, "
+                + "trade_value NUMERIC(22,2) NOT NULL, flow_count BIGINT NOT NULL)");
+        jdbc.execute("CREATE INDEX idx_trade_flow_partner_rollup_country ON trade_flow_partner_rollup (reporting_country_id, year)");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TradeFlowRollupBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
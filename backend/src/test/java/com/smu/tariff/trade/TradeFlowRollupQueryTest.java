@@ -0,0 +1,140 @@
+package com.smu.tariff.trade;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.smu.tariff.country.Country;
+import com.smu.tariff.country.CountryRepository;
+import com.smu.tariff.model.ProductCategory;
+import com.smu.tariff.repository.ProductCategoryRepository;
+
+/**
+ * Loads generated flows into H2, rebuilds the rollups with {@link TradeFlowRollupService} and checks that the
+ * rollup-backed rankings return exactly what the same rankings computed from raw {@code trade_flow} rows return.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:trade-rollup;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=YEAR,VALUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.sql.init.mode=never"
+})
+class TradeFlowRollupQueryTest {
+
+    private static final String INSERT_FLOW_SQL =
+            "INSERT INTO trade_flow (reporting_country_id, partner_country_id, product_category_id, direction, "
+                    + "trade_value, year) VALUES (?, ?, ?, ?, ?, ?)";
+
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired PlatformTransactionManager transactionManager;
+    @Autowired CountryRepository countryRepository;
+    @Autowired ProductCategoryRepository productCategoryRepository;
+    @Autowired TradeFlowRepository tradeFlowRepository;
+
+    TradeFlowDataGenerator generator = new TradeFlowDataGenerator(
+            List.of("USA", "CHN", "SGP", "DEU", "JPN"), List.of("8517", "8471", "6109"), 42);
+    List<Country> countries = new ArrayList<>();
+    List<ProductCategory> categories = new ArrayList<>();
+    TradeFlowRollupService rollupService;
+
+    @BeforeEach
+    void setUp() {
+        for (String code : generator.countries()) {
+            countries.add(countryRepository.save(new Country(code, "Country " + code)));
+        }
+        for (String hsCode : generator.hsCodes()) {
+            categories.add(productCategoryRepository.save(new ProductCategory("HS" + hsCode, "Heading " + hsCode, hsCode, false)));
+        }
+        rollupService = new TradeFlowRollupService(jdbcTemplate, transactionManager);
+    }
+
+    @Test
+    void rollupRankingsMatchRankingsFromRawFlows() {
+        load(2022, 2024);
+        rollupService.refreshYears(List.of(2022, 2023, 2024));
+
+        assertRollupsMatchFlows();
+    }
+
+    @Test
+    void refreshingOneYearPicksUpFlowsAddedToIt() {
+        load(2023, 2024);
+        rollupService.refreshYears(List.of(2023, 2024));
+
+        load(2024, 2024);
+        rollupService.refreshYears(List.of(2024));
+
+        assertRollupsMatchFlows();
+    }
+
+    @Test
+    void refreshAllDropsYearsWhoseFlowsWereDeleted() {
+        load(2022, 2023);
+        rollupService.refreshYears(List.of(2022, 2023));
+
+        jdbcTemplate.update("DELETE FROM trade_flow WHERE year = 2022");
+        rollupService.refreshAll();
+
+        assertRollupsMatchFlows();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM trade_flow_partner_rollup WHERE year = 2022", Long.class)).isZero();
+    }
+
+    private void assertRollupsMatchFlows() {
+        for (Country country : countries) {
+            for (TradeDirection direction : TradeDirection.values()) {
+                Map<String, BigDecimal> fromFlows = products(tradeFlowRepository.findTopProductsFromFlows(country, direction));
+                assertThat(fromFlows).as("%s %s flows", country.getCode(), direction).isNotEmpty();
+                assertSameRanking(products(tradeFlowRepository.findTopProductsByCountryAndDirection(country, direction)),
+                        fromFlows);
+            }
+            Map<String, BigDecimal> fromFlows = partners(tradeFlowRepository.findPartnersFromFlows(country));
+            assertThat(fromFlows).as("%s partner flows", country.getCode()).isNotEmpty();
+            assertSameRanking(partners(tradeFlowRepository.findPartnersByCountry(country)), fromFlows);
+        }
+    }
+
+    private static void assertSameRanking(Map<String, BigDecimal> fromRollup, Map<String, BigDecimal> fromFlows) {
+        assertThat(fromRollup.keySet()).containsExactlyElementsOf(fromFlows.keySet());
+        fromFlows.forEach((code, total) -> assertThat(fromRollup.get(code)).as(code).isEqualByComparingTo(total));
+    }
+
+    private void load(int fromYear, int toYear) {
+        List<Object[]> rows = new ArrayList<>();
+        generator.forEachFlow(fromYear, toYear, flow -> rows.add(new Object[] {
+                countries.get(flow.reporter()).getId(), countries.get(flow.partner()).getId(),
+                categories.get(flow.commodity()).getId(), flow.direction().name(),
+                BigDecimal.valueOf(flow.valueCents(), 2), flow.year()}));
+        jdbcTemplate.batchUpdate(INSERT_FLOW_SQL, rows);
+    }
+
+    private static Map<String, BigDecimal> products(List<TradeFlowRepository.ProductSummary> rows) {
+        Map<String, BigDecimal> totals = new LinkedHashMap<>();
+        rows.forEach(row -> totals.put(row.getCode(), row.getTotalValue()));
+        return totals;
+    }
+
+    private static Map<String, BigDecimal> partners(List<TradeFlowRepository.PartnerSummary> rows) {
+        Map<String, BigDecimal> totals = new LinkedHashMap<>();
+        rows.forEach(row -> totals.put(row.getCode(), row.getTotalValue()));
+        return totals;
+    }
+}
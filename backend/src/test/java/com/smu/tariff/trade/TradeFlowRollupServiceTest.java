@@ -0,0 +1,95 @@
+package com.smu.tariff.trade;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.smu.tariff.country.Country;
+
+class TradeFlowRollupServiceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private TradeFlowRollupService service;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        service = new TradeFlowRollupService(jdbcTemplate, mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    void refreshYearsRebuildsEachYearOnceInOrder() {
+        service.refreshYears(List.of(2024, 2022, 2024));
+
+        InOrder order = inOrder(jdbcTemplate);
+        for (int year : new int[] {2022, 2024}) {
+            order.verify(jdbcTemplate).update(TradeFlowRollupService.DELETE_PRODUCT_SQL, year);
+            order.verify(jdbcTemplate).update(TradeFlowRollupService.INSERT_PRODUCT_SQL, year);
+            order.verify(jdbcTemplate).update(TradeFlowRollupService.DELETE_PARTNER_SQL, year);
+            order.verify(jdbcTemplate).update(TradeFlowRollupService.INSERT_PARTNER_SQL, year);
+        }
+        order.verifyNoMoreInteractions();
+    }
+
+    @Test
+    void refreshAllAlsoClearsYearsThatNoLongerHaveFlows() {
+        when(jdbcTemplate.queryForList("SELECT DISTINCT year FROM trade_flow", Integer.class)).thenReturn(List.of(2023));
+        when(jdbcTemplate.queryForList("SELECT DISTINCT year FROM trade_flow_product_rollup", Integer.class))
+                .thenReturn(List.of(2021, 2023));
+        when(jdbcTemplate.queryForList("SELECT DISTINCT year FROM trade_flow_partner_rollup", Integer.class))
+                .thenReturn(List.of(2021));
+
+        service.refreshAll();
+
+        verify(jdbcTemplate).update(TradeFlowRollupService.DELETE_PRODUCT_SQL, 2021);
+        verify(jdbcTemplate).update(TradeFlowRollupService.INSERT_PRODUCT_SQL, 2023);
+    }
+
+    @Test
+    void initializeBuildsRollupsOnlyWhenFlowsExistWithoutThem() {
+        when(jdbcTemplate.queryForList("SELECT year FROM trade_flow FETCH FIRST 1 ROWS ONLY", Integer.class))
+                .thenReturn(List.of(2023));
+        when(jdbcTemplate.queryForList("SELECT year FROM trade_flow_product_rollup FETCH FIRST 1 ROWS ONLY", Integer.class))
+                .thenReturn(List.of(2023));
+
+        service.initialize();
+
+        verify(jdbcTemplate, never()).update(anyString(), eq(2023));
+    }
+
+    @Test
+    void repositoryRoutesTotalsToTheRollups() {
+        TradeFlowRepository repository = mock(TradeFlowRepository.class, withSettings().defaultAnswer(CALLS_REAL_METHODS));
+        Country usa = new Country("USA", "United States");
+        when(repository.findTopProductsFromRollup(usa, TradeDirection.IMPORT)).thenReturn(List.of());
+        when(repository.findTopProductsFromRollupForYear(usa, TradeDirection.IMPORT, 2023)).thenReturn(List.of());
+        when(repository.findPartnersFromRollup(usa)).thenReturn(List.of());
+        when(repository.findPartnersFromRollupForYear(usa, 2023)).thenReturn(List.of());
+
+        repository.findTopProductsByCountryAndDirection(usa, TradeDirection.IMPORT);
+        repository.findTopProductsByCountryAndDirectionAndYear(usa, TradeDirection.IMPORT, 2023);
+        repository.findPartnersByCountry(usa);
+        repository.findPartnersByCountryAndYear(usa, 2023);
+
+        verify(repository).findTopProductsFromRollup(usa, TradeDirection.IMPORT);
+        verify(repository).findTopProductsFromRollupForYear(usa, TradeDirection.IMPORT, 2023);
+        verify(repository).findPartnersFromRollup(usa);
+        verify(repository).findPartnersFromRollupForYear(usa, 2023);
+        verify(repository, never()).findTopProductsFromFlows(usa, TradeDirection.IMPORT);
+        verify(repository, never()).findPartnersFromFlows(usa);
+    }
+}
@@ -0,0 +1,145 @@
+package com.smu.tariff.trade;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smu.tariff.country.Country;
+import com.smu.tariff.country.CountryRepository;
+import com.smu.tariff.exception.InvalidTariffRequestException;
+import com.smu.tariff.tariff.snapshot.TariffReferenceDataChangedEvent;
+import com.smu.tariff.trade.dto.CountryTradeInsightsDto;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class TradeInsightsStoreTest {
+
+    private TradeAnalyticsService analytics;
+    private CountryRepository countryRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private TradeInsightsStore store;
+
+    @BeforeEach
+    void setUp() {
+        analytics = mock(TradeAnalyticsService.class);
+        countryRepository = mock(CountryRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        store = new TradeInsightsStore(analytics, countryRepository, new ObjectMapper(),
+                mock(PlatformTransactionManager.class), meterRegistry,
+                Clock.fixed(Instant.now().plusSeconds(5), ZoneOffset.UTC));
+    }
+
+    @Test
+    void getComputesOnceAndServesTheStoredEntry() {
+        when(analytics.getCountryInsights("SGP")).thenReturn(insights("SGP", "5.0000"));
+
+        TradeInsightsStore.Materialized first = store.get(" sgp ");
+        TradeInsightsStore.Materialized second = store.get("SGP");
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.etag()).startsWith("\"").endsWith("\"");
+        verify(analytics, times(1)).getCountryInsights("SGP");
+    }
+
+    @Test
+    void etagChangesWithContent() {
+        when(analytics.getCountryInsights("SGP")).thenReturn(insights("SGP", "5.0000"), insights("SGP", "6.0000"));
+        String before = store.get("SGP").etag();
+
+        store.onReferenceDataChanged(new TariffReferenceDataChangedEvent("updateTariff", List.of("SGP", "USA")));
+
+        assertThat(store.get("SGP").etag()).isNotEqualTo(before);
+        assertThat(store.get("SGP").insights().averageImportTariff).isEqualByComparingTo("6.0000");
+    }
+
+    @Test
+    void rateChangeRefreshesOnlyMaterializedCountriesItTouches() {
+        when(analytics.getCountryInsights("SGP")).thenReturn(insights("SGP", "5.0000"));
+        when(analytics.getCountryInsights("CHN")).thenReturn(insights("CHN", "3.0000"));
+        store.get("SGP");
+        store.get("CHN");
+
+        store.onReferenceDataChanged(new TariffReferenceDataChangedEvent("createTariff", List.of("SGP", "USA")));
+
+        verify(analytics, times(2)).getCountryInsights("SGP");
+        verify(analytics, times(1)).getCountryInsights("CHN");
+        verify(analytics, never()).getCountryInsights("USA");
+        assertThat(meterRegistry.get("trade.insights.refresh.lag").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("trade.insights.refresh.lag").timer().totalTime(TimeUnit.SECONDS)).isPositive();
+    }
+
+    @Test
+    void referenceDataChangeWithoutCountriesClearsEverything() {
+        when(analytics.getCountryInsights("SGP")).thenReturn(insights("SGP", "5.0000"));
+        store.get("SGP");
+
+        store.onReferenceDataChanged(new TariffReferenceDataChangedEvent("updateCountry"));
+
+        assertThat(store.size()).isZero();
+        store.get("SGP");
+        verify(analytics, times(2)).getCountryInsights("SGP");
+    }
+
+    @Test
+    void computationOverlappingAnInvalidationIsNotStored() {
+        AtomicReference<Runnable> duringCompute = new AtomicReference<>(() -> store.onReferenceDataChanged(
+                new TariffReferenceDataChangedEvent("updateTariff", List.of("SGP"))));
+        when(analytics.getCountryInsights("SGP")).thenAnswer(inv -> {
+            Runnable hook = duringCompute.getAndSet(null);
+            if (hook != null) {
+                hook.run();
+                return insights("SGP", "1.0000"); // computed from data the invalidation superseded
+            }
+            return insights("SGP", "2.0000");
+        });
+
+        assertThat(store.get("SGP").insights().averageImportTariff).isEqualByComparingTo("1.0000");
+        assertThat(store.size()).isZero();
+        assertThat(store.get("SGP").insights().averageImportTariff).isEqualByComparingTo("2.0000");
+    }
+
+    @Test
+    void validationErrorsPropagateAndAreNotStored() {
+        when(analytics.getCountryInsights("XXX")).thenThrow(new InvalidTariffRequestException("Unknown country code: XXX"));
+
+        assertThatThrownBy(() -> store.get("xxx")).isInstanceOf(InvalidTariffRequestException.class);
+        assertThat(store.size()).isZero();
+    }
+
+    @Test
+    void rebuildAllMaterializesEveryCountryAndSkipsFailures() {
+        when(countryRepository.findAll()).thenReturn(List.of(new Country("SGP", "Singapore"), new Country("USA", "United States")));
+        when(analytics.getCountryInsights("SGP")).thenReturn(insights("SGP", "5.0000"));
+        when(analytics.getCountryInsights("USA")).thenThrow(new IllegalStateException("db down"));
+
+        store.rebuildAll();
+
+        assertThat(store.size()).isEqualTo(1);
+        assertThat(meterRegistry.get("trade.insights.max.age.seconds").gauge().value()).isZero();
+    }
+
+    private static CountryTradeInsightsDto insights(String code, String averageImport) {
+        CountryTradeInsightsDto dto = new CountryTradeInsightsDto();
+        dto.countryCode = code;
+        dto.averageImportTariff = new BigDecimal(averageImport);
+        dto.topImports = List.of();
+        return dto;
+    }
+}
@@ -0,0 +1,172 @@
+package com.smu.tariff.trade;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.smu.tariff.country.Country;
+import com.smu.tariff.country.CountryRepository;
+import com.smu.tariff.exception.InvalidTariffRequestException;
+import com.smu.tariff.tariff.snapshot.TariffReferenceDataChangedEvent;
+import com.smu.tariff.trade.TradeFlowRepository.WeightedBreakdown;
+import com.smu.tariff.trade.TradeFlowRepository.WeightedTotals;
+import com.smu.tariff.trade.dto.WeightedTradeInsightsDto;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class WeightedTradeAnalyticsServiceTest {
+
+    private CountryRepository countryRepository;
+    private TradeFlowRepository tradeFlowRepository;
+    private WeightedTradeAnalyticsService service;
+
+    @BeforeEach
+    void setUp() {
+        countryRepository = mock(CountryRepository.class);
+        tradeFlowRepository = mock(TradeFlowRepository.class);
+        service = new WeightedTradeAnalyticsService(countryRepository, tradeFlowRepository,
+                mock(PlatformTransactionManager.class), 100, new SimpleMeterRegistry());
+
+        Country usa = new Country("USA", "United States");
+        ReflectionTestUtils.setField(usa, "id", 2L);
+        when(countryRepository.findByCode("USA")).thenReturn(Optional.of(usa));
+    }
+
+    @Test
+    void weightsRatesByCoveredTradeValue() {
+        stubYear(2024);
+        // 1000 at 5% and 3000 at 10% covered, 500 without a rate
+        when(tradeFlowRepository.sumWeightedImports(eq(2L), eq(2024), any(), any()))
+                .thenReturn(totals("4500", "4000", "35000"));
+        when(tradeFlowRepository.findWeightedImportPartners(eq(2L), eq(2024), any(), any(), any(Pageable.class)))
+                .thenReturn(List.of(breakdown("SGP", "Singapore", "4000", "4000", "35000"),
+                        breakdown("CHN", "China", "500", null, null)));
+
+        WeightedTradeInsightsDto dto = service.getWeightedInsights(" usa ", 2024);
+
+        assertThat(dto.year).isEqualTo(2024);
+        assertThat(dto.imports.totalTradeValue).isEqualByComparingTo("4500");
+        assertThat(dto.imports.coveredTradeValue).isEqualByComparingTo("4000");
+        assertThat(dto.imports.weightedAverageRate).isEqualByComparingTo("8.75");
+        assertThat(dto.imports.estimatedDuty).isEqualByComparingTo("350");
+        assertThat(dto.imports.topPartners).extracting(p -> p.code).containsExactly("SGP", "CHN");
+        assertThat(dto.imports.topPartners.get(1).weightedAverageRate).isEqualByComparingTo("0");
+        assertThat(dto.imports.topPartners.get(1).coveredTradeValue).isEqualByComparingTo("0");
+        assertThat(dto.exports.totalTradeValue).isEqualByComparingTo("0");
+        verify(tradeFlowRepository).sumWeightedImports(2L, 2024, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31));
+        verify(tradeFlowRepository, never()).findLatestYear(any());
+    }
+
+    @Test
+    void defaultsToLatestYearWithFlows() {
+        when(tradeFlowRepository.findLatestYear(2L)).thenReturn(2023);
+        stubYear(2023);
+
+        assertThat(service.getWeightedInsights("USA", null).year).isEqualTo(2023);
+    }
+
+    @Test
+    void countryWithoutFlowsGetsEmptySections() {
+        when(tradeFlowRepository.findLatestYear(2L)).thenReturn(null);
+
+        WeightedTradeInsightsDto dto = service.getWeightedInsights("USA", null);
+
+        assertThat(dto.year).isNull();
+        assertThat(dto.imports.topPartners).isEmpty();
+        assertThat(dto.exports.weightedAverageRate).isEqualByComparingTo("0");
+        verify(tradeFlowRepository, never()).sumWeightedImports(any(), anyInt(), any(), any());
+    }
+
+    @Test
+    void cachesPerCountryAndYearUntilTheCountrysRatesChange() {
+        stubYear(2024);
+
+        WeightedTradeInsightsDto first = service.getWeightedInsights("USA", 2024);
+        assertThat(service.getWeightedInsights("usa", 2024)).isSameAs(first);
+        verify(countryRepository, times(1)).findByCode("USA");
+
+        service.onReferenceDataChanged(new TariffReferenceDataChangedEvent("updateTariff", List.of("CHN", "SGP")));
+        assertThat(service.getWeightedInsights("USA", 2024)).isSameAs(first);
+
+        service.onReferenceDataChanged(new TariffReferenceDataChangedEvent("updateTariff", List.of("SGP", "USA")));
+        assertThat(service.getWeightedInsights("USA", 2024)).isNotSameAs(first);
+        verify(countryRepository, times(2)).findByCode("USA");
+    }
+
+    @Test
+    void evictAllDropsEveryYear() {
+        stubYear(2024);
+        service.getWeightedInsights("USA", 2024);
+
+        service.evictAll();
+
+        assertThat(service.size()).isZero();
+    }
+
+    @Test
+    void rejectsMissingCountryAndOutOfRangeYear() {
+        assertThatThrownBy(() -> service.getWeightedInsights(" ", 2024))
+                .isInstanceOf(InvalidTariffRequestException.class);
+        assertThatThrownBy(() -> service.getWeightedInsights("USA", 1800))
+                .isInstanceOf(InvalidTariffRequestException.class)
+                .hasMessageContaining("Year");
+    }
+
+    @Test
+    void unknownCountryIsRejectedAndNotCached() {
+        when(countryRepository.findByCode("XXX")).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> service.getWeightedInsights("XXX", 2024))
+                .isInstanceOf(InvalidTariffRequestException.class)
+                .hasMessageContaining("Unknown country code");
+        assertThat(service.size()).isZero();
+    }
+
+    private void stubYear(int year) {
+        when(tradeFlowRepository.findWeightedImportPartners(eq(2L), eq(year), any(), any(), any(Pageable.class)))
+                .thenReturn(List.of());
+        when(tradeFlowRepository.findWeightedImportCategories(eq(2L), eq(year), any(), any(), any(Pageable.class)))
+                .thenReturn(List.of());
+        when(tradeFlowRepository.findWeightedExportPartners(eq(2L), eq(year), any(), any(), any(Pageable.class)))
+                .thenReturn(List.of());
+        when(tradeFlowRepository.findWeightedExportCategories(eq(2L), eq(year), any(), any(), any(Pageable.class)))
+                .thenReturn(List.of());
+    }
+
+    private static WeightedTotals totals(String tradeValue, String coveredValue, String weightedRateSum) {
+        return breakdown(null, null, tradeValue, coveredValue, weightedRateSum);
+    }
+
+    private static WeightedBreakdown breakdown(String code, String name, String tradeValue,
+                                               String coveredValue, String weightedRateSum) {
+        return new WeightedBreakdown() {
+            public String getCode() { return code; }
+            public String getName() { return name; }
+            public BigDecimal getTradeValue() { return decimal(tradeValue); }
+            public BigDecimal getCoveredValue() { return decimal(coveredValue); }
+            public BigDecimal getWeightedRateSum() { return decimal(weightedRateSum); }
+        };
+    }
+
+    private static BigDecimal decimal(String value) {
+        return value == null ? null : new BigDecimal(value);
+    }
+}
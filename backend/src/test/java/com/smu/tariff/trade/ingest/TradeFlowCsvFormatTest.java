@@ -0,0 +1,78 @@
+package com.smu.tariff.trade.ingest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.smu.tariff.country.Country;
+import com.smu.tariff.model.ProductCategory;
+import com.smu.tariff.trade.TradeDirection;
+
+class TradeFlowCsvFormatTest {
+
+    private TradeFlowCodes codes;
+
+    @BeforeEach
+    void setUp() {
+        Country singapore = new Country("SGP", "Singapore");
+        Country usa = new Country("USA", "United States");
+        ProductCategory electronics = new ProductCategory("ELEC", "Electronics", "8517", false);
+        ReflectionTestUtils.setField(singapore, "id", 1L);
+        ReflectionTestUtils.setField(usa, "id", 2L);
+        ReflectionTestUtils.setField(electronics, "id", 7L);
+        codes = new TradeFlowCodes(List.of(singapore, usa), List.of(electronics));
+    }
+
+    @Test
+    void readsComtradeColumnsInAnyOrder() {
+        TradeFlowCsvFormat format = TradeFlowCsvFormat.fromHeader(
+                "\uFEFFrefYear,reporterISO,reporterDesc,flowCode,partnerISO,cmdCode,primaryValue");
+
+        TradeFlowCsvFormat.Row row = format.parse("2023,usa,\"United States, of America\",M,SGP,851712,1234.50", codes);
+
+        assertThat(row).isEqualTo(new TradeFlowCsvFormat.Row(2L, 1L, 7L, TradeDirection.IMPORT,
+                new BigDecimal("1234.50"), 2023));
+    }
+
+    @Test
+    void readsOwnColumnNamesAndCategoryCodes() {
+        TradeFlowCsvFormat format = TradeFlowCsvFormat.fromHeader(
+                "reporter_code,partner_code,category_code,direction,year,trade_value");
+
+        TradeFlowCsvFormat.Row row = format.parse("SGP,USA,elec,EXPORT,2024,10", codes);
+
+        assertThat(row.direction()).isEqualTo(TradeDirection.EXPORT);
+        assertThat(row.categoryId()).isEqualTo(7L);
+    }
+
+    @Test
+    void rejectsRowsThatCannotBeLoaded() {
+        TradeFlowCsvFormat format = TradeFlowCsvFormat.fromHeader("reporter,partner,hscode,flow,year,value");
+
+        assertThatThrownBy(() -> format.parse("USA,WLD,8517,M,2023,1", codes)).hasMessageContaining("unknown partner");
+        assertThatThrownBy(() -> format.parse("USA,SGP,0101,M,2023,1", codes)).hasMessageContaining("unknown commodity");
+        assertThatThrownBy(() -> format.parse("USA,SGP,8517,RX,2023,1", codes)).hasMessageContaining("unsupported flow");
+        assertThatThrownBy(() -> format.parse("USA,SGP,8517,M,abc,1", codes)).hasMessageContaining("bad year");
+        assertThatThrownBy(() -> format.parse("USA,SGP,8517,M,2023,-5", codes)).hasMessageContaining("negative");
+        assertThatThrownBy(() -> format.parse("USA,SGP", codes)).hasMessageContaining("columns");
+    }
+
+    @Test
+    void headerWithoutARequiredColumnIsRejected() {
+        assertThatThrownBy(() -> TradeFlowCsvFormat.fromHeader("reporter,partner,hscode,flow,year"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("value");
+    }
+
+    @Test
+    void splitHonoursQuotesAndEscapedQuotes() {
+        assertThat(TradeFlowCsvFormat.split("a,\"b, \"\"c\"\"\",,d"))
+                .containsExactly("a", "b, \"c\"", "", "d");
+    }
+}
@@ -0,0 +1,154 @@
+package com.smu.tariff.trade.ingest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.smu.tariff.country.Country;
+import com.smu.tariff.country.CountryRepository;
+import com.smu.tariff.model.ProductCategory;
+import com.smu.tariff.repository.ProductCategoryRepository;
+import com.smu.tariff.trade.TradeFlowPartitions;
+import com.smu.tariff.trade.TradeFlowRollupService;
+import com.smu.tariff.trade.WeightedTradeAnalyticsService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Runs imports against H2 so the chunk writes, checkpoint updates and re-import cleanup go through real SQL.
+ * Imports manage their own transactions, so the test does not wrap them in one.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:trade-import;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=YEAR,VALUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.sql.init.mode=never"
+})
+class TradeFlowImportServiceTest {
+
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired PlatformTransactionManager transactionManager;
+    @Autowired CountryRepository countryRepository;
+    @Autowired ProductCategoryRepository productCategoryRepository;
+    @Autowired TradeFlowImportCheckpointRepository checkpointRepository;
+
+    @TempDir Path directory;
+
+    TradeFlowRollupService rollupService = mock(TradeFlowRollupService.class);
+    TradeFlowImportService service;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM trade_flow");
+        checkpointRepository.deleteAll();
+        productCategoryRepository.deleteAll();
+        countryRepository.deleteAll();
+        countryRepository.save(new Country("SGP", "Singapore"));
+        countryRepository.save(new Country("USA", "United States"));
+        productCategoryRepository.save(new ProductCategory("ELEC", "Electronics", "8517", false));
+
+        service = new TradeFlowImportService(directory.toString(), 2, 2, false, jdbcTemplate, transactionManager,
+                countryRepository, productCategoryRepository, checkpointRepository,
+                mock(WeightedTradeAnalyticsService.class), rollupService, mock(TradeFlowPartitions.class),
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    void loadsEveryRowTaggedWithItsFile() throws Exception {
+        write("flows.csv", Instant.parse("2025-01-01T00:00:00Z"), "SGP,USA,8517,M,2023,100", "SGP,USA,8517,X,2024,50",
+                "USA,SGP,8517,M,2024,25");
+
+        TradeFlowImportStatus status = service.runImport("flows.csv");
+
+        assertThat(status.status).isEqualTo("COMPLETED");
+        assertThat(status.rowsLoaded).isEqualTo(3);
+        assertThat(count("flows.csv")).isEqualTo(3);
+        assertThat(total()).isEqualByComparingTo("175");
+    }
+
+    @Test
+    void importingAnUnchangedFileAgainLoadsNothing() throws Exception {
+        write("flows.csv", Instant.parse("2025-01-01T00:00:00Z"), "SGP,USA,8517,M,2023,100");
+        service.runImport("flows.csv");
+
+        TradeFlowImportStatus again = service.runImport("flows.csv");
+
+        assertThat(again.rowsLoaded).isEqualTo(1);
+        assertThat(count("flows.csv")).isEqualTo(1);
+    }
+
+    @Test
+    void changedFileReplacesTheRowsOfItsEarlierVersion() throws Exception {
+        write("flows.csv", Instant.parse("2025-01-01T00:00:00Z"), "SGP,USA,8517,M,2023,100", "SGP,USA,8517,X,2024,50");
+        write("other.csv", Instant.parse("2025-01-01T00:00:00Z"), "USA,SGP,8517,M,2024,7");
+        service.runImport("flows.csv");
+        service.runImport("other.csv");
+
+        write("flows.csv", Instant.parse("2025-02-01T00:00:00Z"), "SGP,USA,8517,M,2023,100", "SGP,USA,8517,X,2024,50",
+                "SGP,USA,8517,X,2025,10");
+        TradeFlowImportStatus status = service.runImport("flows.csv");
+
+        assertThat(status.status).isEqualTo("COMPLETED");
+        assertThat(status.rowsLoaded).isEqualTo(3);
+        assertThat(count("flows.csv")).isEqualTo(3);
+        assertThat(count("other.csv")).isEqualTo(1);
+        assertThat(total()).isEqualByComparingTo("167");
+        TradeFlowImportCheckpoint checkpoint = checkpointRepository.findById("flows.csv").orElseThrow();
+        assertThat(checkpoint.getRowsLoaded()).isEqualTo(3);
+        assertThat(checkpoint.getFileModified()).isEqualTo(Instant.parse("2025-02-01T00:00:00Z"));
+        // The deleted rows' years are unknown to the run, so every year is rebuilt
+        verify(rollupService).refreshAll();
+    }
+
+    @Test
+    void changedFileWithNoLoadableRowsStillRemovesTheOldOnes() throws Exception {
+        write("flows.csv", Instant.parse("2025-01-01T00:00:00Z"), "SGP,USA,8517,M,2023,100");
+        service.runImport("flows.csv");
+
+        write("flows.csv", Instant.parse("2025-02-01T00:00:00Z"), "XXX,USA,8517,M,2023,100");
+        TradeFlowImportStatus status = service.runImport("flows.csv");
+
+        assertThat(status.rowsLoaded).isZero();
+        assertThat(status.rowsRejected).isEqualTo(1);
+        assertThat(count("flows.csv")).isZero();
+        verify(rollupService).refreshAll();
+    }
+
+    private void write(String fileName, Instant modified, String... rows) throws Exception {
+        Path file = directory.resolve(fileName);
+        Files.writeString(file, "reporter,partner,hscode,flow,year,value\n" + String.join("\n", rows) + "\n");
+        Files.setLastModifiedTime(file, FileTime.from(modified));
+    }
+
+    private long count(String fileName) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM trade_flow WHERE import_file = ?", Long.class, fileName);
+    }
+
+    private BigDecimal total() {
+        return jdbcTemplate.queryForObject("SELECT COALESCE(SUM(trade_value), 0) FROM trade_flow", BigDecimal.class);
+    }
+}
@@ -0,0 +1,61 @@
+package com.smu.tariff.trade.ingest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TradeFlowLineReaderTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void readsLinesAndTracksByteOffsets() throws Exception {
+        Path file = write("year,value\r\n2023,10\n\"Côte\",5");
+
+        try (TradeFlowLineReader reader = new TradeFlowLineReader(file)) {
+            assertThat(reader.nextLine()).isEqualTo("year,value");
+            assertThat(reader.offset()).isEqualTo(12);
+            assertThat(reader.nextLine()).isEqualTo("2023,10");
+            assertThat(reader.offset()).isEqualTo(20);
+            assertThat(reader.nextLine()).isEqualTo("\"Côte\",5");
+            assertThat(reader.offset()).isEqualTo(reader.size());
+            assertThat(reader.nextLine()).isNull();
+        }
+    }
+
+    @Test
+    void seekResumesAtACheckpointedOffset() throws Exception {
+        Path file = write("h\na\nb\nc\n");
+
+        try (TradeFlowLineReader reader = new TradeFlowLineReader(file)) {
+            reader.nextLine();
+            reader.seek(4);
+            assertThat(reader.nextLine()).isEqualTo("b");
+            assertThat(reader.nextLine()).isEqualTo("c");
+            assertThat(reader.nextLine()).isNull();
+        }
+    }
+
+    @Test
+    void handlesLinesLongerThanTheInitialBuffer() throws Exception {
+        String longLine = "x".repeat(10_000);
+        Path file = write(longLine + "\nend\n");
+
+        try (TradeFlowLineReader reader = new TradeFlowLineReader(file)) {
+            assertThat(reader.nextLine()).isEqualTo(longLine);
+            assertThat(reader.nextLine()).isEqualTo("end");
+        }
+    }
+
+    private Path write(String content) throws Exception {
+        Path file = dir.resolve("flows.csv");
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+}
@@ -0,0 +1,57 @@
+package com.smu.tariff.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+class BoundedExecutorsTest {
+
+    @Test
+    void rejectsWorkOnceThreadsAndQueueAreFull() throws Exception {
+        ThreadPoolExecutor executor = BoundedExecutors.newBoundedExecutor("test-pool", 1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicReference<Thread> worker = new AtomicReference<>();
+        try {
+            CountDownLatch started = new CountDownLatch(1);
+            executor.execute(() -> {
+                worker.set(Thread.currentThread());
+                started.countDown();
+                await(release);
+            });
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            executor.execute(() -> { });
+
+            assertThatThrownBy(() -> executor.execute(() -> { })).isInstanceOf(RejectedExecutionException.class);
+            assertThat(worker.get().getName()).isEqualTo("test-pool-1");
+            assertThat(worker.get().isDaemon()).isTrue();
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void nonPositiveQueueCapacityStillQueuesOneTask() {
+        ThreadPoolExecutor executor = BoundedExecutors.newBoundedExecutor("test-pool", 1, 0);
+        try {
+            assertThat(executor.getQueue().remainingCapacity()).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
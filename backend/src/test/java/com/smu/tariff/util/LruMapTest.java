@@ -0,0 +1,28 @@
+package com.smu.tariff.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class LruMapTest {
+
+    @Test
+    void evictsTheLeastRecentlyUsedEntryPastTheLimit() {
+        LruMap<String, Integer> map = new LruMap<>(2);
+        map.put("a", 1);
+        map.put("b", 2);
+        map.get("a");
+
+        map.put("c", 3);
+
+        assertThat(map).containsOnlyKeys("a", "c");
+    }
+
+    @Test
+    void zeroLimitKeepsNothing() {
+        LruMap<String, Integer> map = new LruMap<>(0);
+        map.put("a", 1);
+
+        assertThat(map).isEmpty();
+    }
+}
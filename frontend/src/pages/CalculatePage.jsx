@@ -12,6 +12,10 @@ import {
   DEFAULT_PRODUCT_CATEGORY,
 } from "../constants/referenceOptions.js";
 
+// The backend fails summaries still pending after two minutes, so polling stops around then too
+const SUMMARY_POLL_INTERVAL_MS = 1000;
+const SUMMARY_POLL_ATTEMPTS = 120;
+
 export default function CalculatePage() {
   const { countries, categories } = useReferenceOptions();
   const countryOptions = useMemo(
@@ -250,30 +254,35 @@ export default function CalculatePage() {
     }
   };
 
-  const fetchAiSummary = async (resultPayload, requestId) => {
-    if (!resultPayload) {
-      setAiSummaryLoading(false);
-      return;
-    }
+  // Summaries that are not ready when the calculation returns are generated in the
+  // background; poll until the job finishes or a newer calculation replaces this one.
+  const pollAiSummary = async (summaryId, requestId) => {
+    const setSummary = (aiSummary) =>
+      setRes((prev) =>
+        prev ? { ...prev, aiSummary: aiSummary ?? "AI summary unavailable." } : prev
+      );
 
     try {
-      const { data } = await api.post("/tariffs/summaries", resultPayload);
-      if (summaryRequestIdRef.current !== requestId) {
-        return;
+      for (let attempt = 0; attempt < SUMMARY_POLL_ATTEMPTS; attempt++) {
+        await new Promise((resolve) => setTimeout(resolve, SUMMARY_POLL_INTERVAL_MS));
+        if (summaryRequestIdRef.current !== requestId) {
+          return;
+        }
+        const { data } = await api.get(`/tariffs/summaries/${summaryId}`);
+        if (summaryRequestIdRef.current !== requestId) {
+          return;
+        }
+        if (data?.status !== "PENDING") {
+          setSummary(data?.aiSummary);
+          return;
+        }
       }
-      setRes((prev) =>
-        prev
-          ? { ...prev, aiSummary: data?.aiSummary ?? "AI summary unavailable." }
-          : prev
-      );
+      setSummary(null);
     } catch (err) {
       console.error("AI summary error:", err);
-      if (summaryRequestIdRef.current !== requestId) {
-        return;
+      if (summaryRequestIdRef.current === requestId) {
+        setSummary(null);
       }
-      setRes((prev) =>
-        prev ? { ...prev, aiSummary: "AI summary unavailable." } : prev
-      );
     } finally {
       if (summaryRequestIdRef.current === requestId) {
         setAiSummaryLoading(false);
@@ -333,12 +342,13 @@ export default function CalculatePage() {
       const requestId = summaryRequestIdRef.current + 1;
       summaryRequestIdRef.current = requestId;
 
-      const { data } = await api.post(
-        "/tariffs/calculations?includeSummary=false",
-        payload
-      );
+      const { data } = await api.post("/tariffs/calculations", payload);
       setRes(data);
-      fetchAiSummary(data, requestId);
+      if (data?.aiSummaryStatus === "PENDING" && data?.aiSummaryId) {
+        pollAiSummary(data.aiSummaryId, requestId);
+      } else {
+        setAiSummaryLoading(false);
+      }
       setRetryCount(0); // Reset retry count on success
     } catch (err) {
       console.error("Calculation error:", err);
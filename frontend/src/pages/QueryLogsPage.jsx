@@ -226,6 +226,8 @@ export default function QueryLogsPage() {
   const [loading, setLoading] = useState(false);
   const [error, setError] = useState(null);
   const [selectedLog, setSelectedLog] = useState(null);
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
 
   useEffect(() => {
     fetchLogs();
@@ -236,7 +238,8 @@ export default function QueryLogsPage() {
     setError(null);
     try {
       const res = await api.get("/query-logs");
-      setLogs(res.data || []);
+      setLogs(res.data?.items || []);
+      setNextCursor(res.data?.nextCursor || null);
     } catch (err) {
       console.error("Failed to load query logs", err);
       const httpBody = err?.response?.data;
@@ -256,6 +259,23 @@ export default function QueryLogsPage() {
     }
   }
 
+  async function loadMore() {
+    if (!nextCursor) return;
+    setLoadingMore(true);
+    try {
+      const res = await api.get("/query-logs", {
+        params: { cursor: nextCursor },
+      });
+      setLogs((prev) => prev.concat(res.data?.items || []));
+      setNextCursor(res.data?.nextCursor || null);
+    } catch (err) {
+      console.error("Failed to load more query logs", err);
+      setError(err?.formattedMessage || err?.message || "Failed to load query logs");
+    } finally {
+      setLoadingMore(false);
+    }
+  }
+
   const closeModal = () => setSelectedLog(null);
 
   return (
@@ -353,6 +373,18 @@ export default function QueryLogsPage() {
                 </tbody>
               </table>
             )}
+            {nextCursor && (
+              <div style={{ marginTop: 12, textAlign: "center" }}>
+                <button
+                  className="secondary"
+                  type="button"
+                  onClick={loadMore}
+                  disabled={loadingMore}
+                >
+                  {loadingMore ? "Loading..." : "Load more"}
+                </button>
+              </div>
+            )}
           </div>
         )}
       </div>
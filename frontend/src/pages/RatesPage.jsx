@@ -22,6 +22,9 @@ export default function RatesPage() {
   const [rows, setRows] = useState([]);
   const [error, setError] = useState(null);
   const [loading, setLoading] = useState(false);
+  const [nextCursor, setNextCursor] = useState(null);
+  const [lastParams, setLastParams] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
   const { countries, categories } = useReferenceOptions();
 
   const countryOptions = useMemo(() => {
@@ -112,7 +115,9 @@ export default function RatesPage() {
       if (destination) params.set("destination", destination);
       if (category) params.set("category", category);
       const r = await api.get("/tariffs/rates?" + params.toString());
-      setRows(r.data);
+      setRows(r.data?.items || []);
+      setNextCursor(r.data?.nextCursor || null);
+      setLastParams(params);
     } catch (err) {
       setError(err?.response?.data || "Search failed");
     } finally {
@@ -120,6 +125,22 @@ export default function RatesPage() {
     }
   };
 
+  const loadMore = async () => {
+    if (!nextCursor || !lastParams) return;
+    setLoadingMore(true);
+    try {
+      const params = new URLSearchParams(lastParams);
+      params.set("cursor", nextCursor);
+      const r = await api.get("/tariffs/rates?" + params.toString());
+      setRows((prev) => prev.concat(r.data?.items || []));
+      setNextCursor(r.data?.nextCursor || null);
+    } catch (err) {
+      setError(err?.response?.data || "Search failed");
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   return (
     <MotionWrapper>
       <div
@@ -186,6 +207,7 @@ export default function RatesPage() {
                 setDestination("");
                 setCategory("");
                 setRows([]);
+                setNextCursor(null);
                 setError(null);
               }}
               disabled={loading}
@@ -265,6 +287,19 @@ export default function RatesPage() {
             )}
           </AnimatePresence>
 
+          {nextCursor && !loading && (
+            <div style={{ marginTop: 12, textAlign: "center" }}>
+              <button
+                className="secondary"
+                type="button"
+                onClick={loadMore}
+                disabled={loadingMore}
+              >
+                {loadingMore ? "Loading..." : "Load more"}
+              </button>
+            </div>
+          )}
+
           {/* Historical Data Trend Chart */}
           {rows.length > 0 && !loading && (
             <motion.div